@@ -0,0 +1,79 @@
+/*
+ * Copyright 2018 Carlos Rodriguez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package engine.bench;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+
+import engine.core.CoreEngine;
+import game.Auschwitz;
+
+/**
+ * Runs every benchmark of the engine and prints the scores. It has to
+ * run from the folder of the game, where {@code res} is.
+ *
+ * @author Carlos Rodriguez
+ * @version 1.0
+ * @since 2018
+ */
+public class Benchmarks {
+
+	/**
+	 * Loads the game headless, adds the benchmarks and runs them.
+	 * @param args arguments, {@code -quick} runs shorter iterations,
+	 * {@code -levels 1,2,3} picks the maps, {@code -out file} writes the
+	 * scores to a file too, and anything else only runs the benchmarks
+	 * with that text in their name.
+	 * @throws FileNotFoundException if the file can't be written.
+	 */
+	public static void main(String[] args) throws FileNotFoundException {
+		Harness harness = new Harness();
+		int[] levels = new int[] {1, 2, 3};
+		String out = null;
+		for(int i = 0; i < args.length; i++) {
+			if(args[i].equals("-quick")) {
+				harness.setIterations(2, 3, 50);
+			} else if(args[i].equals("-levels") && i + 1 < args.length) {
+				String[] numbers = args[++i].split(",");
+				levels = new int[numbers.length];
+				for(int j = 0; j < numbers.length; j++)
+					levels[j] = Integer.parseInt(numbers[j].trim());
+			} else if(args[i].equals("-out") && i + 1 < args.length) {
+				out = args[++i];
+			} else {
+				harness.setFilter(args[i]);
+			}
+		}
+
+		CoreEngine engine = new CoreEngine(1280, 720, 120, new Auschwitz());
+		Auschwitz.setStartingLevel(levels[0]);
+		engine.loadHeadless();
+
+		MathBenchmarks.register(harness);
+		PhysicsBenchmarks.register(harness);
+		LevelBenchmarks.register(harness, levels);
+
+		PrintStream stream = out == null ? System.out : new PrintStream(out);
+		stream.println("# " + System.getProperty("java.vm.name") + " " + System.getProperty("java.version") + ", "
+				+ System.getProperty("os.name") + " " + System.getProperty("os.arch") + ", "
+				+ Runtime.getRuntime().availableProcessors() + " processors");
+		harness.run(stream);
+		if(stream != System.out)
+			stream.close();
+		System.exit(0);
+	}
+
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2018 Carlos Rodriguez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package engine.bench;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Locale;
+
+/**
+ * Runs the benchmarks the way JMH does it in average time mode: every
+ * benchmark is warmed up for some iterations that are thrown away, and
+ * then measured for some more, each one calling it again and again
+ * for a fixed time. The score is the mean time of one call over the
+ * measured iterations, with their standard deviation as the error.
+ * <p>
+ * What a benchmark works out goes to a {@link Sink}, so the JIT can't
+ * throw the work away.
+ *
+ * @author Carlos Rodriguez
+ * @version 1.0
+ * @since 2018
+ */
+public class Harness {
+
+	private static final int 		BATCH = 64;
+
+	private final ArrayList<String> names = new ArrayList<String>();
+	private final ArrayList<Op> 	ops = new ArrayList<Op>();
+	private final Sink 				sink = new Sink();
+	private int 					warmups = 5;
+	private int 					iterations = 5;
+	private long 					iterationTime = 200000000L;
+	private String 					filter = "";
+
+	/**
+	 * A call of a benchmark.
+	 */
+	public interface Op {
+
+		/**
+		 * Does the work once.
+		 * @param i how many times it was called before, to walk the inputs.
+		 * @param sink to give what was worked out.
+		 */
+		public void run(int i, Sink sink);
+
+	}
+
+	/**
+	 * Takes what the benchmarks work out and keeps it where the JIT
+	 * can't prove it's never read.
+	 */
+	public static class Sink {
+
+		private Object 	object;
+		private float 	value;
+
+		/**
+		 * Takes an object.
+		 * @param object worked out.
+		 */
+		public void consume(Object object) {this.object = object;}
+
+		/**
+		 * Takes a number.
+		 * @param value worked out.
+		 */
+		public void consume(float value) {this.value += value;}
+
+		/**
+		 * Takes a condition.
+		 * @param value worked out.
+		 */
+		public void consume(boolean value) {if(value) this.value++;}
+
+		/**
+		 * Returns something of what was taken, so it's read at the end.
+		 * @return Hash.
+		 */
+		private int hash() {return System.identityHashCode(object) ^ Float.floatToIntBits(value);}
+
+	}
+
+	/**
+	 * Adds a benchmark.
+	 * @param name of the benchmark, like {@code group.Class.method}.
+	 * @param op call to measure.
+	 */
+	public void add(String name, Op op) {
+		names.add(name);
+		ops.add(op);
+	}
+
+	/**
+	 * Sets how long every benchmark is run.
+	 * @param warmups iterations thrown away.
+	 * @param iterations measured.
+	 * @param milliseconds of every iteration.
+	 */
+	public void setIterations(int warmups, int iterations, int milliseconds) {
+		this.warmups = warmups;
+		this.iterations = iterations;
+		this.iterationTime = milliseconds * 1000000L;
+	}
+
+	/**
+	 * Only runs the benchmarks with this text in their name.
+	 * @param filter text to look for, empty runs them all.
+	 */
+	public void setFilter(String filter) {this.filter = filter;}
+
+	/**
+	 * Runs every benchmark that isn't filtered out, printing a line
+	 * for each one.
+	 * @param out to print.
+	 */
+	public void run(PrintStream out) {
+		out.println(String.format(Locale.ROOT, "%-48s %4s %4s %12s   %10s  %s", "Benchmark", "Mode", "Cnt", "Score", "Error", "Units"));
+		for(int i = 0; i < ops.size(); i++) {
+			if(!names.get(i).contains(filter))
+				continue;
+			Op op = ops.get(i);
+			int calls = 0;
+			for(int w = 0; w < warmups; w++)
+				calls = iterate(op, calls, null, 0);
+			double[] scores = new double[iterations];
+			for(int m = 0; m < iterations; m++)
+				calls = iterate(op, calls, scores, m);
+			double mean = 0;
+			for(double score : scores)
+				mean += score;
+			mean /= scores.length;
+			double variance = 0;
+			for(double score : scores)
+				variance += (score - mean) * (score - mean);
+			double error = scores.length > 1 ? Math.sqrt(variance / (scores.length - 1)) : Double.NaN;
+			out.println(String.format(Locale.ROOT, "%-48s %4s %4d %12.3f +- %10.3f  %s", names.get(i), "avgt", scores.length, mean, error, "ns/op"));
+		}
+		out.println("(sink " + Integer.toHexString(sink.hash()) + ")");
+	}
+
+	/**
+	 * Calls a benchmark in batches until the time of an iteration
+	 * went by, at least once.
+	 * @param op to call.
+	 * @param calls made before.
+	 * @param scores to write the nanoseconds per call, or null.
+	 * @param index of the score.
+	 * @return Calls made after.
+	 */
+	private int iterate(Op op, int calls, double[] scores, int index) {
+		long start = System.nanoTime();
+		long elapsed;
+		long done = 0;
+		int batch = 1;
+		do {
+			for(int b = 0; b < batch; b++)
+				op.run(calls++, sink);
+			done += batch;
+			elapsed = System.nanoTime() - start;
+			if(batch < BATCH)
+				batch *= 2;
+		} while(elapsed < iterationTime);
+		if(scores != null)
+			scores[index] = (double) elapsed / done;
+		return calls;
+	}
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2018 Carlos Rodriguez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package engine.bench;
+
+import static engine.core.CoreEngine.getRenderingEngine;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import engine.core.Vector2f;
+import engine.core.Vector3f;
+import engine.rendering.Bitmap;
+import engine.rendering.Mesh;
+import engine.rendering.Vertex;
+import game.Auschwitz;
+import game.Level;
+
+/**
+ * Benchmarks of the levels of the game, built from the real maps of
+ * {@code res/bitmaps}. The engine has to be loaded headless first, so
+ * the meshes and textures of the level are made without OpenGL.
+ * <p>
+ * The collisions are moves of a tick from the free spots of the map,
+ * and the intersections are the lines an enemy casts to see the player,
+ * from the free spots in random directions.
+ *
+ * @author Carlos Rodriguez
+ * @version 1.0
+ * @since 2018
+ */
+public class LevelBenchmarks {
+
+	private static final int 	INPUTS = 1024;
+	private static final int 	MASK = INPUTS - 1;
+	private static final float 	WIDTH = 0.2f;
+	private static final float 	STEP = 0.05f;
+	private static final float 	SIGHT = 1000.0f;
+	private static final int 	GRID = 64;
+
+	/**
+	 * Adds the benchmarks of some levels to a harness.
+	 * @param harness to add them.
+	 * @param levels numbers of the maps.
+	 */
+	public static void register(Harness harness, int[] levels) {
+		for(int number : levels) {
+			final Bitmap bitmap = new Bitmap("level" + number).flipX();
+			final Level level = new Level(bitmap, Auschwitz.material);
+			getRenderingEngine().clearLights();
+
+			ArrayList<Vector2f> spots = new ArrayList<Vector2f>();
+			for(int i = 0; i < bitmap.getWidth(); i++)
+				for(int j = 0; j < bitmap.getHeight(); j++)
+					if((bitmap.getPixel(i, j) & 0xFFFFFF) != 0)
+						spots.add(new Vector2f((i + 0.5f) * Level.SPOT_WIDTH, (j + 0.5f) * Level.SPOT_LENGTH));
+
+			Random random = new Random(number);
+			final Vector3f[] oldPositions = new Vector3f[INPUTS];
+			final Vector3f[] newPositions = new Vector3f[INPUTS];
+			final Vector2f[] lineStarts = new Vector2f[INPUTS];
+			final Vector2f[] lineEnds = new Vector2f[INPUTS];
+			for(int i = 0; i < INPUTS; i++) {
+				Vector2f spot = spots.get(random.nextInt(spots.size()));
+				double angle = random.nextDouble() * Math.PI * 2;
+				float x = (float) Math.cos(angle);
+				float z = (float) Math.sin(angle);
+				oldPositions[i] = new Vector3f(spot.getX(), 0, spot.getY());
+				newPositions[i] = new Vector3f(spot.getX() + x * STEP, 0, spot.getY() + z * STEP);
+				lineStarts[i] = spot;
+				lineEnds[i] = new Vector2f(spot.getX() + x * SIGHT, spot.getY() + z * SIGHT);
+			}
+
+			harness.add("level.Level.checkCollisions.level" + number, (i, sink) ->
+				sink.consume(level.checkCollisions(oldPositions[i & MASK], newPositions[i & MASK], WIDTH, WIDTH)));
+			harness.add("level.Level.checkIntersections.level" + number, (i, sink) ->
+				sink.consume(level.checkIntersections(lineStarts[i & MASK], lineEnds[i & MASK], false)));
+			harness.add("level.Level.generate.level" + number, (i, sink) -> {
+				sink.consume(new Level(bitmap, Auschwitz.material));
+				getRenderingEngine().clearLights();
+			});
+		}
+
+		final Vertex[] vertices = new Vertex[GRID * GRID * 4];
+		final int[] indices = new int[GRID * GRID * 6];
+		for(int i = 0; i < GRID; i++) {
+			for(int j = 0; j < GRID; j++) {
+				int quad = i * GRID + j;
+				vertices[quad * 4] = new Vertex(new Vector3f(i, 0, j), new Vector2f(0, 0));
+				vertices[quad * 4 + 1] = new Vertex(new Vector3f(i + 1, 0, j), new Vector2f(1, 0));
+				vertices[quad * 4 + 2] = new Vertex(new Vector3f(i + 1, 0, j + 1), new Vector2f(1, 1));
+				vertices[quad * 4 + 3] = new Vertex(new Vector3f(i, 0, j + 1), new Vector2f(0, 1));
+				indices[quad * 6] = quad * 4;
+				indices[quad * 6 + 1] = quad * 4 + 1;
+				indices[quad * 6 + 2] = quad * 4 + 2;
+				indices[quad * 6 + 3] = quad * 4;
+				indices[quad * 6 + 4] = quad * 4 + 2;
+				indices[quad * 6 + 5] = quad * 4 + 3;
+			}
+		}
+		harness.add("level.Mesh.calcNormalsTangents.grid" + GRID, (i, sink) -> sink.consume(new Mesh(vertices, indices, true, true)));
+	}
+
+}
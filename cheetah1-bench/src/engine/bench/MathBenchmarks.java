@@ -0,0 +1,110 @@
+/*
+ * Copyright 2018 Carlos Rodriguez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package engine.bench;
+
+import java.util.Random;
+
+import engine.core.Matrix4f;
+import engine.core.Quaternion;
+import engine.core.Transform;
+import engine.core.Vector3f;
+
+/**
+ * Benchmarks of the vectors, matrices, quaternions and transforms of
+ * {@link engine.core}, both the calls that make a new object and the
+ * ones that write into an existing one. The inputs are random but the
+ * same on every run.
+ *
+ * @author Carlos Rodriguez
+ * @version 1.0
+ * @since 2018
+ */
+public class MathBenchmarks {
+
+	private static final int 	INPUTS = 1024;
+	private static final int 	MASK = INPUTS - 1;
+
+	/**
+	 * Adds the benchmarks to a harness.
+	 * @param harness to add them.
+	 */
+	public static void register(Harness harness) {
+		Random random = new Random(1);
+		final Vector3f[] vectors = new Vector3f[INPUTS];
+		final Quaternion[] quaternions = new Quaternion[INPUTS];
+		final Matrix4f[] matrices = new Matrix4f[INPUTS];
+		final float[] angles = new float[INPUTS];
+		for(int i = 0; i < INPUTS; i++) {
+			vectors[i] = new Vector3f(random.nextFloat() * 64 - 32, random.nextFloat() * 2, random.nextFloat() * 64 - 32);
+			quaternions[i] = new Quaternion(random.nextFloat() - 0.5f, random.nextFloat() - 0.5f,
+					random.nextFloat() - 0.5f, random.nextFloat() - 0.5f).normalized();
+			angles[i] = random.nextFloat() * 360;
+			matrices[i] = new Matrix4f().initTransformation(vectors[i], new Vector3f(0, angles[i], 0), new Vector3f(1, 1, 1));
+		}
+		final Vector3f vector = new Vector3f(0, 0, 0);
+		final Quaternion quaternion = new Quaternion(0, 0, 0, 1);
+		final Matrix4f matrix = new Matrix4f();
+
+		harness.add("math.Vector3f.add", (i, sink) -> sink.consume(vectors[i & MASK].add(vectors[(i + 1) & MASK])));
+		harness.add("math.Vector3f.addInto", (i, sink) -> sink.consume(vectors[i & MASK].addInto(vectors[(i + 1) & MASK], vector)));
+		harness.add("math.Vector3f.sub", (i, sink) -> sink.consume(vectors[i & MASK].sub(vectors[(i + 1) & MASK])));
+		harness.add("math.Vector3f.subInto", (i, sink) -> sink.consume(vectors[i & MASK].subInto(vectors[(i + 1) & MASK], vector)));
+		harness.add("math.Vector3f.cross", (i, sink) -> sink.consume(vectors[i & MASK].cross(vectors[(i + 1) & MASK])));
+		harness.add("math.Vector3f.crossInto", (i, sink) -> sink.consume(vectors[i & MASK].crossInto(vectors[(i + 1) & MASK], vector)));
+		harness.add("math.Vector3f.normalized", (i, sink) -> sink.consume(vectors[i & MASK].normalized()));
+		harness.add("math.Vector3f.normalizedInto", (i, sink) -> sink.consume(vectors[i & MASK].normalizedInto(vector)));
+		harness.add("math.Vector3f.length", (i, sink) -> sink.consume(vectors[i & MASK].length()));
+		harness.add("math.Vector3f.lerp", (i, sink) -> sink.consume(vectors[i & MASK].lerp(vectors[(i + 1) & MASK], 0.5f)));
+		harness.add("math.Vector3f.rotate", (i, sink) -> sink.consume(vectors[i & MASK].rotate(angles[i & MASK], Vector3f.UP)));
+
+		harness.add("math.Matrix4f.mul", (i, sink) -> sink.consume(matrices[i & MASK].mul(matrices[(i + 1) & MASK])));
+		harness.add("math.Matrix4f.mulInto", (i, sink) -> sink.consume(matrices[i & MASK].mulInto(matrices[(i + 1) & MASK], matrix)));
+		harness.add("math.Matrix4f.initRotation", (i, sink) -> sink.consume(matrix.initRotation(0, angles[i & MASK], 0)));
+		harness.add("math.Matrix4f.initTransformation", (i, sink) -> {
+			Vector3f position = vectors[i & MASK];
+			sink.consume(matrix.initTransformation(position.getX(), position.getY(), position.getZ(), 0, angles[i & MASK], 0, 1, 1, 1));
+		});
+		harness.add("math.Matrix4f.translationRotationScale", (i, sink) -> {
+			Vector3f position = vectors[i & MASK];
+			sink.consume(new Matrix4f().initTranslation(position.getX(), position.getY(), position.getZ())
+					.mul(new Matrix4f().initRotation(0, angles[i & MASK], 0).mul(new Matrix4f().initScale(1, 1, 1))));
+		});
+		harness.add("math.Matrix4f.transform", (i, sink) -> sink.consume(matrices[i & MASK].transform(vectors[(i + 1) & MASK])));
+
+		harness.add("math.Quaternion.mul", (i, sink) -> sink.consume(quaternions[i & MASK].mul(quaternions[(i + 1) & MASK])));
+		harness.add("math.Quaternion.mulInto", (i, sink) -> sink.consume(quaternions[i & MASK].mulInto(quaternions[(i + 1) & MASK], quaternion)));
+		harness.add("math.Quaternion.normalized", (i, sink) -> sink.consume(quaternions[i & MASK].normalized()));
+		harness.add("math.Quaternion.NLerp", (i, sink) -> sink.consume(quaternions[i & MASK].NLerp(quaternions[(i + 1) & MASK], 0.5f, true)));
+		harness.add("math.Quaternion.NLerpInto", (i, sink) -> sink.consume(quaternions[i & MASK].NLerpInto(quaternions[(i + 1) & MASK], 0.5f, true, quaternion)));
+		harness.add("math.Quaternion.SLerp", (i, sink) -> sink.consume(quaternions[i & MASK].SLerp(quaternions[(i + 1) & MASK], 0.5f, true)));
+		harness.add("math.Quaternion.getRotationMatrix", (i, sink) -> sink.consume(quaternions[i & MASK].getRotationMatrix()));
+		harness.add("math.Quaternion.getRotationMatrixInto", (i, sink) -> sink.consume(quaternions[i & MASK].getRotationMatrixInto(matrix)));
+		harness.add("math.Quaternion.getForward", (i, sink) -> sink.consume(quaternions[i & MASK].getForward()));
+
+		final Transform still = new Transform(new Vector3f(1, 0, 1));
+		still.setRotation(0, 45, 0);
+		final Transform moving = new Transform(new Vector3f(1, 0, 1));
+		harness.add("math.Transform.getTransformation.still", (i, sink) -> sink.consume(still.getTransformation()));
+		harness.add("math.Transform.getTransformation.moving", (i, sink) -> {
+			moving.getPosition().set(vectors[i & MASK]);
+			moving.getRotation().setY(angles[i & MASK]);
+			sink.consume(moving.getTransformation());
+		});
+		harness.add("math.Transform.getTransformation.billboard", (i, sink) ->
+			sink.consume(still.getTransformation(matrices[i & MASK], i, 1)));
+	}
+
+}
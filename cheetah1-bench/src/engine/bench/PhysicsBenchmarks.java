@@ -0,0 +1,71 @@
+/*
+ * Copyright 2018 Carlos Rodriguez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package engine.bench;
+
+import java.util.Random;
+
+import engine.core.Vector2f;
+import engine.physics.PhysicsUtil;
+
+/**
+ * Benchmarks of the tests of {@link PhysicsUtil}, with moves as short
+ * as the ones of a tick and lines as long as a room, so about half
+ * of them hit something.
+ *
+ * @author Carlos Rodriguez
+ * @version 1.0
+ * @since 2018
+ */
+public class PhysicsBenchmarks {
+
+	private static final int 	INPUTS = 1024;
+	private static final int 	MASK = INPUTS - 1;
+
+	/**
+	 * Adds the benchmarks to a harness.
+	 * @param harness to add them.
+	 */
+	public static void register(Harness harness) {
+		Random random = new Random(2);
+		final Vector2f[] starts = new Vector2f[INPUTS];
+		final Vector2f[] ends = new Vector2f[INPUTS];
+		final Vector2f[] moves = new Vector2f[INPUTS];
+		final Vector2f[] rects = new Vector2f[INPUTS];
+		for(int i = 0; i < INPUTS; i++) {
+			starts[i] = new Vector2f(random.nextFloat() * 8, random.nextFloat() * 8);
+			ends[i] = new Vector2f(random.nextFloat() * 8, random.nextFloat() * 8);
+			moves[i] = starts[i].add(new Vector2f(random.nextFloat() * 0.1f - 0.05f, random.nextFloat() * 0.1f - 0.05f));
+			rects[i] = new Vector2f(random.nextFloat() * 8, random.nextFloat() * 8);
+		}
+		final Vector2f size = new Vector2f(0.2f, 0.2f);
+		final Vector2f block = new Vector2f(1, 1);
+		final Vector2f result = new Vector2f(0, 0);
+
+		harness.add("physics.PhysicsUtil.rectCollide", (i, sink) ->
+			sink.consume(PhysicsUtil.rectCollide(starts[i & MASK], moves[i & MASK], size, rects[i & MASK], block)));
+		harness.add("physics.PhysicsUtil.rectCollideInto", (i, sink) ->
+			sink.consume(PhysicsUtil.rectCollideInto(starts[i & MASK], moves[i & MASK], size, rects[i & MASK], block, result.set(1, 1))));
+		harness.add("physics.PhysicsUtil.lineIntersect", (i, sink) ->
+			sink.consume(PhysicsUtil.lineIntersect(starts[i & MASK], ends[i & MASK], starts[(i + 1) & MASK], ends[(i + 1) & MASK])));
+		harness.add("physics.PhysicsUtil.lineIntersectInto", (i, sink) ->
+			sink.consume(PhysicsUtil.lineIntersect(starts[i & MASK], ends[i & MASK], starts[(i + 1) & MASK], ends[(i + 1) & MASK], result)));
+		harness.add("physics.PhysicsUtil.lineIntersectRect", (i, sink) ->
+			sink.consume(PhysicsUtil.lineIntersectRect(starts[i & MASK], ends[i & MASK], rects[i & MASK], block)));
+		harness.add("physics.PhysicsUtil.lineIntersectRectInto", (i, sink) ->
+			sink.consume(PhysicsUtil.lineIntersectRect(starts[i & MASK], ends[i & MASK], rects[i & MASK], block, result)));
+	}
+
+}
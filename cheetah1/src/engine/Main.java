@@ -15,7 +15,12 @@
  */
 package engine;
 
+import java.io.File;
+import java.io.IOException;
+
 import engine.core.CoreEngine;
+import engine.core.InputReplay;
+import engine.core.utils.Log;
 import game.Auschwitz;
 
 /**
@@ -29,11 +34,39 @@ public class Main {
 	/**
 	 * The main method of the program, takes everything to show and put it
 	 * To work like it should.
-	 * @param args arguments.
+	 * @param args arguments, {@code -headless [level] [ticks]} runs the
+	 * simulation of a level without a window, {@code -record file [level]}
+	 * plays normally writing the input to a file and {@code -replay file [ticks]}
+	 * runs that input again without a window.
 	 */
 	public static void main(String[] args) {
 		
 		CoreEngine engine = new CoreEngine(1280, 720, 120, new Auschwitz());
+		
+		if(args.length > 0 && args[0].equals("-headless")) {
+			Auschwitz.setStartingLevel(args.length > 1 ? Integer.parseInt(args[1]) : 1);
+			engine.runHeadless(args.length > 2 ? Integer.parseInt(args[2]) : 7200);
+			return;
+		}
+		
+		if(args.length > 1 && args[0].equals("-replay")) {
+			try {
+				InputReplay replay = engine.replay(new File(args[1]));
+				Auschwitz.setStartingLevel(replay.getLevel());
+			} catch (IOException e) {
+				Log.error("Could not replay " + args[1] + ": " + e.getMessage());
+				return;
+			}
+			engine.runHeadless(args.length > 2 ? Integer.parseInt(args[2]) : Integer.MAX_VALUE);
+			return;
+		}
+		
+		if(args.length > 1 && args[0].equals("-record")) {
+			if(args.length > 2)
+				Auschwitz.setStartingLevel(Integer.parseInt(args[2]));
+			engine.record(new File(args[1]), Auschwitz.startingLevel);
+		}
+		
 		engine.createWindow("Auschwitz", true);
 		engine.run();
 	}
@@ -28,6 +28,7 @@ import javax.sound.sampled.Clip;
 import javax.sound.sampled.DataLine;
 import javax.sound.sampled.FloatControl;
 
+import engine.core.CoreEngine;
 import engine.core.Debug;
 import engine.core.crash.CrashReport;
 
@@ -49,6 +50,8 @@ public class AudioUtil {
      * @param distance Where to play.
      */
     public static void playAudio(Clip clip, float distance) {
+    	if (CoreEngine.isHeadless())
+    		return;
         
         FloatControl volume = (FloatControl) clip.getControl(FloatControl.Type.MASTER_GAIN);
 
@@ -74,6 +77,8 @@ public class AudioUtil {
      * @param midi to play.
      */
     public static void playMidi(Sequence midi) {
+    	if (CoreEngine.isHeadless())
+    		return;
         try {
             if (sequencer == null) {
                 sequencer = MidiSystem.getSequencer();
@@ -123,6 +128,9 @@ public class AudioUtil {
 	 * @return Clip.
 	 */
     public static Clip loadAudio(String fileName) {
+    	if (CoreEngine.isHeadless())
+    		return new SilentClip();
+    	
         Clip clip = null;
 
         try {
@@ -152,6 +160,6 @@ public class AudioUtil {
     /**
      * Stop the MIDI system.
      */
-    public static void stopMidi() {sequencer.stop();}
+    public static void stopMidi() {if (sequencer != null) sequencer.stop();}
     
 }
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2018 Carlos Rodriguez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package engine.audio;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.Clip;
+import javax.sound.sampled.Control;
+import javax.sound.sampled.DataLine;
+import javax.sound.sampled.Line;
+import javax.sound.sampled.LineListener;
+
+/**
+ * Clip that never touches the sound card, handed out while
+ * running headless so the game code can keep playing and stopping
+ * its sounds without a mixer.
+ *
+ * @author Carlos Rodriguez
+ * @version 1.0
+ * @since 2018
+ */
+class SilentClip implements Clip {
+
+	private static final AudioFormat FORMAT = new AudioFormat(44100, 16, 1, true, false);
+
+	public void open(AudioFormat format, byte[] data, int offset, int bufferSize) {}
+	public void open(AudioInputStream stream) {}
+	public void open() {}
+	public void close() {}
+	public boolean isOpen() {return false;}
+	public int getFrameLength() {return 0;}
+	public long getMicrosecondLength() {return 0;}
+	public void setFramePosition(int frames) {}
+	public void setMicrosecondPosition(long microseconds) {}
+	public void setLoopPoints(int start, int end) {}
+	public void loop(int count) {}
+	public void drain() {}
+	public void flush() {}
+	public void start() {}
+	public void stop() {}
+	public boolean isRunning() {return false;}
+	public boolean isActive() {return false;}
+	public AudioFormat getFormat() {return FORMAT;}
+	public int getBufferSize() {return 0;}
+	public int available() {return 0;}
+	public int getFramePosition() {return 0;}
+	public long getLongFramePosition() {return 0;}
+	public long getMicrosecondPosition() {return 0;}
+	public float getLevel() {return AudioSystem.NOT_SPECIFIED;}
+	public Line.Info getLineInfo() {return new DataLine.Info(Clip.class, FORMAT);}
+	public Control[] getControls() {return new Control[0];}
+	public boolean isControlSupported(Control.Type control) {return false;}
+	public Control getControl(Control.Type control) {throw new IllegalArgumentException(control + " is not supported by a silent clip");}
+	public void addLineListener(LineListener listener) {}
+	public void removeLineListener(LineListener listener) {}
+
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2018 Carlos Rodriguez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package engine.components;
+
+/**
+ * Component that thinks on its own. The {@link engine.core.AIScheduler}
+ * updates the ones that aren't awake less often the farther they are,
+ * giving them all the time that went by since their last update.
+ *
+ * @author Carlos Rodriguez
+ * @version 1.0
+ * @since 2018
+ */
+public interface Agent {
+
+	/**
+	 * Checks if the agent is busy with the player, like chasing or
+	 * attacking it, and has to be updated every tick.
+	 * @return If it's awake.
+	 */
+	public boolean isAwake();
+
+	/**
+	 * Checks if the agent stands still, so the others bump into it.
+	 * @return If it's quiet.
+	 */
+	public boolean isQuiet();
+
+	/**
+	 * Checks if the agent is still alive.
+	 * @return If it's alive.
+	 */
+	public boolean isAlive();
+
+}
@@ -15,6 +15,7 @@
  */
 package engine.components;
 
+import engine.core.CoreEngine;
 import engine.core.Matrix4f;
 import engine.core.Quaternion;
 import engine.core.Vector3f;
@@ -32,6 +33,15 @@ public class Camera {
     private Vector3f 	pos;
     private Quaternion 	rotation;
     private Matrix4f	projection;
+    private Vector3f 	previousPos;
+    private Quaternion 	previousRotation;
+    private long 		tick = -1;
+    
+    private Vector3f 	lerpPos;
+    private Quaternion 	lerpRotation;
+    private Matrix4f 	view;
+    private Matrix4f 	translation;
+    private Matrix4f 	viewProjection;
 
     /**
      * Movable camera constructor on a 3D space.
@@ -44,6 +54,26 @@ public class Camera {
         this.pos = new Vector3f(0, 0, 0);
         this.rotation = new Quaternion(0,0,0,1);
         this.projection = new Matrix4f().initPerspective(fov, aspect, zNear, zFar);
+        this.previousPos = new Vector3f(0, 0, 0);
+        this.previousRotation = new Quaternion(0,0,0,1);
+        this.lerpPos = new Vector3f(0, 0, 0);
+        this.lerpRotation = new Quaternion(0,0,0,1);
+        this.view = new Matrix4f();
+        this.translation = new Matrix4f();
+        this.viewProjection = new Matrix4f();
+    }
+    
+    /**
+     * Keeps where the camera was when the current tick started,
+     * it has to run before anything can move the camera.
+     */
+    private void track() {
+    	long current = CoreEngine.getTick();
+    	if(tick != current) {
+    		tick = current;
+    		previousPos.set(pos);
+    		previousRotation.Set(rotation);
+    	}
     }
 
     /**
@@ -57,13 +87,17 @@ public class Camera {
      * @param dir Direction.
      * @param amt Velocity amount.
      */
-    public void move(Vector3f dir, float amt) { pos = pos.add(dir.mul(amt)); }
+    public void move(Vector3f dir, float amt) {
+    	track();
+    	pos.set(pos.getX() + dir.getX() * amt, pos.getY() + dir.getY() * amt, pos.getZ() + dir.getZ() * amt);
+    }
     
     /**
      * Rotates the camera in the y axis by an angle.
      * @param angle to rotate
      */
     public void rotateY(float angle) {
+    	track();
 		Quaternion newRotation = new Quaternion(yAxis, -angle).normalized();
 		
 		rotation = rotation.mul(newRotation).normalized();
@@ -74,6 +108,7 @@ public class Camera {
      * @param angle to rotate
      */
 	public void rotateX(float angle) {
+		track();
 		Quaternion newRotation = new Quaternion(rotation.getRight(), -angle).normalized();
 		
 		rotation = rotation.mul(newRotation).normalized();
@@ -84,6 +119,7 @@ public class Camera {
 	 * @param quaternion to rotate
 	 */
     public void rotate(Quaternion quaternion) {
+    	track();
 		rotation = rotation.mul(quaternion).normalized();
 	}
 
@@ -103,42 +139,94 @@ public class Camera {
      * Returns the rotation of the camera.
      * @return rotation
      */
-	public Quaternion getRotation() { return rotation; }
+	public Quaternion getRotation() { track(); return rotation; }
 	
 	/**
 	 * Sets a rotation for the camera.
 	 * @param rotation to set
 	 */
-	public void setRotation(Quaternion rotation) { this.rotation = rotation; }
+	public void setRotation(Quaternion rotation) { track(); this.rotation = rotation; }
 
     /**
      * Returns the camera's actual position.
      * @return Position Coordinates.
      */
-    public Vector3f getPos() {return pos;}
+    public Vector3f getPos() {track(); return pos;}
 
     /**
-     * Sets the camera to a new position.
+     * Sets the camera to a new position, the coordinates are copied
+     * into the camera's own vector.
      * @param pos New position Coordinates.
      */
-    public void setPos(Vector3f pos) {this.pos = pos;}
+    public void setPos(Vector3f pos) {track(); this.pos.set(pos);}
+    
+    /**
+     * Returns the position between the one before and after the
+     * last tick. The vector is the same on every call, so it has to
+     * be read before the next one.
+     * @param alpha how far the display is into the next tick, from 0 to 1.
+     * @return Position Coordinates.
+     */
+    public Vector3f getPos(float alpha) {
+    	if(tick != CoreEngine.getTick() || alpha >= 1)
+    		return pos;
+    	return pos.lerpInto(previousPos, alpha, lerpPos);
+    }
 
     /**
      * Returns the forward vector of the actual camera.
      * @return forward vector.
      */
     public Vector3f getForward() {return rotation.getForward();}
+    
+    /**
+     * Writes the forward vector of the actual camera into other vector.
+     * @param dest vector to write.
+     * @return The written vector.
+     */
+    public Vector3f getForwardInto(Vector3f dest) {return rotation.getForwardInto(dest);}
+    
+    /**
+     * Returns the forward vector between the camera before and
+     * after the last tick.
+     * @param alpha how far the display is into the next tick, from 0 to 1.
+     * @return forward vector.
+     */
+    public Vector3f getForward(float alpha) {
+    	if(tick != CoreEngine.getTick() || alpha >= 1)
+    		return getForward();
+    	return previousRotation.NLerpInto(rotation, alpha, true, lerpRotation).getForward();
+    }
 
     /**
      * Gets the viewing projection matrix by the camera
-     * and returns it.
+     * and returns it. The matrix is the same on every call, so it
+     * has to be used before the next one.
      * @return viewing projection matrix
      */
 	public Matrix4f getViewProjection() {
-		Matrix4f cameraRotation = getRotation().getRotationMatrix();
-        Matrix4f cameraTranslation = new Matrix4f().initTranslation(-getPos().getX(), -getPos().getY(), -getPos().getZ());
+		getRotation().getRotationMatrixInto(view);
+        translation.initTranslation(-getPos().getX(), -getPos().getY(), -getPos().getZ());
+
+        return projection.mulInto(view.mulInto(translation, view), viewProjection);
+	}
+	
+	/**
+	 * Returns the viewing projection matrix between the camera
+	 * before and after the last tick. The matrix is the same on every
+	 * call, so it has to be used before the next one.
+	 * @param alpha how far the display is into the next tick, from 0 to 1.
+	 * @return viewing projection matrix
+	 */
+	public Matrix4f getViewProjection(float alpha) {
+		if(tick != CoreEngine.getTick() || alpha >= 1)
+			return getViewProjection();
+		
+		Vector3f lerpPos = getPos(alpha);
+		previousRotation.NLerpInto(rotation, alpha, true, lerpRotation).getRotationMatrixInto(view);
+        translation.initTranslation(-lerpPos.getX(), -lerpPos.getY(), -lerpPos.getZ());
 
-        return projection.mul(cameraRotation.mul(cameraTranslation));
+        return projection.mulInto(view.mulInto(translation, view), viewProjection);
 	}
     
 }
@@ -43,6 +43,10 @@ public class Constants {
 	public static short 	PARTICLES_LEVEL;
 	public static boolean	CLEAR_LIGHTS;
 	public static boolean	GOD;
+	public static boolean	MULTITHREADED;
+	public static int 		TICK_RATE;
+	public static int 		FRAME_RATE;
+	public static int 		AI_BUDGET;
 	
 	/**
 	 * Loads all the config language and structures all the components.
@@ -140,6 +144,30 @@ public class Constants {
 						    		else if(EFFECTS_AUDIO_LEVEL == 100)
 						    			EFFECTS_AUDIO_LEVEL = 100;
 						    		break;
+						    	case "MULTITHREADED":
+						    		treatment = SEngineUtil.getInstance().splitString(line.substring(treatment[0].length()), '='); //Removes the type name and separate line with character '='
+						    		temporaryName = treatment[0].replaceAll("\\s", ""); //Delete space
+						    		treatment = SEngineUtil.getInstance().splitString(treatment[1], ' ');
+						    		MULTITHREADED = Boolean.parseBoolean(treatment[0]);
+						    		break;
+						    	case "TICK_RATE":
+						    		treatment = SEngineUtil.getInstance().splitString(line.substring(treatment[0].length()), '='); //Removes the type name and separate line with character '='
+						    		temporaryName = treatment[0].replaceAll("\\s", ""); //Delete space
+						    		treatment = SEngineUtil.getInstance().splitString(treatment[1], ' ');
+						    		TICK_RATE = Integer.parseInt(treatment[0]);
+						    		break;
+						    	case "FRAME_RATE":
+						    		treatment = SEngineUtil.getInstance().splitString(line.substring(treatment[0].length()), '='); //Removes the type name and separate line with character '='
+						    		temporaryName = treatment[0].replaceAll("\\s", ""); //Delete space
+						    		treatment = SEngineUtil.getInstance().splitString(treatment[1], ' ');
+						    		FRAME_RATE = Integer.parseInt(treatment[0]);
+						    		break;
+						    	case "AI_BUDGET":
+						    		treatment = SEngineUtil.getInstance().splitString(line.substring(treatment[0].length()), '='); //Removes the type name and separate line with character '='
+						    		temporaryName = treatment[0].replaceAll("\\s", ""); //Delete space
+						    		treatment = SEngineUtil.getInstance().splitString(treatment[1], ' ');
+						    		AI_BUDGET = Integer.parseInt(treatment[0]);
+						    		break;
 						    	case "GOD":
 						    		treatment = SEngineUtil.getInstance().splitString(line.substring(treatment[0].length()), '='); //Removes the type name and separate line with character '='
 						    		temporaryName = treatment[0].replaceAll("\\s", ""); //Delete space
@@ -16,7 +16,7 @@
 package engine.components;
 
 import engine.core.Transform;
-import engine.core.Vector3f;
+import engine.core.Vector2f;
 import engine.rendering.RenderingEngine;
 import engine.rendering.Shader;
 import game.Level;
@@ -30,6 +30,10 @@ import game.Level;
 public abstract class GameComponent {
 	
 	private float distance;
+	private long handle = -1;
+	private int index = -1;
+	private int cell = -1;
+	private final Vector2f size = new Vector2f(0, 0);
 	public String componentType = "";
 
 	private Transform transform;
@@ -41,13 +45,43 @@ public abstract class GameComponent {
 	public float getDistance() {return distance;}
 	public void setDistance(float distance) {this.distance = distance;}
 	
+	/**
+	 * Handle given by the {@link engine.core.GameObject} that stores
+	 * the component, -1 when it isn't stored.
+	 */
+	public long getHandle() {return handle;}
+	public void setHandle(long handle) {this.handle = handle;}
+	
+	/**
+	 * Position of the component in its bucket, -1 when it isn't stored.
+	 */
+	public int getIndex() {return index;}
+	public void setIndex(int index) {this.index = index;}
+	
+	/**
+	 * Cell of the {@link engine.physics.SpatialHash} that stores the
+	 * component, -1 when it isn't stored.
+	 */
+	public int getCell() {return cell;}
+	public void setCell(int cell) {this.cell = cell;}
+	
     public void damage(int amt) {}
     
+    /**
+     * Size of the component on the floor, nothing for the ones that
+     * don't take space. The vector is the same on every call.
+     */
+    public Vector2f getSize() {return getSize(0, 0);}
+    
+    /**
+     * Writes a size into the vector {@link #getSize()} returns.
+     */
+    protected Vector2f getSize(float x, float y) {return size.set(x, y);}
+    
     /**
      * Checks the distance from the point of view.
      */
     public void checkDistance(Transform t) {
-    	Vector3f playerDistance = t.getPosition().sub(Level.getPlayer().getCamera().getPos());
-        setDistance(playerDistance.length());
+    	setDistance(t.getPosition().distance(Level.getPlayer().getCamera().getPos()));
     }
 }
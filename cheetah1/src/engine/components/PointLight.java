@@ -15,6 +15,7 @@
  */
 package engine.components;
 
+import engine.core.CoreEngine;
 import engine.core.Vector3f;
 import engine.rendering.Shader;
 import game.Level;
@@ -32,6 +33,8 @@ public class PointLight extends BaseLight {
 	private Attenuation attenuation;
 	private Vector3f 	position;
 	private float 		range;
+	private float 		distance;
+	private long 		distanceTick = -1;
 	
 	/**
 	 * Point of light object instance.
@@ -94,6 +97,19 @@ public class PointLight extends BaseLight {
 	 * Returns the point-light's distance to the camera.
 	 * @return point-light's distance
 	 */
-	public float getDistance() {return getPosition().sub(Level.getPlayer().getCamera().getPos()).length();}
+	public float getDistance() {
+		if(distanceTick != CoreEngine.getTick())
+			return getPosition().distance(Level.getPlayer().getCamera().getPos());
+		return distance;
+	}
+	
+	/**
+	 * Measures the distance to the camera once for the whole tick.
+	 * @param eye position of the camera.
+	 */
+	public void updateDistance(Vector3f eye) {
+		distance = getPosition().distance(eye);
+		distanceTick = CoreEngine.getTick();
+	}
 	
 }
\ No newline at end of file
@@ -50,11 +50,12 @@ public class SpotLight extends PointLight {
 	public Vector3f getDirection() {return direction;}
 	
 	/**
-	 * Sets a new direction to the spot of light.
+	 * Sets a new direction to the spot of light, normalized into the
+	 * vector of the light.
 	 * @param Direction to set
 	 */
 	public void setDirection(Vector3f direction) {
-		this.direction = direction.normalized();
+		direction.normalizedInto(this.direction);
 	}
 	
 	/**
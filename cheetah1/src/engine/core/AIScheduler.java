@@ -0,0 +1,151 @@
+/*
+ * Copyright 2018 Carlos Rodriguez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package engine.core;
+
+import static engine.components.Constants.AI_BUDGET;
+import static engine.components.Constants.POP_IN;
+
+import java.util.Arrays;
+
+import engine.components.Agent;
+import engine.components.GameComponent;
+
+/**
+ * Decides which {@link Agent} components are updated on a tick. The
+ * awake ones and the ones near the eye are updated every tick; the rest
+ * every 2, 4 or 8 ticks depending on how far they are, with the time
+ * of every tick they missed added up. Agents start spread over those
+ * ticks so they don't all land on the same one.
+ * <p>
+ * Once the agents of a tick took the microseconds of the budget, the
+ * ones that can wait do, until they waited too long. The budget is left
+ * out while the clock is fixed, so a replay updates the same agents the
+ * recording did.
+ *
+ * @author Carlos Rodriguez
+ * @version 1.0
+ * @since 2018
+ */
+public class AIScheduler {
+
+	private static final int 	MAX_INTERVAL = 8;
+	private static final int 	MAX_WAIT = MAX_INTERVAL * 4;
+
+	private long[] 				handles = new long[64];
+	private double[] 			pending = new double[64];
+	private int[] 				waited = new int[64];
+	private Vector3f 			eye;
+	private Vector3f 			eyePosition = new Vector3f(0, 0, 0);
+	private long 				spent;
+	private int 				updated;
+	private int 				delayed;
+
+	/**
+	 * Starts a tick. The eye is copied, so it can move while the agents
+	 * of the tick are updated.
+	 * @param eye position the distances are measured from, or null to
+	 * update every agent.
+	 */
+	public void begin(Vector3f eye) {
+		this.eye = eye == null ? null : eyePosition.set(eye);
+		spent = 0;
+		updated = 0;
+		delayed = 0;
+	}
+
+	/**
+	 * Updates an agent if it's its turn, or keeps the time for later.
+	 * @param component agent to update.
+	 * @param delta of time.
+	 */
+	public void update(GameComponent component, double delta) {
+		long handle = component.getHandle();
+		if(eye == null || handle < 0) {
+			component.update(delta);
+			updated++;
+			return;
+		}
+
+		int slot = (int) handle;
+		if(slot >= handles.length) {
+			int length = Math.max(slot + 1, handles.length * 2);
+			handles = Arrays.copyOf(handles, length);
+			pending = Arrays.copyOf(pending, length);
+			waited = Arrays.copyOf(waited, length);
+		}
+		if(handles[slot] != handle) {
+			handles[slot] = handle;
+			pending[slot] = 0;
+			waited[slot] = slot % MAX_INTERVAL;
+		}
+		pending[slot] += delta;
+		waited[slot]++;
+
+		if(!((Agent) component).isAwake()) {
+			if(waited[slot] < getInterval(component.getTransform().getPosition())
+					|| (AI_BUDGET > 0 && !Time.isFixed() && spent >= AI_BUDGET * 1000L && waited[slot] < MAX_WAIT)) {
+				delayed++;
+				return;
+			}
+		}
+
+		double time = pending[slot];
+		pending[slot] = 0;
+		waited[slot] = 0;
+		long start = System.nanoTime();
+		component.update(time);
+		spent += System.nanoTime() - start;
+		updated++;
+	}
+
+	/**
+	 * Returns every how many ticks an agent that isn't awake is updated.
+	 * @param position of the agent.
+	 * @return Ticks.
+	 */
+	private int getInterval(Vector3f position) {
+		float dx = position.getX() - eye.getX();
+		float dz = position.getZ() - eye.getZ();
+		float distance = dx * dx + dz * dz;
+		float near = POP_IN / 3;
+		if(distance < near * near)
+			return 1;
+		else if(distance < POP_IN * POP_IN)
+			return 2;
+		else if(distance < 4 * POP_IN * POP_IN)
+			return 4;
+		return MAX_INTERVAL;
+	}
+
+	/**
+	 * Returns how many agents were updated on the tick.
+	 * @return Updated agents.
+	 */
+	public int getUpdated() {return updated;}
+
+	/**
+	 * Returns how many agents waited on the tick.
+	 * @return Delayed agents.
+	 */
+	public int getDelayed() {return delayed;}
+
+	/**
+	 * Returns how long the agents took on the tick.
+	 * @return Time in nanoseconds.
+	 */
+	public long getSpent() {return spent;}
+
+}
@@ -15,14 +15,28 @@
  */
 package engine.core;
 
+import static engine.components.Constants.FRAME_RATE;
+import static engine.components.Constants.MULTITHREADED;
+import static engine.components.Constants.TICK_RATE;
 import static org.lwjgl.opengl.GL11.*;
 //import static org.lwjgl.openal.AL10.*;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
 import javax.swing.JOptionPane;
 
+import org.lwjgl.LWJGLException;
+import org.lwjgl.opengl.Drawable;
+
 import engine.audio.AudioUtil;
 import engine.core.crash.CrashReport;
 import engine.core.utils.Log;
+import engine.core.utils.RandomUtil;
+import engine.rendering.RenderSnapshot;
 import engine.rendering.RenderingEngine;
 import engine.rendering.Window;
 
@@ -37,12 +51,24 @@ public class CoreEngine {
 	private int 					width;
 	private int 					height;
 	private double 					frameTime;
+	private double 					renderTime;
 	private boolean 				fullscreen;
-	private boolean 				isRunning;
+	private volatile boolean 		isRunning;
 	private String 					title;
 	private Game 					game;
 	private static RenderingEngine 	renderingEngine;
 	private static CoreEngine 		coreEngine;
+	private static boolean 			headless;
+	private static long 			tick;
+	private volatile Thread 		displayThread;
+	private File 					recordFile;
+	private int 					recordLevel;
+	private InputReplay 			replay;
+	private double 					clockBase;
+	
+	private final AtomicReference<RenderSnapshot> 		publishedSnapshot = new AtomicReference<RenderSnapshot>();
+	private final ConcurrentLinkedQueue<RenderSnapshot> freeSnapshots = new ConcurrentLinkedQueue<RenderSnapshot>();
+	private final FramePacer 							pacer = new FramePacer();
 	
 	/**
 	 * Constructor for the engine display.
@@ -117,21 +143,45 @@ public class CoreEngine {
     	
     	isRunning = true;
 
-		int frames = 0;
-        double frameCounter = 0;
-
         renderingEngine = new RenderingEngine();
         
+        prepareInput();
         game.init();
         
-        double lastTime = Time.getTime();
+        if (TICK_RATE > 0)
+        	frameTime = 1.0/TICK_RATE;
+        startInput();
+        if (FRAME_RATE > 0)
+        	renderTime = 1.0/FRAME_RATE;
+        
+        if (MULTITHREADED)
+        	runThreaded();
+        else
+        	runSingleThreaded();
+        
+        cleanUp();
+    }
+    
+    /**
+     * Runs the input, the updates and the rendering one after the other
+     * on the thread that owns the display. With a frame rate set the
+     * frames are drawn at that rate, interpolated between the last two
+     * ticks, otherwise one frame is drawn after every batch of updates.
+     */
+    private void runSingleThreaded() {
+    	
+		int frames = 0;
+        double frameCounter = 0;
+        
+        double lastTime = Time.getRealTime();
+        double lastFrame = lastTime;
         double unprocessedTime = 0;
 
         while (isRunning) {
 
-            boolean render = false;
+            boolean updated = false;
 
-            double startTime = Time.getTime();
+            double startTime = Time.getRealTime();
             double passedTime = startTime - lastTime;
             lastTime = startTime;
 
@@ -140,17 +190,23 @@ public class CoreEngine {
 
             while (unprocessedTime > frameTime) {
 
-                render = true;
+                updated = true;
 
                 unprocessedTime -= frameTime;
 
                 if (Window.isCloseRequested())
                     stop();
 
+                tick++;
+                Profiler.begin("Input");
+                Input.poll();
                 game.input();
                 Input.update();
+                Profiler.end();
                 
+                Profiler.begin("Update");
                 game.update(frameTime);
+                Profiler.end();
 
                 if (frameCounter >= 1.0) {
                 	Debug.setFps(frames);
@@ -160,26 +216,310 @@ public class CoreEngine {
                 }
             }
             
-            if (render) {
+            if (renderTime > 0 ? startTime - lastFrame >= renderTime : updated) {
+            	lastFrame = startTime;
+            	renderingEngine.setInterpolation(getInterpolation(unprocessedTime));
                 render();
+                Profiler.endFrame("Frame");
                 frames++;
             } else {
-                try {
-                    Thread.sleep(1);
-                } catch (InterruptedException e) {
-                	Log.fatal("Core Error!");
-                }
+            	pacer.sleep(getWaitTime(unprocessedTime, startTime - lastFrame));
             }
         }
-        cleanUp();
+    }
+    
+    /**
+     * Runs the simulation on its own thread at the fixed frame-time while
+     * this thread only replays the last published frame to OpenGL, so a
+     * slow buffer swap never holds the updates back.
+     */
+    private void runThreaded() {
+    	
+    	final Drawable sharedContext = Window.createSharedContext();
+    	displayThread = Thread.currentThread();
+    	
+    	Thread simulation = new Thread(new Runnable() {
+    		public void run() {simulate(sharedContext);}
+    	}, "Simulation");
+    	simulation.start();
+    	
+    	int frames = 0;
+        double frameCounter = 0;
+        double lastTime = Time.getRealTime();
+        
+        while (isRunning) {
+        	
+        	double startTime = Time.getRealTime();
+            frameCounter += startTime - lastTime;
+            lastTime = startTime;
+            
+            if (Window.isCloseRequested())
+                stop();
+            
+            RenderSnapshot snapshot = publishedSnapshot.getAndSet(null);
+            
+            if (snapshot != null) {
+            	Profiler.begin("Replay");
+            	snapshot.replay();
+            	Profiler.end();
+            	Profiler.begin("Display.update");
+            	Window.render();
+            	Profiler.end();
+            	freeSnapshots.offer(snapshot);
+            	Profiler.endFrame("Frame");
+            	frames++;
+            } else {
+            	Window.processMessages();
+            	//Woken up by the simulation as soon as it publishes a frame
+            	LockSupport.parkNanos((long) (frameTime * 1000000000.0));
+            }
+            
+            if (frameCounter >= 1.0) {
+            	Debug.setFps(frames);
+            	Debug.setFrametime(1000.0f/frames);
+                frames = 0;
+                frameCounter = 0;
+            }
+        }
+        
+        try {
+			simulation.join();
+		} catch (InterruptedException e) {
+			Log.fatal("Core Error!");
+		}
+    }
+    
+    /**
+     * Body of the simulation thread, updates the game at the fixed
+     * frame-time and after every batch of updates records the frame
+     * into a snapshot that the display thread can pick up.
+     * @param sharedContext to load resources from this thread.
+     */
+    private void simulate(Drawable sharedContext) {
+    	try {
+    		sharedContext.makeCurrent();
+    	} catch (LWJGLException e) {
+    		Debug.crash(new CrashReport(e));
+    	}
+    	
+    	double lastTime = Time.getRealTime();
+    	double lastFrame = lastTime;
+        double unprocessedTime = 0;
+        
+        while (isRunning) {
+        	
+        	boolean updated = false;
+        	
+        	double startTime = Time.getRealTime();
+        	unprocessedTime += startTime - lastTime;
+            lastTime = startTime;
+            
+            while (unprocessedTime > frameTime) {
+            	
+            	updated = true;
+            	
+            	unprocessedTime -= frameTime;
+            	
+            	tick++;
+            	Profiler.begin("Input");
+            	Input.poll();
+            	game.input();
+                Input.update();
+                Profiler.end();
+                
+                Profiler.begin("Update");
+                game.update(frameTime);
+                Profiler.end();
+            }
+            
+            if (renderTime > 0 ? startTime - lastFrame >= renderTime : updated) {
+            	lastFrame = startTime;
+            	renderingEngine.setInterpolation(getInterpolation(unprocessedTime));
+            	
+            	RenderSnapshot snapshot = freeSnapshots.poll();
+            	if (snapshot == null)
+            		snapshot = new RenderSnapshot();
+            	
+            	Profiler.begin("Record");
+            	snapshot.begin(tick);
+            	try {
+            		game.render(renderingEngine);
+            	} finally {
+            		snapshot.end();
+            	}
+            	//Resources uploaded by this tick must reach the GPU before the display uses them
+            	glFlush();
+            	Profiler.end();
+            	
+            	RenderSnapshot stale = publishedSnapshot.getAndSet(snapshot);
+            	if (stale != null)
+            		freeSnapshots.offer(stale);
+            	LockSupport.unpark(displayThread);
+            	Profiler.endFrame("Simulation");
+            } else {
+            	pacer.sleep(getWaitTime(unprocessedTime, startTime - lastFrame));
+            }
+        }
+        
+        try {
+			sharedContext.releaseContext();
+		} catch (LWJGLException e) {
+			Debug.crash(new CrashReport(e));
+		}
+    }
+
+    /**
+     * Runs the game without a display nor an OpenGL context: meshes,
+     * textures, shaders and sounds are created as empty handles and the
+     * updates are ticked back to back as fast as the processor allows,
+     * printing what a single tick costs.
+     * @param ticks to simulate.
+     */
+    public void runHeadless(int ticks) {
+    	
+    	double loadStart = Time.getRealTime();
+    	loadHeadless();
+    	double loadTime = Time.getRealTime() - loadStart;
+    	
+    	if (TICK_RATE > 0)
+        	frameTime = 1.0/TICK_RATE;
+    	startInput();
+    	
+    	double worstTick = 0;
+    	double startTime = Time.getRealTime();
+    	int simulated;
+    	
+    	for (simulated = 0; simulated < ticks && isRunning; simulated++) {
+    		double tickStart = Time.getRealTime();
+    		
+    		tick++;
+    		Profiler.begin("Input");
+    		Input.poll();
+    		game.input();
+    		Input.update();
+    		Profiler.end();
+    		
+    		Profiler.begin("Update");
+    		game.update(frameTime);
+    		Profiler.end();
+    		Profiler.endFrame("Tick");
+    		
+    		worstTick = Math.max(worstTick, Time.getRealTime() - tickStart);
+    	}
+    	
+    	double totalTime = Time.getRealTime() - startTime;
+    	Profiler.Scope tickScope = Profiler.getScope("Tick");
+    	
+    	Log.message(game.getName() + " headless: load " + (float) (loadTime * 1000.0) + "ms, " + simulated + " ticks in " 
+    			+ (float) (totalTime * 1000.0) + "ms, average " + (float) (totalTime * 1000000.0 / Math.max(simulated, 1)) 
+    			+ "us, p99 " + (tickScope == null ? 0 : tickScope.getPercentile(0.99) / 1000.0f) 
+    			+ "us, worst " + (float) (worstTick * 1000000.0) + "us");
+    	
+    	cleanUp();
+    }
+
+    /**
+     * Loads the game without a display nor an OpenGL context and
+     * without ticking it, so its parts can be measured on their own.
+     */
+    public void loadHeadless() {
+    	
+    	headless = true;
+    	isRunning = true;
+    	
+    	renderingEngine = new RenderingEngine();
+    	
+    	prepareInput();
+    	game.init();
+    }
+
+    /**
+     * Records the input of the next run to a file.
+     * @param file to write.
+     * @param level the game starts on.
+     */
+    public void record(File file, int level) {
+    	this.recordFile = file;
+    	this.recordLevel = level;
+    }
+    
+    /**
+     * Plays the input of the next run back from a file.
+     * @param file to read.
+     * @return Replay, to know the level the recording started on.
+     * @throws IOException if the file is not a recording.
+     */
+    public InputReplay replay(File file) throws IOException {
+    	replay = new InputReplay(file);
+    	return replay;
+    }
+    
+    /**
+     * Seeds the random generator and fixes the game clock before the
+     * game loads, when the input is recorded or replayed.
+     */
+    private void prepareInput() {
+    	if (replay != null) {
+    		RandomUtil.setSeed(replay.getSeed());
+    		Time.setFixedClock(replay.getClockBase(), replay.getStep());
+    	} else if (recordFile != null) {
+    		clockBase = Time.getRealTime();
+    		RandomUtil.setSeed(System.nanoTime());
+    		Time.setFixedClock(clockBase, frameTime);
+    	}
+    }
+    
+    /**
+     * Starts the recording or the replay once the frame-time of the
+     * game is known, a replay runs at the frame-time it was recorded.
+     */
+    private void startInput() {
+    	if (replay != null) {
+    		frameTime = replay.getStep();
+    		Input.replay(replay);
+    	} else if (recordFile != null) {
+    		Time.setFixedClock(clockBase, frameTime);
+    		try {
+    			Input.record(new InputRecorder(recordFile, recordLevel, RandomUtil.getSeed(), clockBase, frameTime));
+    		} catch (IOException e) {
+    			Log.error("Could not record the input to " + recordFile + ": " + e.getMessage());
+    		}
+    	}
+    }
+    
+    /**
+     * Returns how far the next frame is between the last tick and the
+     * next one, frames drawn after every batch of updates are not
+     * interpolated.
+     * @param unprocessedTime not simulated yet.
+     * @return Interpolation from 0 to 1.
+     */
+    private float getInterpolation(double unprocessedTime) {
+    	return renderTime > 0 ? (float) Math.min(1.0, unprocessedTime/frameTime) : 1.0f;
+    }
+    
+    /**
+     * Returns how long the loop can wait before the next tick or
+     * frame is due.
+     * @param unprocessedTime not simulated yet.
+     * @param sinceFrame time since the last frame.
+     * @return Time to wait in seconds.
+     */
+    private double getWaitTime(double unprocessedTime, double sinceFrame) {
+    	double toTick = frameTime - unprocessedTime;
+    	return renderTime > 0 ? Math.min(toTick, renderTime - sinceFrame) : toTick;
     }
 
     /**
      * Method that renders everything to render.
      */
     private void render() {
+    	Profiler.begin("Render");
         game.render(renderingEngine);   
+        Profiler.end();
+        Profiler.begin("Display.update");
         Window.render();
+        Profiler.end();
     }
 	
 	/**
@@ -214,7 +554,14 @@ public class CoreEngine {
 	/**
      * Method that cleans everything in the program's window.
      */
-    public void cleanUp() {Window.dispose(); AudioUtil.stopMidi();}
+    public void cleanUp() {
+    	if (headless) {
+    		AudioUtil.stopMidi();
+    		System.exit(0);
+    	}
+    	Window.dispose(); 
+    	AudioUtil.stopMidi();
+    }
 
 	/**
 	 * Returns the main game.
@@ -222,6 +569,31 @@ public class CoreEngine {
 	 */
 	public Game getGame() {return game;}
 	
+	/**
+	 * Returns the width of the display.
+	 * @return Width
+	 */
+	public int getWidth() {return width;}
+	
+	/**
+	 * Returns the height of the display.
+	 * @return Height
+	 */
+	public int getHeight() {return height;}
+	
+	/**
+	 * Returns how many ticks have been simulated, transforms use it
+	 * to know if they moved during the last one.
+	 * @return Tick
+	 */
+	public static long getTick() {return tick;}
+	
+	/**
+	 * Returns if the engine runs without display.
+	 * @return Headless state
+	 */
+	public static boolean isHeadless() {return headless;}
+	
 	/**
 	 * Returns the main engine instance.
 	 * @return Engine instance
@@ -20,6 +20,9 @@ import static org.lwjgl.opengl.GL11.*;
 
 import java.io.File;
 import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
 import java.util.HashMap;
 
 import engine.core.crash.CrashReport;
@@ -38,17 +41,22 @@ public class Debug {
 	
 	private static final float 					X_MARGIN = 0.5f;
 	private static final int 					MB = 1048576;
+	private static final int 					PROFILE_LINES = 5;
+	private static final double 				REFRESH_TIME = 0.5;
 	
 	private static double 						fps;
 	private static double						frametime;
 	
-	private static int 							worstFPS = -1;
+	private static int 							worstFPS;
 	private static int 							averageFPS;
 	private static int 							bestFPS;
 	
 	private static int 							totalMemory = 0;
 	private static int 							freeMemory = 0;
 	private static int 							cpu = 0;
+	private static long 						lastCpuTime;
+	private static long 						lastWallTime;
+	private static double 						lastRefresh;
 	
 	public static boolean 						state;
 	public static boolean 						godMode;
@@ -74,10 +82,12 @@ public class Debug {
 		debugText.put("Y",new HUD("", new Vector2f(X_MARGIN + 0.25f,1.0f), new Vector2f(0.5f,0.5f)));
 		debugText.put("Z",new HUD("", new Vector2f(X_MARGIN + 0.25f,0.9f), new Vector2f(0.5f,0.5f)));
 		debugText.put("OS",new HUD("OS:"+System.getProperty("os.name"), new Vector2f(X_MARGIN,0.8f), new Vector2f(0.5f,0.5f)));
-		debugText.put("LWJGL",new HUD("LWJGL:"+getVersion(), new Vector2f(X_MARGIN,0.7f), new Vector2f(0.5f,0.5f)));
-		debugText.put("OpenGL",new HUD("OpenGL:"+glGetString(GL_VERSION), new Vector2f(X_MARGIN,0.6f), new Vector2f(0.5f,0.5f)));
+		debugText.put("LWJGL",new HUD("LWJGL:"+(CoreEngine.isHeadless() ? "none" : getVersion()), new Vector2f(X_MARGIN,0.7f), new Vector2f(0.5f,0.5f)));
+		debugText.put("OpenGL",new HUD("OpenGL:"+(CoreEngine.isHeadless() ? "none" : glGetString(GL_VERSION)), new Vector2f(X_MARGIN,0.6f), new Vector2f(0.5f,0.5f)));
 		debugText.put("Damage",new HUD("", new Vector2f(X_MARGIN,0.5f), new Vector2f(0.5f,0.5f)));
 		debugText.put("Speed",new HUD("", new Vector2f(X_MARGIN,0.4f), new Vector2f(0.5f,0.5f)));
+		for(int i = 0; i < PROFILE_LINES; i++)
+			debugText.put("Profile" + i,new HUD("", new Vector2f(X_MARGIN,0.3f - i * 0.1f), new Vector2f(0.5f,0.5f)));
 	}
 	
 	/**
@@ -97,17 +107,13 @@ public class Debug {
 	    	int mem = (usingMemory*100/totalMemory);
 	    	debugText.get("Memory").setText("Mem:"+mem+"% "+usingMemory+"/"+totalMemory+"MB");
 	    	debugText.get("Memory").render(renderingEngine);
-	    	long end = System.nanoTime();
 	    	int cpus = Runtime.getRuntime().availableProcessors();
-	        long totalAvailCPUTime = cpus * (end-System.nanoTime());
-	        long totalUsedCPUTime = ManagementFactory.getThreadMXBean().getCurrentThreadCpuTime()-ManagementFactory.getThreadMXBean().getCurrentThreadCpuTime();
-	        cpu = (int) (((float)totalUsedCPUTime*10)/(float)totalAvailCPUTime);
-	        debugText.get("CPU").setText("CPU:"+Util.clamp(100, cpu)+"% "+cpus+" cores");
+	    	if(Time.getRealTime() - lastRefresh >= REFRESH_TIME) {
+	    		lastRefresh = Time.getRealTime();
+	    		refreshProfile(cpus);
+	    	}
+	        debugText.get("CPU").setText((cpu < 0 ? "CPU:" : "CPU:"+Util.clamp(100, cpu)+"% ")+cpus+" cores");
 	        debugText.get("CPU").render(renderingEngine);
-	        if(fps >= bestFPS) bestFPS = (int) fps;
-	        averageFPS = (bestFPS+worstFPS)/2;
-	        if(worstFPS == -1) worstFPS = averageFPS; else
-	        if(fps <= worstFPS) worstFPS = (int) fps;
 	        debugText.get("FPSMeasure").setText("wFPS:"+worstFPS+" aFPS:"+averageFPS+" bFPS:"+bestFPS);
 	        debugText.get("FPSMeasure").render(renderingEngine);
 	        debugText.get("Position").render(renderingEngine);
@@ -126,9 +132,81 @@ public class Debug {
 		        debugText.get("Damage").render(renderingEngine);
 		        debugText.get("Speed").render(renderingEngine);
 	        }
+	        for(int i = 0; i < PROFILE_LINES; i++)
+	        	debugText.get("Profile" + i).render(renderingEngine);
 		}
 	}
 	
+	/**
+	 * Measures the process CPU usage since the last refresh and reads the
+	 * frame rates and slowest scopes out of the profiler.
+	 * @param cpus available to the process
+	 */
+	private static void refreshProfile(int cpus) {
+		long wallTime = System.nanoTime();
+		long cpuTime = getCpuTime();
+		if(cpuTime < 0)
+			cpu = -1;
+		else if(lastWallTime != 0 && wallTime > lastWallTime)
+			cpu = (int) (Math.max(0, cpuTime - lastCpuTime) * 100 / ((wallTime - lastWallTime) * cpus));
+		lastCpuTime = cpuTime;
+		lastWallTime = wallTime;
+		
+		Profiler.Scope frame = Profiler.getScope("Frame");
+		if(frame != null) {
+			long[] samples = frame.getSamples();
+			worstFPS = frameRate(Profiler.percentile(samples, 0.99));
+			averageFPS = frameRate(Profiler.mean(samples));
+			bestFPS = frameRate(Profiler.percentile(samples, 0.0));
+		}
+		
+		ArrayList<Profiler.Scope> slowest = Profiler.getTopScopes(PROFILE_LINES);
+		for(int i = 0; i < PROFILE_LINES; i++) {
+			String text = "";
+			if(i < slowest.size()) {
+				Profiler.Scope scope = slowest.get(i);
+				long[] samples = scope.getSamples();
+				text = scope.getPath().substring(scope.getPath().lastIndexOf('/') + 1) + " p50:" + millis(Profiler.percentile(samples, 0.5)) 
+						+ " p95:" + millis(Profiler.percentile(samples, 0.95)) + " p99:" + millis(Profiler.percentile(samples, 0.99)) + "ms";
+			}
+			debugText.get("Profile" + i).setText(text);
+		}
+	}
+	
+	/**
+	 * Returns the CPU time the process took so far, from the operating
+	 * system bean when the JVM has the one that tells it, or else added
+	 * up from the time of every thread.
+	 * @return CPU time in nanoseconds, or -1 if the JVM can't measure it.
+	 */
+	private static long getCpuTime() {
+		OperatingSystemMXBean system = ManagementFactory.getOperatingSystemMXBean();
+		if(system instanceof com.sun.management.OperatingSystemMXBean)
+			return ((com.sun.management.OperatingSystemMXBean) system).getProcessCpuTime();
+		
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if(!threads.isThreadCpuTimeSupported() || !threads.isThreadCpuTimeEnabled())
+			return -1;
+		long cpuTime = 0;
+		for(long id : threads.getAllThreadIds())
+			cpuTime += Math.max(0, threads.getThreadCpuTime(id));
+		return cpuTime;
+	}
+	
+	/**
+	 * Converts a frame time to frames per second.
+	 * @param nanos of the frame
+	 * @return Frames per second
+	 */
+	private static int frameRate(long nanos) { return nanos == 0 ? 0 : (int) (1000000000L / nanos); }
+	
+	/**
+	 * Converts nanoseconds to milliseconds with two decimals.
+	 * @param nanos to convert
+	 * @return Milliseconds
+	 */
+	private static float millis(long nanos) { return Math.round(nanos / 10000.0f) / 100.0f; }
+	
 	/**
 	 * Enables or disables the god mode to some player.
 	 * @param godMode to set
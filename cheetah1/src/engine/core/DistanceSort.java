@@ -0,0 +1,75 @@
+/*
+ * Copyright 2018 Carlos Rodriguez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package engine.core;
+
+import java.util.ArrayList;
+
+import engine.components.GameComponent;
+
+/**
+ * Sorts components from the farthest to the nearest to a point. The
+ * squared distance of every component is worked out once into an array
+ * before sorting, and the sort is an insertion sort: the list keeps its
+ * order between frames and things barely move in one, so it's almost
+ * sorted already and each component only moves a few places.
+ *
+ * @author Carlos Rodriguez
+ * @version 1.0
+ * @since 2018
+ */
+public class DistanceSort {
+
+	private float[] 		keys = new float[16];
+
+	/**
+	 * Sorts a list, the farthest component first. Components at the
+	 * same distance keep their order.
+	 * @param list to sort.
+	 * @param eye position the components are sorted from.
+	 */
+	public void sort(ArrayList<GameComponent> list, Vector3f eye) {
+		int size = list.size();
+		if(keys.length < size)
+			keys = new float[Math.max(size, keys.length * 2)];
+
+		float eyeX = eye.getX();
+		float eyeY = eye.getY();
+		float eyeZ = eye.getZ();
+		for(int i = 0; i < size; i++) {
+			Vector3f position = list.get(i).getTransform().getPosition();
+			float dx = position.getX() - eyeX;
+			float dy = position.getY() - eyeY;
+			float dz = position.getZ() - eyeZ;
+			keys[i] = dx * dx + dy * dy + dz * dz;
+		}
+
+		for(int i = 1; i < size; i++) {
+			float key = keys[i];
+			if(keys[i - 1] >= key)
+				continue;
+			GameComponent component = list.get(i);
+			int j = i - 1;
+			while(j >= 0 && keys[j] < key) {
+				keys[j + 1] = keys[j];
+				list.set(j + 1, list.get(j));
+				j--;
+			}
+			keys[j + 1] = key;
+			list.set(j + 1, component);
+		}
+	}
+
+}
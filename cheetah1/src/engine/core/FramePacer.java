@@ -0,0 +1,77 @@
+/*
+ * Copyright 2018 Carlos Rodriguez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package engine.core;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Waits for the next frame deadline without burning a core: the
+ * thread is parked for most of the wait and only spins the last
+ * stretch, which grows or shrinks with how late the parks wake up
+ * on this machine. How far from the deadline it woke is reported to
+ * the {@link Profiler} as {@code Pacing error}.
+ *
+ * @author Carlos Rodriguez
+ * @version 1.0
+ * @since 2018
+ */
+public class FramePacer {
+
+	private static final long 		MIN_SPIN = 50000;
+	private static final long 		MAX_SPIN = 2000000;
+
+	private long 					spin = 500000;
+	private long 					lastError;
+
+	/**
+	 * Waits until some time has passed.
+	 * @param seconds to wait.
+	 */
+	public void sleep(double seconds) {
+		long deadline = System.nanoTime() + (long) (seconds * 1000000000.0);
+		long remaining = deadline - System.nanoTime();
+
+		while (remaining > spin) {
+			long park = remaining - spin;
+			long parkStart = System.nanoTime();
+			LockSupport.parkNanos(park);
+			long overshoot = System.nanoTime() - parkStart - park;
+			//Keeps the spin around twice the usual park overshoot
+			spin = Math.max(MIN_SPIN, Math.min(MAX_SPIN, (spin * 7 + Math.max(0, overshoot) * 2) / 8));
+			remaining = deadline - System.nanoTime();
+		}
+
+		//Java 8 has no spin hint, so the last stretch yields instead
+		while (deadline - System.nanoTime() > 0)
+			Thread.yield();
+
+		lastError = System.nanoTime() - deadline;
+		Profiler.sample("Pacing error", lastError);
+	}
+
+	/**
+	 * Returns how late the last wait woke up.
+	 * @return Error in nanoseconds.
+	 */
+	public long getLastError() {return lastError;}
+
+	/**
+	 * Returns how long the waits spin before the deadline.
+	 * @return Spin in nanoseconds.
+	 */
+	public long getSpin() {return spin;}
+
+}
@@ -18,14 +18,30 @@ package engine.core;
 import static engine.components.Constants.*;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 
+import engine.components.Agent;
 import engine.components.GameComponent;
 import engine.rendering.RenderingEngine;
 import engine.rendering.Shader;
-import game.Level;
-import game.enemies.NaziSoldier;
 
 /**
+ * Holds every component of a level in one bucket per class, so each
+ * pass walks contiguous lists of the same type and the checks that
+ * depend on the type are done once per bucket instead of once per
+ * component.
+ * <p>
+ * Every stored component gets a handle made of a slot and the
+ * generation of that slot. Destroying a component kills its handle
+ * right away but leaves it in its bucket until {@link #compact()},
+ * which takes it out by moving the last component of the bucket
+ * into its place.
+ * <p>
+ * Classes can be tagged with bits for what they are, like solid or
+ * damageable. Every tag keeps the list of the buckets that have it, so
+ * a system walks the components it cares about and nothing else.
  *
  * @author Carlos Rodriguez
  * @version 1.0
@@ -33,21 +49,69 @@ import game.enemies.NaziSoldier;
  */
 public class GameObject {
 	
-	private ArrayList <GameComponent> components;
+	private ArrayList<Bucket> 				buckets;
+	private HashMap<Class<?>, Bucket> 		types;
+	private ArrayList<GameComponent> 		slots;
+	private int[] 							generations;
+	private int[] 							free;
+	private int 							freeSlots;
+	private ArrayList<GameComponent> 		destroyed;
+	private HashSet<Class<?>> 				sortedTypes;
+	private HashSet<Class<?>> 				unculledTypes;
+	private long 							sortedFrame = -1;
+	private AIScheduler 					scheduler;
+	private HashMap<Class<?>, Integer> 		typeTags;
+	private ArrayList<ArrayList<Bucket>> 	indexes;
+	private HashMap<Class<?>, Integer> 		ranks;
 	
 	/**
 	 * Game Object's constructor.
 	 */
 	public GameObject() {
-		components = new ArrayList<GameComponent>();
+		buckets = new ArrayList<Bucket>();
+		types = new HashMap<Class<?>, Bucket>();
+		slots = new ArrayList<GameComponent>();
+		generations = new int[64];
+		free = new int[64];
+		destroyed = new ArrayList<GameComponent>();
+		sortedTypes = new HashSet<Class<?>>();
+		unculledTypes = new HashSet<Class<?>>();
+		scheduler = new AIScheduler();
+		typeTags = new HashMap<Class<?>, Integer>();
+		indexes = new ArrayList<ArrayList<Bucket>>();
+		for(int i = 0; i < Integer.SIZE; i++)
+			indexes.add(new ArrayList<Bucket>());
+		ranks = new HashMap<Class<?>, Integer>();
 	}
 	
 	/**
-	 * Adds a component for the component's list.
+	 * Adds a component for the component's list, unless
+	 * it's already there.
 	 * @param component to add
 	 */
 	public <E> void add(E component) {
-		components.add((GameComponent) component);
+		GameComponent gameComponent = (GameComponent) component;
+		if(gameComponent.getIndex() >= 0)
+			return;
+		
+		int slot;
+		if(freeSlots > 0) {
+			slot = free[--freeSlots];
+			slots.set(slot, gameComponent);
+		} else {
+			slot = slots.size();
+			slots.add(gameComponent);
+			if(slot == generations.length) {
+				generations = Arrays.copyOf(generations, slot * 2);
+				free = Arrays.copyOf(free, slot * 2);
+			}
+		}
+		gameComponent.setHandle(((long) generations[slot] << 32) | slot);
+		
+		Bucket bucket = getBucket(gameComponent);
+		gameComponent.setIndex(bucket.components.size());
+		bucket.components.add(gameComponent);
+		bucket.changed = true;
 	}
 	
 	/**
@@ -57,21 +121,190 @@ public class GameObject {
 	public <E> void add(ArrayList<E> list) {
 		if(!list.isEmpty())
 			for(E component : list)
-				components.add((GameComponent) component);
+				add(component);
 	}
 	
 	/*
 	 * Clears every component in the array.
 	 */
-	public void clearMemory() { components.clear(); }
+	public void clearMemory() {
+		buckets.clear();
+		types.clear();
+		slots.clear();
+		freeSlots = 0;
+		destroyed.clear();
+		for(int i = 0; i < indexes.size(); i++)
+			indexes.get(i).clear();
+	}
+	
+	/**
+	 * Returns the component of a handle.
+	 * @param handle of the component.
+	 * @return Component or null if it was destroyed.
+	 */
+	public GameComponent get(long handle) {
+		int slot = (int) handle;
+		if(handle < 0 || slot >= slots.size() || generations[slot] != (int) (handle >>> 32))
+			return null;
+		return slots.get(slot);
+	}
+	
+	/**
+	 * Destroys a component. Its handle stops working now, but it stays
+	 * in its bucket until the next {@link #compact()}.
+	 * @param component to destroy.
+	 */
+	public <E> void destroy(E component) {
+		GameComponent gameComponent = (GameComponent) component;
+		if(get(gameComponent.getHandle()) != gameComponent)
+			return;
+		generations[(int) gameComponent.getHandle()]++;
+		destroyed.add(gameComponent);
+	}
+	
+	/**
+	 * Takes out of the buckets every component destroyed since
+	 * the last call.
+	 */
+	public void compact() {
+		for(int i = 0; i < destroyed.size(); i++) {
+			GameComponent component = destroyed.get(i);
+			Bucket bucket = types.get(component.getClass());
+			ArrayList<GameComponent> components = bucket.components;
+			bucket.changed = true;
+			GameComponent last = components.remove(components.size() - 1);
+			if(last != component) {
+				components.set(component.getIndex(), last);
+				last.setIndex(component.getIndex());
+			}
+			int slot = (int) component.getHandle();
+			slots.set(slot, null);
+			free[freeSlots++] = slot;
+			component.setIndex(-1);
+			component.setHandle(-1);
+		}
+		destroyed.clear();
+	}
+	
+	/**
+	 * Returns the bucket of a class of components.
+	 * @param type of the components.
+	 * @return Bucket or null if no component of the class was added.
+	 */
+	public Bucket getBucket(Class<?> type) {return types.get(type);}
+	
+	/**
+	 * Returns every bucket, the ones of the classes given to
+	 * {@link #order(Class...)} first and the rest in the order their
+	 * first component was added.
+	 * @return Buckets.
+	 */
+	public ArrayList<Bucket> getBuckets() {return buckets;}
+	
+	/**
+	 * Returns the bucket of a component, creating it if it's
+	 * the first of its class.
+	 * @param component to store.
+	 * @return Bucket.
+	 */
+	private Bucket getBucket(GameComponent component) {
+		Bucket bucket = types.get(component.getClass());
+		if(bucket == null) {
+			bucket = new Bucket(component);
+			if(sortedTypes.contains(bucket.type))
+				bucket.sort = new DistanceSort();
+			bucket.culled = !unculledTypes.contains(bucket.type);
+			Integer tags = typeTags.get(bucket.type);
+			if(tags != null)
+				bucket.tags = tags;
+			types.put(bucket.type, bucket);
+			int rank = rank(bucket.type);
+			int position = buckets.size();
+			while(position > 0 && rank(buckets.get(position - 1).type) > rank)
+				position--;
+			buckets.add(position, bucket);
+			if(position == buckets.size() - 1)
+				index(bucket);
+			else
+				reindex();
+		}
+		return bucket;
+	}
+	
+	/**
+	 * Sets the order the buckets of some classes are walked in, whatever
+	 * order their first components are added in. The buckets of the
+	 * classes left out go after them.
+	 * @param types of the components, in order.
+	 */
+	public void order(Class<?>... types) {
+		for(int i = 0; i < types.length; i++)
+			ranks.put(types[i], i);
+	}
+	
+	/**
+	 * Returns where the bucket of a class goes in the order.
+	 * @param type of the components.
+	 * @return Rank, the highest if the class wasn't ordered.
+	 */
+	private int rank(Class<?> type) {
+		Integer rank = ranks.get(type);
+		return rank == null ? Integer.MAX_VALUE : rank;
+	}
+	
+	/**
+	 * Tags a class of components, replacing the tags it had.
+	 * @param type of the components.
+	 * @param tags bits of what they are.
+	 */
+	public void tag(Class<?> type, int tags) {
+		typeTags.put(type, tags);
+		Bucket bucket = types.get(type);
+		if(bucket == null || bucket.tags == tags)
+			return;
+		bucket.tags = tags;
+		reindex();
+	}
+	
+	/**
+	 * Returns the buckets of a tag, in the order of the buckets.
+	 * @param tag bit to look for.
+	 * @return Buckets.
+	 */
+	public ArrayList<Bucket> query(int tag) {return indexes.get(Integer.numberOfTrailingZeros(tag));}
+	
+	/**
+	 * Makes the lists of every tag again, so they keep the order
+	 * of the buckets.
+	 */
+	private void reindex() {
+		for(int i = 0; i < indexes.size(); i++)
+			indexes.get(i).clear();
+		for(int i = 0; i < buckets.size(); i++)
+			index(buckets.get(i));
+	}
+	
+	/**
+	 * Adds a bucket to the list of every tag it has.
+	 * @param bucket to add.
+	 */
+	private void index(Bucket bucket) {
+		for(int i = 0; i < indexes.size(); i++)
+			if((bucket.tags & (1 << i)) != 0)
+				indexes.get(i).add(bucket);
+	}
 	
 	/**
 	 * Input method for all the components on
 	 * the list.
 	 */
 	public void input() {
-		for(GameComponent component : components)
-			component.input();
+		for(int i = 0; i < buckets.size(); i++) {
+			Bucket bucket = buckets.get(i);
+			if(bucket.input)
+				for(int j = 0; j < bucket.components.size(); j++)
+					bucket.components.get(j).input();
+		}
 	}
 	
 	/**
@@ -81,22 +314,20 @@ public class GameObject {
 	 * @param renderingEngine to render
 	 */
 	public void render(Shader shader, RenderingEngine renderingEngine) {
-		for(GameComponent component : components) {
-			switch(component.componentType) {
-				case "particle":
-					if(component.getDistance() < PARTICLES_POP_IN)
-						component.render(shader, renderingEngine);
-					break;
-				case "grass":
-					if(component.getDistance() < GRASS_POP_IN)
-						component.render(shader, renderingEngine);
-					break;
-				default:
-					if(component.getDistance() < POP_IN)
-						component.render(shader, renderingEngine);
-					break;
+		sortBuckets(renderingEngine);
+		for(int i = 0; i < buckets.size(); i++) {
+			Bucket bucket = buckets.get(i);
+			if(!bucket.render)
+				continue;
+			float popIn = bucket.popIn;
+			boolean culled = bucket.culled;
+			ArrayList<GameComponent> components = bucket.sort == null || bucket.changed ? bucket.components : bucket.drawOrder;
+			for(int j = 0; j < components.size(); j++) {
+				GameComponent component = components.get(j);
+				if(component.getDistance() < popIn && (!culled || renderingEngine.isVisible(component.getTransform().getPosition())))
+					component.render(shader, renderingEngine);
 			}
-		}	
+		}
 	}
 	
 	/**
@@ -105,87 +336,202 @@ public class GameObject {
 	 * @param delta of time
 	 */
 	public void update(double delta) {
-		for(GameComponent component : components)
-			component.update(delta);
-	}
-	
-	/**
-     * Sorts the number of components added.
-     * @param list of objects.
-     */
-    public <E> void sortNumberComponents(ArrayList<E> list) {
-    	if (list.size() > 0) {
-    		sortComponents(list, 0, list.size() - 1);
-        }
-    }
-    
-    /**
-     * Sorts all the objects in the level.
-     * @param list of objects.
-     * @param low of the array
-     * @param high of the array
-     */
-    private <E> void sortComponents(ArrayList<E> list, int low, int high) {
-    	int i = low;
-        int j = high;
-
-        E pivot = list.get(low + (high - low) / 2);
-        float pivotDistance = ((GameComponent) pivot).getTransform().getPosition().sub(Level.getPlayer().getCamera().getPos()).length();
-
-        while (i <= j) {
-            while (((GameComponent) list.get(i)).getTransform().getPosition().sub(Level.getPlayer().getCamera().getPos()).length() > pivotDistance) {
-                i++;
-            }
-            while (((GameComponent) list.get(j)).getTransform().getPosition().sub(Level.getPlayer().getCamera().getPos()).length() < pivotDistance) {
-                j--;
-            }
-
-            if (i <= j) {
-            	E temp = list.get(i);
-
-            	list.set(i, list.get(j));
-            	list.set(j, temp);
-
-                i++;
-                j--;
-            }
-        }
+		for(int i = 0; i < buckets.size(); i++) {
+			Bucket bucket = buckets.get(i);
+			if(!bucket.update)
+				continue;
+			if(bucket.agents)
+				for(int j = 0; j < bucket.components.size(); j++)
+					scheduler.update(bucket.components.get(j), delta);
+			else
+				for(int j = 0; j < bucket.components.size(); j++)
+					bucket.components.get(j).update(delta);
+		}
+	}
+	
+	/**
+	 * Returns the scheduler that updates the agents.
+	 * @return Scheduler.
+	 */
+	public AIScheduler getScheduler() {return scheduler;}
+	
+	/**
+	 * Renders the components of a class from the farthest to the nearest
+	 * to the camera, sorting them right before the first pass of every
+	 * frame. The sort has its own list, so the order they're updated in
+	 * and their indexes only change when they're added or taken out.
+	 * @param type of the components.
+	 */
+	public void sortByDistance(Class<?> type) {
+		sortedTypes.add(type);
+		Bucket bucket = types.get(type);
+		if(bucket != null && bucket.sort == null)
+			bucket.sort = new DistanceSort();
+	}
+	
+	/**
+	 * Renders the components of a class from anywhere, instead of only
+	 * from where the cell they're in may be seen, like the ones that
+	 * span the whole map.
+	 * @param type of the components.
+	 */
+	public void neverCull(Class<?> type) {
+		unculledTypes.add(type);
+		Bucket bucket = types.get(type);
+		if(bucket != null)
+			bucket.culled = false;
+	}
+	
+	/**
+	 * Sorts the draw order of the buckets that have to be sorted, once
+	 * per frame. A bucket that changed since starts again from the order
+	 * of its components.
+	 * @param renderingEngine that renders the frame.
+	 */
+	private void sortBuckets(RenderingEngine renderingEngine) {
+		if(sortedFrame == renderingEngine.getFrame())
+			return;
+		sortedFrame = renderingEngine.getFrame();
+		
+		Profiler.begin("GameObject.sort");
+		Vector3f eye = renderingEngine.getMainCamera().getPos(renderingEngine.getInterpolation());
+		for(int i = 0; i < buckets.size(); i++) {
+			Bucket bucket = buckets.get(i);
+			if(bucket.sort == null)
+				continue;
+			if(bucket.changed) {
+				bucket.drawOrder.clear();
+				bucket.drawOrder.addAll(bucket.components);
+				bucket.changed = false;
+			}
+			bucket.sort.sort(bucket.drawOrder, eye);
+		}
+		Profiler.end();
+	}
 
-        if (low < j) {
-        	sortComponents(list, low, j);
-        }
-        if (i < high) {
-        	sortComponents(list, i, high);
-        }
-    }
-    
-    /**
-     * Removes to the render pipeline the object to match.
-     * @param component to delete
-     */
-    public <E> void removeComponent(E component) {
-    	components.remove(component);    	
-    }
-    
-    /**
-     * Removes to the render pipeline the lists of objects to render.
-     * @param removeList of objects
-     */
-    public <E> void removeComponents(ArrayList<E> removeList) {
-    	for (E component : removeList) 
-    		components.remove(component);    	
-    }
-    
-    /**
-     * Kills everything on the list of objects.
-     * @param list of objects
-     * @param delta of time
-     */
-    public <E> void killList(ArrayList<E> list, double delta) {
-    	for (E component : list) {
-    		((NaziSoldier) component).setState(4);
-    		((NaziSoldier) component).update(delta);
-    	}
-    }
+	/**
+	 * Components of a single class, with what the class does
+	 * worked out once when the bucket is made.
+	 *
+	 * @author Carlos Rodriguez
+	 * @version 1.0
+	 * @since 2018
+	 */
+	public static class Bucket {
+		
+		private final Class<?> 						type;
+		private final ArrayList<GameComponent> 		components = new ArrayList<GameComponent>();
+		private final ArrayList<GameComponent> 		drawOrder = new ArrayList<GameComponent>();
+		private final float 						popIn;
+		private final boolean 						input;
+		private final boolean 						render;
+		private final boolean 						update;
+		private final boolean 						agents;
+		private DistanceSort 						sort;
+		private int 								tags;
+		private boolean 							culled = true;
+		private boolean 							changed;
+		
+		/**
+		 * Constructor of the bucket of a component's class.
+		 * @param component first of its class.
+		 */
+		private Bucket(GameComponent component) {
+			this.type = component.getClass();
+			switch(component.componentType) {
+				case "particle":
+					popIn = PARTICLES_POP_IN;
+					break;
+				case "grass":
+					popIn = GRASS_POP_IN;
+					break;
+				default:
+					popIn = POP_IN;
+					break;
+			}
+			input = overrides("input");
+			render = overrides("render", Shader.class, RenderingEngine.class);
+			update = overrides("update", double.class);
+			agents = Agent.class.isAssignableFrom(type);
+		}
+		
+		/**
+		 * Checks if the class of the bucket does something in a method,
+		 * so the passes can skip the ones that don't.
+		 * @param name of the method.
+		 * @param parameters of the method.
+		 * @return If the method is overridden.
+		 */
+		private boolean overrides(String name, Class<?>... parameters) {
+			try {
+				return type.getMethod(name, parameters).getDeclaringClass() != GameComponent.class;
+			} catch (NoSuchMethodException e) {
+				return true;
+			}
+		}
+		
+		/**
+		 * Returns the class of the components.
+		 * @return Class.
+		 */
+		public Class<?> getType() {return type;}
+		
+		/**
+		 * Returns the components of the bucket.
+		 * @return Components.
+		 */
+		public ArrayList<GameComponent> getComponents() {return components;}
+		
+		/**
+		 * Returns the distance the components start rendering from.
+		 * @return Pop-in distance.
+		 */
+		public float getPopIn() {return popIn;}
+		
+		/**
+		 * Returns if the components do something on input.
+		 * @return If they take input.
+		 */
+		public boolean hasInput() {return input;}
+		
+		/**
+		 * Returns if the components draw anything.
+		 * @return If they render.
+		 */
+		public boolean hasRender() {return render;}
+		
+		/**
+		 * Returns if the components do something on update.
+		 * @return If they update.
+		 */
+		public boolean hasUpdate() {return update;}
+		
+		/**
+		 * Returns if the components are agents, updated by the
+		 * {@link AIScheduler}.
+		 * @return If they are agents.
+		 */
+		public boolean hasAgents() {return agents;}
+		
+		/**
+		 * Returns if the components are sorted by their distance
+		 * to the camera before rendering.
+		 * @return If they are sorted.
+		 */
+		public boolean isSorted() {return sort != null;}
+		
+		/**
+		 * Returns if the components are only rendered from where their
+		 * cell may be seen.
+		 * @return If they are culled.
+		 */
+		public boolean isCulled() {return culled;}
+		
+		/**
+		 * Returns the tags of the components.
+		 * @return Bits of what they are.
+		 */
+		public int getTags() {return tags;}
+	}
 	
 }
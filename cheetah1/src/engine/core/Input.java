@@ -15,9 +15,13 @@
  */
 package engine.core;
 
+import java.util.Arrays;
+
 import org.lwjgl.input.Keyboard;
 import org.lwjgl.input.Mouse;
 
+import engine.rendering.Window;
+
 /**
  *
  * @author Carlos Rodriguez
@@ -211,6 +215,58 @@ public class Input {
 
     private static boolean[] lastKeys = new boolean[NUM_KEYCODES];
     private static boolean[] lastMouse = new boolean[NUM_MOUSEBUTTONS];
+    
+    private static boolean[] keys = new boolean[NUM_KEYCODES];
+    private static boolean[] mouse = new boolean[NUM_MOUSEBUTTONS];
+    private static int[] pointer = new int[3];
+    
+    private static InputRecorder recorder;
+    private static InputReplay replay;
+    
+    /**
+     * Takes the input of a new tick, from the devices or from the
+     * replay, so it stays the same during the whole tick.
+     */
+    public static void poll() {
+    	if (replay != null) {
+    		if (!replay.read(keys, mouse, pointer)) {
+    			Arrays.fill(keys, false);
+    			Arrays.fill(mouse, false);
+    			replay = null;
+    			CoreEngine.getCurrent().stop();
+    		}
+    	} else if (!CoreEngine.isHeadless()) {
+    		for (int i = 0; i < NUM_KEYCODES; i++)
+    			keys[i] = Keyboard.isKeyDown(i);
+    		for (int i = 0; i < NUM_MOUSEBUTTONS; i++)
+    			mouse[i] = Mouse.isButtonDown(i);
+    		pointer[0] = Mouse.getX();
+    		pointer[1] = Mouse.getY();
+    		pointer[2] = Mouse.getDWheel();
+    	} else {
+    		pointer[0] = Window.getWidth() / 2;
+    		pointer[1] = Window.getHeight() / 2;
+    	}
+    	if (recorder != null)
+    		recorder.write(keys, mouse, pointer);
+    }
+    
+    /**
+     * Starts writing the input of every tick.
+     * @param recorder to write to.
+     */
+    public static void record(final InputRecorder recorder) {
+    	Input.recorder = recorder;
+    	Runtime.getRuntime().addShutdownHook(new Thread() {
+    		public void run() {recorder.close();}
+    	});
+    }
+    
+    /**
+     * Starts taking the input of every tick from a recording.
+     * @param replay to read from.
+     */
+    public static void replay(InputReplay replay) {Input.replay = replay;}
 
     /**
      * Refresh all the inputs.
@@ -231,7 +287,7 @@ public class Input {
      * @return Press the key.
      */
     public static boolean getKey(int keyCode) {
-        return Keyboard.isKeyDown(keyCode);
+        return keys[keyCode];
     }
 
     /**
@@ -258,7 +314,7 @@ public class Input {
      * @return Press the button.
      */
     public static boolean getMouse(int mouseButton) {
-        return Mouse.isButtonDown(mouseButton);
+        return mouse[mouseButton];
     }
 
     /**
@@ -284,7 +340,7 @@ public class Input {
      * @return Vector coordinates.
      */
     public static Vector2f getMousePosition() {
-        return new Vector2f(Mouse.getX(), Mouse.getY());
+        return new Vector2f(pointer[0], pointer[1]);
     }
 
     /**
@@ -292,6 +348,10 @@ public class Input {
      * @param pos Position coordinates.
      */
     public static void setMousePosition(Vector2f pos) {
+    	pointer[0] = (int) pos.getX();
+    	pointer[1] = (int) pos.getY();
+    	if (CoreEngine.isHeadless() || replay != null)
+    		return;
         Mouse.setCursorPosition((int) pos.getX(), (int) pos.getY());
     }
 
@@ -300,6 +360,8 @@ public class Input {
      * @param enabled if it is in or out.
      */
     public static void setCursor(boolean enabled) {
+    	if (CoreEngine.isHeadless())
+    		return;
         Mouse.setGrabbed(!enabled);
     }
     
@@ -309,7 +371,7 @@ public class Input {
      * @return mouse wheel input
      */
     public static int getMouseWheel() {
-    	return Mouse.getDWheel();
+    	return pointer[2];
     }
     
 }
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2018 Carlos Rodriguez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package engine.core;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import engine.core.utils.Log;
+
+/**
+ * Writes the input of every tick to a file that {@link InputReplay}
+ * can play back. The header keeps the level, the random seed and the
+ * clock of the run, and every tick starts with a byte telling which
+ * parts of the input changed since the last one, so a tick where
+ * nothing changed only takes that byte.
+ *
+ * @author Carlos Rodriguez
+ * @version 1.0
+ * @since 2018
+ */
+public class InputRecorder {
+
+	static final int 				MAGIC = 0x43485250;
+	static final int 				VERSION = 1;
+
+	static final int 				KEYS = 1;
+	static final int 				BUTTONS = 2;
+	static final int 				POSITION = 4;
+	static final int 				WHEEL = 8;
+
+	private DataOutputStream 		out;
+	private boolean[] 				lastKeys = new boolean[Input.NUM_KEYCODES];
+	private boolean[] 				lastMouse = new boolean[Input.NUM_MOUSEBUTTONS];
+	private int[] 					lastPointer = new int[3];
+	private int 					ticks;
+
+	/**
+	 * Creates the file and writes its header.
+	 * @param file to write.
+	 * @param level the game started on.
+	 * @param seed of the random generator.
+	 * @param clockBase game time of the tick zero.
+	 * @param step game time of every tick.
+	 * @throws IOException if the file can't be written.
+	 */
+	public InputRecorder(File file, int level, long seed, double clockBase, double step) throws IOException {
+		out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+		out.writeInt(MAGIC);
+		out.writeShort(VERSION);
+		out.writeInt(level);
+		out.writeLong(seed);
+		out.writeDouble(clockBase);
+		out.writeDouble(step);
+	}
+
+	/**
+	 * Writes the input of a tick.
+	 * @param keys held.
+	 * @param mouse buttons held.
+	 * @param pointer mouse x, y and wheel.
+	 */
+	public void write(boolean[] keys, boolean[] mouse, int[] pointer) {
+		if(out == null)
+			return;
+		try {
+			int flags = 0;
+			if(!Arrays.equals(keys, lastKeys)) flags |= KEYS;
+			if(!Arrays.equals(mouse, lastMouse)) flags |= BUTTONS;
+			if(pointer[0] != lastPointer[0] || pointer[1] != lastPointer[1]) flags |= POSITION;
+			if(pointer[2] != 0) flags |= WHEEL;
+			out.writeByte(flags);
+			if((flags & KEYS) != 0) {
+				for(int i = 0; i < keys.length; i += 8) {
+					int bits = 0;
+					for(int j = 0; j < 8; j++)
+						if(keys[i + j]) bits |= 1 << j;
+					out.writeByte(bits);
+				}
+				System.arraycopy(keys, 0, lastKeys, 0, keys.length);
+			}
+			if((flags & BUTTONS) != 0) {
+				int bits = 0;
+				for(int i = 0; i < mouse.length; i++)
+					if(mouse[i]) bits |= 1 << i;
+				out.writeByte(bits);
+				System.arraycopy(mouse, 0, lastMouse, 0, mouse.length);
+			}
+			if((flags & POSITION) != 0) {
+				out.writeShort(pointer[0]);
+				out.writeShort(pointer[1]);
+				lastPointer[0] = pointer[0];
+				lastPointer[1] = pointer[1];
+			}
+			if((flags & WHEEL) != 0)
+				out.writeInt(pointer[2]);
+			ticks++;
+		} catch (IOException e) {
+			Log.error("Input recording stopped: " + e.getMessage());
+			close();
+		}
+	}
+
+	/**
+	 * Flushes and closes the file.
+	 */
+	public synchronized void close() {
+		if(out == null)
+			return;
+		try {
+			out.close();
+			Log.message("Recorded " + ticks + " ticks of input");
+		} catch (IOException e) {
+			Log.error("Could not close the input recording: " + e.getMessage());
+		}
+		out = null;
+	}
+
+}
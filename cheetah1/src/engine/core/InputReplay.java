@@ -0,0 +1,145 @@
+/*
+ * Copyright 2018 Carlos Rodriguez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package engine.core;
+
+import static engine.core.InputRecorder.*;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+import engine.core.utils.Log;
+
+/**
+ * Plays back a file written by {@link InputRecorder}, feeding
+ * {@link Input} with the recorded input one tick at a time.
+ *
+ * @author Carlos Rodriguez
+ * @version 1.0
+ * @since 2018
+ */
+public class InputReplay {
+
+	private DataInputStream 		in;
+	private int 					level;
+	private long 					seed;
+	private double 					clockBase;
+	private double 					step;
+	private int 					x;
+	private int 					y;
+
+	/**
+	 * Opens a recording and reads its header.
+	 * @param file to play.
+	 * @throws IOException if the file can't be read or isn't a recording.
+	 */
+	public InputReplay(File file) throws IOException {
+		in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+		if(in.readInt() != MAGIC || in.readShort() != VERSION) {
+			in.close();
+			throw new IOException(file + " is not an input recording");
+		}
+		level = in.readInt();
+		seed = in.readLong();
+		clockBase = in.readDouble();
+		step = in.readDouble();
+	}
+
+	/**
+	 * Reads the input of the next tick, the parts that didn't change
+	 * are left as they were.
+	 * @param keys held.
+	 * @param mouse buttons held.
+	 * @param pointer mouse x, y and wheel.
+	 * @return If there was a tick left to play.
+	 */
+	public boolean read(boolean[] keys, boolean[] mouse, int[] pointer) {
+		if(in == null)
+			return false;
+		try {
+			int flags = in.readByte();
+			if((flags & KEYS) != 0) {
+				for(int i = 0; i < keys.length; i += 8) {
+					int bits = in.readByte();
+					for(int j = 0; j < 8; j++)
+						keys[i + j] = (bits & (1 << j)) != 0;
+				}
+			}
+			if((flags & BUTTONS) != 0) {
+				int bits = in.readByte();
+				for(int i = 0; i < mouse.length; i++)
+					mouse[i] = (bits & (1 << i)) != 0;
+			}
+			if((flags & POSITION) != 0) {
+				x = in.readShort();
+				y = in.readShort();
+			}
+			//The game may have moved the pointer since, the recording didn't see that
+			pointer[0] = x;
+			pointer[1] = y;
+			pointer[2] = (flags & WHEEL) != 0 ? in.readInt() : 0;
+			return true;
+		} catch (EOFException e) {
+			close();
+		} catch (IOException e) {
+			Log.error("Input replay stopped: " + e.getMessage());
+			close();
+		}
+		return false;
+	}
+
+	/**
+	 * Closes the file.
+	 */
+	public void close() {
+		if(in == null)
+			return;
+		try {
+			in.close();
+		} catch (IOException e) {
+			Log.error("Could not close the input replay: " + e.getMessage());
+		}
+		in = null;
+	}
+
+	/**
+	 * Returns the level the recording started on.
+	 * @return level.
+	 */
+	public int getLevel() {return level;}
+
+	/**
+	 * Returns the seed of the random generator.
+	 * @return seed.
+	 */
+	public long getSeed() {return seed;}
+
+	/**
+	 * Returns the game time of the tick zero.
+	 * @return clock base.
+	 */
+	public double getClockBase() {return clockBase;}
+
+	/**
+	 * Returns the game time of every tick.
+	 * @return step.
+	 */
+	public double getStep() {return step;}
+
+}
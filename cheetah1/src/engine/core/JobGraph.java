@@ -0,0 +1,191 @@
+/*
+ * Copyright 2018 Carlos Rodriguez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package engine.core;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Phases of a frame and what each one waits for. The graph is built
+ * once and {@link #run()} every frame: jobs whose dependencies are
+ * done go to the {@link JobSystem} workers, except the ones added with
+ * {@link #addMain(String, Runnable, Job...)}, which run on the calling
+ * thread since they touch OpenGL or state that isn't thread safe.
+ *
+ * @author Carlos Rodriguez
+ * @version 1.0
+ * @since 2018
+ */
+public class JobGraph {
+
+	private final ArrayList<Job> 				jobs = new ArrayList<Job>();
+	private final ConcurrentLinkedQueue<Job> 	mainJobs = new ConcurrentLinkedQueue<Job>();
+	private final AtomicInteger 				remaining = new AtomicInteger();
+	private volatile Thread 					owner;
+	private volatile Throwable 					error;
+
+	/**
+	 * Adds a job that can run on any worker.
+	 * @param name shown in the profiler.
+	 * @param work to do.
+	 * @param after jobs that have to finish first.
+	 * @return Job.
+	 */
+	public Job add(String name, Runnable work, Job... after) {return add(name, work, false, after);}
+
+	/**
+	 * Adds a job that always runs on the thread that runs the graph.
+	 * @param name shown in the profiler.
+	 * @param work to do.
+	 * @param after jobs that have to finish first.
+	 * @return Job.
+	 */
+	public Job addMain(String name, Runnable work, Job... after) {return add(name, work, true, after);}
+
+	/**
+	 * Adds a job to the graph.
+	 * @param name shown in the profiler.
+	 * @param work to do.
+	 * @param main if it has to run on the calling thread.
+	 * @param after jobs that have to finish first.
+	 * @return Job.
+	 */
+	private Job add(String name, Runnable work, boolean main, Job... after) {
+		Job job = new Job(name, work, main || JobSystem.getWorkers() == 0);
+		for(Job dependency : after)
+			dependency.dependents.add(job);
+		job.dependencies = after.length;
+		jobs.add(job);
+		return job;
+	}
+
+	/**
+	 * Runs every job of the graph and waits until all of them are done,
+	 * helping with the ones that belong to this thread.
+	 */
+	public void run() {
+		owner = Thread.currentThread();
+		error = null;
+		remaining.set(jobs.size());
+		for(int i = 0; i < jobs.size(); i++)
+			jobs.get(i).pending.set(jobs.get(i).dependencies);
+		for(int i = 0; i < jobs.size(); i++)
+			if(jobs.get(i).dependencies == 0)
+				schedule(jobs.get(i));
+
+		while(remaining.get() > 0) {
+			Job job = mainJobs.poll();
+			if(job != null)
+				execute(job);
+			else
+				LockSupport.park(this);
+		}
+
+		for(int i = 0; i < jobs.size(); i++)
+			Profiler.sample(jobs.get(i).name, jobs.get(i).time);
+
+		if(error instanceof RuntimeException)
+			throw (RuntimeException) error;
+		else if(error instanceof Error)
+			throw (Error) error;
+	}
+
+	/**
+	 * Sends a job whose dependencies are done to where it runs.
+	 * @param job to schedule.
+	 */
+	private void schedule(final Job job) {
+		ForkJoinPool pool = JobSystem.getPool();
+		if(job.main || pool == null) {
+			mainJobs.offer(job);
+			LockSupport.unpark(owner);
+		} else {
+			pool.execute(job);
+		}
+	}
+
+	/**
+	 * Runs a job and schedules the ones that were waiting for it.
+	 * @param job to run.
+	 */
+	private void execute(Job job) {
+		long start = System.nanoTime();
+		try {
+			job.work.run();
+		} catch(Throwable e) {
+			if(error == null)
+				error = e;
+		} finally {
+			job.time = System.nanoTime() - start;
+			for(int i = 0; i < job.dependents.size(); i++)
+				if(job.dependents.get(i).pending.decrementAndGet() == 0)
+					schedule(job.dependents.get(i));
+			if(remaining.decrementAndGet() == 0)
+				LockSupport.unpark(owner);
+		}
+	}
+
+	/**
+	 * Single phase of the graph.
+	 *
+	 * @author Carlos Rodriguez
+	 * @version 1.0
+	 * @since 2018
+	 */
+	public class Job implements Runnable {
+
+		private final String 			name;
+		private final Runnable 			work;
+		private final boolean 			main;
+		private final ArrayList<Job> 	dependents = new ArrayList<Job>();
+		private final AtomicInteger 	pending = new AtomicInteger();
+		private int 					dependencies;
+		private long 					time;
+
+		/**
+		 * Constructor of a job.
+		 * @param name shown in the profiler.
+		 * @param work to do.
+		 * @param main if it has to run on the calling thread.
+		 */
+		private Job(String name, Runnable work, boolean main) {
+			this.name = name;
+			this.work = work;
+			this.main = main;
+		}
+
+		/**
+		 * Runs the job on a worker.
+		 */
+		public void run() {execute(this);}
+
+		/**
+		 * Returns the name of the job.
+		 * @return Name.
+		 */
+		public String getName() {return name;}
+
+		/**
+		 * Returns how long the job took the last time the graph ran.
+		 * @return Time in nanoseconds.
+		 */
+		public long getTime() {return time;}
+	}
+
+}
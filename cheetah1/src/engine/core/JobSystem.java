@@ -0,0 +1,60 @@
+/*
+ * Copyright 2018 Carlos Rodriguez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package engine.core;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * Work-stealing pool shared by every {@link JobGraph}, with one
+ * worker less than the cores of the machine since the thread that
+ * runs the graph works too.
+ *
+ * @author Carlos Rodriguez
+ * @version 1.0
+ * @since 2018
+ */
+public class JobSystem {
+
+	private static final int 			workers = Math.max(0, Runtime.getRuntime().availableProcessors() - 1);
+	private static ForkJoinPool 		pool;
+
+	/**
+	 * Returns the pool of the workers, created the first time
+	 * it's needed.
+	 * @return Pool or null if the machine has a single core.
+	 */
+	public static synchronized ForkJoinPool getPool() {
+		if(pool == null && workers > 0) {
+			pool = new ForkJoinPool(workers, new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+				public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+					ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+					thread.setName("Worker-" + thread.getPoolIndex());
+					thread.setDaemon(true);
+					return thread;
+				}
+			}, null, false);
+		}
+		return pool;
+	}
+
+	/**
+	 * Returns how many workers help the thread that runs a graph.
+	 * @return Workers.
+	 */
+	public static int getWorkers() {return workers;}
+
+}
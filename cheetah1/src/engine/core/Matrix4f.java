@@ -23,14 +23,14 @@ package engine.core;
 */
 public class Matrix4f {
 	
-	private float[][] m;
+	private final float[] m;
 	
 	/**
 	 * Constructor of a basic 4 by 4 matrix.
 	 */
 	public Matrix4f()
 	{
-		m = new float[4][4];
+		m = new float[4 * 4];
 	}
 	
 	/**
@@ -43,7 +43,8 @@ public class Matrix4f {
 			new Exception().printStackTrace();
 			System.exit(1);
 		}
-		this.m = m;
+		this.m = new float[4 * 4];
+		setM(m);
 	}
 
 	/**
@@ -52,10 +53,10 @@ public class Matrix4f {
 	 */
 	public Matrix4f initIdentity()
 	{
-		m[0][0] = 1;	m[0][1] = 0;	m[0][2] = 0;	m[0][3] = 0;
-		m[1][0] = 0;	m[1][1] = 1;	m[1][2] = 0;	m[1][3] = 0;
-		m[2][0] = 0;	m[2][1] = 0;	m[2][2] = 1;	m[2][3] = 0;
-		m[3][0] = 0;	m[3][1] = 0;	m[3][2] = 0;	m[3][3] = 1;
+		m[0] = 1;	m[1] = 0;	m[2] = 0;	m[3] = 0;
+		m[4] = 0;	m[5] = 1;	m[6] = 0;	m[7] = 0;
+		m[8] = 0;	m[9] = 0;	m[10] = 1;	m[11] = 0;
+		m[12] = 0;	m[13] = 0;	m[14] = 0;	m[15] = 1;
 		
 		return this;
 	}
@@ -69,10 +70,10 @@ public class Matrix4f {
 	 */
 	public Matrix4f initTranslation(float x, float y, float z)
 	{
-		m[0][0] = 1;	m[0][1] = 0;	m[0][2] = 0;	m[0][3] = x;
-		m[1][0] = 0;	m[1][1] = 1;	m[1][2] = 0;	m[1][3] = y;
-		m[2][0] = 0;	m[2][1] = 0;	m[2][2] = 1;	m[2][3] = z;
-		m[3][0] = 0;	m[3][1] = 0;	m[3][2] = 0;	m[3][3] = 1;
+		m[0] = 1;	m[1] = 0;	m[2] = 0;	m[3] = x;
+		m[4] = 0;	m[5] = 1;	m[6] = 0;	m[7] = y;
+		m[8] = 0;	m[9] = 0;	m[10] = 1;	m[11] = z;
+		m[12] = 0;	m[13] = 0;	m[14] = 0;	m[15] = 1;
 		
 		return this;
 	}
@@ -86,30 +87,92 @@ public class Matrix4f {
 	 */
 	public Matrix4f initRotation(float x, float y, float z)
 	{
-		Matrix4f rx = new Matrix4f();
-		Matrix4f ry = new Matrix4f();
-		Matrix4f rz = new Matrix4f();
-		
 		x = (float)Math.toRadians(x);
 		y = (float)Math.toRadians(y);
 		z = (float)Math.toRadians(z);
 		
-		rz.m[0][0] = (float)Math.cos(z);rz.m[0][1] = -(float)Math.sin(z);rz.m[0][2] = 0;				rz.m[0][3] = 0;
-		rz.m[1][0] = (float)Math.sin(z);rz.m[1][1] = (float)Math.cos(z);rz.m[1][2] = 0;					rz.m[1][3] = 0;
-		rz.m[2][0] = 0;					rz.m[2][1] = 0;					rz.m[2][2] = 1;					rz.m[2][3] = 0;
-		rz.m[3][0] = 0;					rz.m[3][1] = 0;					rz.m[3][2] = 0;					rz.m[3][3] = 1;
+		return initTransformation(0, 0, 0, (float)Math.cos(x), (float)Math.sin(x), (float)Math.cos(y), (float)Math.sin(y), 
+				(float)Math.cos(z), (float)Math.sin(z), 1, 1, 1);
+	}
+	
+	/**
+	 * Starts the translation, rotation and scaling of a object in the 3D space
+	 * at once, without making the matrix of each one and multiplying them.
+	 * @param position of the object.
+	 * @param rotation of the object in degrees.
+	 * @param scale of the object.
+	 * @return Transformation for the matrix.
+	 */
+	public Matrix4f initTransformation(Vector3f position, Vector3f rotation, Vector3f scale)
+	{
+		return initTransformation(position.getX(), position.getY(), position.getZ(), 
+				rotation.getX(), rotation.getY(), rotation.getZ(), scale.getX(), scale.getY(), scale.getZ());
+	}
+	
+	/**
+	 * Starts the translation, rotation and scaling of a object in the 3D space
+	 * at once, without making the matrix of each one and multiplying them.
+	 * @param px position in the x axis.
+	 * @param py position in the y axis.
+	 * @param pz position in the z axis.
+	 * @param rx rotation in the x axis, in degrees.
+	 * @param ry rotation in the y axis, in degrees.
+	 * @param rz rotation in the z axis, in degrees.
+	 * @param sx scale in the x axis.
+	 * @param sy scale in the y axis.
+	 * @param sz scale in the z axis.
+	 * @return Transformation for the matrix.
+	 */
+	public Matrix4f initTransformation(float px, float py, float pz, float rx, float ry, float rz, float sx, float sy, float sz)
+	{
+		rx = (float)Math.toRadians(rx);
+		ry = (float)Math.toRadians(ry);
+		rz = (float)Math.toRadians(rz);
+		
+		return initTransformation(px, py, pz, (float)Math.cos(rx), (float)Math.sin(rx), (float)Math.cos(ry), (float)Math.sin(ry), 
+				(float)Math.cos(rz), (float)Math.sin(rz), sx, sy, sz);
+	}
+	
+	/**
+	 * Starts the translation and scaling of a object in the 3D space
+	 * with a rotation already worked out, like the one every billboard
+	 * shares in a frame.
+	 * @param px position in the x axis.
+	 * @param py position in the y axis.
+	 * @param pz position in the z axis.
+	 * @param rotation matrix, only its 3 by 3 part is used.
+	 * @param sx scale in the x axis.
+	 * @param sy scale in the y axis.
+	 * @param sz scale in the z axis.
+	 * @return Transformation for the matrix.
+	 */
+	public Matrix4f initTransformation(float px, float py, float pz, Matrix4f rotation, float sx, float sy, float sz)
+	{
+		float[] r = rotation.m;
 		
-		rx.m[0][0] = 1;					rx.m[0][1] = 0;					rx.m[0][2] = 0;					rx.m[0][3] = 0;
-		rx.m[1][0] = 0;					rx.m[1][1] = (float)Math.cos(x);rx.m[1][2] = -(float)Math.sin(x);rx.m[1][3] = 0;
-		rx.m[2][0] = 0;					rx.m[2][1] = (float)Math.sin(x);rx.m[2][2] = (float)Math.cos(x);rx.m[2][3] = 0;
-		rx.m[3][0] = 0;					rx.m[3][1] = 0;					rx.m[3][2] = 0;					rx.m[3][3] = 1;
+		m[0] = r[0] * sx;	m[1] = r[1] * sy;	m[2] = r[2] * sz;	m[3] = px;
+		m[4] = r[4] * sx;	m[5] = r[5] * sy;	m[6] = r[6] * sz;	m[7] = py;
+		m[8] = r[8] * sx;	m[9] = r[9] * sy;	m[10] = r[10] * sz;	m[11] = pz;
+		m[12] = 0;			m[13] = 0;			m[14] = 0;			m[15] = 1;
 		
-		ry.m[0][0] = (float)Math.cos(y);ry.m[0][1] = 0;					ry.m[0][2] = -(float)Math.sin(y);ry.m[0][3] = 0;
-		ry.m[1][0] = 0;					ry.m[1][1] = 1;					ry.m[1][2] = 0;					ry.m[1][3] = 0;
-		ry.m[2][0] = (float)Math.sin(y);ry.m[2][1] = 0;					ry.m[2][2] = (float)Math.cos(y);ry.m[2][3] = 0;
-		ry.m[3][0] = 0;					ry.m[3][1] = 0;					ry.m[3][2] = 0;					ry.m[3][3] = 1;
+		return this;
+	}
+	
+	/**
+	 * Writes the product of the translation, the rotation around z, y and x
+	 * (in that order) and the scale, worked out by hand.
+	 * @return Transformation for the matrix.
+	 */
+	private Matrix4f initTransformation(float px, float py, float pz, float cosX, float sinX, float cosY, float sinY, 
+			float cosZ, float sinZ, float sx, float sy, float sz)
+	{
+		float sinYsinX = -sinY * sinX;
+		float sinYcosX = -sinY * cosX;
 		
-		m = rz.mul(ry.mul(rx)).getM();
+		m[0] = cosZ * cosY * sx;	m[1] = (cosZ * sinYsinX + -sinZ * cosX) * sy;	m[2] = (cosZ * sinYcosX + -sinZ * -sinX) * sz;	m[3] = px;
+		m[4] = sinZ * cosY * sx;	m[5] = (sinZ * sinYsinX + cosZ * cosX) * sy;	m[6] = (sinZ * sinYcosX + cosZ * -sinX) * sz;	m[7] = py;
+		m[8] = sinY * sx;			m[9] = cosY * sinX * sy;						m[10] = cosY * cosX * sz;						m[11] = pz;
+		m[12] = 0;					m[13] = 0;										m[14] = 0;										m[15] = 1;
 		
 		return this;
 	}
@@ -123,10 +186,10 @@ public class Matrix4f {
 	 */
 	public Matrix4f initScale(float x, float y, float z)
 	{
-		m[0][0] = x;	m[0][1] = 0;	m[0][2] = 0;	m[0][3] = 0;
-		m[1][0] = 0;	m[1][1] = y;	m[1][2] = 0;	m[1][3] = 0;
-		m[2][0] = 0;	m[2][1] = 0;	m[2][2] = z;	m[2][3] = 0;
-		m[3][0] = 0;	m[3][1] = 0;	m[3][2] = 0;	m[3][3] = 1;
+		m[0] = x;	m[1] = 0;	m[2] = 0;	m[3] = 0;
+		m[4] = 0;	m[5] = y;	m[6] = 0;	m[7] = 0;
+		m[8] = 0;	m[9] = 0;	m[10] = z;	m[11] = 0;
+		m[12] = 0;	m[13] = 0;	m[14] = 0;	m[15] = 1;
 		
 		return this;
 	}
@@ -144,10 +207,10 @@ public class Matrix4f {
 		float tanHalfFOV = (float)Math.tan(fov / 2);
 		float zRange = zNear - zFar;
 		
-		m[0][0] = 1.0f / (tanHalfFOV * aspect);	m[0][1] = 0;					m[0][2] = 0;	m[0][3] = 0;
-		m[1][0] = 0;								m[1][1] = 1.0f / tanHalfFOV;	m[1][2] = 0;	m[1][3] = 0;
-		m[2][0] = 0;								m[2][1] = 0;					m[2][2] = (-zNear -zFar)/zRange;	m[2][3] = 2 * zFar * zNear / zRange;
-		m[3][0] = 0;								m[3][1] = 0;					m[3][2] = 1;	m[3][3] = 0;
+		m[0] = 1.0f / (tanHalfFOV * aspect);	m[1] = 0;					m[2] = 0;	m[3] = 0;
+		m[4] = 0;								m[5] = 1.0f / tanHalfFOV;	m[6] = 0;	m[7] = 0;
+		m[8] = 0;								m[9] = 0;					m[10] = (-zNear -zFar)/zRange;	m[11] = 2 * zFar * zNear / zRange;
+		m[12] = 0;								m[13] = 0;					m[14] = 1;	m[15] = 0;
 		
 		return this;
 	}
@@ -164,10 +227,10 @@ public class Matrix4f {
 	 */
 	public Matrix4f initOrthographic(float left, float right, float top, float bottom, float near, float far)
 	{
-		m[0][0] = 2/(right - left);					m[0][1] = 0;								m[0][2] = 0;					m[0][3] = 0;
-		m[1][0] = 0;								m[1][1] = 2/(top - bottom);					m[1][2] = 0;					m[1][3] = 0;
-		m[2][0] = 0;								m[2][1] = 0;								m[2][2] = -1/(far - near);		m[2][3] = 0;
-		m[3][0] = -(right + left)/(right - left);	m[3][1] = -(top + bottom)/(top - bottom);	m[3][2] = -near/(far - near);	m[3][3] = 1;
+		m[0] = 2/(right - left);					m[1] = 0;								m[2] = 0;					m[3] = 0;
+		m[4] = 0;								m[5] = 2/(top - bottom);					m[6] = 0;					m[7] = 0;
+		m[8] = 0;								m[9] = 0;								m[10] = -1/(far - near);		m[11] = 0;
+		m[12] = -(right + left)/(right - left);	m[13] = -(top + bottom)/(top - bottom);	m[14] = -near/(far - near);	m[15] = 1;
 		
 		return this;
 	}
@@ -201,10 +264,10 @@ public class Matrix4f {
 		Vector3f r = right;
 		Vector3f u = up;
 
-		m[0][0] = r.getX();	m[0][1] = r.getY();	m[0][2] = r.getZ();	m[0][3] = 0;
-		m[1][0] = u.getX();	m[1][1] = u.getY();	m[1][2] = u.getZ();	m[1][3] = 0;
-		m[2][0] = f.getX();	m[2][1] = f.getY();	m[2][2] = f.getZ();	m[2][3] = 0;
-		m[3][0] = 0;		m[3][1] = 0;		m[3][2] = 0;		m[3][3] = 1;
+		m[0] = r.getX();	m[1] = r.getY();	m[2] = r.getZ();	m[3] = 0;
+		m[4] = u.getX();	m[5] = u.getY();	m[6] = u.getZ();	m[7] = 0;
+		m[8] = f.getX();	m[9] = f.getY();	m[10] = f.getZ();	m[11] = 0;
+		m[12] = 0;		m[13] = 0;		m[14] = 0;		m[15] = 1;
 
 		return this;
 	}
@@ -214,7 +277,7 @@ public class Matrix4f {
 	 * @return QUATERNION
 	 */
 	public Quaternion toQuaternion() {
-		float trace = m[0][0] + m[1][1] + m[2][2];
+		float trace = m[0] + m[5] + m[10];
 		
 		float w = 1;
 		float x = 0;
@@ -224,34 +287,34 @@ public class Matrix4f {
 		  {// I changed M_EPSILON to 0
 		    float s = 0.5f / (float)Math.sqrt(trace+ 1.0f);
 		    w = 0.25f / s;
-		    x = ( m[1][2] - m[2][1] ) * s;
-		    y = ( m[2][0] - m[0][2] ) * s;
-		    z = ( m[0][1] - m[1][0] ) * s;
+		    x = ( m[6] - m[9] ) * s;
+		    y = ( m[8] - m[2] ) * s;
+		    z = ( m[1] - m[4] ) * s;
 		  } 
 		  else 
 		  {
-		    if ( m[0][0] > m[1][1] && m[0][0] > m[2][2] ) 
+		    if ( m[0] > m[5] && m[0] > m[10] ) 
 		    {
-		      float s = 2.0f * (float)Math.sqrt( 1.0f + m[0][0] - m[1][1] - m[2][2]);
-		      w = (m[1][2] - m[2][1] ) / s;
+		      float s = 2.0f * (float)Math.sqrt( 1.0f + m[0] - m[5] - m[10]);
+		      w = (m[6] - m[9] ) / s;
 		      x = 0.25f * s;
-		      y = (m[1][0] + m[0][1] ) / s;
-		     z = (m[2][0] + m[0][2] ) / s;
+		      y = (m[4] + m[1] ) / s;
+		     z = (m[8] + m[2] ) / s;
 		    } 
-		    else if (m[1][1] > m[2][2]) 
+		    else if (m[5] > m[10]) 
 		    {
-		      float s = 2.0f * (float)Math.sqrt( 1.0f + m[1][1] - m[0][0] - m[2][2]);
-		      w = (m[2][0] - m[0][2] ) / s;
-		      x = (m[1][0] + m[0][1] ) / s;
+		      float s = 2.0f * (float)Math.sqrt( 1.0f + m[5] - m[0] - m[10]);
+		      w = (m[8] - m[2] ) / s;
+		      x = (m[4] + m[1] ) / s;
 		      y = 0.25f * s;
-		      z = (m[2][1] + m[1][2] ) / s;
+		      z = (m[9] + m[6] ) / s;
 		    } 
 		    else 
 		    {
-		      float s = 2.0f * (float)Math.sqrt( 1.0f + m[2][2] - m[0][0] - m[1][1] );
-		      w = (m[0][1] - m[1][0] ) / s;
-		      x = (m[2][0] + m[0][2] ) / s;
-		      y = (m[1][2] + m[2][1] ) / s;
+		      float s = 2.0f * (float)Math.sqrt( 1.0f + m[10] - m[0] - m[5] );
+		      w = (m[1] - m[4] ) / s;
+		      x = (m[8] + m[2] ) / s;
+		      y = (m[6] + m[9] ) / s;
 		      z = 0.25f * s;
 		    }
 		  }
@@ -261,11 +324,11 @@ public class Matrix4f {
 	
 	public Quaternion toQuaternionBasic()
 	{
-		float w = (float)(Math.sqrt(1.0 + m[0][0] + m[1][1] + m[2][2]) / 2.0);
+		float w = (float)(Math.sqrt(1.0 + m[0] + m[5] + m[10]) / 2.0);
 		float w4 = (4.0f * w);
-		float x = (m[1][2] - m[2][1]) / w4 ;
-		float y = (m[2][0] - m[0][2]) / w4 ;
-		float z = (m[0][1] - m[1][0]) / w4 ;
+		float x = (m[6] - m[9]) / w4 ;
+		float y = (m[8] - m[2]) / w4 ;
+		float z = (m[1] - m[4]) / w4 ;
 		
 		return new Quaternion(x,y,z,w);
 	}
@@ -276,9 +339,9 @@ public class Matrix4f {
 	 * @return Transform.
 	 */
 	public Vector3f transform(Vector3f r) {
-		return new Vector3f(m[0][0] * r.getX() + m[0][1] * r.getY() + m[0][2] * r.getZ() + m[0][3],
-		                    m[1][0] * r.getX() + m[1][1] * r.getY() + m[1][2] * r.getZ() + m[1][3],
-		                    m[2][0] * r.getX() + m[2][1] * r.getY() + m[2][2] * r.getZ() + m[2][3]);
+		return new Vector3f(m[0] * r.getX() + m[1] * r.getY() + m[2] * r.getZ() + m[3],
+		                    m[4] * r.getX() + m[5] * r.getY() + m[6] * r.getZ() + m[7],
+		                    m[8] * r.getX() + m[9] * r.getY() + m[10] * r.getZ() + m[11]);
 	}
 	
 	/**
@@ -295,10 +358,10 @@ public class Matrix4f {
 		
 		Vector3f u = f.cross(r);
 		
-		m[0][0] = r.getX();	m[0][1] = r.getY();	m[0][2] = r.getZ();	m[0][3] = 0;
-		m[1][0] = u.getX();	m[1][1] = u.getY();	m[1][2] = u.getZ();	m[1][3] = 0;
-		m[2][0] = f.getX();	m[2][1] = f.getY();	m[2][2] = f.getZ();	m[2][3] = 0;
-		m[3][0] = 0;		m[3][1] = 0;		m[3][2] = 0;		m[3][3] = 1;
+		m[0] = r.getX();	m[1] = r.getY();	m[2] = r.getZ();	m[3] = 0;
+		m[4] = u.getX();	m[5] = u.getY();	m[6] = u.getZ();	m[7] = 0;
+		m[8] = f.getX();	m[9] = f.getY();	m[10] = f.getZ();	m[11] = 0;
+		m[12] = 0;		m[13] = 0;		m[14] = 0;		m[15] = 1;
 		
 		return this;
 	}
@@ -309,18 +372,38 @@ public class Matrix4f {
 	 * @return Multiplied matrix.
 	 */
 	public Matrix4f mul(Matrix4f r) {
-		Matrix4f res = new Matrix4f();
-		
-		for(int i = 0; i < 4; i++) {
-			for(int j = 0; j < 4; j++) {
-				res.set(i, j, m[i][0] * r.get(0, j) +
-							  m[i][1] * r.get(1, j) +
-							  m[i][2] * r.get(2, j) +
-							  m[i][3] * r.get(3, j));
-			}
+		return mulInto(r, new Matrix4f());
+	}
+	
+	/**
+	 * Multiply the matrix by other matrix into a third one.
+	 * @param r multiplier.
+	 * @param dest matrix to write, it can be this one but not r.
+	 * @return The written matrix.
+	 */
+	public Matrix4f mulInto(Matrix4f r, Matrix4f dest) {
+		float[] n = r.m;
+		for(int i = 0; i < 16; i += 4) {
+			float m0 = m[i];
+			float m1 = m[i + 1];
+			float m2 = m[i + 2];
+			float m3 = m[i + 3];
+			for(int j = 0; j < 4; j++)
+				dest.m[i + j] = m0 * n[j] + m1 * n[4 + j] + m2 * n[8 + j] + m3 * n[12 + j];
 		}
 		
-		return res;
+		return dest;
+	}
+	
+	/**
+	 * Copies the data of other matrix.
+	 * @param r matrix to copy.
+	 * @return This matrix.
+	 */
+	public Matrix4f set(Matrix4f r) {
+		System.arraycopy(r.m, 0, m, 0, 16);
+		
+		return this;
 	}
 	
 	/**
@@ -332,7 +415,7 @@ public class Matrix4f {
 		
 		for(int i = 0; i < 4; i++)
 			for(int j = 0; j < 4; j++)
-				res[i][j] = m[i][j];
+				res[i][j] = m[i * 4 + j];
 		
 		return res;
 	}
@@ -343,13 +426,17 @@ public class Matrix4f {
 	 * @param y component.
 	 * @return x and y component of the matrix.
 	 */
-	public float get(int x, int y) {return m[x][y];}
+	public float get(int x, int y) {return m[x * 4 + y];}
 
 	/**
-	 * Sets a new matrix for the main matrix.
+	 * Copies a new matrix into the main matrix.
 	 * @param m new matrix.
 	 */
-	public void setM(float[][] m) {this.m = m;}
+	public void setM(float[][] m) {
+		for(int i = 0; i < 4; i++)
+			for(int j = 0; j < 4; j++)
+				this.m[i * 4 + j] = m[i][j];
+	}
 	
 	/**
 	 * Sets the x and y part of matrix with a value.
@@ -357,6 +444,6 @@ public class Matrix4f {
 	 * @param y index of the matrix.
 	 * @param value to set.
 	 */
-	public void set(int x, int y, float value) {m[x][y] = value;}
+	public void set(int x, int y, float value) {m[x * 4 + y] = value;}
 	
 }
@@ -0,0 +1,381 @@
+/*
+ * Copyright 2018 Carlos Rodriguez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package engine.core;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import engine.core.utils.Log;
+
+/**
+ * Scoped frame profiler. Code is measured between {@link #begin(String)}
+ * and {@link #end()}, scopes nest into a path like
+ * {@code Update/Level.update/Level.checkCollisions} and every thread
+ * closes its frame with {@link #endFrame(String)}, which stores the time
+ * spent on each scope during that frame in a ring of the last
+ * {@link #FRAMES} frames.
+ *
+ * @author Carlos Rodriguez
+ * @version 1.0
+ * @since 2018
+ */
+public class Profiler {
+
+	public static final int 							FRAMES = 512;
+
+	private static final ConcurrentHashMap<String, Scope> scopes = new ConcurrentHashMap<String, Scope>();
+	private static final ThreadLocal<Frame> 			frames = new ThreadLocal<Frame>() {
+		protected Frame initialValue() {return new Frame();}
+	};
+
+	/**
+	 * Starts measuring a scope inside the scope that is open on
+	 * the calling thread.
+	 * @param name of the scope.
+	 */
+	public static void begin(String name) {
+		Frame frame = frames.get();
+		Scope parent = frame.depth == 0 ? frame.root : frame.stack[frame.depth - 1];
+		Scope scope = parent.children.get(name);
+		if(scope == null) {
+			scope = register(parent, name, frame);
+			parent.children.put(name, scope);
+		}
+		frame.push(scope, System.nanoTime());
+	}
+
+	/**
+	 * Stops measuring the last scope opened on the calling thread.
+	 */
+	public static void end() {
+		long now = System.nanoTime();
+		Frame frame = frames.get();
+		if(frame.depth == 0)
+			return;
+		frame.depth--;
+		Scope scope = frame.stack[frame.depth];
+		scope.accumulated += now - frame.starts[frame.depth];
+		scope.calls++;
+	}
+
+	/**
+	 * Adds a value that was not measured with {@link #begin(String)},
+	 * like a timing error, to a scope inside the open one.
+	 * @param name of the scope.
+	 * @param nanos to add.
+	 */
+	public static void sample(String name, long nanos) {
+		Frame frame = frames.get();
+		Scope parent = frame.depth == 0 ? frame.root : frame.stack[frame.depth - 1];
+		Scope scope = parent.children.get(name);
+		if(scope == null) {
+			scope = register(parent, name, frame);
+			parent.children.put(name, scope);
+		}
+		scope.accumulated += nanos;
+		scope.calls++;
+	}
+
+	/**
+	 * Closes the frame of the calling thread: the time since the last
+	 * call is stored in the {@code name} scope and every scope of this
+	 * thread writes what it spent in the ring.
+	 * @param name of the scope that holds the whole frame.
+	 */
+	public static void endFrame(String name) {
+		long now = System.nanoTime();
+		Frame frame = frames.get();
+		Scope scope = frame.root.children.get(name);
+		if(scope == null) {
+			scope = register(frame.root, name, frame);
+			frame.root.children.put(name, scope);
+		}
+		if(frame.lastFrame != 0) {
+			scope.accumulated += now - frame.lastFrame;
+			scope.calls++;
+		}
+		frame.lastFrame = now;
+		for(int i = 0; i < frame.owned.size(); i++)
+			frame.owned.get(i).commit();
+	}
+
+	/**
+	 * Returns the scope with that path or null if it was never measured.
+	 * @param path of the scope.
+	 * @return Scope.
+	 */
+	public static Scope getScope(String path) {return scopes.get(path);}
+
+	/**
+	 * Returns every scope measured by any thread ordered by path.
+	 * @return Scopes.
+	 */
+	public static ArrayList<Scope> getScopes() {
+		ArrayList<Scope> result = new ArrayList<Scope>(scopes.values());
+		Collections.sort(result, new Comparator<Scope>() {
+			public int compare(Scope a, Scope b) {return a.path.compareTo(b.path);}
+		});
+		return result;
+	}
+
+	/**
+	 * Returns the scopes that take the most time in the 95th
+	 * percentile frame.
+	 * @param count of scopes to return.
+	 * @return Slowest scopes.
+	 */
+	public static ArrayList<Scope> getTopScopes(int count) {
+		final ArrayList<Scope> result = getScopes();
+		final HashMap<Scope, Long> p95 = new HashMap<Scope, Long>();
+		for(Scope scope : result)
+			p95.put(scope, scope.getPercentile(0.95));
+		Collections.sort(result, new Comparator<Scope>() {
+			public int compare(Scope a, Scope b) {return Long.compare(p95.get(b), p95.get(a));}
+		});
+		while(result.size() > count)
+			result.remove(result.size() - 1);
+		return result;
+	}
+
+	/**
+	 * Writes the percentiles of every scope as comma separated values.
+	 * @param file to write.
+	 */
+	public static void exportCSV(File file) {
+		try (Writer writer = new FileWriter(file)) {
+			writer.write("scope,frames,calls,mean_us,p50_us,p95_us,p99_us,max_us\n");
+			for(Scope scope : getScopes()) {
+				long[] samples = scope.getSamples();
+				writer.write(scope.path + "," + samples.length + "," + scope.totalCalls + "," + micros(mean(samples)) + ","
+						+ micros(percentile(samples, 0.5)) + "," + micros(percentile(samples, 0.95)) + ","
+						+ micros(percentile(samples, 0.99)) + "," + micros(percentile(samples, 1.0)) + "\n");
+			}
+		} catch (IOException e) {
+			Log.error("Could not export the profiler to " + file + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Writes the percentiles and the raw frame samples of every scope
+	 * as a JSON document.
+	 * @param file to write.
+	 */
+	public static void exportJSON(File file) {
+		try (Writer writer = new FileWriter(file)) {
+			writer.write("{\"frames\":" + FRAMES + ",\"scopes\":[");
+			ArrayList<Scope> list = getScopes();
+			for(int i = 0; i < list.size(); i++) {
+				Scope scope = list.get(i);
+				long[] samples = scope.getSamples();
+				writer.write((i == 0 ? "" : ",") + "\n{\"scope\":\"" + scope.path.replace("\"", "\\\"") + "\",\"depth\":" + scope.depth
+						+ ",\"calls\":" + scope.totalCalls + ",\"mean_us\":" + micros(mean(samples))
+						+ ",\"p50_us\":" + micros(percentile(samples, 0.5)) + ",\"p95_us\":" + micros(percentile(samples, 0.95))
+						+ ",\"p99_us\":" + micros(percentile(samples, 0.99)) + ",\"samples_ns\":" + Arrays.toString(samples) + "}");
+			}
+			writer.write("\n]}\n");
+		} catch (IOException e) {
+			Log.error("Could not export the profiler to " + file + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Writes both exports in the engine folder named after the
+	 * current time.
+	 */
+	public static void export() {
+		File folder = new File(Debug.getEngineFolder(), "profiler");
+		folder.mkdirs();
+		String name = "frames-" + System.currentTimeMillis();
+		exportCSV(new File(folder, name + ".csv"));
+		exportJSON(new File(folder, name + ".json"));
+		Log.message("Profiler exported to " + new File(folder, name) + ".csv/.json");
+	}
+
+	/**
+	 * Returns a percentile of some samples.
+	 * @param samples to check.
+	 * @param percentile between 0 and 1.
+	 * @return Value.
+	 */
+	public static long percentile(long[] samples, double percentile) {
+		if(samples.length == 0)
+			return 0;
+		long[] sorted = samples.clone();
+		Arrays.sort(sorted);
+		int index = (int) Math.ceil(percentile * sorted.length) - 1;
+		return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+	}
+
+	/**
+	 * Returns the mean of some samples.
+	 * @param samples to check.
+	 * @return Mean.
+	 */
+	public static long mean(long[] samples) {
+		if(samples.length == 0)
+			return 0;
+		long total = 0;
+		for(long sample : samples)
+			total += sample;
+		return total / samples.length;
+	}
+
+	/**
+	 * Converts nanoseconds to microseconds.
+	 * @param nanos to convert.
+	 * @return Microseconds.
+	 */
+	private static float micros(long nanos) {return nanos / 1000.0f;}
+
+	/**
+	 * Creates a new scope under another one.
+	 * @param parent scope.
+	 * @param name of the scope.
+	 * @param frame of the thread that owns the scope.
+	 * @return Scope.
+	 */
+	private static Scope register(Scope parent, String name, Frame frame) {
+		String path = parent.path.isEmpty() ? name : parent.path + "/" + name;
+		Scope scope = new Scope(path, parent.depth + 1);
+		Scope old = scopes.putIfAbsent(path, scope);
+		if(old != null)
+			scope = old;
+		frame.owned.add(scope);
+		return scope;
+	}
+
+	/**
+	 * Measured piece of code with the time it took in the last frames.
+	 *
+	 * @author Carlos Rodriguez
+	 * @version 1.0
+	 * @since 2018
+	 */
+	public static class Scope {
+
+		private final String 		path;
+		private final int 			depth;
+		private final long[] 		samples = new long[FRAMES];
+		private final HashMap<String, Scope> children = new HashMap<String, Scope>();
+		private volatile long 		written;
+		private long 				accumulated;
+		private long 				calls;
+		private volatile long 		totalCalls;
+
+		/**
+		 * Constructor of a scope.
+		 * @param path of the scope.
+		 * @param depth of the scope.
+		 */
+		private Scope(String path, int depth) {
+			this.path = path;
+			this.depth = depth;
+		}
+
+		/**
+		 * Stores the time of this frame in the ring, the sample is
+		 * written before the counter so readers never see a half
+		 * written frame.
+		 */
+		private void commit() {
+			samples[(int) (written % FRAMES)] = accumulated;
+			totalCalls += calls;
+			written++;
+			accumulated = 0;
+			calls = 0;
+		}
+
+		/**
+		 * Returns a copy of the stored frame samples in nanoseconds,
+		 * oldest first.
+		 * @return Samples.
+		 */
+		public long[] getSamples() {
+			long count = written;
+			int size = (int) Math.min(count, FRAMES);
+			long[] result = new long[size];
+			for(int i = 0; i < size; i++)
+				result[i] = samples[(int) ((count - size + i) % FRAMES)];
+			return result;
+		}
+
+		/**
+		 * Returns a percentile of the stored frames in nanoseconds.
+		 * @param percentile between 0 and 1.
+		 * @return Time.
+		 */
+		public long getPercentile(double percentile) {return Profiler.percentile(getSamples(), percentile);}
+
+		/**
+		 * Returns the path of the scope.
+		 * @return Path.
+		 */
+		public String getPath() {return path;}
+
+		/**
+		 * Returns the nesting level of the scope.
+		 * @return Depth.
+		 */
+		public int getDepth() {return depth;}
+
+		/**
+		 * Returns how many times the scope was measured.
+		 * @return Calls.
+		 */
+		public long getCalls() {return totalCalls;}
+	}
+
+	/**
+	 * Open scopes and owned scopes of a single thread.
+	 *
+	 * @author Carlos Rodriguez
+	 * @version 1.0
+	 * @since 2018
+	 */
+	private static class Frame {
+
+		private final Scope 			root = new Scope("", 0);
+		private final ArrayList<Scope> 	owned = new ArrayList<Scope>();
+		private Scope[] 				stack = new Scope[32];
+		private long[] 					starts = new long[32];
+		private int 					depth;
+		private long 					lastFrame;
+
+		/**
+		 * Opens a scope.
+		 * @param scope to open.
+		 * @param start time in nanoseconds.
+		 */
+		private void push(Scope scope, long start) {
+			if(depth == stack.length) {
+				stack = Arrays.copyOf(stack, depth * 2);
+				starts = Arrays.copyOf(starts, depth * 2);
+			}
+			stack[depth] = scope;
+			starts[depth] = start;
+			depth++;
+		}
+	}
+
+}
@@ -149,6 +149,17 @@ public class Quaternion {
         return new Quaternion(x / length, y / length, z / length, w / length);
     }
 
+    /**
+     * Normalizes the QUATERNION data into other QUATERNION.
+     * @param dest QUATERNION to write, it can be this one.
+     * @return The written QUATERNION.
+     */
+    public Quaternion normalizedInto(Quaternion dest) {
+        float length = length();
+
+        return dest.Set(x / length, y / length, z / length, w / length);
+    }
+
     /**
      * CONJUGATES the QUATERNION axis.
      * @return CONJUGATED.
@@ -180,6 +191,21 @@ public class Quaternion {
         return new Quaternion(x_, y_, z_, w_);
     }
 
+    /**
+	 * Multiply the QUATERNION by other QUATERNION into a third one.
+	 * @param r multiplier.
+	 * @param dest QUATERNION to write, it can be this one or r.
+	 * @return The written QUATERNION.
+	 */
+    public Quaternion mulInto(Quaternion r, Quaternion dest) {
+        float w_ = w * r.getW() - x * r.getX() - y * r.getY() - z * r.getZ();
+        float x_ = x * r.getW() + w * r.getX() + y * r.getZ() - z * r.getY();
+        float y_ = y * r.getW() + w * r.getY() + z * r.getX() - x * r.getZ();
+        float z_ = z * r.getW() + w * r.getZ() + x * r.getY() - y * r.getX();
+
+        return dest.Set(x_, y_, z_, w_);
+    }
+
     /**
 	 * Multiply the QUATERNION by a vector.
 	 * @param r multiplier.
@@ -249,6 +275,24 @@ public class Quaternion {
 		return correctedDest.Sub(this).mul(lerpFactor).Add(this).normalized();
 	}
 
+	/**
+	 * LERP function of the QUATERNION like {@link #NLerp(Quaternion, float, boolean)},
+	 * writing the result into other QUATERNION.
+	 * @param dest QUATERNION.
+	 * @param lerpFactor of the LERP.
+	 * @param shortest boolean.
+	 * @param result QUATERNION to write, it can be this one or dest.
+	 * @return The written QUATERNION.
+	 */
+	public Quaternion NLerpInto(Quaternion dest, float lerpFactor, boolean shortest, Quaternion result) {
+		float sign = shortest && this.Dot(dest) < 0 ? -1 : 1;
+
+		return result.Set((sign * dest.getX() - x) * lerpFactor + x,
+				(sign * dest.getY() - y) * lerpFactor + y,
+				(sign * dest.getZ() - z) * lerpFactor + z,
+				(sign * dest.getW() - w) * lerpFactor + w).normalizedInto(result);
+	}
+
 	/**
 	 * LERP function of the QUATERNION. 
 	 * @param dest QUATERNION.
@@ -337,6 +381,19 @@ public class Quaternion {
 									   {0.0f, 0.0f, 0.0f, 1.0f}};
 		return new Matrix4f(m);
 	}
+
+	/**
+	 * Writes the rotation matrix of the quaternion into a matrix.
+	 * @param dest matrix to write.
+	 * @return The written matrix.
+	 */
+	public Matrix4f getRotationMatrixInto(Matrix4f dest) {
+		dest.set(0, 0, 1.0f - 2.0f * (y*y + z*z));	dest.set(0, 1, 2.0f * (x*y - w*z));			dest.set(0, 2, 2.0f * (x*z + w*y));			dest.set(0, 3, 0.0f);
+		dest.set(1, 0, 2.0f * (x*y + w*z));			dest.set(1, 1, 1.0f - 2.0f * (x*x + z*z));	dest.set(1, 2, 2.0f * (y*z - w*x));			dest.set(1, 3, 0.0f);
+		dest.set(2, 0, 2.0f * (x*z - w*y));			dest.set(2, 1, 2.0f * (y * z + w * x));		dest.set(2, 2, 1.0f - 2.0f * (x * x + y * y));	dest.set(2, 3, 0.0f);
+		dest.set(3, 0, 0.0f);						dest.set(3, 1, 0.0f);						dest.set(3, 2, 0.0f);						dest.set(3, 3, 1.0f);
+		return dest;
+	}
 	
 	/**
 	 * Returns the forward vector.
@@ -346,6 +403,15 @@ public class Quaternion {
 		return new Vector3f(2.0f * (x*z - w*y), 2.0f * (y * z + w * x), 1.0f - 2.0f * (x * x + y * y));
 	}
 	
+	/**
+	 * Writes the forward vector into other vector.
+	 * @param dest vector to write.
+	 * @return The written vector.
+	 */
+	public Vector3f getForwardInto(Vector3f dest) {
+		return dest.set(2.0f * (x*z - w*y), 2.0f * (y * z + w * x), 1.0f - 2.0f * (x * x + y * y));
+	}
+	
 	/**
 	 * Returns the back vector.
 	 * @return back vector
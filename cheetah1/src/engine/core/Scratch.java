@@ -0,0 +1,137 @@
+/*
+ * Copyright 2018 Carlos Rodriguez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package engine.core;
+
+import java.util.Arrays;
+
+/**
+ * Pools of vectors, quaternions and matrices to work out things in
+ * the middle of a method without making new ones. Everything taken
+ * after {@link #begin()} goes back to the pools on the matching
+ * {@link #end()}, so nothing taken can be kept after it. The pools
+ * only grow while the game warms up.
+ * <p>
+ * They belong to the thread of the game, the workers of the
+ * {@link JobSystem} can't use them.
+ *
+ * @author Carlos Rodriguez
+ * @version 1.0
+ * @since 2018
+ */
+public class Scratch {
+
+	private static Vector2f[] 		vectors2 = new Vector2f[0];
+	private static Vector3f[] 		vectors3 = new Vector3f[0];
+	private static Quaternion[] 	quaternions = new Quaternion[0];
+	private static Matrix4f[] 		matrices = new Matrix4f[0];
+	private static int 				used2;
+	private static int 				used3;
+	private static int 				usedQuaternions;
+	private static int 				usedMatrices;
+	private static int[] 			marks = new int[4 * 16];
+	private static int 				depth;
+	private static Thread 			owner;
+
+	/**
+	 * Starts taking things from the pools.
+	 */
+	public static void begin() {
+		if(owner == null)
+			owner = Thread.currentThread();
+		else if(owner != Thread.currentThread())
+			throw new IllegalStateException("Scratch can only be used from the game thread.");
+		if(depth * 4 == marks.length)
+			marks = Arrays.copyOf(marks, marks.length * 2);
+		marks[depth * 4] = used2;
+		marks[depth * 4 + 1] = used3;
+		marks[depth * 4 + 2] = usedQuaternions;
+		marks[depth * 4 + 3] = usedMatrices;
+		depth++;
+	}
+
+	/**
+	 * Gives back everything taken since the matching {@link #begin()}.
+	 */
+	public static void end() {
+		depth--;
+		used2 = marks[depth * 4];
+		used3 = marks[depth * 4 + 1];
+		usedQuaternions = marks[depth * 4 + 2];
+		usedMatrices = marks[depth * 4 + 3];
+	}
+
+	/**
+	 * Takes a vector of 2.
+	 * @param x value.
+	 * @param y value.
+	 * @return The vector.
+	 */
+	public static Vector2f vector2(float x, float y) {
+		if(used2 == vectors2.length) {
+			vectors2 = Arrays.copyOf(vectors2, Math.max(16, used2 * 2));
+			for(int i = used2; i < vectors2.length; i++)
+				vectors2[i] = new Vector2f(0, 0);
+		}
+		return vectors2[used2++].set(x, y);
+	}
+
+	/**
+	 * Takes a vector of 3.
+	 * @param x value.
+	 * @param y value.
+	 * @param z value.
+	 * @return The vector.
+	 */
+	public static Vector3f vector3(float x, float y, float z) {
+		if(used3 == vectors3.length) {
+			vectors3 = Arrays.copyOf(vectors3, Math.max(16, used3 * 2));
+			for(int i = used3; i < vectors3.length; i++)
+				vectors3[i] = new Vector3f(0, 0, 0);
+		}
+		return vectors3[used3++].set(x, y, z);
+	}
+
+	/**
+	 * Takes a quaternion.
+	 * @param x value.
+	 * @param y value.
+	 * @param z value.
+	 * @param w value.
+	 * @return The quaternion.
+	 */
+	public static Quaternion quaternion(float x, float y, float z, float w) {
+		if(usedQuaternions == quaternions.length) {
+			quaternions = Arrays.copyOf(quaternions, Math.max(8, usedQuaternions * 2));
+			for(int i = usedQuaternions; i < quaternions.length; i++)
+				quaternions[i] = new Quaternion(0, 0, 0, 1);
+		}
+		return quaternions[usedQuaternions++].Set(x, y, z, w);
+	}
+
+	/**
+	 * Takes an identity matrix.
+	 * @return The matrix.
+	 */
+	public static Matrix4f matrix() {
+		if(usedMatrices == matrices.length) {
+			matrices = Arrays.copyOf(matrices, Math.max(8, usedMatrices * 2));
+			for(int i = usedMatrices; i < matrices.length; i++)
+				matrices[i] = new Matrix4f();
+		}
+		return matrices[usedMatrices++].initIdentity();
+	}
+
+}
@@ -29,6 +29,9 @@ public class Time {
 	private static String[] months = new String[12];
 
 	private static Calendar calendar;
+	
+	private static double fixedBase;
+	private static double fixedStep;
     
     static
 	{
@@ -99,9 +102,31 @@ public class Time {
 	}
 
     /**
-     * Gets the time of compiling.
+     * Gets the time of the game, while the input is recorded or
+     * replayed it only moves with the ticks so a replay sees the same
+     * times the recording did.
      * @return Program's time.
      */
-    public static double getTime() { return (double) System.nanoTime() / (double) 1000000000L; }
+    public static double getTime() { return fixedStep > 0 ? fixedBase + CoreEngine.getTick() * fixedStep : getRealTime(); }
+    
+    /**
+     * Gets the time of the machine, for the code that paces the
+     * game loop itself.
+     * @return Machine's time.
+     */
+    public static double getRealTime() { return (double) System.nanoTime() / (double) 1000000000L; }
+    
+    /**
+     * Makes the game time advance a fixed step every tick.
+     * @param base time of the tick zero.
+     * @param step time of every tick.
+     */
+    public static void setFixedClock(double base, double step) { fixedBase = base; fixedStep = step; }
+    
+    /**
+     * Checks if the game time only moves with the ticks.
+     * @return If the clock is fixed.
+     */
+    public static boolean isFixed() { return fixedStep > 0; }
 
 }
@@ -26,11 +26,31 @@ public class Transform {
     private Vector3f 		position;
     private Vector3f 		rotation;
     private Vector3f 		scale;
+    private boolean 		ownsPosition;
+    private boolean 		ownsRotation = true;
+    private boolean 		ownsScale = true;
+    
+    private Vector3f 		previousPosition;
+    private Vector3f 		previousRotation;
+    private Vector3f 		previousScale;
+    private long 			tick = -1;
+    
+    private final Matrix4f 	transformation = new Matrix4f();
+    private final float[] 	built = new float[9];
+    private boolean 		dirty = true;
+    private final Matrix4f 	interpolated = new Matrix4f();
+    private final float[] 	interpolatedBuilt = new float[9];
+    private float 			interpolatedAlpha = Float.NaN;
+    private long 			interpolatedTick = -1;
+    
+    private boolean 		billboard;
+    private final Matrix4f 	billboardTransformation = new Matrix4f();
+    private long 			billboardFrame = -1;
     
     /**
      * Basic constructor for a transform.
      */
-    public Transform() { this(new Vector3f(0, 0, 0)); }
+    public Transform() { this(new Vector3f(0, 0, 0)); ownsPosition = true; }
 
     /**
      * The main transform constructor of an object in a 3D space.
@@ -40,83 +60,215 @@ public class Transform {
         this.position = position;
         this.rotation = new Vector3f(0, 0, 0);
         this.scale = new Vector3f(1, 1, 1);
+        this.previousPosition = new Vector3f(position.getX(), position.getY(), position.getZ());
+        this.previousRotation = new Vector3f(0, 0, 0);
+        this.previousScale = new Vector3f(1, 1, 1);
+    }
+    
+    /**
+     * Keeps the state the transform had when the current tick started,
+     * it has to run before anything can change the transform.
+     */
+    private void track() {
+    	long current = CoreEngine.getTick();
+    	if(tick != current) {
+    		tick = current;
+    		previousPosition.set(position);
+    		previousRotation.set(rotation);
+    		previousScale.set(scale);
+    	}
     }
     
     /**
      * Returns the transformation data on the translation matrix,
-     * rotation matrix and the scale matrix.
+     * rotation matrix and the scale matrix. The matrix is only worked out
+     * again when the position, rotation or scale changed since the last
+     * time, so every light pass of a frame gets the same one; the
+     * returned matrix is reused and must not be kept.
      * @return Transformation.
      */
     public Matrix4f getTransformation() {
-        Matrix4f translationMatrix = new Matrix4f().initTranslation(position.getX(), position.getY(), position.getZ());
-        Matrix4f rotationMatrix = new Matrix4f().initRotation(rotation.getX(), rotation.getY(), rotation.getZ());
-        Matrix4f scaleMatrix = new Matrix4f().initScale(scale.getX(), scale.getY(), scale.getZ());
-
-        return translationMatrix.mul(rotationMatrix.mul(scaleMatrix));
+    	if(changed(built, position, rotation, scale) || dirty) {
+    		transformation.initTransformation(position, rotation, scale);
+    		dirty = false;
+    	}
+    	return transformation;
+    }
+    
+    /**
+     * Returns the transformation between the state before and after
+     * the last tick, so the frames drawn between two ticks move smoothly.
+     * Like {@link #getTransformation()} it's only worked out again when
+     * something changed, and the returned matrix is reused.
+     * @param alpha how far the display is into the next tick, from 0 to 1.
+     * @return Transformation.
+     */
+    public Matrix4f getTransformation(float alpha) {
+    	if(tick != CoreEngine.getTick() || alpha >= 1)
+    		return getTransformation();
+    	
+    	if(!changed(interpolatedBuilt, position, rotation, scale) && interpolatedAlpha == alpha && interpolatedTick == tick)
+    		return interpolated;
+    	interpolatedAlpha = alpha;
+    	interpolatedTick = tick;
+    	
+    	interpolated.initTransformation((position.getX() - previousPosition.getX()) * alpha + previousPosition.getX(), 
+    			(position.getY() - previousPosition.getY()) * alpha + previousPosition.getY(), 
+    			(position.getZ() - previousPosition.getZ()) * alpha + previousPosition.getZ(), 
+    			lerpAngle(previousRotation.getX(), rotation.getX(), alpha), 
+    			lerpAngle(previousRotation.getY(), rotation.getY(), alpha), 
+    			lerpAngle(previousRotation.getZ(), rotation.getZ(), alpha), 
+    			(scale.getX() - previousScale.getX()) * alpha + previousScale.getX(), 
+    			(scale.getY() - previousScale.getY()) * alpha + previousScale.getY(), 
+    			(scale.getZ() - previousScale.getZ()) * alpha + previousScale.getZ());
+    	return interpolated;
+    }
+    
+    /**
+     * Returns the transformation of a billboard, turned with the rotation
+     * all the billboards share in a frame instead of its own one. It's
+     * worked out once per frame and reused by every light pass.
+     * @param basis rotation that faces the camera on this frame.
+     * @param frame being drawn.
+     * @param alpha how far the display is into the next tick, from 0 to 1.
+     * @return Transformation.
+     */
+    public Matrix4f getTransformation(Matrix4f basis, long frame, float alpha) {
+    	if(billboardFrame == frame)
+    		return billboardTransformation;
+    	billboardFrame = frame;
+    	
+    	if(tick != CoreEngine.getTick() || alpha >= 1)
+    		return billboardTransformation.initTransformation(position.getX(), position.getY(), position.getZ(), 
+    				basis, scale.getX(), scale.getY(), scale.getZ());
+    	
+    	return billboardTransformation.initTransformation((position.getX() - previousPosition.getX()) * alpha + previousPosition.getX(), 
+    			(position.getY() - previousPosition.getY()) * alpha + previousPosition.getY(), 
+    			(position.getZ() - previousPosition.getZ()) * alpha + previousPosition.getZ(), basis, 
+    			(scale.getX() - previousScale.getX()) * alpha + previousScale.getX(), 
+    			(scale.getY() - previousScale.getY()) * alpha + previousScale.getY(), 
+    			(scale.getZ() - previousScale.getZ()) * alpha + previousScale.getZ());
+    }
+    
+    /**
+     * Checks if the position, rotation or scale aren't the ones a matrix
+     * was worked out from, and keeps them if they aren't. The values are
+     * compared and not the vectors because they can be changed in place.
+     * @param values the matrix was worked out from.
+     * @param position of the transform.
+     * @param rotation of the transform.
+     * @param scale of the transform.
+     * @return If something changed.
+     */
+    private static boolean changed(float[] values, Vector3f position, Vector3f rotation, Vector3f scale) {
+    	boolean changed = values[0] != position.getX() || values[1] != position.getY() || values[2] != position.getZ() 
+    			|| values[3] != rotation.getX() || values[4] != rotation.getY() || values[5] != rotation.getZ() 
+    			|| values[6] != scale.getX() || values[7] != scale.getY() || values[8] != scale.getZ();
+    	if(changed) {
+    		values[0] = position.getX(); values[1] = position.getY(); values[2] = position.getZ();
+    		values[3] = rotation.getX(); values[4] = rotation.getY(); values[5] = rotation.getZ();
+    		values[6] = scale.getX(); values[7] = scale.getY(); values[8] = scale.getZ();
+    	}
+    	return changed;
+    }
+    
+    /**
+     * Interpolates an angle in degrees through the shortest turn.
+     * @param from angle.
+     * @param to angle.
+     * @param alpha of the interpolation.
+     * @return Angle.
+     */
+    private static float lerpAngle(float from, float to, float alpha) {
+    	float difference = ((to - from + 180.0f) % 360.0f + 360.0f) % 360.0f - 180.0f;
+    	return from + difference * alpha;
     }
 
     /**
      * Returns the 3D position of the transform.
      * @return 3D position of the transform.
      */
-    public Vector3f getPosition() {return position;}
+    public Vector3f getPosition() {track(); return position;}
 
     /**
-     * Sets a new 3D position for the transform into a vector.
+     * Sets a new 3D position for the transform into a vector. The
+     * transform keeps the vector itself, so it moves with it.
      * @param position in a 3D space.
      */
-    public void setPosition(Vector3f position) {this.position = position;}
+    public void setPosition(Vector3f position) {track(); this.position = position; ownsPosition = false;}
 
     /**
      * Sets a new 3D position for the transform into a vector but
-     * with floating point data.
+     * with floating point data. It's written into the vector the
+     * transform made, never into one it was given.
      * @param x axis.
      * @param y axis.
      * @param z axis.
      */
-    public void setPosition(float x, float y, float z) {this.position = new Vector3f(x, y, z);}
+    public void setPosition(float x, float y, float z) {
+    	track();
+    	if(ownsPosition)
+    		position.set(x, y, z);
+    	else
+    		position = new Vector3f(x, y, z);
+    	ownsPosition = true;
+    }
 
     /**
      * Returns the 3D rotation of the transform.
      * @return 3D rotation of the transform.
      */
-    public Vector3f getRotation() {return rotation;}
+    public Vector3f getRotation() {track(); return rotation;}
     
     /**
      * Sets a new 3D rotation for the transform into a vector.
      * @param rotation to set.
      */
-    public void setRotation(Vector3f rotation) {this.rotation = rotation;}
+    public void setRotation(Vector3f rotation) {track(); this.rotation = rotation; ownsRotation = false;}
 
     /**
      * Sets a new 3D rotation for the transform into a vector but
-     * with floating point data.
+     * with floating point data, written like the position.
      * @param x axis.
      * @param y axis.
      * @param z axis.
      */
-    public void setRotation(float x, float y, float z) {this.rotation = new Vector3f(x, y, z);}
+    public void setRotation(float x, float y, float z) {
+    	track();
+    	if(ownsRotation)
+    		rotation.set(x, y, z);
+    	else
+    		rotation = new Vector3f(x, y, z);
+    	ownsRotation = true;
+    }
 
     /**
      * Gets the scale of the transform
      * @return scale.
      */
-    public Vector3f getScale() {return scale;}
+    public Vector3f getScale() {track(); return scale;}
 
     /**
      * Sets a new scale for the transform into a vector.
      * @param scale vector data.
      */
-    public void setScale(Vector3f scale) {this.scale = scale;}
+    public void setScale(Vector3f scale) {track(); this.scale = scale; ownsScale = false;}
 
     /**
      * Sets a new scale for the transform into a vector but
-     * with floating point data.
+     * with floating point data, written like the position.
      * @param x axis.
      * @param y axis.
      * @param z axis.
      */
-    public void setScale(float x, float y, float z) {this.scale = new Vector3f(x, y, z);}
+    public void setScale(float x, float y, float z) {
+    	track();
+    	if(ownsScale)
+    		scale.set(x, y, z);
+    	else
+    		scale = new Vector3f(x, y, z);
+    	ownsScale = true;
+    }
 
     /**
      * Sets a linear scaling for the transform.
@@ -124,4 +276,17 @@ public class Transform {
      */
     public void setScale(float amt) {setScale(amt, amt, amt);}
     
+    /**
+     * Checks if the transform always faces the camera, whatever
+     * its rotation is.
+     * @return If it's a billboard.
+     */
+    public boolean isBillboard() {return billboard;}
+    
+    /**
+     * Makes the transform face the camera, whatever its rotation is.
+     * @param billboard if it faces the camera.
+     */
+    public void setBillboard(boolean billboard) {this.billboard = billboard;}
+    
 }
\ No newline at end of file
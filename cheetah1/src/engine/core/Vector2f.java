@@ -78,6 +78,17 @@ public class Vector2f {
         return new Vector2f(x / length, y / length);
     }
 
+    /**
+     * Normalizes the data in vector into other vector.
+     * @param dest Vector to write, it can be this one.
+     * @return The written vector.
+     */
+    public Vector2f normalizedInto(Vector2f dest) {
+        float length = length();
+
+        return dest.set(x / length, y / length);
+    }
+
     /**
      * Rotates the vector's data by an float angle
      * @param angle Rotating angle.
@@ -91,6 +102,20 @@ public class Vector2f {
         return new Vector2f((float) (x * cos - y * sin), (float) (x * sin + y * cos));
     }
 
+    /**
+     * Rotates the vector's data by an float angle into other vector.
+     * @param angle Rotating angle.
+     * @param dest Vector to write, it can be this one.
+     * @return The written vector.
+     */
+    public Vector2f rotateInto(float angle, Vector2f dest) {
+        double rad = Math.toRadians(angle);
+        double cos = Math.cos(rad);
+        double sin = Math.sin(rad);
+
+        return dest.set((float) (x * cos - y * sin), (float) (x * sin + y * cos));
+    }
+
     /**
      * Adds the data of one new vector to the main vector.
      * @param r Vector data to join.
@@ -100,6 +125,16 @@ public class Vector2f {
         return new Vector2f(x + r.getX(), y + r.getY());
     }
 
+    /**
+     * Adds the data of one vector to the main vector into other vector.
+     * @param r Vector data to join.
+     * @param dest Vector to write, it can be this one or r.
+     * @return The written vector.
+     */
+    public Vector2f addInto(Vector2f r, Vector2f dest) {
+        return dest.set(x + r.getX(), y + r.getY());
+    }
+
     /**
      * Adds float data to the vector.
      * @param r Vector's new data.
@@ -118,6 +153,17 @@ public class Vector2f {
         return new Vector2f(x - r.getX(), y - r.getY());
     }
 
+    /**
+     * Subtracts the vector's data minus r float vector data into
+     * other vector.
+     * @param r Vector to subtract.
+     * @param dest Vector to write, it can be this one or r.
+     * @return The written vector.
+     */
+    public Vector2f subInto(Vector2f r, Vector2f dest) {
+        return dest.set(x - r.getX(), y - r.getY());
+    }
+
     /**
      * Subtracts the vector's data minus r float number.
      * @param r Number to subtract.
@@ -145,6 +191,26 @@ public class Vector2f {
         return new Vector2f(x * r, y * r);
     }
 
+    /**
+     * Multiplies the vector by r float vector into other vector.
+     * @param r Vector to multiply.
+     * @param dest Vector to write, it can be this one or r.
+     * @return The written vector.
+     */
+    public Vector2f mulInto(Vector2f r, Vector2f dest) {
+        return dest.set(x * r.getX(), y * r.getY());
+    }
+
+    /**
+     * Multiplies the vector by r float number into other vector.
+     * @param r Number to multiply.
+     * @param dest Vector to write, it can be this one.
+     * @return The written vector.
+     */
+    public Vector2f mulInto(float r, Vector2f dest) {
+        return dest.set(x * r, y * r);
+    }
+
     /**
      * Divides the vector between r float vector number.
      * @param r Number to divide.
@@ -182,6 +248,21 @@ public class Vector2f {
         return this.sub(newVector).mul(amt).add(newVector);
     }
 
+    /**
+     * Sets float values to the vector.
+     * @param x value.
+     * @param y value.
+     * @return The vector.
+     */
+    public Vector2f set(float x, float y) { this.x = x; this.y = y; return this; }
+
+    /**
+     * Sets the values of other vector to the vector.
+     * @param r the vector to copy.
+     * @return The vector.
+     */
+    public Vector2f set(Vector2f r) { return set(r.getX(), r.getY()); }
+
     /**
      * Converts the vector's data to string.
      * @return Data in string.
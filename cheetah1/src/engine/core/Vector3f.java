@@ -47,6 +47,12 @@ public class Vector3f {
         this.y = y;
         this.z = z;
     }
+    
+    /**
+     * Constructor of a copy of a float vector.
+     * @param r vector to copy.
+     */
+    public Vector3f(Vector3f r) {this(r.getX(), r.getY(), r.getZ());}
 
     /**
      * Gets the length of the vector.
@@ -56,6 +62,20 @@ public class Vector3f {
         return (float) Math.sqrt(x * x + y * y + z * z);
     }
     
+    /**
+     * Gets the distance to other vector, without making the vector
+     * between both.
+     * @param r Vector to measure to.
+     * @return Distance.
+     */
+    public float distance(Vector3f r) {
+        float dx = x - r.getX();
+        float dy = y - r.getY();
+        float dz = z - r.getZ();
+
+        return (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+    
     /**
      * Gets the maximum between two numbers.
      * @return The maximum number.
@@ -84,6 +104,20 @@ public class Vector3f {
         return new Vector3f(x_, y_, z_);
     }
 
+    /**
+     * Cross vector into other vector.
+     * @param r vector
+     * @param dest Vector to write, it can be this one or r.
+     * @return The written vector.
+     */
+    public Vector3f crossInto(Vector3f r, Vector3f dest) {
+        float x_ = y * r.getZ() - z * r.getY();
+        float y_ = z * r.getX() - x * r.getZ();
+        float z_ = x * r.getY() - y * r.getX();
+
+        return dest.set(x_, y_, z_);
+    }
+
     /**
      * Normalizes the data in vector.
      * @return Vector's data normalized.
@@ -94,6 +128,17 @@ public class Vector3f {
         return new Vector3f(x / length, y / length, z / length);
     }
 
+    /**
+     * Normalizes the data in vector into other vector.
+     * @param dest Vector to write, it can be this one.
+     * @return The written vector.
+     */
+    public Vector3f normalizedInto(Vector3f dest) {
+        float length = length();
+
+        return dest.set(x / length, y / length, z / length);
+    }
+
     /**
      * Rotates the vector's data by an float angle
      * @param angle Rotating angle.
@@ -126,6 +171,16 @@ public class Vector3f {
         return new Vector3f(x + r.getX(), y + r.getY(), z + r.getZ());
     }
 
+    /**
+     * Adds the data of one vector to the main vector into other vector.
+     * @param r Vector data to join.
+     * @param dest Vector to write, it can be this one or r.
+     * @return The written vector.
+     */
+    public Vector3f addInto(Vector3f r, Vector3f dest) {
+        return dest.set(x + r.getX(), y + r.getY(), z + r.getZ());
+    }
+
     /**
      * Adds float data to the vector.
      * @param r Vector's new data.
@@ -144,6 +199,17 @@ public class Vector3f {
         return new Vector3f(x - r.getX(), y - r.getY(), z - r.getZ());
     }
 
+    /**
+     * Subtracts the vector's data minus r float vector data into
+     * other vector.
+     * @param r Vector to subtract.
+     * @param dest Vector to write, it can be this one or r.
+     * @return The written vector.
+     */
+    public Vector3f subInto(Vector3f r, Vector3f dest) {
+        return dest.set(x - r.getX(), y - r.getY(), z - r.getZ());
+    }
+
     /**
      * Subtracts the vector's data minus r float number.
      * @param r Number to subtract.
@@ -171,6 +237,26 @@ public class Vector3f {
         return new Vector3f(x * r, y * r, z * r);
     }
 
+    /**
+     * Multiplies the vector by r float vector into other vector.
+     * @param r Vector to multiply.
+     * @param dest Vector to write, it can be this one or r.
+     * @return The written vector.
+     */
+    public Vector3f mulInto(Vector3f r, Vector3f dest) {
+        return dest.set(x * r.getX(), y * r.getY(), z * r.getZ());
+    }
+
+    /**
+     * Multiplies the vector by r float number into other vector.
+     * @param r Number to multiply.
+     * @param dest Vector to write, it can be this one.
+     * @return The written vector.
+     */
+    public Vector3f mulInto(float r, Vector3f dest) {
+        return dest.set(x * r, y * r, z * r);
+    }
+
     /**
      * Divides the vector between r float vector number.
      * @param r Number to divide.
@@ -207,11 +293,26 @@ public class Vector3f {
     public Vector3f lerp(Vector3f newVector, float amt) {
         return this.sub(newVector).mul(amt).add(newVector);
     }
+
+    /**
+     * Leaps the vector into an new vector like {@link #lerp(Vector3f, float)},
+     * writing the result into other vector.
+     * @param newVector The new vector.
+     * @param amt Amount of multiplication for the new vector.
+     * @param dest Vector to write, it can be this one or newVector.
+     * @return The written vector.
+     */
+    public Vector3f lerpInto(Vector3f newVector, float amt, Vector3f dest) {
+        return dest.set((x - newVector.getX()) * amt + newVector.getX(),
+        		(y - newVector.getY()) * amt + newVector.getY(),
+        		(z - newVector.getZ()) * amt + newVector.getZ());
+    }
     
     /**
      * Sets float values to a new vector of 3.
      * @param x value.
      * @param y value.
+     * @param z value.
      * @return The vector.
      */
     public Vector3f set(float x, float y, float z) { this.x = x; this.y = y; this.z = z; return this; }
@@ -256,6 +357,15 @@ public class Vector3f {
         return new Vector2f(x, z);
     }
 
+    /**
+     * Gets the x-z value in vector into a vector of 2.
+     * @param dest Vector to write.
+     * @return The written vector.
+     */
+    public Vector2f getXZInto(Vector2f dest) {
+        return dest.set(x, z);
+    }
+
     /**
      * Gets the y-z value in vector.
      * @return YZ's value.
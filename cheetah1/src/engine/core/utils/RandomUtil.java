@@ -0,0 +1,75 @@
+/*
+ * Copyright 2018 Carlos Rodriguez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package engine.core.utils;
+
+import java.util.Random;
+
+/**
+ * Single random generator of the simulation. Everything that rolls
+ * dice during a tick takes it from here, so seeding it gives the same
+ * game every time the same input is played.
+ *
+ * @author Carlos Rodriguez
+ * @version 1.0
+ * @since 2018
+ */
+public class RandomUtil {
+
+	private static final Random random = new Random();
+	private static long 		seed;
+
+	static {
+		setSeed(System.nanoTime());
+	}
+
+	/**
+	 * Restarts the generator with a seed.
+	 * @param seed to use.
+	 */
+	public static void setSeed(long seed) {
+		RandomUtil.seed = seed;
+		random.setSeed(seed);
+	}
+
+	/**
+	 * Returns the last seed of the generator.
+	 * @return seed.
+	 */
+	public static long getSeed() {return seed;}
+
+	/**
+	 * Returns the generator for the code that needs more
+	 * than numbers in a range.
+	 * @return random generator.
+	 */
+	public static Random getRandom() {return random;}
+
+	/**
+	 * Generates a random number from zero to a bound.
+	 * @param bound exclusive.
+	 * @return random number.
+	 */
+	public static int nextInt(int bound) {return random.nextInt(bound);}
+
+	/**
+	 * Generates a random number in a variable range.
+	 * @param min number.
+	 * @param max number, inclusive.
+	 * @return random number.
+	 */
+	public static int nextInt(int min, int max) {return min + random.nextInt(max - min + 1);}
+
+}
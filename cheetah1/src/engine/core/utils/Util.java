@@ -19,7 +19,6 @@ import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.util.ArrayList;
-import java.util.concurrent.ThreadLocalRandom;
 
 import org.lwjgl.BufferUtils;
 
@@ -106,8 +105,17 @@ public class Util {
 	 * @param value Data in matrix.
 	 * @return The buffer.
 	 */
-    public static FloatBuffer createFlippedBuffer(Matrix4f value) {
-        FloatBuffer buffer = createFloatBuffer(4 * 4);
+    public static FloatBuffer createFlippedBuffer(Matrix4f value) {return createFlippedBuffer(value, createFloatBuffer(4 * 4));}
+
+    /**
+	 * Fills a buffer of 16 floats with all the data in a matrix 4 by 4
+	 * and flips it, so the same buffer is used again and again.
+	 * @param value Data in matrix.
+	 * @param buffer to fill.
+	 * @return The buffer.
+	 */
+    public static FloatBuffer createFlippedBuffer(Matrix4f value, FloatBuffer buffer) {
+    	buffer.clear();
 
         for (int i = 0; i < 4; i++)
             for (int j = 0; j < 4; j++)
@@ -167,7 +175,7 @@ public class Util {
      * @return random number
      */
     public static int randomInRange(int min, int max) {
-    	return ThreadLocalRandom.current().nextInt(min, max + 1);
+    	return RandomUtil.nextInt(min, max);
     }
     
 }
@@ -22,6 +22,8 @@ import org.newdawn.slick.AngelCodeFont;
 import org.newdawn.slick.Image;
 import org.newdawn.slick.SlickException;
 
+import engine.core.CoreEngine;
+
 /**
  *
  * @author Carlos Rodriguez
@@ -46,6 +48,8 @@ public class SEngineUtil {
 	 * Constructor of the Menu tools.
 	 */
 	private SEngineUtil() {
+		if(CoreEngine.isHeadless())
+			return;
 		try {
 			m_font = new AngelCodeFont("res/textures/fonts/font.fnt", new Image("res/textures/fonts/font.png")); 
 			m_boldFont = new AngelCodeFont("res/textures/fonts/fontBold.fnt", new Image("res/textures/fonts/fontBold.png")); 
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2018 Carlos Rodriguez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package engine.particles;
+
+import engine.core.Vector3f;
+import engine.rendering.Texture;
+
+/**
+ * Definition of a kind of particle: its sprites, size, how fast it's
+ * animated, the light it gives and how many of them fit in a
+ * {@link ParticleSystem} on every particles level. What a particle does
+ * besides that is done by overriding the hooks, that get the system and
+ * the index of the particle to read and write its data.
+ * <p>
+ * The animation follows the clock of the game, like the sprites of the
+ * game do, so every particle of a variant shows the same frame and
+ * all of them are over when the animation runs out.
+ *
+ * @author Carlos Rodriguez
+ * @version 1.0
+ * @since 2018
+ */
+public abstract class ParticleEmitter {
+
+	private static final float 	LIGHT_INTENSITY = 0.8f;
+
+	private final Texture[][] 	animations;
+	private final float[] 		widths;
+	private final float 		height;
+	private final double 		rate;
+	private final int[] 		limits;
+	private final Vector3f 		lightColor;
+
+	/**
+	 * Constructor of the definition.
+	 * @param animations frames of every variant.
+	 * @param widths half of the width of every variant.
+	 * @param height of the sprites.
+	 * @param rate how far the animation goes every second, a frame is a quarter.
+	 * @param limits most particles alive for every particles level.
+	 * @param lightColor of the light of every particle, or null.
+	 */
+	protected ParticleEmitter(Texture[][] animations, float[] widths, float height, double rate, int[] limits, Vector3f lightColor) {
+		this.animations = animations;
+		this.widths = widths;
+		this.height = height;
+		this.rate = rate;
+		this.limits = limits;
+		this.lightColor = lightColor;
+	}
+
+	/**
+	 * Loads the frames of every variant, named like the sprites of the
+	 * game: the name of the variant, a letter for the frame and a zero.
+	 * @param location folder of the sprites.
+	 * @param variants names of the variants.
+	 * @param first letter of the first frame.
+	 * @param frames of every variant.
+	 * @return Animations.
+	 */
+	protected static Texture[][] loadAnimations(String location, String[] variants, char first, int frames) {
+		Texture[][] animations = new Texture[variants.length][frames];
+		for(int v = 0; v < variants.length; v++)
+			for(int f = 0; f < frames; f++)
+				animations[v][f] = new Texture(location + variants[v] + (char) (first + f) + "0");
+		return animations;
+	}
+
+	/**
+	 * Measures the distance from a particle to a point.
+	 * @param system of the particle.
+	 * @param i index of the particle.
+	 * @param point to measure to.
+	 * @return Distance.
+	 */
+	protected static float getDistance(ParticleSystem system, int i, Vector3f point) {
+		float dx = system.getX(i) - point.getX();
+		float dy = system.getY(i) - point.getY();
+		float dz = system.getZ(i) - point.getZ();
+		return (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+	}
+
+	/**
+	 * Returns which quarter of the animation a point of it is on.
+	 * @param phase of the animation, the second fraction times the rate.
+	 * @return Step.
+	 */
+	protected static int getStep(double phase) {return Math.max(0, (int) Math.ceil(phase * 4) - 1);}
+
+	/**
+	 * Returns the frame of the animation at a point of it, one frame
+	 * every step.
+	 * @param phase of the animation, the second fraction times the rate.
+	 * @return Frame or -1 when the animation is over.
+	 */
+	protected int getFrame(double phase) {
+		int frame = getStep(phase);
+		return frame < animations[0].length ? frame : -1;
+	}
+
+	/**
+	 * Picks the variant of a new particle.
+	 * @return Variant.
+	 */
+	protected int spawnVariant() {return 0;}
+
+	/**
+	 * Called when a particle is made, after its position and variant
+	 * are set.
+	 * @param system of the particle.
+	 * @param i index of the particle.
+	 */
+	protected void spawned(ParticleSystem system, int i) {}
+
+	/**
+	 * Called every tick for every particle.
+	 * @param system of the particle.
+	 * @param i index of the particle.
+	 * @param delta of time.
+	 */
+	protected void update(ParticleSystem system, int i, double delta) {}
+
+	/**
+	 * Called for every impact a particle reported on a tick, after every
+	 * particle moved. It can't make particles of the same system.
+	 * @param system of the particle.
+	 * @param i index of the particle.
+	 * @return If the particle dies of it.
+	 */
+	protected boolean hit(ParticleSystem system, int i) {return true;}
+
+	/**
+	 * Called when the system is full and a particle has to be taken out
+	 * to make room for a new one. It can't make particles of the same
+	 * system.
+	 * @param system of the particle.
+	 * @param i index of the particle.
+	 * @return If it can be taken out, or the new one isn't made.
+	 */
+	protected boolean makeRoom(ParticleSystem system, int i) {return true;}
+
+	/**
+	 * Called right before a particle is taken out.
+	 * @param system of the particle.
+	 * @param i index of the particle.
+	 */
+	protected void died(ParticleSystem system, int i) {}
+
+	/**
+	 * Returns the height of the lights of the particles.
+	 * @param delta of time.
+	 * @return Height.
+	 */
+	protected float getLightHeight(double delta) {return 0.05f * (float) (Math.sin(delta * 2.5) + 1.0 / 2.0) + 0.45f;}
+
+	/**
+	 * Returns the distance from the camera the particles are drawn from.
+	 * @return Pop-in distance.
+	 */
+	public float getPopIn() {return Float.MAX_VALUE;}
+
+	/**
+	 * Returns how many particles can be alive on a particles level.
+	 * @param level of the particles.
+	 * @return Limit.
+	 */
+	public int getLimit(int level) {return limits[Math.max(0, Math.min(level, limits.length - 1))];}
+
+	/**
+	 * Returns the sprite of a variant on a frame.
+	 * @param variant of the particle.
+	 * @param frame of the animation.
+	 * @return Texture.
+	 */
+	public Texture getTexture(int variant, int frame) {return animations[variant][frame];}
+
+	/**
+	 * Returns how many variants there are.
+	 * @return Variants.
+	 */
+	public int getVariants() {return animations.length;}
+
+	/**
+	 * Returns half of the width of a variant.
+	 * @param variant of the particle.
+	 * @return Half width.
+	 */
+	public float getWidth(int variant) {return widths[variant];}
+
+	/**
+	 * Returns the height of the sprites.
+	 * @return Height.
+	 */
+	public float getHeight() {return height;}
+
+	/**
+	 * Returns how far the animation goes every second.
+	 * @return Rate.
+	 */
+	public double getRate() {return rate;}
+
+	/**
+	 * Returns the color of the light of the particles.
+	 * @return Color or null if they don't give light.
+	 */
+	public Vector3f getLightColor() {return lightColor;}
+
+	/**
+	 * Returns the intensity of the light of the particles.
+	 * @return Intensity.
+	 */
+	public float getLightIntensity() {return LIGHT_INTENSITY;}
+
+}
@@ -0,0 +1,443 @@
+/*
+ * Copyright 2018 Carlos Rodriguez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package engine.particles;
+
+import static engine.components.Constants.PARTICLES_LEVEL;
+
+import engine.components.Attenuation;
+import engine.components.GameComponent;
+import engine.components.PointLight;
+import engine.core.Matrix4f;
+import engine.core.Time;
+import engine.core.Transform;
+import engine.core.Vector3f;
+import engine.rendering.Material;
+import engine.rendering.RenderingEngine;
+import engine.rendering.Shader;
+import engine.rendering.SpriteBatch;
+
+/**
+ * Every particle of one {@link ParticleEmitter}, kept in arrays with
+ * one entry per particle and a fixed capacity taken from the particles
+ * level, so making, moving and taking out particles never allocates.
+ * The alive particles are the first {@link #getCount()} entries; the
+ * one that dies is replaced by the last. Handles given by
+ * {@link #spawn(float, float, float)} keep telling if that particle is
+ * still alive wherever it moved in the arrays.
+ * <p>
+ * It's drawn with one {@link SpriteBatch} per variant, so a light pass
+ * takes one call per variant no matter how many particles there are.
+ * <p>
+ * A particle that hits something while it moves reports it with
+ * {@link #impact(int)}. The impacts wait until every particle moved and
+ * then go to the emitter one by one, so the loop that moves them stays
+ * free of the sounds, damage and explosions they set off.
+ *
+ * @author Carlos Rodriguez
+ * @version 1.0
+ * @since 2018
+ */
+public class ParticleSystem extends GameComponent {
+
+	private final ParticleEmitter 	emitter;
+	private final int 				capacity;
+	private int 					count;
+	private int 					frame;
+	private double 					phase;
+
+	private final float[] 			x;
+	private final float[] 			y;
+	private final float[] 			z;
+	private final float[] 			velocityX;
+	private final float[] 			velocityY;
+	private final float[] 			velocityZ;
+	private final int[] 			variant;
+	private final int[] 			data;
+	private final Transform[] 		anchor;
+	private final PointLight[] 		lights;
+
+	private final int[] 			slot;
+	private final int[] 			generations;
+	private final int[] 			free;
+	private int 					freeSlots;
+	private final int[] 			impacts;
+	private int 					impactCount;
+
+	private final SpriteBatch[] 	batches;
+	private final Material 			material;
+	private final Transform 		origin;
+	private long 					builtFrame = -1;
+
+	/**
+	 * Constructor of an empty system.
+	 * @param emitter of the particles.
+	 */
+	public ParticleSystem(ParticleEmitter emitter) {
+		this.emitter = emitter;
+		this.capacity = emitter.getLimit(PARTICLES_LEVEL);
+		this.x = new float[capacity];
+		this.y = new float[capacity];
+		this.z = new float[capacity];
+		this.velocityX = new float[capacity];
+		this.velocityY = new float[capacity];
+		this.velocityZ = new float[capacity];
+		this.variant = new int[capacity];
+		this.data = new int[capacity];
+		this.anchor = new Transform[capacity];
+		this.lights = new PointLight[capacity];
+		this.slot = new int[capacity];
+		this.generations = new int[capacity];
+		this.free = new int[capacity];
+		this.impacts = new int[capacity];
+		for(int i = 0; i < capacity; i++)
+			free[freeSlots++] = capacity - 1 - i;
+
+		this.batches = new SpriteBatch[capacity > 0 ? emitter.getVariants() : 0];
+		for(int i = 0; i < batches.length; i++)
+			batches[i] = new SpriteBatch(capacity);
+		this.material = new Material(emitter.getTexture(0, 0));
+		this.origin = new Transform();
+	}
+
+	/**
+	 * Makes a particle on a point. When the system is full the
+	 * particle in the first entry makes room for it, if its emitter
+	 * lets it go.
+	 * @param x of the particle.
+	 * @param y of the particle.
+	 * @param z of the particle.
+	 * @return Handle of the particle or -1 if this particles level
+	 * doesn't have this kind of particle or there's no room.
+	 */
+	public long spawn(float x, float y, float z) {return spawn(x, y, z, null);}
+
+	/**
+	 * Makes a particle that follows a transform.
+	 * @param anchor to follow.
+	 * @return Handle of the particle or -1 if this particles level
+	 * doesn't have this kind of particle or there's no room.
+	 */
+	public long spawn(Transform anchor) {
+		Vector3f position = anchor.getPosition();
+		return spawn(position.getX(), position.getY(), position.getZ(), anchor);
+	}
+
+	/**
+	 * Makes a particle.
+	 * @param x of the particle.
+	 * @param y of the particle.
+	 * @param z of the particle.
+	 * @param anchor to follow or null.
+	 * @return Handle of the particle.
+	 */
+	private long spawn(float x, float y, float z, Transform anchor) {
+		if(capacity == 0)
+			return -1;
+		if(count == capacity) {
+			if(!emitter.makeRoom(this, 0))
+				return -1;
+			kill(0);
+		}
+		//A new particle shows the first frame until the next update
+		if(count == 0)
+			frame = 0;
+
+		int i = count++;
+		int id = free[--freeSlots];
+		slot[i] = id;
+		this.x[i] = x;
+		this.y[i] = y;
+		this.z[i] = z;
+		velocityX[i] = 0;
+		velocityY[i] = 0;
+		velocityZ[i] = 0;
+		data[i] = 0;
+		this.anchor[i] = anchor;
+		variant[i] = emitter.spawnVariant();
+
+		if(emitter.getLightColor() != null) {
+			if(lights[i] == null)
+				lights[i] = new PointLight(emitter.getLightColor(), emitter.getLightIntensity(), new Attenuation(0, 0, 1), new Vector3f(x, y, z));
+			else
+				lights[i].getPosition().set(x, y, z);
+			lights[i].addToEngine();
+		}
+
+		emitter.spawned(this, i);
+		return ((long) generations[id] << 32) | id;
+	}
+
+	/**
+	 * Takes a particle out, moving the last one to its entry.
+	 * @param i index of the particle.
+	 */
+	public void kill(int i) {
+		emitter.died(this, i);
+		if(lights[i] != null)
+			lights[i].removeToEngine();
+
+		int id = slot[i];
+		generations[id]++;
+		free[freeSlots++] = id;
+
+		int last = --count;
+		if(i != last) {
+			x[i] = x[last];
+			y[i] = y[last];
+			z[i] = z[last];
+			velocityX[i] = velocityX[last];
+			velocityY[i] = velocityY[last];
+			velocityZ[i] = velocityZ[last];
+			variant[i] = variant[last];
+			data[i] = data[last];
+			anchor[i] = anchor[last];
+			PointLight light = lights[i];
+			lights[i] = lights[last];
+			lights[last] = light;
+			slot[i] = slot[last];
+		}
+		anchor[last] = null;
+	}
+
+	/**
+	 * Kills every particle.
+	 */
+	public void clear() {
+		while(count > 0)
+			kill(count - 1);
+	}
+
+	/**
+	 * Checks if the particle of a handle is still alive.
+	 * @param handle of the particle.
+	 * @return If it's alive.
+	 */
+	public boolean isAlive(long handle) {
+		if(handle < 0)
+			return false;
+		int id = (int) handle;
+		return id < capacity && generations[id] == (int) (handle >>> 32);
+	}
+
+	/**
+	 * Reports that a particle hit something, from the update of its
+	 * emitter. The emitter hears about it after every particle moved.
+	 * @param i index of the particle.
+	 */
+	public void impact(int i) {
+		if(impactCount > 0 && impacts[impactCount - 1] == i)
+			return;
+		impacts[impactCount++] = i;
+	}
+
+	/**
+	 * Moves every particle and takes them out when their animation
+	 * is over or when they die of an impact.
+	 * @param delta of time.
+	 */
+	public void update(double delta) {
+		if(count == 0)
+			return;
+
+		double time = Time.getTime();
+		phase = (time - (double) ((int) time)) * emitter.getRate();
+		frame = emitter.getFrame(phase);
+		if(frame < 0) {
+			clear();
+			return;
+		}
+
+		float lightHeight = emitter.getLightHeight(delta);
+		for(int i = 0; i < count; i++) {
+			if(anchor[i] != null) {
+				Vector3f position = anchor[i].getPosition();
+				x[i] = position.getX();
+				y[i] = position.getY();
+				z[i] = position.getZ();
+			}
+			emitter.update(this, i, delta);
+			if(lights[i] != null)
+				lights[i].getPosition().set(x[i], lightHeight, z[i]);
+		}
+
+		//From the last, so taking one out only moves a particle already done
+		while(impactCount > 0) {
+			int i = impacts[--impactCount];
+			if(emitter.hit(this, i))
+				kill(i);
+		}
+	}
+
+	/**
+	 * Draws every particle near the camera.
+	 * @param shader to render
+	 * @param renderingEngine to use
+	 */
+	public void render(Shader shader, RenderingEngine renderingEngine) {
+		if(count == 0)
+			return;
+		if(builtFrame != renderingEngine.getFrame()) {
+			build(renderingEngine.getMainCamera().getPos(renderingEngine.getInterpolation()), renderingEngine.getBillboard());
+			builtFrame = renderingEngine.getFrame();
+		}
+		for(int v = 0; v < batches.length; v++) {
+			if(batches[v].size() == 0)
+				continue;
+			material.setDiffuse(emitter.getTexture(v, frame));
+			shader.bind();
+			shader.updateUniforms(origin, material, renderingEngine);
+			batches[v].draw();
+		}
+	}
+
+	/**
+	 * Writes the sprites of the particles to the batches, facing
+	 * the camera.
+	 * @param eye position of the camera.
+	 * @param basis rotation every billboard shares on this frame.
+	 */
+	private void build(Vector3f eye, Matrix4f basis) {
+		for(int v = 0; v < batches.length; v++)
+			batches[v].clear();
+
+		float popIn = emitter.getPopIn();
+		float popInSquared = popIn == Float.MAX_VALUE ? Float.MAX_VALUE : popIn * popIn;
+		float height = emitter.getHeight();
+		float rightX = basis.get(0, 0);
+		float rightZ = basis.get(2, 0);
+		for(int i = 0; i < count; i++) {
+			float dx = x[i] - eye.getX();
+			float dy = y[i] - eye.getY();
+			float dz = z[i] - eye.getZ();
+			if(dx * dx + dy * dy + dz * dz >= popInSquared)
+				continue;
+			batches[variant[i]].add(x[i], y[i], z[i], rightX, rightZ, emitter.getWidth(variant[i]), height);
+		}
+	}
+
+	/**
+	 * Returns the definition of the particles.
+	 * @return Emitter.
+	 */
+	public ParticleEmitter getEmitter() {return emitter;}
+
+	/**
+	 * Returns how many particles are alive.
+	 * @return Count.
+	 */
+	public int getCount() {return count;}
+
+	/**
+	 * Returns how many particles can be alive at once.
+	 * @return Capacity.
+	 */
+	public int getCapacity() {return capacity;}
+
+	/**
+	 * Returns the frame of the animation every particle shows.
+	 * @return Frame.
+	 */
+	public int getFrame() {return frame;}
+
+	/**
+	 * Returns how far the animation is.
+	 * @return Phase, the second fraction times the rate.
+	 */
+	public double getPhase() {return phase;}
+
+	/**
+	 * Returns the x of a particle.
+	 * @param i index of the particle.
+	 * @return X.
+	 */
+	public float getX(int i) {return x[i];}
+
+	/**
+	 * Returns the y of a particle.
+	 * @param i index of the particle.
+	 * @return Y.
+	 */
+	public float getY(int i) {return y[i];}
+
+	/**
+	 * Returns the z of a particle.
+	 * @param i index of the particle.
+	 * @return Z.
+	 */
+	public float getZ(int i) {return z[i];}
+
+	/**
+	 * Moves a particle.
+	 * @param i index of the particle.
+	 * @param x of the particle.
+	 * @param y of the particle.
+	 * @param z of the particle.
+	 */
+	public void setPosition(int i, float x, float y, float z) {this.x[i] = x; this.y[i] = y; this.z[i] = z;}
+
+	/**
+	 * Returns the x of the velocity of a particle.
+	 * @param i index of the particle.
+	 * @return X of the velocity.
+	 */
+	public float getVelocityX(int i) {return velocityX[i];}
+
+	/**
+	 * Returns the y of the velocity of a particle.
+	 * @param i index of the particle.
+	 * @return Y of the velocity.
+	 */
+	public float getVelocityY(int i) {return velocityY[i];}
+
+	/**
+	 * Returns the z of the velocity of a particle.
+	 * @param i index of the particle.
+	 * @return Z of the velocity.
+	 */
+	public float getVelocityZ(int i) {return velocityZ[i];}
+
+	/**
+	 * Sets the velocity of a particle.
+	 * @param i index of the particle.
+	 * @param x of the velocity.
+	 * @param y of the velocity.
+	 * @param z of the velocity.
+	 */
+	public void setVelocity(int i, float x, float y, float z) {velocityX[i] = x; velocityY[i] = y; velocityZ[i] = z;}
+
+	/**
+	 * Returns the variant of a particle.
+	 * @param i index of the particle.
+	 * @return Variant.
+	 */
+	public int getVariant(int i) {return variant[i];}
+
+	/**
+	 * Returns the number the emitter keeps on a particle, like the
+	 * sound it plays.
+	 * @param i index of the particle.
+	 * @return Data.
+	 */
+	public int getData(int i) {return data[i];}
+
+	/**
+	 * Sets the number the emitter keeps on a particle.
+	 * @param i index of the particle.
+	 * @param value to keep.
+	 */
+	public void setData(int i, int value) {data[i] = value;}
+
+}
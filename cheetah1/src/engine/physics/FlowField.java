@@ -0,0 +1,247 @@
+/*
+ * Copyright 2018 Carlos Rodriguez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package engine.physics;
+
+import java.util.Arrays;
+
+import engine.core.Vector2f;
+
+/**
+ * The way to a target from every cell of an {@link OccupancyGrid}, worked
+ * out once with Dijkstra's algorithm when the target changes cell, so
+ * everything that follows it only looks up the cell it's in. The costs
+ * are small whole numbers, so the cells wait in a ring of buckets, one
+ * per distance, instead of a heap. The steps
+ * go to the eight neighbours, but never across the corner of a cell
+ * that can't be crossed. Some cells can cost more to go through, like
+ * doors that have to be opened, or be closed to the way altogether.
+ * <p>
+ * The cells are kept with a closed ring around the grid, so the
+ * neighbours of a cell are always at the same offsets in the arrays.
+ *
+ * @author Carlos Rodriguez
+ * @version 1.0
+ * @since 2018
+ */
+public class FlowField {
+
+	public static final int 		BLOCKED = -1;
+
+	private static final int 		STRAIGHT = 10;
+	private static final int 		DIAGONAL = 14;
+	private static final int 		UNREACHED = Integer.MAX_VALUE;
+	private static final int[] 		STEP_X = {1, -1, 0, 0, 1, 1, -1, -1};
+	private static final int[] 		STEP_Z = {0, 0, 1, -1, 1, -1, 1, -1};
+
+	private final OccupancyGrid 	grid;
+	private final int 				width;
+	private final int 				height;
+	private final int 				stride;
+	private final int[] 			steps;
+	private final int[] 			costs;
+	private final int[] 			distances;
+	private final int[] 			next;
+	private final boolean[] 		open;
+	private boolean 				openDirty = true;
+	private int[][] 				buckets;
+	private int[] 					bucketSizes;
+	private int 					pending;
+	private int 					maxCost;
+	private int 					target = -1;
+	private float 					aimX = 0.5f;
+	private float 					aimZ = 0.5f;
+
+	/**
+	 * Constructor of the field of a grid, with no target yet.
+	 * @param grid the solid cells of the map.
+	 */
+	public FlowField(OccupancyGrid grid) {
+		this.grid = grid;
+		this.width = grid.getWidth();
+		this.height = grid.getHeight();
+		this.stride = width + 2;
+		this.steps = new int[STEP_X.length];
+		for(int k = 0; k < steps.length; k++)
+			steps[k] = STEP_Z[k] * stride + STEP_X[k];
+		this.costs = new int[stride * (height + 2)];
+		this.distances = new int[stride * (height + 2)];
+		this.next = new int[stride * (height + 2)];
+		this.open = new boolean[stride * (height + 2)];
+		Arrays.fill(distances, UNREACHED);
+		Arrays.fill(next, -1);
+	}
+
+	/**
+	 * Sets what going through a cell costs on top of the step. It's used
+	 * from the next time the target changes cell.
+	 * @param i cell along x.
+	 * @param j cell along z.
+	 * @param cost extra cost, where a step is 10, or {@link #BLOCKED}.
+	 */
+	public void setCost(int i, int j, int cost) {
+		costs[(j + 1) * stride + i + 1] = cost;
+		maxCost = Math.max(maxCost, cost);
+		openDirty = true;
+	}
+
+	/**
+	 * Sets the point of a cell the way goes through, the middle of it
+	 * by default.
+	 * @param x part of the cell along x, from 0 to 1.
+	 * @param z part of the cell along z, from 0 to 1.
+	 */
+	public void setAim(float x, float z) {
+		this.aimX = x;
+		this.aimZ = z;
+	}
+
+	/**
+	 * Moves the target, working the field out again if it changed cell.
+	 * @param x position of the target along x.
+	 * @param z position of the target along z.
+	 * @return If the field was worked out again.
+	 */
+	public boolean setTarget(float x, float z) {
+		int cell = getCell(x, z);
+		if(cell == target)
+			return false;
+		target = cell;
+		Arrays.fill(distances, UNREACHED);
+		Arrays.fill(next, -1);
+		if(openDirty)
+			findOpen();
+		if(cell < 0 || !open[cell])
+			return true;
+
+		distances[cell] = 0;
+		pending = 0;
+		push(cell, 0);
+		for(int distance = 0; pending > 0; distance++) {
+			//A step always costs more than nothing, so nothing is added to the bucket being emptied
+			int bucket = distance % buckets.length;
+			for(int c = 0; c < bucketSizes[bucket]; c++) {
+				int current = buckets[bucket][c];
+				pending--;
+				if(distance > distances[current])
+					continue;
+				//Going from a neighbour into this cell costs the step and this cell
+				int enter = current == cell ? 0 : costs[current];
+				for(int k = 0; k < steps.length; k++) {
+					int neighbour = current + steps[k];
+					if(!open[neighbour])
+						continue;
+					boolean diagonal = k >= 4;
+					if(diagonal && (!open[current + STEP_X[k]] || !open[current + STEP_Z[k] * stride]))
+						continue;
+					int through = distance + (diagonal ? DIAGONAL : STRAIGHT) + enter;
+					if(through < distances[neighbour]) {
+						distances[neighbour] = through;
+						next[neighbour] = current;
+						push(neighbour, through);
+					}
+				}
+			}
+			bucketSizes[bucket] = 0;
+		}
+		return true;
+	}
+
+	/**
+	 * Checks if a position is in the cell the field was worked out for.
+	 * @param x position along x.
+	 * @param z position along z.
+	 * @return If it's the cell of the target.
+	 */
+	public boolean isTarget(float x, float z) {return getCell(x, z) == target;}
+
+	/**
+	 * Returns the way to follow from a position, towards the aim of the
+	 * next cell on the way to the target.
+	 * @param x position along x.
+	 * @param z position along z.
+	 * @param result vector to write the direction into, normalized.
+	 * @return If there's a way to follow, false when it's in the cell of
+	 * the target or next to it, where it can go straight, or when it can't
+	 * reach it.
+	 */
+	public boolean getDirection(float x, float z, Vector2f result) {
+		int cell = getCell(x, z);
+		if(cell < 0 || next[cell] < 0 || next[cell] == target)
+			return false;
+		float dx = (next[cell] % stride - 1 + aimX) * grid.getCellWidth() - x;
+		float dz = (next[cell] / stride - 1 + aimZ) * grid.getCellLength() - z;
+		float length = (float) Math.sqrt(dx * dx + dz * dz);
+		if(length == 0)
+			return false;
+		result.set(dx / length, dz / length);
+		return true;
+	}
+
+	/**
+	 * Returns the cost of the way from a cell to the target.
+	 * @param i cell along x.
+	 * @param j cell along z.
+	 * @return Cost, where a step is 10, or the biggest int if it can't
+	 * reach it.
+	 */
+	public int getDistance(int i, int j) {return distances[(j + 1) * stride + i + 1];}
+
+	/**
+	 * Works out which cells the way can go through, the ones that aren't
+	 * solid or blocked. The ring around the grid stays closed.
+	 */
+	private void findOpen() {
+		for(int j = 0; j < height; j++)
+			for(int i = 0; i < width; i++)
+				open[(j + 1) * stride + i + 1] = !grid.isSolid(i, j) && costs[(j + 1) * stride + i + 1] != BLOCKED;
+		//Enough buckets for the longest step
+		int size = DIAGONAL + maxCost + 1;
+		if(buckets == null || buckets.length != size) {
+			buckets = new int[size][16];
+			bucketSizes = new int[size];
+		}
+		openDirty = false;
+	}
+
+	/**
+	 * Returns the cell of a position.
+	 * @param x position along x.
+	 * @param z position along z.
+	 * @return Cell or -1 outside the grid.
+	 */
+	private int getCell(float x, float z) {
+		int i = (int) Math.floor(x / grid.getCellWidth());
+		int j = (int) Math.floor(z / grid.getCellLength());
+		if(i < 0 || j < 0 || i >= width || j >= height)
+			return -1;
+		return (j + 1) * stride + i + 1;
+	}
+
+	/**
+	 * Adds a cell to the bucket of its distance.
+	 * @param cell to add.
+	 * @param distance of the cell.
+	 */
+	private void push(int cell, int distance) {
+		int bucket = distance % buckets.length;
+		if(bucketSizes[bucket] == buckets[bucket].length)
+			buckets[bucket] = Arrays.copyOf(buckets[bucket], bucketSizes[bucket] * 2);
+		buckets[bucket][bucketSizes[bucket]++] = cell;
+		pending++;
+	}
+
+
+}
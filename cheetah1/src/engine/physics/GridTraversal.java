@@ -0,0 +1,166 @@
+/*
+ * Copyright 2018 Carlos Rodriguez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package engine.physics;
+
+/**
+ * Walks the cells of a grid that a line goes through, in order from its
+ * start, as in Amanatides and Woo's "A Fast Voxel Traversal Algorithm".
+ * The part of the line outside the grid is skipped. When the line goes
+ * right through a corner it steps along x first, so it always visits
+ * one of the two cells beside the corner.
+ * <p>
+ * It's used like this, and can be started again for another line:
+ * <pre>
+ * traversal.start(x0, z0, x1, z1);
+ * while(traversal.next())
+ *     test(traversal.getColumn(), traversal.getRow());
+ * </pre>
+ *
+ * @author Carlos Rodriguez
+ * @version 1.0
+ * @since 2018
+ */
+public class GridTraversal {
+
+	private final int 		width;
+	private final int 		height;
+	private final float 	cellWidth;
+	private final float 	cellLength;
+	private int 			column;
+	private int 			row;
+	private int 			stepX;
+	private int 			stepZ;
+	private float 			nextX;
+	private float 			nextZ;
+	private float 			deltaX;
+	private float 			deltaZ;
+	private float 			entry;
+	private float 			exit;
+	private boolean 		started;
+	private boolean 		done = true;
+
+	/**
+	 * Constructor of the traversal of a grid.
+	 * @param width cells along x.
+	 * @param height cells along z.
+	 * @param cellWidth size of a cell along x.
+	 * @param cellLength size of a cell along z.
+	 */
+	public GridTraversal(int width, int height, float cellWidth, float cellLength) {
+		this.width = width;
+		this.height = height;
+		this.cellWidth = cellWidth;
+		this.cellLength = cellLength;
+	}
+
+	/**
+	 * Starts walking a line.
+	 * @param x0 start of the line along x.
+	 * @param z0 start of the line along z.
+	 * @param x1 end of the line along x.
+	 * @param z1 end of the line along z.
+	 * @return The traversal.
+	 */
+	public GridTraversal start(float x0, float z0, float x1, float z1) {
+		float dx = x1 - x0;
+		float dz = z1 - z0;
+		started = false;
+		done = true;
+
+		//Clips the line to the grid
+		float enter = 0;
+		float leave = 1;
+		if(dx != 0) {
+			float a = -x0 / dx;
+			float b = (width * cellWidth - x0) / dx;
+			enter = Math.max(enter, Math.min(a, b));
+			leave = Math.min(leave, Math.max(a, b));
+		} else if(x0 < 0 || x0 > width * cellWidth) {
+			return this;
+		}
+		if(dz != 0) {
+			float a = -z0 / dz;
+			float b = (height * cellLength - z0) / dz;
+			enter = Math.max(enter, Math.min(a, b));
+			leave = Math.min(leave, Math.max(a, b));
+		} else if(z0 < 0 || z0 > height * cellLength) {
+			return this;
+		}
+		if(enter > leave)
+			return this;
+
+		column = Math.max(0, Math.min(width - 1, (int) Math.floor((x0 + dx * enter) / cellWidth)));
+		row = Math.max(0, Math.min(height - 1, (int) Math.floor((z0 + dz * enter) / cellLength)));
+		stepX = dx > 0 ? 1 : -1;
+		stepZ = dz > 0 ? 1 : -1;
+		deltaX = dx != 0 ? Math.abs(cellWidth / dx) : Float.POSITIVE_INFINITY;
+		deltaZ = dz != 0 ? Math.abs(cellLength / dz) : Float.POSITIVE_INFINITY;
+		nextX = dx != 0 ? ((column + (dx > 0 ? 1 : 0)) * cellWidth - x0) / dx : Float.POSITIVE_INFINITY;
+		nextZ = dz != 0 ? ((row + (dz > 0 ? 1 : 0)) * cellLength - z0) / dz : Float.POSITIVE_INFINITY;
+		entry = enter;
+		exit = leave;
+		done = false;
+		return this;
+	}
+
+	/**
+	 * Goes to the next cell of the line, the first one on the first call.
+	 * @return If there's a cell, false when the line is over or leaves
+	 * the grid.
+	 */
+	public boolean next() {
+		if(done)
+			return false;
+		if(!started) {
+			started = true;
+			return true;
+		}
+
+		if(nextX <= nextZ) {
+			entry = nextX;
+			nextX += deltaX;
+			column += stepX;
+		} else {
+			entry = nextZ;
+			nextZ += deltaZ;
+			row += stepZ;
+		}
+
+		if(entry > exit || column < 0 || row < 0 || column >= width || row >= height)
+			done = true;
+		return !done;
+	}
+
+	/**
+	 * Returns the column of the cell the traversal is in.
+	 * @return Column.
+	 */
+	public int getColumn() {return column;}
+
+	/**
+	 * Returns the row of the cell the traversal is in.
+	 * @return Row.
+	 */
+	public int getRow() {return row;}
+
+	/**
+	 * Returns where the line enters the cell the traversal is in, from 0
+	 * at its start to 1 at its end.
+	 * @return Part of the line.
+	 */
+	public float getEntry() {return entry;}
+
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2018 Carlos Rodriguez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package engine.physics;
+
+import engine.core.Vector2f;
+
+/**
+ * Which cells of a map are solid, packed one bit per cell in rows of
+ * longs. It's built once when the map loads, so a moving box only
+ * tests the few cells under it instead of the whole map. The cells
+ * outside the map aren't solid.
+ *
+ * @author Carlos Rodriguez
+ * @version 1.0
+ * @since 2018
+ */
+public class OccupancyGrid {
+
+	private final long[] 	bits;
+	private final int 		width;
+	private final int 		height;
+	private final int 		stride;
+	private final float 	cellWidth;
+	private final float 	cellLength;
+
+	/**
+	 * Constructor of an empty grid.
+	 * @param width cells along x.
+	 * @param height cells along z.
+	 * @param cellWidth size of a cell along x.
+	 * @param cellLength size of a cell along z.
+	 */
+	public OccupancyGrid(int width, int height, float cellWidth, float cellLength) {
+		this.width = width;
+		this.height = height;
+		this.stride = (width + 63) >>> 6;
+		this.bits = new long[stride * height];
+		this.cellWidth = cellWidth;
+		this.cellLength = cellLength;
+	}
+
+	/**
+	 * Marks a cell as solid or free.
+	 * @param i cell along x.
+	 * @param j cell along z.
+	 * @param solid if it's solid.
+	 */
+	public void set(int i, int j, boolean solid) {
+		int word = j * stride + (i >>> 6);
+		if(solid)
+			bits[word] |= 1L << i;
+		else
+			bits[word] &= ~(1L << i);
+	}
+
+	/**
+	 * Checks if a cell is solid.
+	 * @param i cell along x.
+	 * @param j cell along z.
+	 * @return If it's solid, false outside the grid.
+	 */
+	public boolean isSolid(int i, int j) {
+		if(i < 0 || j < 0 || i >= width || j >= height)
+			return false;
+		return (bits[j * stride + (i >>> 6)] & (1L << i)) != 0;
+	}
+
+	/**
+	 * Clears the axes a box can't move along because of the solid cells,
+	 * like {@link PhysicsUtil#rectCollideInto} against each cell would, but
+	 * only for the cells the box can touch on its way.
+	 * @param oldPos box's old position.
+	 * @param newPos box's new position.
+	 * @param size box's size.
+	 * @param cell vector to use as the position of the cells.
+	 * @param cellSize size of the cells.
+	 * @param collision vector to clear, it starts as (1, 1).
+	 * @return The collision vector.
+	 */
+	public Vector2f collide(Vector2f oldPos, Vector2f newPos, Vector2f size, Vector2f cell, Vector2f cellSize, Vector2f collision) {
+		float minX = Math.min(oldPos.getX(), newPos.getX()) - size.getX();
+		float maxX = Math.max(oldPos.getX(), newPos.getX()) + size.getX();
+		float minY = Math.min(oldPos.getY(), newPos.getY()) - size.getY();
+		float maxY = Math.max(oldPos.getY(), newPos.getY()) + size.getY();
+
+		//A cell reaches as far as the test of PhysicsUtil takes it, its size squared
+		int iStart = Math.max(0, (int) Math.floor((minX - cellSize.getX() * cellSize.getX()) / cellWidth));
+		int iEnd = Math.min(width - 1, (int) Math.floor(maxX / cellWidth));
+		int jStart = Math.max(0, (int) Math.floor((minY - cellSize.getY() * cellSize.getY()) / cellLength));
+		int jEnd = Math.min(height - 1, (int) Math.floor(maxY / cellLength));
+
+		for(int i = iStart; i <= iEnd; i++)
+			for(int j = jStart; j <= jEnd; j++)
+				if(isSolid(i, j))
+					PhysicsUtil.rectCollideInto(oldPos, newPos, size, cell.set(cellWidth * i, cellLength * j), cellSize, collision);
+
+		return collision;
+	}
+
+	/**
+	 * Moves a box and finds when it first touches a solid cell, testing
+	 * only the cells it can touch on its way.
+	 * @param x box's position along x.
+	 * @param z box's position along z.
+	 * @param moveX how much the box moves along x.
+	 * @param moveZ how much the box moves along z.
+	 * @param halfWidth half of the box's size along x.
+	 * @param halfLength half of the box's size along z.
+	 * @return Part of the move done when it touches one, from 0 to 1,
+	 * or 1 if it doesn't.
+	 */
+	public float sweep(float x, float z, float moveX, float moveZ, float halfWidth, float halfLength) {
+		int iStart = Math.max(0, (int) Math.floor((Math.min(x, x + moveX) - halfWidth) / cellWidth));
+		int iEnd = Math.min(width - 1, (int) Math.floor((Math.max(x, x + moveX) + halfWidth) / cellWidth));
+		int jStart = Math.max(0, (int) Math.floor((Math.min(z, z + moveZ) - halfLength) / cellLength));
+		int jEnd = Math.min(height - 1, (int) Math.floor((Math.max(z, z + moveZ) + halfLength) / cellLength));
+
+		float part = 1;
+		for(int j = jStart; j <= jEnd; j++)
+			for(int i = iStart; i <= iEnd; i++)
+				if(isSolid(i, j))
+					part = Math.min(part, PhysicsUtil.sweepRect(x, z, moveX, moveZ, halfWidth, halfLength,
+							cellWidth * i, cellLength * j, cellWidth * (i + 1), cellLength * (j + 1)));
+		return part;
+	}
+
+	/**
+	 * Returns how many cells the grid has along x.
+	 * @return Width.
+	 */
+	public int getWidth() {return width;}
+
+	/**
+	 * Returns how many cells the grid has along z.
+	 * @return Height.
+	 */
+	public int getHeight() {return height;}
+
+	/**
+	 * Returns the size of a cell along x.
+	 * @return Cell width.
+	 */
+	public float getCellWidth() {return cellWidth;}
+
+	/**
+	 * Returns the size of a cell along z.
+	 * @return Cell length.
+	 */
+	public float getCellLength() {return cellLength;}
+
+}
@@ -81,6 +81,90 @@ public class PhysicsUtil {
         return result;
     }
 
+    /**
+     * Does the same check as {@link #rectCollide(Vector2f, Vector2f, Vector2f, Vector2f, Vector2f)},
+     * but instead of making a new vector it clears the axes of a collision vector
+     * the object can't move along.
+     * @param oldPos Objects' old position.
+     * @param newPos Objects' new position.
+     * @param size1 Object A's  size.
+     * @param pos2 Object A's position.
+     * @param size2 Object B's  size.
+     * @param collision vector to clear, it starts as (1, 1).
+     * @return The collision vector.
+     */
+    public static Vector2f rectCollideInto(Vector2f oldPos, Vector2f newPos, Vector2f size1, Vector2f pos2, Vector2f size2, Vector2f collision) {
+        if (!(newPos.getX() + size1.getX() < pos2.getX()
+                || newPos.getX() - size1.getX() > pos2.getX() + (size2.getX() * size2.getX())
+                || oldPos.getY() + size1.getY() < pos2.getY()
+                || oldPos.getY() - size1.getY() > pos2.getY() + (size2.getY() * size2.getY()))) {
+            collision.setX(0);
+        }
+
+        if (!(oldPos.getX() + size1.getX() < pos2.getX()
+                || oldPos.getX() - size1.getX() > pos2.getX() + (size2.getX() * size2.getX())
+                || newPos.getY() + size1.getY() < pos2.getY()
+                || newPos.getY() - size1.getY() > pos2.getY() + (size2.getY() * size2.getY()))) {
+            collision.setY(0);
+        }
+
+        return collision;
+    }
+
+    /**
+     * Moves a box towards a rectangle and finds when it first touches it,
+     * so a fast box can't go through a thin rectangle between two steps.
+     * A box already inside touches it at once, unless it's on its way out.
+     * @param x box's position along x.
+     * @param y box's position along y.
+     * @param moveX how much the box moves along x.
+     * @param moveY how much the box moves along y.
+     * @param width half of the box's size along x.
+     * @param length half of the box's size along y.
+     * @param minX rectangle's start along x.
+     * @param minY rectangle's start along y.
+     * @param maxX rectangle's end along x.
+     * @param maxY rectangle's end along y.
+     * @return Part of the move done when they touch, from 0 to 1, or 1
+     * if they don't.
+     */
+    public static float sweepRect(float x, float y, float moveX, float moveY, float width, float length,
+    		float minX, float minY, float maxX, float maxY) {
+        //The rectangle grows by the box, so only its middle point moves
+        minX -= width;
+        maxX += width;
+        minY -= length;
+        maxY += length;
+
+        float enter = -Float.MAX_VALUE;
+        float exit = Float.MAX_VALUE;
+        if (moveX == 0) {
+            if (x <= minX || x >= maxX) {
+                return 1;
+            }
+        } else {
+            float near = ((moveX > 0 ? minX : maxX) - x) / moveX;
+            float far = ((moveX > 0 ? maxX : minX) - x) / moveX;
+            enter = near;
+            exit = far;
+        }
+        if (moveY == 0) {
+            if (y <= minY || y >= maxY) {
+                return 1;
+            }
+        } else {
+            float near = ((moveY > 0 ? minY : maxY) - y) / moveY;
+            float far = ((moveY > 0 ? maxY : minY) - y) / moveY;
+            enter = Math.max(enter, near);
+            exit = Math.min(exit, far);
+        }
+
+        if (enter >= exit || enter >= 1 || exit <= 0) {
+            return 1;
+        }
+        return Math.max(0, enter);
+    }
+
     /**
      * Generates a line of intersection and checks if something hits something else.
      * @param a1 Line A start.
@@ -90,25 +174,63 @@ public class PhysicsUtil {
      * @return Data to access.
      */
     public static Vector2f lineIntersect(Vector2f a1, Vector2f a2, Vector2f b1, Vector2f b2) {
-        Vector2f line1 = a2.sub(a1);
-        Vector2f line2 = b2.sub(b1);
+        float factor = intersect(a1.getX(), a1.getY(), a2.getX(), a2.getY(), b1.getX(), b1.getY(), b2.getX(), b2.getY());
 
-        float cross = line1.cross(line2);
+        if (Float.isNaN(factor)) {
+            return null;
+        }
 
-        Vector2f pointDistance = b1.sub(a1);
+        return new Vector2f(a1.getX() + (a2.getX() - a1.getX()) * factor, a1.getY() + (a2.getY() - a1.getY()) * factor);
+    }
+
+    /**
+     * Does the same check as {@link #lineIntersect(Vector2f, Vector2f, Vector2f, Vector2f)},
+     * writing the intersection into a vector instead of making a new one.
+     * @param a1 Line A start.
+     * @param a2 Line A end.
+     * @param b1 Line B start.
+     * @param b2 Line B end.
+     * @param result vector to write the intersection, untouched if there's none.
+     * @return If the lines intersect.
+     */
+    public static boolean lineIntersect(Vector2f a1, Vector2f a2, Vector2f b1, Vector2f b2, Vector2f result) {
+        float factor = intersect(a1.getX(), a1.getY(), a2.getX(), a2.getY(), b1.getX(), b1.getY(), b2.getX(), b2.getY());
+
+        if (Float.isNaN(factor)) {
+            return false;
+        }
+
+        result.set(a1.getX() + (a2.getX() - a1.getX()) * factor, a1.getY() + (a2.getY() - a1.getY()) * factor);
+        return true;
+    }
+
+    /**
+     * Intersects two lines given by their points.
+     * @return How far along line A they cross, from 0 to 1, or NaN if they don't.
+     */
+    private static float intersect(float a1x, float a1y, float a2x, float a2y, float b1x, float b1y, float b2x, float b2y) {
+        float line1X = a2x - a1x;
+        float line1Y = a2y - a1y;
+        float line2X = b2x - b1x;
+        float line2Y = b2y - b1y;
+
+        float cross = line1X * line2Y - line1Y * line2X;
 
         if (cross == 0) {
-            return null;
+            return Float.NaN;
         }
 
-        float crossFactor1 = pointDistance.cross(line2) / cross;
-        float crossFactor2 = pointDistance.cross(line1) / cross;
+        float pointDistanceX = b1x - a1x;
+        float pointDistanceY = b1y - a1y;
+
+        float crossFactor1 = (pointDistanceX * line2Y - pointDistanceY * line2X) / cross;
+        float crossFactor2 = (pointDistanceX * line1Y - pointDistanceY * line1X) / cross;
 
         if (0.0f < crossFactor1 && crossFactor1 < 1.0f && 0.0f < crossFactor2 && crossFactor2 < 1.0f) {
-            return a1.add(line1.mul(crossFactor1));
+            return crossFactor1;
         }
 
-        return null;
+        return Float.NaN;
     }
 
     /**
@@ -148,36 +270,59 @@ public class PhysicsUtil {
      * @return Collision.
      */
     public static Vector2f lineIntersectRect(Vector2f lineStart, Vector2f lineEnd, Vector2f rectStart, Vector2f rectSize) {
-        Vector2f result = null;
-
-        Vector2f collision = PhysicsUtil.lineIntersect(lineStart, lineEnd, rectStart, new Vector2f(rectStart.getX() + rectSize.getX(), rectStart.getY()));
+        Vector2f result = new Vector2f(0, 0);
 
-        if (collision != null && (result == null
-                || result.sub(lineStart).length() > collision.sub(lineStart).length())) {
-            result = collision;
-        }
+        return lineIntersectRect(lineStart, lineEnd, rectStart, rectSize, result) ? result : null;
+    }
 
-        collision = PhysicsUtil.lineIntersect(lineStart, lineEnd, rectStart, new Vector2f(rectStart.getX(), rectStart.getY() + rectSize.getY()));
+    /**
+     * Does the same check as {@link #lineIntersectRect(Vector2f, Vector2f, Vector2f, Vector2f)},
+     * writing the nearest collision into a vector instead of making a new one.
+     * @param lineStart Start point of the line.
+     * @param lineEnd End point of the line.
+     * @param rectStart Position in the 3D space.
+     * @param rectSize Object's size.
+     * @param result vector to write the collision, untouched if there's none.
+     * @return If the line hits the rectangle.
+     */
+    public static boolean lineIntersectRect(Vector2f lineStart, Vector2f lineEnd, Vector2f rectStart, Vector2f rectSize, Vector2f result) {
+        float startX = lineStart.getX();
+        float startY = lineStart.getY();
+        float lineX = lineEnd.getX() - startX;
+        float lineY = lineEnd.getY() - startY;
+        float x1 = rectStart.getX();
+        float y1 = rectStart.getY();
+        float x2 = rectStart.getX() + rectSize.getX();
+        float y2 = rectStart.getY() + rectSize.getY();
 
-        if (collision != null && (result == null
-                || result.sub(lineStart).length() > collision.sub(lineStart).length())) {
-            result = collision;
-        }
+        float nearest = Float.NaN;
+        float nearestLength = 0;
+        for (int side = 0; side < 4; side++) {
+            float factor;
+            switch (side) {
+                case 0: factor = intersect(startX, startY, lineEnd.getX(), lineEnd.getY(), x1, y1, x2, y1); break;
+                case 1: factor = intersect(startX, startY, lineEnd.getX(), lineEnd.getY(), x1, y1, x1, y2); break;
+                case 2: factor = intersect(startX, startY, lineEnd.getX(), lineEnd.getY(), x2, y1, x2, y2); break;
+                default: factor = intersect(startX, startY, lineEnd.getX(), lineEnd.getY(), x1, y2, x2, y2); break;
+            }
 
-        collision = PhysicsUtil.lineIntersect(lineStart, lineEnd, new Vector2f(rectStart.getX() + rectSize.getX(), rectStart.getY()), rectStart.add(rectSize));
+            if (!Float.isNaN(factor)) {
+                float dx = (startX + lineX * factor) - startX;
+                float dy = (startY + lineY * factor) - startY;
+                float length = (float) Math.sqrt(dx * dx + dy * dy);
 
-        if (collision != null && (result == null
-                || result.sub(lineStart).length() > collision.sub(lineStart).length())) {
-            result = collision;
+                if (Float.isNaN(nearest) || nearestLength > length) {
+                    nearest = factor;
+                    nearestLength = length;
+                }
+            }
         }
 
-        collision = PhysicsUtil.lineIntersect(lineStart, lineEnd, new Vector2f(rectStart.getX(), rectStart.getY() + rectSize.getY()), rectStart.add(rectSize));
-
-        if (collision != null && (result == null
-                || result.sub(lineStart).length() > collision.sub(lineStart).length())) {
-            result = collision;
+        if (Float.isNaN(nearest)) {
+            return false;
         }
 
-        return result;
+        result.set(startX + lineX * nearest, startY + lineY * nearest);
+        return true;
     }
-}
+}
\ No newline at end of file
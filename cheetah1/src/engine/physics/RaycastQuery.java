@@ -0,0 +1,270 @@
+/*
+ * Copyright 2018 Carlos Rodriguez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package engine.physics;
+
+import java.util.ArrayList;
+
+import engine.components.GameComponent;
+import engine.core.Vector2f;
+
+/**
+ * A batch of rays tested together against the components of a
+ * {@link SpatialHash}, like the pellets of a shotgun or the fan of an
+ * explosion. The hash is queried along every ray, the components near
+ * more than one are tested once, and every ray gets the components it
+ * hits sorted from the nearest, the ones at the same length by their
+ * index.
+ * <p>
+ * It's used like this, and can be filled again for another batch:
+ * <pre>
+ * query.clear();
+ * int ray = query.addRay(start, end);
+ * query.setLimit(ray, wallLength);
+ * query.run(hash, filter);
+ * for(int i = 0; i &lt; query.getHitCount(ray); i++)
+ *     hit(query.getHit(ray, i), query.getHitLength(ray, i));
+ * </pre>
+ *
+ * @author Carlos Rodriguez
+ * @version 1.0
+ * @since 2018
+ */
+public class RaycastQuery {
+
+	/**
+	 * Picks the components a query tests.
+	 */
+	public interface Filter {
+
+		/**
+		 * Checks if a component is tested.
+		 * @param component to check.
+		 * @return If the rays can hit it.
+		 */
+		boolean accept(GameComponent component);
+
+	}
+
+	private static final int 					RAY = 5;
+
+	private final ArrayList<GameComponent> 		candidates;
+	private final ArrayList<GameComponent> 		lineCandidates;
+	private int[] 								cellStamps;
+	private int 								stamp;
+	private final Vector2f 						start;
+	private final Vector2f 						end;
+	private final Vector2f 						position;
+	private final Vector2f 						collision;
+	private float[] 							rays;
+	private int 								rayCount;
+	private int[] 								hitOffsets;
+	private GameComponent[] 					hits;
+	private float[] 							hitLengths;
+	private int 								hitCount;
+
+	/**
+	 * Constructor of an empty query.
+	 */
+	public RaycastQuery() {
+		this.candidates = new ArrayList<GameComponent>();
+		this.lineCandidates = new ArrayList<GameComponent>();
+		this.cellStamps = new int[0];
+		this.start = new Vector2f(0, 0);
+		this.end = new Vector2f(0, 0);
+		this.position = new Vector2f(0, 0);
+		this.collision = new Vector2f(0, 0);
+		this.rays = new float[RAY * 8];
+		this.hitOffsets = new int[9];
+		this.hits = new GameComponent[16];
+		this.hitLengths = new float[16];
+	}
+
+	/**
+	 * Takes every ray and hit out of the query.
+	 */
+	public void clear() {
+		rayCount = 0;
+		hitCount = 0;
+	}
+
+	/**
+	 * Adds a ray that hits anything along it.
+	 * @param start of the ray.
+	 * @param end of the ray.
+	 * @return Index of the ray.
+	 */
+	public int addRay(Vector2f start, Vector2f end) {
+		if((rayCount + 1) * RAY > rays.length) {
+			float[] grown = new float[rays.length * 2];
+			System.arraycopy(rays, 0, grown, 0, rays.length);
+			rays = grown;
+			int[] offsets = new int[rayCount * 2 + 1];
+			System.arraycopy(hitOffsets, 0, offsets, 0, hitOffsets.length);
+			hitOffsets = offsets;
+		}
+		int ray = rayCount++;
+		rays[ray * RAY] = start.getX();
+		rays[ray * RAY + 1] = start.getY();
+		rays[ray * RAY + 2] = end.getX();
+		rays[ray * RAY + 3] = end.getY();
+		rays[ray * RAY + 4] = Float.MAX_VALUE;
+		hitOffsets[ray] = 0;
+		hitOffsets[rayCount] = 0;
+		return ray;
+	}
+
+	/**
+	 * Stops a ray at a length from its start, like where it hits a wall,
+	 * so only what's before is searched and kept.
+	 * @param ray index of the ray.
+	 * @param limit length of the ray.
+	 */
+	public void setLimit(int ray, float limit) {rays[ray * RAY + 4] = limit;}
+
+	/**
+	 * Finds what every ray hits. The hash is queried along the part of
+	 * every ray before its limit, and a component near several rays is
+	 * only taken once.
+	 * @param hash of the components.
+	 * @param filter of the components to test.
+	 */
+	public void run(SpatialHash hash, Filter filter) {
+		hitCount = 0;
+		if(rayCount == 0)
+			return;
+
+		int cells = hash.getWidth() * hash.getHeight();
+		if(cellStamps.length < cells || stamp > Integer.MAX_VALUE - rayCount) {
+			cellStamps = new int[cells];
+			stamp = 0;
+		}
+		//A line adds every component of a cell at once, so a cell stamped by an earlier ray is already in
+		int first = stamp;
+		candidates.clear();
+		for(int ray = 0; ray < rayCount; ray++) {
+			float x0 = rays[ray * RAY];
+			float z0 = rays[ray * RAY + 1];
+			float dx = rays[ray * RAY + 2] - x0;
+			float dz = rays[ray * RAY + 3] - z0;
+			float length = (float) Math.sqrt(dx * dx + dz * dz);
+			float part = length > 0 ? Math.min(1, rays[ray * RAY + 4] / length) : 0;
+			hash.queryLine(x0, z0, x0 + dx * part, z0 + dz * part, lineCandidates);
+			stamp++;
+			for(int i = 0; i < lineCandidates.size(); i++) {
+				GameComponent component = lineCandidates.get(i);
+				int cell = component.getCell();
+				if(cellStamps[cell] > first && cellStamps[cell] != stamp)
+					continue;
+				cellStamps[cell] = stamp;
+				candidates.add(component);
+			}
+		}
+		lineCandidates.clear();
+		int accepted = 0;
+		for(int i = 0; i < candidates.size(); i++)
+			if(filter.accept(candidates.get(i)))
+				candidates.set(accepted++, candidates.get(i));
+
+		for(int ray = 0; ray < rayCount; ray++) {
+			hitOffsets[ray] = hitCount;
+			start.set(rays[ray * RAY], rays[ray * RAY + 1]);
+			end.set(rays[ray * RAY + 2], rays[ray * RAY + 3]);
+			float limit = rays[ray * RAY + 4];
+			for(int i = 0; i < accepted; i++) {
+				GameComponent component = candidates.get(i);
+				if(!PhysicsUtil.lineIntersectRect(start, end, component.getTransform().getPosition().getXZInto(position), component.getSize(), collision))
+					continue;
+				float length = collision.subInto(start, position).length();
+				if(length <= limit)
+					addHit(ray, component, length);
+			}
+		}
+		hitOffsets[rayCount] = hitCount;
+		candidates.clear();
+	}
+
+	/**
+	 * Adds a hit to the last ray, in its place by length.
+	 * @param ray index of the ray.
+	 * @param component hit.
+	 * @param length from the start of the ray.
+	 */
+	private void addHit(int ray, GameComponent component, float length) {
+		if(hitCount == hits.length) {
+			GameComponent[] grown = new GameComponent[hitCount * 2];
+			System.arraycopy(hits, 0, grown, 0, hitCount);
+			hits = grown;
+			float[] lengths = new float[hitCount * 2];
+			System.arraycopy(hitLengths, 0, lengths, 0, hitCount);
+			hitLengths = lengths;
+		}
+		int i = hitCount++;
+		while(i > hitOffsets[ray] && (hitLengths[i - 1] > length
+				|| (hitLengths[i - 1] == length && hits[i - 1].getIndex() > component.getIndex()))) {
+			hits[i] = hits[i - 1];
+			hitLengths[i] = hitLengths[i - 1];
+			i--;
+		}
+		hits[i] = component;
+		hitLengths[i] = length;
+	}
+
+	/**
+	 * Returns how many rays the query has.
+	 * @return Rays.
+	 */
+	public int getRayCount() {return rayCount;}
+
+	/**
+	 * Returns the start of a ray.
+	 * @param ray index of the ray.
+	 * @param dest vector to write into.
+	 * @return The start.
+	 */
+	public Vector2f getStart(int ray, Vector2f dest) {return dest.set(rays[ray * RAY], rays[ray * RAY + 1]);}
+
+	/**
+	 * Returns the end of a ray.
+	 * @param ray index of the ray.
+	 * @param dest vector to write into.
+	 * @return The end.
+	 */
+	public Vector2f getEnd(int ray, Vector2f dest) {return dest.set(rays[ray * RAY + 2], rays[ray * RAY + 3]);}
+
+	/**
+	 * Returns how many components a ray hits, after {@link #run}.
+	 * @param ray index of the ray.
+	 * @return Hits.
+	 */
+	public int getHitCount(int ray) {return hitOffsets[ray + 1] - hitOffsets[ray];}
+
+	/**
+	 * Returns a component a ray hits, from the nearest.
+	 * @param ray index of the ray.
+	 * @param hit index of the hit.
+	 * @return Component.
+	 */
+	public GameComponent getHit(int ray, int hit) {return hits[hitOffsets[ray] + hit];}
+
+	/**
+	 * Returns how far from its start a ray hits a component.
+	 * @param ray index of the ray.
+	 * @param hit index of the hit.
+	 * @return Length.
+	 */
+	public float getHitLength(int ray, int hit) {return hitLengths[hitOffsets[ray] + hit];}
+
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2018 Carlos Rodriguez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package engine.physics;
+
+import java.util.ArrayList;
+
+import engine.components.GameComponent;
+import engine.core.Vector3f;
+
+/**
+ * Keeps the components of a map in the cells of a uniform grid by their
+ * position on the floor, so a test only looks at the components near it.
+ * The ones that don't move are added once, the ones that move are moved
+ * to their new cell when their owner calls {@link #move(GameComponent)},
+ * usually once per tick. A query is widened by a cell to find the ones
+ * that moved since, and by the size of the biggest component, so it
+ * never misses one the test would hit. Positions outside the map go to
+ * the cells of its border. Lines only look at the cells around the ones
+ * they go through.
+ *
+ * @author Carlos Rodriguez
+ * @version 1.0
+ * @since 2018
+ */
+public class SpatialHash {
+
+	private final ArrayList<ArrayList<GameComponent>> 	cells;
+	private final int 									width;
+	private final int 									height;
+	private final float 								cellWidth;
+	private final float 								cellLength;
+	private float 										reach;
+
+	/**
+	 * Constructor of an empty hash.
+	 * @param width cells along x.
+	 * @param height cells along z.
+	 * @param cellWidth size of a cell along x.
+	 * @param cellLength size of a cell along z.
+	 */
+	public SpatialHash(int width, int height, float cellWidth, float cellLength) {
+		this.width = width;
+		this.height = height;
+		this.cellWidth = cellWidth;
+		this.cellLength = cellLength;
+		this.cells = new ArrayList<ArrayList<GameComponent>>(width * height);
+		for(int i = 0; i < width * height; i++)
+			cells.add(new ArrayList<GameComponent>(2));
+	}
+
+	/**
+	 * Adds a component to the cell of its position, unless it's
+	 * already there.
+	 * @param component to add.
+	 */
+	public void add(GameComponent component) {
+		if(component.getCell() >= 0)
+			return;
+		float sizeX = component.getSize().getX();
+		float sizeY = component.getSize().getY();
+		reach = Math.max(reach, Math.max(Math.max(sizeX, sizeX * sizeX), Math.max(sizeY, sizeY * sizeY)));
+		int cell = getCell(component.getTransform().getPosition());
+		component.setCell(cell);
+		cells.get(cell).add(component);
+	}
+
+	/**
+	 * Takes a component out of the hash.
+	 * @param component to remove.
+	 */
+	public void remove(GameComponent component) {
+		if(component.getCell() < 0)
+			return;
+		cells.get(component.getCell()).remove(component);
+		component.setCell(-1);
+	}
+
+	/**
+	 * Moves a component to the cell of its position, if it left its
+	 * old one.
+	 * @param component to move.
+	 */
+	public void move(GameComponent component) {
+		int cell = getCell(component.getTransform().getPosition());
+		if(cell == component.getCell())
+			return;
+		remove(component);
+		component.setCell(cell);
+		cells.get(cell).add(component);
+	}
+
+	/**
+	 * Adds every component whose cell overlaps a rectangle of the floor
+	 * to a list, which is cleared first. It may have some more that are
+	 * a little farther.
+	 * @param minX left of the rectangle.
+	 * @param minZ back of the rectangle.
+	 * @param maxX right of the rectangle.
+	 * @param maxZ front of the rectangle.
+	 * @param result list to fill.
+	 * @return The list.
+	 */
+	public ArrayList<GameComponent> query(float minX, float minZ, float maxX, float maxZ, ArrayList<GameComponent> result) {
+		result.clear();
+		int iStart = getColumn(minX - reach - cellWidth);
+		int iEnd = getColumn(maxX + reach + cellWidth);
+		int jStart = getRow(minZ - reach - cellLength);
+		int jEnd = getRow(maxZ + reach + cellLength);
+		for(int j = jStart; j <= jEnd; j++)
+			for(int i = iStart; i <= iEnd; i++)
+				addCell(j * width + i, result);
+		return result;
+	}
+
+	/**
+	 * Adds every component whose cell is near the cells a line goes
+	 * through to a list, which is cleared first. Every component is
+	 * added once, row by row.
+	 * @param x0 start of the line along x.
+	 * @param z0 start of the line along z.
+	 * @param x1 end of the line along x.
+	 * @param z1 end of the line along z.
+	 * @param result list to fill.
+	 * @return The list.
+	 */
+	public ArrayList<GameComponent> queryLine(float x0, float z0, float x1, float z1, ArrayList<GameComponent> result) {
+		result.clear();
+		float marginX = reach + cellWidth;
+		float marginZ = reach + cellLength;
+		float dx = x1 - x0;
+		float dz = z1 - z0;
+		int jEnd = getRow(Math.max(z0, z1) + marginZ);
+		for(int j = getRow(Math.min(z0, z1) - marginZ); j <= jEnd; j++) {
+			//Part of the line near the row, the rows of the border reach out of the map
+			float from = 0;
+			float to = 1;
+			if(dz != 0) {
+				float a = ((j == 0 ? -Float.MAX_VALUE : j * cellLength - marginZ) - z0) / dz;
+				float b = ((j == height - 1 ? Float.MAX_VALUE : (j + 1) * cellLength + marginZ) - z0) / dz;
+				from = Math.max(from, Math.min(a, b));
+				to = Math.min(to, Math.max(a, b));
+				if(from > to)
+					continue;
+			}
+			float xFrom = x0 + dx * from;
+			float xTo = x0 + dx * to;
+			int iEnd = getColumn(Math.max(xFrom, xTo) + marginX);
+			for(int i = getColumn(Math.min(xFrom, xTo) - marginX); i <= iEnd; i++)
+				addCell(j * width + i, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Adds the components of a cell to a list.
+	 * @param cell to add.
+	 * @param result list to fill.
+	 */
+	private void addCell(int cell, ArrayList<GameComponent> result) {
+		ArrayList<GameComponent> components = cells.get(cell);
+		for(int i = 0; i < components.size(); i++)
+			result.add(components.get(i));
+	}
+
+	/**
+	 * Returns the cell of a position.
+	 * @param position on the map.
+	 * @return Cell.
+	 */
+	private int getCell(Vector3f position) {return getRow(position.getZ()) * width + getColumn(position.getX());}
+
+	/**
+	 * Returns the column of a coordinate, kept inside the map.
+	 * @param x coordinate.
+	 * @return Column.
+	 */
+	private int getColumn(float x) {return Math.max(0, Math.min(width - 1, (int) Math.floor(x / cellWidth)));}
+
+	/**
+	 * Returns the row of a coordinate, kept inside the map.
+	 * @param z coordinate.
+	 * @return Row.
+	 */
+	private int getRow(float z) {return Math.max(0, Math.min(height - 1, (int) Math.floor(z / cellLength)));}
+
+	/**
+	 * Returns how many cells the hash has along x.
+	 * @return Width.
+	 */
+	public int getWidth() {return width;}
+
+	/**
+	 * Returns how many cells the hash has along z.
+	 * @return Height.
+	 */
+	public int getHeight() {return height;}
+
+}
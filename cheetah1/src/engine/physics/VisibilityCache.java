@@ -0,0 +1,112 @@
+/*
+ * Copyright 2018 Carlos Rodriguez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package engine.physics;
+
+/**
+ * Remembers if a target can be seen from each cell of a grid, so all
+ * the lookers in a cell share one line of sight. An answer is kept until
+ * {@link #invalidate()} is called, when the target changes cell or
+ * something that blocks the sight moves. Invalidating only moves a stamp
+ * on, so it costs the same for any size of grid.
+ *
+ * @author Carlos Rodriguez
+ * @version 1.0
+ * @since 2018
+ */
+public class VisibilityCache {
+
+	private final int[] 		stamps;
+	private final boolean[] 	visible;
+	private final int 			width;
+	private final int 			height;
+	private final float 		cellWidth;
+	private final float 		cellLength;
+	private int 				stamp = 1;
+
+	/**
+	 * Constructor of an empty cache.
+	 * @param width cells along x.
+	 * @param height cells along z.
+	 * @param cellWidth size of a cell along x.
+	 * @param cellLength size of a cell along z.
+	 */
+	public VisibilityCache(int width, int height, float cellWidth, float cellLength) {
+		this.width = width;
+		this.height = height;
+		this.cellWidth = cellWidth;
+		this.cellLength = cellLength;
+		this.stamps = new int[width * height];
+		this.visible = new boolean[width * height];
+	}
+
+	/**
+	 * Forgets every answer.
+	 */
+	public void invalidate() {stamp++;}
+
+	/**
+	 * Returns the cell of a position.
+	 * @param x position along x.
+	 * @param z position along z.
+	 * @return Cell or -1 outside the grid.
+	 */
+	public int getCell(float x, float z) {
+		int i = (int) Math.floor(x / cellWidth);
+		int j = (int) Math.floor(z / cellLength);
+		if(i < 0 || j < 0 || i >= width || j >= height)
+			return -1;
+		return j * width + i;
+	}
+
+	/**
+	 * Checks if a cell has an answer since the last invalidation.
+	 * @param cell to check.
+	 * @return If it's known.
+	 */
+	public boolean isKnown(int cell) {return stamps[cell] == stamp;}
+
+	/**
+	 * Returns the answer of a cell, only meaningful if it's known.
+	 * @param cell to check.
+	 * @return If the target can be seen from it.
+	 */
+	public boolean isVisible(int cell) {return visible[cell];}
+
+	/**
+	 * Keeps the answer of a cell until the next invalidation.
+	 * @param cell to set.
+	 * @param visible if the target can be seen from it.
+	 */
+	public void set(int cell, boolean visible) {
+		this.visible[cell] = visible;
+		this.stamps[cell] = stamp;
+	}
+
+	/**
+	 * Returns the middle of a cell along x.
+	 * @param cell of the grid.
+	 * @return Position along x.
+	 */
+	public float getCenterX(int cell) {return (cell % width + 0.5f) * cellWidth;}
+
+	/**
+	 * Returns the middle of a cell along z.
+	 * @param cell of the grid.
+	 * @return Position along z.
+	 */
+	public float getCenterZ(int cell) {return (cell / width + 0.5f) * cellLength;}
+
+}
@@ -153,13 +153,17 @@ public class HUD {
     }
     
     /**
-     * Method that updates the text.
+     * Method that updates the text, the mesh is only built again
+     * when the text changes.
      * @param text to change.
      */
     public <E> void setText(E text) {   	
+        String toText = text + "";
+        if(toText.equals(this.text))
+        	return;
+        this.text = toText;
         ArrayList<Vertex> vertices = new ArrayList<Vertex>(); // ArrayList is a variable length Collection class
         ArrayList<Integer> indices = new ArrayList<Integer>();
-        String toText = text + "";
         for (int i = 0; i < toText.length(); i++) {
             int c = toText.charAt(i);
             float u = (c % 16) / 16.0f;
@@ -22,6 +22,7 @@ import static org.lwjgl.opengl.GL20.*;
 import java.util.ArrayList;
 import java.util.HashMap;
 
+import engine.core.CoreEngine;
 import engine.core.Vector3f;
 import engine.rendering.meshLoading.IndexedModel;
 import engine.rendering.meshLoading.OBJModel;
@@ -97,6 +98,9 @@ public class Mesh {
         if(calcTangent)
         	calcTangents(vertices, indices);
         resource = new MeshResource(indices.length);
+        
+        if(CoreEngine.isHeadless())
+        	return;
 
         glBindBuffer(GL_ARRAY_BUFFER, resource.getVbo());
         glBufferData(GL_ARRAY_BUFFER, Util.createFlippedBuffer(vertices), GL_STATIC_DRAW);
@@ -118,19 +122,33 @@ public class Mesh {
      * Draws the mesh.
      */
     public void draw() {
+    	RenderSnapshot snapshot = RenderSnapshot.getRecording();
+    	if(snapshot != null)
+    		snapshot.draw(resource.getVbo(), resource.getIbo(), resource.getSize());
+    	else
+    		draw(resource.getVbo(), resource.getIbo(), resource.getSize());
+    }
+    
+    /**
+     * Draws an indexed mesh by it's buffers.
+     * @param vbo of the mesh.
+     * @param ibo of the mesh.
+     * @param size of the indices.
+     */
+    static void draw(int vbo, int ibo, int size) {
         glEnableVertexAttribArray(0);
         glEnableVertexAttribArray(1);
         glEnableVertexAttribArray(2);
         glEnableVertexAttribArray(3);
 
-        glBindBuffer(GL_ARRAY_BUFFER, resource.getVbo());
+        glBindBuffer(GL_ARRAY_BUFFER, vbo);
         glVertexAttribPointer(0, 3, GL_FLOAT, false, Vertex.SIZE * 4, 0);
         glVertexAttribPointer(1, 2, GL_FLOAT, false, Vertex.SIZE * 4, 12);
         glVertexAttribPointer(2, 3, GL_FLOAT, false, Vertex.SIZE * 4, 20);
         glVertexAttribPointer(3, 3, GL_FLOAT, false, Vertex.SIZE * 4, 32);
 
-        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, resource.getIbo());
-        glDrawElements(GL_TRIANGLES, resource.getSize(), GL_UNSIGNED_INT, 0);
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, ibo);
+        glDrawElements(GL_TRIANGLES, size, GL_UNSIGNED_INT, 0);
 
         glDisableVertexAttribArray(0);
         glDisableVertexAttribArray(1);
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2018 Carlos Rodriguez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package engine.rendering;
+
+import java.util.Arrays;
+
+import engine.physics.OccupancyGrid;
+
+/**
+ * The cells of a map that can be seen from each free cell, baked once
+ * from the solid cells of an {@link OccupancyGrid} when the map loads,
+ * one row of bits per cell. Everything that isn't solid lets the sight
+ * through, so the doors count as open.
+ * <p>
+ * The sight is cast from a grid of three by three points of a cell, the
+ * ones on its sides a little inside. Every quarter around a point is
+ * swept a column at a time, keeping the slopes that no solid cell has
+ * covered yet, so it only visits the cells it can see. The cells next
+ * to a seen cell count as seen too, so the set covers the camera
+ * anywhere in its cell and the things that stick out of theirs.
+ *
+ * @author Carlos Rodriguez
+ * @version 1.0
+ * @since 2018
+ */
+public class PotentiallyVisibleSet {
+
+	private static final float 		INSET = 1 / 64f;
+	private static final int 		SAMPLES = 3;
+
+	private final OccupancyGrid 	grid;
+	private final int 				width;
+	private final int 				height;
+	private final int 				stride;
+	private final long[] 			bits;
+	private final boolean[] 		baked;
+	private final boolean[] 		solid;
+	private final boolean[] 		marks;
+	private float[] 				lows = new float[16];
+	private float[] 				highs = new float[16];
+	private float[] 				nextLows = new float[16];
+	private float[] 				nextHighs = new float[16];
+
+	/**
+	 * Bakes the set of a map.
+	 * @param grid the solid cells of the map.
+	 */
+	public PotentiallyVisibleSet(OccupancyGrid grid) {
+		this.grid = grid;
+		this.width = grid.getWidth();
+		this.height = grid.getHeight();
+		this.stride = (width * height + 63) >>> 6;
+		this.bits = new long[stride * width * height];
+		this.baked = new boolean[width * height];
+		this.solid = new boolean[width * height];
+		this.marks = new boolean[width * height];
+		for(int j = 0; j < height; j++)
+			for(int i = 0; i < width; i++)
+				solid[j * width + i] = grid.isSolid(i, j);
+
+		for(int j = 0; j < height; j++) {
+			for(int i = 0; i < width; i++) {
+				if(solid[j * width + i])
+					continue;
+				Arrays.fill(marks, false);
+				marks[j * width + i] = true;
+				for(int n = 0; n < SAMPLES; n++) {
+					for(int m = 0; m < SAMPLES; m++) {
+						float x = i + INSET + m * (1 - 2 * INSET) / (SAMPLES - 1);
+						float z = j + INSET + n * (1 - 2 * INSET) / (SAMPLES - 1);
+						for(int quarter = 0; quarter < 4; quarter++)
+							cast(x, z, quarter);
+					}
+				}
+				store(j * width + i);
+			}
+		}
+	}
+
+	/**
+	 * Returns the cell of a position.
+	 * @param x position along x.
+	 * @param z position along z.
+	 * @return Cell or -1 outside the map.
+	 */
+	public int getCell(float x, float z) {
+		int i = (int) Math.floor(x / grid.getCellWidth());
+		int j = (int) Math.floor(z / grid.getCellLength());
+		if(i < 0 || j < 0 || i >= width || j >= height)
+			return -1;
+		return j * width + i;
+	}
+
+	/**
+	 * Checks if a cell can be seen from another one. Everything can be
+	 * seen from outside the map or from a solid cell, and everything
+	 * outside the map can be seen.
+	 * @param from cell of the eye, or -1.
+	 * @param to cell that's looked at, or -1.
+	 * @return If it may be seen.
+	 */
+	public boolean isVisible(int from, int to) {
+		if(from < 0 || to < 0 || !baked[from])
+			return true;
+		return (bits[from * stride + (to >>> 6)] & (1L << to)) != 0;
+	}
+
+	/**
+	 * Checks if any cell around a position can be seen from a cell, like
+	 * the cells a light reaches. The cells are the ones in the square
+	 * around the position, kept inside the map.
+	 * @param from cell of the eye, or -1.
+	 * @param x position along x.
+	 * @param z position along z.
+	 * @param radius how far from the position the cells are taken.
+	 * @return If one of them may be seen.
+	 */
+	public boolean isVisible(int from, float x, float z, float radius) {
+		if(from < 0 || !baked[from] || getCell(x, z) < 0)
+			return true;
+		int iStart = Math.max(0, (int) Math.floor((x - radius) / grid.getCellWidth()));
+		int iEnd = Math.min(width - 1, (int) Math.floor((x + radius) / grid.getCellWidth()));
+		int jStart = Math.max(0, (int) Math.floor((z - radius) / grid.getCellLength()));
+		int jEnd = Math.min(height - 1, (int) Math.floor((z + radius) / grid.getCellLength()));
+		for(int j = jStart; j <= jEnd; j++)
+			for(int i = iStart; i <= iEnd; i++)
+				if(isVisible(from, j * width + i))
+					return true;
+		return false;
+	}
+
+	/**
+	 * Sweeps a quarter around a point, marking the cells it sees. The
+	 * quarter is turned so it always looks along u, with v across it:
+	 * 0 looks to +x, 1 to -x, 2 to +z and 3 to -z.
+	 * @param x point along x, in cells.
+	 * @param z point along z, in cells.
+	 * @param quarter to sweep.
+	 */
+	private void cast(float x, float z, int quarter) {
+		float u = quarter == 0 ? x : quarter == 1 ? -x : quarter == 2 ? z : -z;
+		float v = quarter < 2 ? z : x;
+		int count = 1;
+		lows[0] = -1;
+		highs[0] = 1;
+
+		for(int a = (int) Math.floor(u); count > 0; a++) {
+			float near = Math.max(a, u) - u;
+			float far = a + 1 - u;
+
+			//Every cell of the column the slopes left go through is seen
+			int bStart = Integer.MAX_VALUE;
+			int bEnd = Integer.MIN_VALUE;
+			for(int k = 0; k < count; k++) {
+				int b0 = (int) Math.floor(v + Math.min(lows[k] * near, lows[k] * far));
+				int b1 = (int) Math.floor(v + Math.max(highs[k] * near, highs[k] * far));
+				for(int b = b0; b <= b1; b++) {
+					int cell = getCell(quarter, a, b);
+					if(cell >= 0)
+						marks[cell] = true;
+				}
+				bStart = Math.min(bStart, b0);
+				bEnd = Math.max(bEnd, b1);
+			}
+
+			//And the solid ones hide the slopes they cover from the next columns
+			for(int b = bStart; b <= bEnd; b++) {
+				int cell = getCell(quarter, a, b);
+				if(cell >= 0 && !solid[cell])
+					continue;
+				float low = Math.min(Math.min((b - v) / near, (b - v) / far), Math.min((b + 1 - v) / near, (b + 1 - v) / far));
+				float high = Math.max(Math.max((b - v) / near, (b - v) / far), Math.max((b + 1 - v) / near, (b + 1 - v) / far));
+				count = hide(count, low, high);
+			}
+		}
+	}
+
+	/**
+	 * Takes a range of slopes out of the ones left.
+	 * @param count of ranges left.
+	 * @param low of the slopes to take out.
+	 * @param high of the slopes to take out.
+	 * @return The count of ranges left after.
+	 */
+	private int hide(int count, float low, float high) {
+		if(nextLows.length < count * 2) {
+			nextLows = new float[count * 2];
+			nextHighs = new float[count * 2];
+		}
+		int left = 0;
+		for(int k = 0; k < count; k++) {
+			if(high <= lows[k] || low >= highs[k]) {
+				nextLows[left] = lows[k];
+				nextHighs[left++] = highs[k];
+				continue;
+			}
+			if(low > lows[k]) {
+				nextLows[left] = lows[k];
+				nextHighs[left++] = low;
+			}
+			if(high < highs[k]) {
+				nextLows[left] = high;
+				nextHighs[left++] = highs[k];
+			}
+		}
+		float[] swap = lows;
+		lows = nextLows;
+		nextLows = swap;
+		swap = highs;
+		highs = nextHighs;
+		nextHighs = swap;
+		return left;
+	}
+
+	/**
+	 * Returns the cell of a turned quarter.
+	 * @param quarter the cell is in.
+	 * @param a cell along u.
+	 * @param b cell along v.
+	 * @return Cell or -1 outside the map.
+	 */
+	private int getCell(int quarter, int a, int b) {
+		int i = quarter == 0 ? a : quarter == 1 ? -a - 1 : b;
+		int j = quarter == 2 ? a : quarter == 3 ? -a - 1 : b;
+		if(i < 0 || j < 0 || i >= width || j >= height)
+			return -1;
+		return j * width + i;
+	}
+
+	/**
+	 * Keeps the marked cells and the ones next to them as the row of
+	 * a cell.
+	 * @param from cell whose row it is.
+	 */
+	private void store(int from) {
+		int row = from * stride;
+		for(int j = 0; j < height; j++) {
+			for(int i = 0; i < width; i++) {
+				if(!marks[j * width + i])
+					continue;
+				for(int n = Math.max(0, j - 1); n <= Math.min(height - 1, j + 1); n++) {
+					for(int m = Math.max(0, i - 1); m <= Math.min(width - 1, i + 1); m++) {
+						int to = n * width + m;
+						bits[row + (to >>> 6)] |= 1L << to;
+					}
+				}
+			}
+		}
+		baked[from] = true;
+	}
+
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright 2018 Carlos Rodriguez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package engine.rendering;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL13.*;
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL20.*;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+import engine.core.Matrix4f;
+import engine.core.utils.Util;
+
+/**
+ * Frozen copy of everything a frame needs to be drawn: the
+ * programs, uniforms (transforms, materials, active lights and
+ * camera) and meshes, in the order the simulation emitted them.
+ * The simulation thread records it and, once published, the
+ * OpenGL thread only reads it back with {@link #replay()}.
+ *
+ * @author Carlos Rodriguez
+ * @version 1.0
+ * @since 2018
+ */
+public class RenderSnapshot {
+
+	private static final int 						CLEAR = 0;
+	private static final int 						BEGIN_LIGHT_PASS = 1;
+	private static final int 						END_LIGHT_PASS = 2;
+	private static final int 						PROGRAM = 3;
+	private static final int 						UNIFORM_I = 4;
+	private static final int 						UNIFORM_F = 5;
+	private static final int 						UNIFORM_3F = 6;
+	private static final int 						UNIFORM_MATRIX = 7;
+	private static final int 						TEXTURE = 8;
+	private static final int 						DRAW = 9;
+	private static final int 						UPLOAD = 10;
+
+	private static final ThreadLocal<RenderSnapshot> recording = new ThreadLocal<RenderSnapshot>();
+
+	private int[] 									ints;
+	private float[] 								floats;
+	private int 									intCount;
+	private int 									floatCount;
+	private long 									tick;
+	private FloatBuffer 							matrixBuffer;
+	private FloatBuffer 							uploadBuffer;
+
+	/**
+	 * Constructor of an empty snapshot.
+	 */
+	public RenderSnapshot() {
+		ints = new int[4096];
+		floats = new float[16384];
+		matrixBuffer = Util.createFloatBuffer(16);
+		uploadBuffer = Util.createFloatBuffer(1024);
+	}
+
+	/**
+	 * Returns the snapshot that is been recorded in the calling
+	 * thread, or null if the thread draws directly to OpenGL.
+	 * @return Recording snapshot.
+	 */
+	public static RenderSnapshot getRecording() {return recording.get();}
+
+	/**
+	 * Starts recording a new frame on the calling thread, dropping
+	 * whatever this snapshot held before.
+	 * @param tick of the simulation that produced the frame.
+	 */
+	public void begin(long tick) {
+		this.tick = tick;
+		intCount = 0;
+		floatCount = 0;
+		recording.set(this);
+	}
+
+	/**
+	 * Stops recording on the calling thread.
+	 */
+	public void end() {recording.remove();}
+
+	/**
+	 * Returns the simulation tick that produced this frame.
+	 * @return Tick.
+	 */
+	public long getTick() {return tick;}
+
+	/**
+	 * Records the clear of the color and depth buffers.
+	 * @param r red of the clear color.
+	 * @param g green of the clear color.
+	 * @param b blue of the clear color.
+	 */
+	public void clear(float r, float g, float b) {
+		putInt(CLEAR);
+		putFloat(r); putFloat(g); putFloat(b);
+	}
+
+	/**
+	 * Records the additive blending state used by the light passes.
+	 */
+	public void beginLightPass() {putInt(BEGIN_LIGHT_PASS);}
+
+	/**
+	 * Records the restore of the state after a light pass.
+	 */
+	public void endLightPass() {putInt(END_LIGHT_PASS);}
+
+	/**
+	 * Records a program binding.
+	 * @param program to use.
+	 */
+	public void program(int program) {putInt(PROGRAM); putInt(program);}
+
+	/**
+	 * Records an integer uniform.
+	 * @param location of the uniform.
+	 * @param value to set.
+	 */
+	public void uniformi(int location, int value) {putInt(UNIFORM_I); putInt(location); putInt(value);}
+
+	/**
+	 * Records a float uniform.
+	 * @param location of the uniform.
+	 * @param value to set.
+	 */
+	public void uniformf(int location, float value) {putInt(UNIFORM_F); putInt(location); putFloat(value);}
+
+	/**
+	 * Records a vector uniform.
+	 * @param location of the uniform.
+	 * @param x of the vector.
+	 * @param y of the vector.
+	 * @param z of the vector.
+	 */
+	public void uniform(int location, float x, float y, float z) {
+		putInt(UNIFORM_3F); putInt(location);
+		putFloat(x); putFloat(y); putFloat(z);
+	}
+
+	/**
+	 * Records a matrix uniform, copying its values.
+	 * @param location of the uniform.
+	 * @param value to set.
+	 */
+	public void uniform(int location, Matrix4f value) {
+		putInt(UNIFORM_MATRIX); putInt(location);
+		for(int i = 0; i < 4; i++)
+			for(int j = 0; j < 4; j++)
+				putFloat(value.get(i, j));
+	}
+
+	/**
+	 * Records a texture binding.
+	 * @param sampler slot of the texture.
+	 * @param id of the texture.
+	 */
+	public void texture(int sampler, int id) {putInt(TEXTURE); putInt(sampler); putInt(id);}
+
+	/**
+	 * Records the draw of an indexed mesh.
+	 * @param vbo of the mesh.
+	 * @param ibo of the mesh.
+	 * @param size of the indices.
+	 */
+	public void draw(int vbo, int ibo, int size) {putInt(DRAW); putInt(vbo); putInt(ibo); putInt(size);}
+
+	/**
+	 * Records new contents for the start of a vertex buffer,
+	 * copying the values.
+	 * @param vbo to fill.
+	 * @param data vertices.
+	 * @param count of floats to copy.
+	 */
+	public void upload(int vbo, float[] data, int count) {
+		putInt(UPLOAD); putInt(vbo); putInt(count);
+		if(floatCount + count > floats.length)
+			floats = Arrays.copyOf(floats, Math.max(floats.length * 2, floatCount + count));
+		System.arraycopy(data, 0, floats, floatCount, count);
+		floatCount += count;
+	}
+
+	/**
+	 * Sends the recorded frame to OpenGL, must be called from
+	 * the thread that owns the display.
+	 */
+	public void replay() {
+		int i = 0;
+		int f = 0;
+		while(i < intCount) {
+			switch(ints[i++]) {
+				case CLEAR:
+					glClearColor(floats[f], floats[f + 1], floats[f + 2], 1.0f);
+					f += 3;
+					glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT);
+					break;
+				case BEGIN_LIGHT_PASS:
+					glEnable(GL_BLEND);
+					glBlendFunc(GL_ONE, GL_ONE);
+					glDepthMask(false);
+					glDepthFunc(GL_EQUAL);
+					break;
+				case END_LIGHT_PASS:
+					glDepthFunc(GL_LESS);
+					glDepthMask(true);
+					glDisable(GL_BLEND);
+					break;
+				case PROGRAM:
+					glUseProgram(ints[i++]);
+					break;
+				case UNIFORM_I:
+					glUniform1i(ints[i], ints[i + 1]);
+					i += 2;
+					break;
+				case UNIFORM_F:
+					glUniform1f(ints[i++], floats[f++]);
+					break;
+				case UNIFORM_3F:
+					glUniform3f(ints[i++], floats[f], floats[f + 1], floats[f + 2]);
+					f += 3;
+					break;
+				case UNIFORM_MATRIX:
+					matrixBuffer.clear();
+					matrixBuffer.put(floats, f, 16).flip();
+					f += 16;
+					glUniformMatrix4(ints[i++], true, matrixBuffer);
+					break;
+				case TEXTURE:
+					glActiveTexture(GL_TEXTURE0 + ints[i]);
+					glBindTexture(GL_TEXTURE_2D, ints[i + 1]);
+					i += 2;
+					break;
+				case DRAW:
+					Mesh.draw(ints[i], ints[i + 1], ints[i + 2]);
+					i += 3;
+					break;
+				case UPLOAD:
+					if(uploadBuffer.capacity() < ints[i + 1])
+						uploadBuffer = Util.createFloatBuffer(ints[i + 1]);
+					uploadBuffer.clear();
+					uploadBuffer.put(floats, f, ints[i + 1]).flip();
+					f += ints[i + 1];
+					glBindBuffer(GL_ARRAY_BUFFER, ints[i]);
+					glBufferSubData(GL_ARRAY_BUFFER, 0, uploadBuffer);
+					i += 2;
+					break;
+			}
+		}
+	}
+
+	/**
+	 * Appends an integer to the command stream.
+	 * @param value to append.
+	 */
+	private void putInt(int value) {
+		if(intCount == ints.length)
+			ints = Arrays.copyOf(ints, ints.length * 2);
+		ints[intCount++] = value;
+	}
+
+	/**
+	 * Appends a float to the value stream.
+	 * @param value to append.
+	 */
+	private void putFloat(float value) {
+		if(floatCount == floats.length)
+			floats = Arrays.copyOf(floats, floats.length * 2);
+		floats[floatCount++] = value;
+	}
+
+}
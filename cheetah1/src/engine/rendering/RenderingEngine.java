@@ -26,7 +26,10 @@ import engine.components.Camera;
 import engine.components.GameComponent;
 import engine.components.PointLight;
 import engine.components.SpotLight;
+import engine.core.CoreEngine;
 import engine.core.Debug;
+import engine.core.Matrix4f;
+import engine.core.Profiler;
 import engine.core.Vector3f;
 import engine.core.crash.CrashReport;
 import engine.rendering.resourceManagement.MappedValues;
@@ -44,7 +47,13 @@ public class RenderingEngine extends MappedValues {
 	private Shader 						forwardAmbient;
 	
 	private static ArrayList<BaseLight> lights;
+	private static Vector3f 			clearColor = new Vector3f(0, 0, 0);
 	private HashMap<String, Integer> 	samplerMap;
+	private float 						interpolation = 1;
+	private long 						frame;
+	private final Matrix4f 				billboard = new Matrix4f().initIdentity();
+	private PotentiallyVisibleSet 		visibleSet;
+	private int 						eyeCell = -1;
 	
 	/**
 	 * Constructor for the rendering engine.
@@ -59,6 +68,9 @@ public class RenderingEngine extends MappedValues {
         
 		forwardAmbient = new Shader("forward-ambient");
 		
+		if(CoreEngine.isHeadless())
+			return;
+		
 		glClearColor(0.0f, 0.0f, 0.0f, 0.0f);
 
         glFrontFace(GL_CW);
@@ -74,53 +86,145 @@ public class RenderingEngine extends MappedValues {
      */
     public void render(GameComponent component) {
     	try {
-    		glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT);
+    		frame++;
+    		updateBillboard();
+    		updateEyeCell();
+    		RenderSnapshot snapshot = RenderSnapshot.getRecording();
+    		if(snapshot != null)
+    			snapshot.clear(clearColor.getX(), clearColor.getY(), clearColor.getZ());
+    		else
+    			glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT);
     		
+    		Profiler.begin("Ambient pass");
 	        component.render(forwardAmbient, this);
+	        Profiler.end();
 			
 			for(BaseLight light : lights) {
 				
-				glEnable(GL_BLEND);
-				glBlendFunc(GL_ONE, GL_ONE);
-				glDepthMask(false);
-				glDepthFunc(GL_EQUAL);
+				if(snapshot != null) {
+					snapshot.beginLightPass();
+				} else {
+					glEnable(GL_BLEND);
+					glBlendFunc(GL_ONE, GL_ONE);
+					glDepthMask(false);
+					glDepthFunc(GL_EQUAL);
+				}
 				
 				switch(light.getShader().getName()) {
 					case"forward-directional":
+						Profiler.begin("Directional pass");
 						activeLight = light;
 						component.render(light.getShader(), this);
+						Profiler.end();
 					break;
 					case"forward-point":
-						if(((PointLight) light).getDistance() < LIGHT_POP_IN) {
+						Profiler.begin("Point pass");
+						if(((PointLight) light).getDistance() < LIGHT_POP_IN && isVisible(((PointLight) light).getPosition(), ((PointLight) light).getRange())) {
 							activeLight = light;
 							float distance = 0;
 							if(component.getTransform() != null)
-								distance = ((PointLight) light).getPosition().sub(component.getTransform().getPosition()).length();
+								distance = ((PointLight) light).getPosition().distance(component.getTransform().getPosition());
 							if(distance < ((PointLight) light).getRange())
 								component.render(light.getShader(), this);
 						}
+						Profiler.end();
 					break;
 					case"forward-spot":
-						if(((SpotLight) light).getDistance() < LIGHT_POP_IN) {
+						Profiler.begin("Spot pass");
+						if(((SpotLight) light).getDistance() < LIGHT_POP_IN && isVisible(((SpotLight) light).getPosition(), ((SpotLight) light).getRange())) {
 							activeLight = light;
 							float distance = 0;
 							if(component.getTransform() != null)
-								distance = ((SpotLight) light).getPosition().sub(component.getTransform().getPosition()).length();
+								distance = ((SpotLight) light).getPosition().distance(component.getTransform().getPosition());
 							if(distance < ((SpotLight) light).getRange())
 								component.render(light.getShader(), this);
 						}
+						Profiler.end();
 					break;
 				}
 				
-				glDepthFunc(GL_LESS);
-				glDepthMask(true);
-				glDisable(GL_BLEND);
+				if(snapshot != null) {
+					snapshot.endLightPass();
+				} else {
+					glDepthFunc(GL_LESS);
+					glDepthMask(true);
+					glDisable(GL_BLEND);
+				}
 			}
     	} catch(RuntimeException e) {
     		Debug.crash(new CrashReport(e));
     	}
     }
     
+    /**
+     * Works out the rotation that turns the billboards to the camera,
+     * once for all of them. They face the way the camera looks, so
+     * they're all parallel to the screen.
+     */
+    private void updateBillboard() {
+    	if(mainCamera == null)
+    		return;
+    	Vector3f forward = mainCamera.getForward(interpolation);
+    	if(forward.getX() == 0 && forward.getZ() == 0)
+    		return;
+    	
+    	float angle = (float) Math.toDegrees(Math.atan(forward.getZ() / forward.getX()));
+    	
+    	if (forward.getX() > 0)
+    		angle = 180 + angle;
+    	
+    	billboard.initRotation(0, angle + 90, 0);
+    }
+    
+    /**
+     * Finds the cell the camera is in, once per frame, for
+     * {@link #isVisible(Vector3f)}.
+     */
+    private void updateEyeCell() {
+    	if(visibleSet == null || mainCamera == null) {
+    		eyeCell = -1;
+    		return;
+    	}
+    	Vector3f eye = mainCamera.getPos(interpolation);
+    	eyeCell = visibleSet.getCell(eye.getX(), eye.getZ());
+    }
+    
+    /**
+     * Checks if something at a position may be seen from the camera
+     * this frame, through the walls of the set of the map.
+     * @param position of the thing.
+     * @return If it may be seen, always without a set.
+     */
+    public boolean isVisible(Vector3f position) {
+    	if(visibleSet == null)
+    		return true;
+    	return visibleSet.isVisible(eyeCell, visibleSet.getCell(position.getX(), position.getZ()));
+    }
+    
+    /**
+     * Checks if something that reaches around a position, like the light
+     * of a lamp, may be seen from the camera this frame. It's only hidden
+     * when no cell it reaches can be seen.
+     * @param position of the thing.
+     * @param range how far it reaches.
+     * @return If it may be seen, always without a set.
+     */
+    public boolean isVisible(Vector3f position, float range) {
+    	if(visibleSet == null)
+    		return true;
+    	return visibleSet.isVisible(eyeCell, position.getX(), position.getZ(), range);
+    }
+    
+    /**
+     * Sets the cells that can be seen from each cell of the map, to skip
+     * what's behind the walls.
+     * @param visibleSet of the map, or null to render everything.
+     */
+    public void setVisibleSet(PotentiallyVisibleSet visibleSet) {
+    	this.visibleSet = visibleSet;
+    	this.eyeCell = -1;
+    }
+    
     /**
 	 * Cleans everything light related.
 	 */
@@ -144,6 +248,12 @@ public class RenderingEngine extends MappedValues {
 	 */
 	public void addLight(BaseLight light) { lights.add(light); }
 	
+	/**
+	 * Returns every light in the engine.
+	 * @return lights.
+	 */
+	public ArrayList<BaseLight> getLights() { return lights; }
+	
 	/**
 	 * Removes a new directional light to the rendering engine.
 	 * @param light to remove.
@@ -191,7 +301,11 @@ public class RenderingEngine extends MappedValues {
      * Cleans all the colors in the environment.
      * @param color to clean.
      */
-    public static void setClearColor(Vector3f color) {glClearColor(color.getX(), color.getY(), color.getZ(), 1.0f);}
+    public static void setClearColor(Vector3f color) {
+    	clearColor = color;
+    	if(!CoreEngine.isHeadless())
+    		glClearColor(color.getX(), color.getY(), color.getZ(), 1.0f);
+    }
 	
 	/**
 	 * Sets a new ambient light.
@@ -211,5 +325,32 @@ public class RenderingEngine extends MappedValues {
      * @param mainCamera of the game.
      */
 	public void setMainCamera(Camera mainCamera) { this.mainCamera = mainCamera; }
+	
+	/**
+	 * Returns how far the frame been drawn is between the last
+	 * tick and the next one.
+	 * @return interpolation from 0 to 1.
+	 */
+	public float getInterpolation() { return interpolation; }
+	
+	/**
+	 * Sets how far the next frame is between the last tick and
+	 * the next one.
+	 * @param interpolation from 0 to 1.
+	 */
+	public void setInterpolation(float interpolation) { this.interpolation = interpolation; }
+	
+	/**
+	 * Returns how many frames have been drawn, so what is built once
+	 * per frame can tell the light passes of a frame apart.
+	 * @return frame.
+	 */
+	public long getFrame() { return frame; }
+	
+	/**
+	 * Returns the rotation every billboard is drawn with on this frame.
+	 * @return billboard rotation.
+	 */
+	public Matrix4f getBillboard() { return billboard; }
 
 }
@@ -20,6 +20,7 @@ import static org.lwjgl.opengl.GL32.*;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
+import java.nio.FloatBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
 
@@ -27,6 +28,7 @@ import engine.components.BaseLight;
 import engine.components.DirectionalLight;
 import engine.components.PointLight;
 import engine.components.SpotLight;
+import engine.core.CoreEngine;
 import engine.core.Matrix4f;
 import engine.core.Transform;
 import engine.core.Vector3f;
@@ -47,6 +49,8 @@ public class Shader {
     public final String 					BASIC = "BASIC/";
     public final String 					PHONG = "PHONG/";
     public final String 					FORWARD = "FORWARD/";
+    private final Matrix4f 					MVPMatrix = new Matrix4f();
+    private final FloatBuffer 				matrixBuffer = Util.createFloatBuffer(4 * 4);
 
     /**
      * Constructor of the shader structure with the program
@@ -60,6 +64,9 @@ public class Shader {
     		resource.addReferece();
     	} else {
     		resource = new ShaderResource();
+    		
+    		if(CoreEngine.isHeadless())
+    			return;
             
             String vertexShaderText = loadShader(FORWARD + fileName + "-vs");
     		String fragmentShaderText = loadShader(FORWARD + fileName + "-fs");
@@ -88,7 +95,13 @@ public class Shader {
     /**
      * Binds the GLSL program(s) to compile.
      */
-    public void bind() { glUseProgram(resource.getProgram()); }
+    public void bind() {
+    	RenderSnapshot snapshot = RenderSnapshot.getRecording();
+    	if(snapshot != null)
+    		snapshot.program(resource.getProgram());
+    	else
+    		glUseProgram(resource.getProgram());
+    }
 
     /**
      * Updates all the uniforms of the shading program.
@@ -97,8 +110,10 @@ public class Shader {
      * @param renderingEngine to update.
      */
 	public void updateUniforms(Transform transform, Material material, RenderingEngine renderingEngine) {
-    	Matrix4f worldMatrix = transform.getTransformation();
-		Matrix4f MVPMatrix = renderingEngine.getMainCamera().getViewProjection().mul(worldMatrix);
+    	Matrix4f worldMatrix = transform.isBillboard() 
+    			? transform.getTransformation(renderingEngine.getBillboard(), renderingEngine.getFrame(), renderingEngine.getInterpolation()) 
+    			: transform.getTransformation(renderingEngine.getInterpolation());
+		renderingEngine.getMainCamera().getViewProjection(renderingEngine.getInterpolation()).mulInto(worldMatrix, MVPMatrix);
     	for(int i = 0; i < resource.getUniformNames().size(); i++) {
     		String uniformName = resource.getUniformNames().get(i);
     		String uniformType = resource.getUniformTypes().get(i);
@@ -130,7 +145,7 @@ public class Shader {
 					throw new IllegalArgumentException(uniformType + " is not a supported type in RenderingEngine");
     		} else if(uniformName.startsWith("C_")) {
 				if(uniformName.equals("C_eyePos"))
-					setUniform(uniformName, renderingEngine.getMainCamera().getPos());
+					setUniform(uniformName, renderingEngine.getMainCamera().getPos(renderingEngine.getInterpolation()));
 				else
 					throw new IllegalArgumentException(uniformName + " is not a valid component of Camera");
 			} else {
@@ -444,7 +459,11 @@ public class Shader {
      * @param value Integer value of the uniform.
      */
     public void setUniformi(String uniformName, int value) {
-        glUniform1i(resource.getUniforms().get(uniformName), value);
+    	RenderSnapshot snapshot = RenderSnapshot.getRecording();
+    	if(snapshot != null)
+    		snapshot.uniformi(resource.getUniforms().get(uniformName), value);
+    	else
+    		glUniform1i(resource.getUniforms().get(uniformName), value);
     }
 
     /**
@@ -454,7 +473,11 @@ public class Shader {
      * @param value Float value of the uniform.
      */
     public void setUniformf(String uniformName, float value) {
-        glUniform1f(resource.getUniforms().get(uniformName), value);
+    	RenderSnapshot snapshot = RenderSnapshot.getRecording();
+    	if(snapshot != null)
+    		snapshot.uniformf(resource.getUniforms().get(uniformName), value);
+    	else
+    		glUniform1f(resource.getUniforms().get(uniformName), value);
     }
 
     /**
@@ -464,7 +487,11 @@ public class Shader {
      * @param value Vector values of the uniform.
      */
     public void setUniform(String uniformName, Vector3f value) {
-        glUniform3f(resource.getUniforms().get(uniformName), value.getX(), value.getY(), value.getZ());
+    	RenderSnapshot snapshot = RenderSnapshot.getRecording();
+    	if(snapshot != null)
+    		snapshot.uniform(resource.getUniforms().get(uniformName), value.getX(), value.getY(), value.getZ());
+    	else
+    		glUniform3f(resource.getUniforms().get(uniformName), value.getX(), value.getY(), value.getZ());
     }
 
     /**
@@ -474,7 +501,11 @@ public class Shader {
      * @param value Matrix values of the uniform.
      */
     public void setUniform(String uniformName, Matrix4f value) {
-        glUniformMatrix4(resource.getUniforms().get(uniformName), true, Util.createFlippedBuffer(value));
+    	RenderSnapshot snapshot = RenderSnapshot.getRecording();
+    	if(snapshot != null)
+    		snapshot.uniform(resource.getUniforms().get(uniformName), value);
+    	else
+    		glUniformMatrix4(resource.getUniforms().get(uniformName), true, Util.createFlippedBuffer(value, matrixBuffer));
     }
     
     /**
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2018 Carlos Rodriguez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package engine.rendering;
+
+import static org.lwjgl.opengl.GL15.*;
+
+import java.nio.FloatBuffer;
+
+import engine.core.CoreEngine;
+import engine.core.utils.Util;
+import engine.rendering.resourceManagement.MeshResource;
+
+/**
+ * Quads that turn around the vertical axis to face the camera, written
+ * in world space into one buffer so all of them are drawn with a single
+ * call. The buffer is filled once per frame and drawn again in every
+ * light pass.
+ *
+ * @author Carlos Rodriguez
+ * @version 1.0
+ * @since 2018
+ */
+public class SpriteBatch {
+
+	private static final int 	VERTICES = 4;
+	private static final int 	INDICES = 6;
+
+	private final int 			capacity;
+	private final float[] 		vertices;
+	private final MeshResource 	resource;
+	private FloatBuffer 		buffer;
+	private int 				sprites;
+	private boolean 			uploaded;
+
+	/**
+	 * Constructor of an empty batch.
+	 * @param capacity most sprites it can hold.
+	 */
+	public SpriteBatch(int capacity) {
+		this.capacity = capacity;
+		this.vertices = new float[capacity * VERTICES * Vertex.SIZE];
+		this.resource = new MeshResource(0);
+
+		if(CoreEngine.isHeadless())
+			return;
+
+		int[] indices = new int[capacity * INDICES];
+		for(int i = 0; i < capacity; i++) {
+			int first = i * VERTICES;
+			indices[i * INDICES] = first;
+			indices[i * INDICES + 1] = first + 1;
+			indices[i * INDICES + 2] = first + 2;
+			indices[i * INDICES + 3] = first;
+			indices[i * INDICES + 4] = first + 2;
+			indices[i * INDICES + 5] = first + 3;
+		}
+		buffer = Util.createFloatBuffer(vertices.length);
+
+		glBindBuffer(GL_ARRAY_BUFFER, resource.getVbo());
+		glBufferData(GL_ARRAY_BUFFER, vertices.length * 4, GL_STREAM_DRAW);
+
+		glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, resource.getIbo());
+		glBufferData(GL_ELEMENT_ARRAY_BUFFER, Util.createFlippedBuffer(indices), GL_STATIC_DRAW);
+	}
+
+	/**
+	 * Empties the batch to fill it again.
+	 */
+	public void clear() {
+		sprites = 0;
+		uploaded = false;
+	}
+
+	/**
+	 * Adds a sprite standing on a point, with the same layout the
+	 * sprite meshes of the game use.
+	 * @param x of the bottom center.
+	 * @param y of the bottom center.
+	 * @param z of the bottom center.
+	 * @param rightX direction of the width, normalized with rightZ.
+	 * @param rightZ direction of the width, normalized with rightX.
+	 * @param halfWidth of the sprite.
+	 * @param height of the sprite.
+	 */
+	public void add(float x, float y, float z, float rightX, float rightZ, float halfWidth, float height) {
+		if(sprites == capacity)
+			return;
+		int v = sprites * VERTICES * Vertex.SIZE;
+		float wx = rightX * halfWidth;
+		float wz = rightZ * halfWidth;
+		//Faces the camera, a quarter turn clockwise from the width
+		float nx = rightZ;
+		float nz = -rightX;
+		v = vertex(v, x - wx, y, z - wz, -1, 1, nx, nz);
+		v = vertex(v, x - wx, y + height, z - wz, -1, 0, nx, nz);
+		v = vertex(v, x + wx, y + height, z + wz, 0, 0, nx, nz);
+		vertex(v, x + wx, y, z + wz, 0, 1, nx, nz);
+		sprites++;
+	}
+
+	/**
+	 * Writes a vertex to the buffer.
+	 * @param v where the vertex starts.
+	 * @param x of the position.
+	 * @param y of the position.
+	 * @param z of the position.
+	 * @param u of the texture coordinate.
+	 * @param t of the texture coordinate.
+	 * @param nx of the normal.
+	 * @param nz of the normal.
+	 * @return Where the next vertex starts.
+	 */
+	private int vertex(int v, float x, float y, float z, float u, float t, float nx, float nz) {
+		vertices[v] = x;
+		vertices[v + 1] = y;
+		vertices[v + 2] = z;
+		vertices[v + 3] = u;
+		vertices[v + 4] = t;
+		vertices[v + 5] = nx;
+		vertices[v + 6] = 0;
+		vertices[v + 7] = nz;
+		vertices[v + 8] = 0;
+		vertices[v + 9] = 0;
+		vertices[v + 10] = 0;
+		return v + Vertex.SIZE;
+	}
+
+	/**
+	 * Draws every sprite in the batch, sending them to the GPU the
+	 * first time it's drawn after a {@link #clear()}.
+	 */
+	public void draw() {
+		if(sprites == 0 || CoreEngine.isHeadless())
+			return;
+		int count = sprites * VERTICES * Vertex.SIZE;
+		RenderSnapshot snapshot = RenderSnapshot.getRecording();
+		if(!uploaded) {
+			if(snapshot != null) {
+				snapshot.upload(resource.getVbo(), vertices, count);
+			} else {
+				buffer.clear();
+				buffer.put(vertices, 0, count).flip();
+				glBindBuffer(GL_ARRAY_BUFFER, resource.getVbo());
+				glBufferSubData(GL_ARRAY_BUFFER, 0, buffer);
+			}
+			uploaded = true;
+		}
+		if(snapshot != null)
+			snapshot.draw(resource.getVbo(), resource.getIbo(), sprites * INDICES);
+		else
+			Mesh.draw(resource.getVbo(), resource.getIbo(), sprites * INDICES);
+	}
+
+	/**
+	 * Returns how many sprites the batch holds.
+	 * @return Sprites.
+	 */
+	public int size() {return sprites;}
+
+}
@@ -33,6 +33,7 @@ import java.util.HashMap;
 
 import javax.imageio.ImageIO;
 
+import engine.core.CoreEngine;
 import engine.core.Debug;
 import engine.core.crash.CrashReport;
 import engine.rendering.resourceManagement.TextureResource;
@@ -157,6 +158,9 @@ public class Texture {
 	 * @return Image.
 	 */
 	private static TextureResource loadTexture(String fileName) {
+		if(CoreEngine.isHeadless())
+			return new TextureResource();
+		
         String[] splitArray = fileName.split("\\.");
         @SuppressWarnings("unused")
 		String ext = splitArray[splitArray.length - 1];
@@ -264,6 +268,11 @@ public class Texture {
      * Binds the texture for openGL.
      */
     public void bind(int sampler) {
+    	RenderSnapshot snapshot = RenderSnapshot.getRecording();
+    	if(snapshot != null) {
+    		snapshot.texture(sampler, resource.getId());
+    		return;
+    	}
     	glActiveTexture(GL_TEXTURE0 + sampler);
         glBindTexture(GL_TEXTURE_2D, resource.getId());
     }
@@ -31,6 +31,8 @@ import org.lwjgl.input.Keyboard;
 import org.lwjgl.input.Mouse;
 import org.lwjgl.opengl.Display;
 import org.lwjgl.opengl.DisplayMode;
+import org.lwjgl.opengl.Drawable;
+import org.lwjgl.opengl.SharedDrawable;
 import org.newdawn.slick.opengl.PNGDecoder;
 
 import engine.audio.AudioUtil;
@@ -177,6 +179,26 @@ public class Window {
      */
 	public static void render() {Display.update();}
 	
+	/**
+	 * Polls the keyboard, mouse and window events without swapping
+	 * the buffers.
+	 */
+	public static void processMessages() {Display.processMessages();}
+	
+	/**
+	 * Creates a new OpenGL context that shares textures, buffers and
+	 * programs with the display, so another thread can load resources.
+	 * @return Shared context.
+	 */
+	public static Drawable createSharedContext() {
+		try {
+			return new SharedDrawable(Display.getDrawable());
+		} catch (LWJGLException e) {
+			Debug.crash(new CrashReport(e));
+			return null;
+		}
+	}
+	
 	/**
 	 * Updates everything related for the window like the inputs or objects
 	 * and time.
@@ -243,13 +265,21 @@ public class Window {
      * Returns the window width.
      * @return Width.
      */
-    public static int getWidth() {return Display.getDisplayMode().getWidth();}
+    public static int getWidth() {
+    	if(CoreEngine.isHeadless())
+    		return CoreEngine.getCurrent().getWidth();
+    	return Display.getDisplayMode().getWidth();
+    }
 
     /**
      * Returns the window height.
      * @return Height.
      */
-    public static int getHeight() {return Display.getDisplayMode().getHeight();}
+    public static int getHeight() {
+    	if(CoreEngine.isHeadless())
+    		return CoreEngine.getCurrent().getHeight();
+    	return Display.getDisplayMode().getHeight();
+    }
 
     /**
      * Returns the window title.
@@ -17,6 +17,8 @@ package engine.rendering.resourceManagement;
 
 import static org.lwjgl.opengl.GL15.*;
 
+import engine.core.CoreEngine;
+
 /**
  *
  * @author Carlos Rodriguez
@@ -34,8 +36,10 @@ public class MeshResource {
      * Constructor for the mesh manager.
      */
     public MeshResource(int size) {
-    	m_vbo = glGenBuffers();
-        m_ibo = glGenBuffers();
+    	if(!CoreEngine.isHeadless()) {
+	    	m_vbo = glGenBuffers();
+	        m_ibo = glGenBuffers();
+    	}
         this.m_size = size;
         this.m_refCount = 1;
     }
@@ -45,6 +49,8 @@ public class MeshResource {
      */
     @Override
     protected void finalize() {
+    	if(CoreEngine.isHeadless())
+    		return;
     	glDeleteBuffers(m_vbo);
     	glDeleteBuffers(m_ibo);
     }
@@ -21,6 +21,8 @@ import static org.lwjgl.opengl.GL20.glCreateProgram;
 import java.util.ArrayList;
 import java.util.HashMap;
 
+import engine.core.CoreEngine;
+
 /**
  *
  * @author Carlos Rodriguez
@@ -39,11 +41,13 @@ public class ShaderResource {
      * Constructor for the texture manager.
      */
     public ShaderResource() {
-        this.m_program = glCreateProgram();
         this.m_refCount = 1;
         this.m_uniforms = new HashMap<String, Integer>();
         this.m_uniformNames = new ArrayList<String>();
         this.m_uniformTypes = new ArrayList<String>();
+        if(CoreEngine.isHeadless())
+        	return;
+        this.m_program = glCreateProgram();
         if (m_program == 0) {
             System.err.println("Shader creation failed: Could not find valid memory location in constructor");
             System.exit(1);
@@ -54,7 +58,7 @@ public class ShaderResource {
      * Cleans everything in the GPU and RAM.
      */
     @Override
-    protected void finalize() {glDeleteBuffers(m_program);}
+    protected void finalize() {if(!CoreEngine.isHeadless()) glDeleteBuffers(m_program);}
     
     /**
      * Add a point in the reference counter.
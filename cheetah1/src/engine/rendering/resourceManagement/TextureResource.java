@@ -18,6 +18,8 @@ package engine.rendering.resourceManagement;
 import static org.lwjgl.opengl.GL11.glGenTextures;
 import static org.lwjgl.opengl.GL15.*;
 
+import engine.core.CoreEngine;
+
 /**
  *
  * @author Carlos Rodriguez
@@ -33,7 +35,8 @@ public class TextureResource {
      * Constructor for the texture manager.
      */
     public TextureResource() {
-        this.m_id = glGenTextures();
+    	if(!CoreEngine.isHeadless())
+    		this.m_id = glGenTextures();
         this.m_refCount = 1;
     }
     
@@ -41,7 +44,7 @@ public class TextureResource {
      * Cleans everything in the GPU and RAM.
      */
     @Override
-    protected void finalize() {glDeleteBuffers(m_id);}
+    protected void finalize() {if(!CoreEngine.isHeadless()) glDeleteBuffers(m_id);}
     
     /**
      * Add a point in the reference counter.
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2018 Carlos Rodriguez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package game;
+
+import javax.sound.sampled.Clip;
+
+/**
+ * What a class of things of the level is and how it takes the shots of
+ * the player. The tags are the bits the level queries its objects by.
+ *
+ * @author Carlos Rodriguez
+ * @version 1.0
+ * @since 2018
+ */
+public class Archetype {
+
+	public static final int 	SOLID = 1 << 0;
+	public static final int 	DAMAGEABLE = 1 << 1;
+	public static final int 	HITSCAN = 1 << 2;
+	public static final int 	OCCLUDER = 1 << 3;
+	public static final int 	MONSTER = 1 << 4;
+	public static final int 	PICKUP = 1 << 5;
+	public static final int 	SECRET = 1 << 6;
+
+	private final int 			tags;
+	private final Clip 			sound;
+	private final int 			times;
+	private final boolean 		bleeds;
+	private final boolean 		burns;
+
+	/**
+	 * Constructor of a thing that doesn't take damage.
+	 * @param tags bits of what it is.
+	 */
+	public Archetype(int tags) {this(tags, null, 0, false, false);}
+
+	/**
+	 * Constructor of a thing that takes damage but doesn't bleed or burn.
+	 * @param tags bits of what it is.
+	 * @param sound it makes when it's hit.
+	 * @param times patron of the sound.
+	 */
+	public Archetype(int tags, Clip sound, int times) {this(tags, sound, times, false, false);}
+
+	/**
+	 * Constructor of the archetype.
+	 * @param tags bits of what it is.
+	 * @param sound it makes when it's hit.
+	 * @param times patron of the sound.
+	 * @param bleeds if it bleeds when it's shot.
+	 * @param burns if the flames and the barrels hurt it.
+	 */
+	public Archetype(int tags, Clip sound, int times, boolean bleeds, boolean burns) {
+		this.tags = tags;
+		this.sound = sound;
+		this.times = times;
+		this.bleeds = bleeds;
+		this.burns = burns;
+	}
+
+	/**
+	 * Returns the tags.
+	 * @return Bits of what it is.
+	 */
+	public int getTags() {return tags;}
+
+	/**
+	 * Returns the sound it makes when it's hit.
+	 * @return Sound or null.
+	 */
+	public Clip getSound() {return sound;}
+
+	/**
+	 * Returns the patron of the sound.
+	 * @return Times.
+	 */
+	public int getTimes() {return times;}
+
+	/**
+	 * Returns if it bleeds when it's shot.
+	 * @return If it bleeds.
+	 */
+	public boolean bleeds() {return bleeds;}
+
+	/**
+	 * Returns if the flames and the barrels hurt it.
+	 * @return If it burns.
+	 */
+	public boolean burns() {return burns;}
+
+}
@@ -17,7 +17,6 @@ package game;
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Random;
 
 import javax.sound.midi.Sequence;
 
@@ -27,11 +26,10 @@ import static engine.core.CoreEngine.*;
 import engine.audio.AudioUtil;
 import engine.components.Constants;
 import engine.core.*;
+import engine.core.utils.RandomUtil;
 import engine.menu.CreditsMenu;
 import engine.menu.Menu;
 import engine.rendering.*;
-import game.enemies.*;
-import game.walls.SecretWall;
 
 /**
  *
@@ -154,7 +152,7 @@ public class Auschwitz implements Game {
 				}
 				if (Input.getKeyDown(Input.KEY_X)) {
 					AudioUtil.playAudio(AudioUtil.loadAudio("button"), 0);
-					int textId = new Random().nextInt(exitMessages.length);
+					int textId = RandomUtil.nextInt(exitMessages.length);
 					text.get("areYouSure").setText(exitMessages[textId]);
 					toExit = true;
 				}
@@ -175,6 +173,8 @@ public class Auschwitz implements Game {
         	if(Debug.state) {
 				if (Input.getKeyDown(Input.KEY_F3))
 					Debug.state = false;
+				if (Input.getKeyDown(Input.KEY_F4))
+					Profiler.export();
             } else {
             	if (Input.getKeyDown(Input.KEY_F3))
             		Debug.state = true;
@@ -248,39 +248,11 @@ public class Auschwitz implements Game {
             String weaponStateTemp = "";
 
             if (level != null) {
-                totalMonsters = level.getNaziSoldiers().size() + level.getSsSoldiers().size()
-                		+ level.getDogs().size() + level.getNaziSergeants().size()
-                		+ level.getZombies().size() + level.getCaptains().size();
+                totalMonsters = level.countMonsters(false);
+                deadMonsters = level.countMonsters(true);
                 
-                totalSecrets = level.getSecretWalls().size();
-                
-                for (SecretWall secret : level.getSecretWalls())
-                    if (secret.opens())
-                    	secrets++;
-
-                for (NaziSoldier naziSoldier : level.getNaziSoldiers())
-                    if (!naziSoldier.isAlive())
-                        deadMonsters++;
-                
-                for (SsSoldier ssSoldier : level.getSsSoldiers())
-                    if (!ssSoldier.isAlive())
-                        deadMonsters++;
-                
-                for (Dog dog : level.getDogs())
-                    if (!dog.isAlive())
-                        deadMonsters++;
-                
-                for (NaziSergeant naziSargent : level.getNaziSergeants())
-                    if (!naziSargent.isAlive())
-                        deadMonsters++;
-                
-                for (Zombie zombie : level.getZombies())
-                    if (!zombie.isAlive())
-                        deadMonsters++;
-                
-                for (Captain captain : level.getCaptains())
-                    if (!captain.isAlive())
-                        deadMonsters++;
+                totalSecrets = level.countSecrets(false);
+                secrets += level.countSecrets(true);
 
                 displayStats = true;
                 
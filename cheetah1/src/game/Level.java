@@ -15,27 +15,43 @@
  */
 package game;
 
-import static engine.components.Constants.PARTICLES_LEVEL;
 import static engine.core.CoreEngine.getRenderingEngine;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
 
 import javax.sound.sampled.Clip;
 
 import engine.audio.AudioUtil;
+import engine.components.Agent;
 import engine.components.BaseLight;
 import engine.components.DirectionalLight;
 import engine.components.GameComponent;
+import engine.components.PointLight;
 import engine.core.GameObject;
+import engine.core.GameObject.Bucket;
 import engine.core.Input;
+import engine.core.JobGraph;
+import engine.core.Profiler;
+import engine.core.Scratch;
 import engine.core.Time;
 import engine.core.Transform;
 import engine.core.Vector2f;
 import engine.core.Vector3f;
+import engine.particles.ParticleSystem;
+import engine.physics.FlowField;
+import engine.physics.GridTraversal;
+import engine.physics.OccupancyGrid;
 import engine.physics.PhysicsUtil;
+import engine.physics.RaycastQuery;
+import engine.physics.SpatialHash;
+import engine.physics.VisibilityCache;
 import engine.rendering.Bitmap;
 import engine.rendering.Material;
 import engine.rendering.Mesh;
+import engine.rendering.PotentiallyVisibleSet;
 import engine.rendering.RenderingEngine;
 import engine.rendering.Shader;
 import engine.rendering.Vertex;
@@ -43,6 +59,7 @@ import engine.core.utils.Log;
 import engine.core.utils.Util;
 import game.enemies.Captain;
 import game.enemies.Commander;
+import game.enemies.DeadNazi;
 import game.enemies.Dog;
 import game.enemies.Ghost;
 import game.enemies.NaziSergeant;
@@ -82,6 +99,8 @@ import game.pickUps.RocketLauncher;
 import game.pickUps.Shell;
 import game.pickUps.Shotgun;
 import game.pickUps.SuperShotgun;
+import game.projectiles.ZombieMeat;
+import game.projectiles.pRocket;
 import game.walls.BarsWall;
 import game.walls.Door;
 import game.walls.LockedDoor;
@@ -109,6 +128,11 @@ public class Level extends GameComponent {
     private static final float BULLET_RANGE = 2f;
     private static final float SHELL_RANGE = 3f;
     private static final float FLAME_RANGE = 6f;
+    private static final int DOOR_COST = 20;
+    
+    private static final Comparator<GameComponent> BY_INDEX = new Comparator<GameComponent>() {
+    	public int compare(GameComponent a, GameComponent b) {return Integer.compare(a.getIndex(), b.getIndex());}
+    };
 
     private static final String PLAYER_RES_LOC = "player/";
     
@@ -118,27 +142,6 @@ public class Level extends GameComponent {
     private static final Clip punchSolidNoise = AudioUtil.loadAudio(PLAYER_RES_LOC + "PUNCH2");
     private static final Clip barrelNoise = AudioUtil.loadAudio("barrel/BARRELZ");
 
-    //Remove list
-    private static ArrayList<Medkit> removeMedkitList;
-    private static ArrayList<Food> removeFoodList;
-    private static ArrayList<Bullet> removeBulletList;
-    private static ArrayList<Shell> removeShellList;
-    private static ArrayList<Bag> removeBagList;
-    private static ArrayList<Shotgun> removeShotgunList;
-    private static ArrayList<Machinegun> removeMachineGunList;
-    private static ArrayList<Ghost> removeGhostList;
-    private static ArrayList<Armor> removeArmorList;
-    private static ArrayList<SuperShotgun> removeSuperShotgunList;
-    private static ArrayList<Helmet> removeHelmets;
-    private static ArrayList<Barrel> removeBarrels;
-    private static ArrayList<Chaingun> removeChaingunList;
-    private static ArrayList<Key> removeKeys;
-    private static ArrayList<Explosion> removeExplosions;
-    private static ArrayList<Rocket> removeRockets;
-    private static ArrayList<RocketLauncher> removeRocketLauncherList;
-    private static ArrayList<Bleed> removeBleedingList;
-    private static ArrayList<Fire> removeFireList;
-    
     //Player
     private static Player player;
 
@@ -148,75 +151,48 @@ public class Level extends GameComponent {
     private ArrayList<Vector2f> collisionPosStart;
     private ArrayList<Vector2f> collisionPosEnd;
     
-    //Walls
-    private ArrayList<Door> doors;
-    private ArrayList<SecretWall> secretWalls;
-    private ArrayList<LockedDoor> lockedDoors;
-    private ArrayList<Wall> walls;
-    private ArrayList<BarsWall> barsWalls;
-    
-    //Pick-Ups
-    private ArrayList<Shotgun> shotguns;
-    private ArrayList<Medkit> medkits;
-    private ArrayList<Food> foods;
-    private ArrayList<Bullet> bullets;
-    private ArrayList<Shell> shells;
-    private ArrayList<Bag> bags;
-    private ArrayList<Machinegun> machineguns;
-    private ArrayList<Rocket> rockets;
-    private ArrayList<Armor> armors;
-    private ArrayList<SuperShotgun> superShotguns;
-    private ArrayList<Helmet> helmets;
-    private ArrayList<Chaingun> chainguns;
-    private ArrayList<Key> keys;
-    private ArrayList<RocketLauncher> rocketLaunchers;
-    
-    //Static objects
-    private ArrayList<Tree> trees;
-    private ArrayList<Lantern> flares;
-    private ArrayList<Bones> bones;
-    private ArrayList<NaziSoldier> deadNazi;
-    private ArrayList<DeadJew> deadJews;
-    private ArrayList<Table> tables;
-    private ArrayList<Pipe> pipes;
-    private ArrayList<Pendule> pendules;
-    private ArrayList<Lamp> lamps;
-    private ArrayList<Hanged> hangeds;
-    private ArrayList<Pillar> pillars;
-    private ArrayList<Clock> clocks;
-    private ArrayList<Oven> furnaces;
-    private ArrayList<Kitchen> kitchens;
-    private ArrayList<Barrel> barrels;
-    private ArrayList<Grass> grass;
-    private ArrayList<LightPost> lightPosts;
-    private ArrayList<Sign> signs;
-    
     //Active objects
-    @SuppressWarnings("unused")
-	private ArrayList<Explosion> explosions;
-    private ArrayList<Bleed> bleeding;
-    private ArrayList<Fire> fire;
-   
-    //Enemies
-    private ArrayList<NaziSoldier> naziSoldiers;
-    private ArrayList<Dog> dogs;
-    private ArrayList<SsSoldier> ssSoldiers;
-    private ArrayList<NaziSergeant> naziSeargeants;
-    private ArrayList<Ghost> ghosts;
-    private ArrayList<Zombie> zombies;
-    private ArrayList<Captain> captains;
-    private ArrayList<Commander> commanders;
+	private ParticleSystem explosions;
+    private ParticleSystem bleeding;
+    private ParticleSystem fire;
+    private ParticleSystem missiles;
+    private ParticleSystem gibs;
 
     //Level
     private Bitmap bitmap;
+    private OccupancyGrid occupancy;
+    private GridTraversal traversal;
+    private FlowField flowField;
+    private FlowField nextFlowField;
+    private Vector2f flowDirection;
+    private float flowX;
+    private float flowZ;
+    private boolean flowChanged;
+    private VisibilityCache visibility;
+    private int sightCell = -1;
+    private float[] occluderPositions;
+    private int[] wallOffsets;
+    private int[] wallSegments;
+    private SpatialHash spatialHash;
+    private ArrayList<Bucket> movingBuckets;
+    private ArrayList<GameComponent> nearby;
+    private ArrayList<GameComponent> selected;
+    private RaycastQuery shots;
+    private RaycastQuery.Filter shotFilter;
+    private RaycastQuery.Filter hitscanFilter;
+    private float[] wallLengths;
     private Material material;
     private RenderingEngine renderingEngine;
     private BaseLight directionalLight;
     private GameObject objects;
     private GameComponent shootingObjective;
+    private HashMap<Class<?>, Archetype> archetypes;
     
 	private boolean dayTransition = false;
 	private float dayLightValue;
+	private JobGraph updateJobs;
+	private Vector3f sortEye;
+	private double updateDelta;
 
     /**
      * Constructor of the level in the game.
@@ -232,61 +208,178 @@ public class Level extends GameComponent {
         this.collisionPosStart = new ArrayList<Vector2f>();
         this.collisionPosEnd = new ArrayList<Vector2f>();
     	this.renderingEngine = getRenderingEngine();
+    	this.archetypes = new HashMap<Class<?>, Archetype>();
+    	
+    	//The things are added as the bitmap is read, but walked in this order
+    	objects.order(Player.class,
+    			//Enemies
+    			NaziSoldier.class, SsSoldier.class, NaziSergeant.class, Dog.class, Ghost.class, Zombie.class, Captain.class, Commander.class,
+    			//Objects
+    			Door.class, BarsWall.class, Wall.class, SecretWall.class, Tree.class, Lantern.class, Bones.class, Table.class, DeadNazi.class,
+    			DeadJew.class, Pipe.class, Pendule.class, Lamp.class, Hanged.class, Pillar.class, Clock.class, Oven.class, Kitchen.class,
+    			Barrel.class, LockedDoor.class, Grass.class, LightPost.class, Sign.class,
+    			//Power-ups
+    			Medkit.class, Food.class, Bullet.class, Shell.class, Bag.class, Shotgun.class, Machinegun.class, Chaingun.class, Armor.class,
+    			Helmet.class, SuperShotgun.class, Key.class, RocketLauncher.class, Rocket.class,
+    			ParticleSystem.class);
         
         generateLevel();
+        generateWalls();
+        registerArchetypes();
+        
+        objects.add(explosions);
+        objects.add(bleeding);
+        objects.add(fire);
+        objects.add(missiles);
+        objects.add(gibs);
         
-        //Player
-        objects.add(player);
-        //Enemies
-        objects.add(naziSoldiers);
-        objects.add(ssSoldiers);
-        objects.add(naziSeargeants);
-        objects.add(dogs);
-        objects.add(ghosts);
-        objects.add(zombies);
-        objects.add(captains);
-        objects.add(commanders);
-        //Objects
-        objects.add(doors);
-        objects.add(barsWalls);
-        objects.add(walls);
-        objects.add(secretWalls);
-        objects.add(trees);
-        objects.add(flares);
-        objects.add(bones);
-        objects.add(tables);
-        objects.add(deadNazi);
-        objects.add(deadJews);
-        objects.add(pipes);
-        objects.add(pendules);
-        objects.add(lamps);
-        objects.add(hangeds);
-        objects.add(pillars);
-        objects.add(clocks);
-        objects.add(furnaces);
-        objects.add(kitchens);
-        objects.add(barrels);
-        objects.add(lockedDoors);
-        objects.add(grass);
-        objects.add(lightPosts);
-        objects.add(signs);
-        //Power-ups
-        objects.add(medkits);
-        objects.add(foods);
-        objects.add(bullets);
-        objects.add(shells);
-        objects.add(bags);
-        objects.add(shotguns);
-        objects.add(machineguns);
-        objects.add(chainguns);
-        objects.add(armors);
-        objects.add(helmets);
-        objects.add(superShotguns); 
-        objects.add(keys);
-        objects.add(rocketLaunchers);
-        objects.add(rockets);
+        Class<?>[] sorted = {SecretWall.class, NaziSoldier.class, DeadNazi.class, Dog.class, SsSoldier.class, NaziSergeant.class, Zombie.class, Captain.class, Commander.class};
+        for(Class<?> type : sorted)
+        	objects.sortByDistance(type);
+        objects.neverCull(Wall.class); // The mesh of the whole level
+        objects.neverCull(ParticleSystem.class); // Their particles are all over the level
+        
+        generateSpatialHash();
         
         renderingEngine.setMainCamera(player.getCamera());
+        renderingEngine.setVisibleSet(new PotentiallyVisibleSet(occupancy));
+    }
+    
+    /**
+     * Registers what every class of things of the level is, so the
+     * checks query the objects by tag instead of going list by list.
+     */
+    private void registerArchetypes() {
+    	int enemy = Archetype.SOLID | Archetype.DAMAGEABLE | Archetype.HITSCAN;
+    	int monster = enemy | Archetype.MONSTER;
+    	int prop = Archetype.SOLID | Archetype.DAMAGEABLE;
+    	int wall = prop | Archetype.OCCLUDER;
+    	
+    	//Enemies
+    	register(NaziSoldier.class, new Archetype(monster, punchNoise, 1, true, true));
+    	register(Dog.class, new Archetype(monster, punchNoise, 1, true, true));
+    	register(SsSoldier.class, new Archetype(monster, punchNoise, 1, true, true));
+    	register(NaziSergeant.class, new Archetype(monster, punchNoise, 1, true, true));
+    	register(Ghost.class, new Archetype(Archetype.DAMAGEABLE | Archetype.HITSCAN, null, 255, false, false));
+    	register(Zombie.class, new Archetype(monster, punchNoise, 1, false, true));
+    	register(Captain.class, new Archetype(monster, punchSolidNoise, 1, true, true));
+    	register(Commander.class, new Archetype(enemy, punchSolidNoise, 1, true, true));
+    	//Walls
+    	register(Door.class, new Archetype(wall, punchSolidNoise, 69));
+    	register(LockedDoor.class, new Archetype(wall, punchSolidNoise, 69));
+    	register(BarsWall.class, new Archetype(wall, punchSolidNoise, 69));
+    	register(SecretWall.class, new Archetype(Archetype.SOLID | Archetype.OCCLUDER | Archetype.SECRET));
+    	//Objects
+    	register(Lamp.class, new Archetype(prop, punchSolidNoise, 1));
+    	register(Pillar.class, new Archetype(prop, punchSolidNoise, 1));
+    	register(Barrel.class, new Archetype(prop, barrelNoise, 3));
+    	register(Hanged.class, new Archetype(prop, punchNoise, 1));
+    	register(Pipe.class, new Archetype(prop, punchSolidNoise, 69));
+    	register(Table.class, new Archetype(prop, punchSolidNoise, 69));
+    	register(Clock.class, new Archetype(prop, punchSolidNoise, 69));
+    	register(Oven.class, new Archetype(prop, punchSolidNoise, 69));
+    	register(Kitchen.class, new Archetype(Archetype.DAMAGEABLE, punchSolidNoise, 69));
+    	register(Tree.class, new Archetype(prop, punchSolidNoise, 69));
+    	register(LightPost.class, new Archetype(prop, punchSolidNoise, 69));
+    	register(Sign.class, new Archetype(prop, punchSolidNoise, 69));
+    	register(Bones.class, new Archetype(Archetype.SOLID));
+    	register(DeadJew.class, new Archetype(Archetype.SOLID));
+    	register(Pendule.class, new Archetype(Archetype.SOLID));
+    	//Power-ups
+    	register(Medkit.class, new Archetype(Archetype.PICKUP));
+    	register(Food.class, new Archetype(Archetype.PICKUP));
+    	register(Bullet.class, new Archetype(Archetype.PICKUP));
+    	register(Shell.class, new Archetype(Archetype.PICKUP));
+    	register(Bag.class, new Archetype(Archetype.PICKUP));
+    	register(Shotgun.class, new Archetype(Archetype.PICKUP));
+    	register(Machinegun.class, new Archetype(Archetype.PICKUP));
+    	register(Chaingun.class, new Archetype(Archetype.PICKUP));
+    	register(Armor.class, new Archetype(Archetype.PICKUP));
+    	register(Helmet.class, new Archetype(Archetype.PICKUP));
+    	register(SuperShotgun.class, new Archetype(Archetype.PICKUP));
+    	register(Key.class, new Archetype(Archetype.PICKUP));
+    	register(RocketLauncher.class, new Archetype(Archetype.PICKUP));
+    	register(Rocket.class, new Archetype(Archetype.PICKUP));
+    }
+    
+    /**
+     * Puts the solid and damageable things of the level in the spatial
+     * hash, keeping the buckets of the ones that can move to refresh
+     * their cells every tick.
+     */
+    private void generateSpatialHash() {
+    	spatialHash = new SpatialHash(bitmap.getWidth(), bitmap.getHeight(), SPOT_WIDTH, SPOT_LENGTH);
+    	movingBuckets = new ArrayList<Bucket>();
+    	nearby = new ArrayList<GameComponent>();
+    	selected = new ArrayList<GameComponent>();
+    	shots = new RaycastQuery();
+    	wallLengths = new float[1];
+    	shotFilter = new RaycastQuery.Filter() {
+    		public boolean accept(GameComponent component) {
+    			return (archetypes.get(component.getClass()).getTags() & (Archetype.OCCLUDER | Archetype.HITSCAN)) != 0;
+    		}
+    	};
+    	hitscanFilter = new RaycastQuery.Filter() {
+    		public boolean accept(GameComponent component) {
+    			return (archetypes.get(component.getClass()).getTags() & Archetype.HITSCAN) != 0;
+    		}
+    	};
+    	ArrayList<Bucket> buckets = objects.getBuckets();
+    	for (int i = 0; i < buckets.size(); i++) {
+    		Bucket bucket = buckets.get(i);
+    		if ((bucket.getTags() & (Archetype.SOLID | Archetype.DAMAGEABLE)) == 0)
+    			continue;
+    		if (bucket.hasUpdate())
+    			movingBuckets.add(bucket);
+    		ArrayList<GameComponent> components = bucket.getComponents();
+    		for (int j = 0; j < components.size(); j++)
+    			spatialHash.add(components.get(j));
+    	}
+    }
+    
+    /**
+     * Moves the things that moved this tick to their new cells and takes
+     * out the destroyed ones, right before they leave their buckets. Only
+     * the things that update can move or destroy themselves.
+     */
+    private void updateSpatialHash() {
+    	for (int i = 0; i < movingBuckets.size(); i++) {
+    		ArrayList<GameComponent> components = movingBuckets.get(i).getComponents();
+    		for (int j = 0; j < components.size(); j++) {
+    			GameComponent component = components.get(j);
+    			if (objects.get(component.getHandle()) == component)
+    				spatialHash.move(component);
+    			else
+    				spatialHash.remove(component);
+    		}
+    	}
+    }
+    
+    /**
+     * Picks the components of a class from a list, in the order of their
+     * bucket, so the checks run in the same order as walking the bucket.
+     * @param components to pick from.
+     * @param type of the components.
+     * @return The picked components, in a list reused on every call.
+     */
+    private ArrayList<GameComponent> select(ArrayList<GameComponent> components, Class<?> type) {
+    	selected.clear();
+    	for (int i = 0; i < components.size(); i++)
+    		if (components.get(i).getClass() == type)
+    			selected.add(components.get(i));
+    	selected.sort(BY_INDEX);
+    	return selected;
+    }
+    
+    /**
+     * Registers what a class of things of the level is and tags its
+     * bucket.
+     * @param type of the things.
+     * @param archetype of the things.
+     */
+    private void register(Class<?> type, Archetype archetype) {
+    	archetypes.put(type, archetype);
+    	objects.tag(type, archetype.getTags());
     }
     
     /**
@@ -313,29 +406,15 @@ public class Level extends GameComponent {
 
         if ((player.fires && !player.isReloading) || (Input.getKeyDown(Input.KEY_Q) && !player.trowsKick)) {
         	
-        	checkDamage(naziSoldiers, punchNoise, 1);
-        	checkDamage(dogs, punchNoise, 1);
-        	checkDamage(ssSoldiers, punchNoise, 1);
-        	checkDamage(naziSeargeants, punchNoise, 1);
-        	checkDamage(ghosts, null, 255);
-        	checkDamage(zombies, punchNoise, 1);
-        	checkDamage(captains, punchSolidNoise, 1);
-        	checkDamage(commanders, punchSolidNoise, 1);
-        	checkDamage(lamps, punchSolidNoise, 1);
-        	checkDamage(pillars, punchSolidNoise, 1);
-        	checkDamage(barrels, barrelNoise, 3);
-        	checkDamage(hangeds, punchNoise, 1);
-        	checkDamage(doors, punchSolidNoise, 69);
-        	checkDamage(pipes, punchSolidNoise, 69);
-        	checkDamage(tables, punchSolidNoise, 69);
-        	checkDamage(clocks, punchSolidNoise, 69);
-        	checkDamage(furnaces, punchSolidNoise, 69);
-        	checkDamage(kitchens, punchSolidNoise, 69);
-        	checkDamage(lockedDoors, punchSolidNoise, 69);
-        	checkDamage(barsWalls, punchSolidNoise, 69);
-        	checkDamage(trees, punchSolidNoise, 69);
-        	checkDamage(lightPosts, punchSolidNoise, 69);
-        	checkDamage(signs, punchSolidNoise, 69);
+        	//No weapon reaches farther than the shells
+        	Vector3f eye = player.getCamera().getPos();
+        	spatialHash.query(eye.getX() - SHELL_RANGE, eye.getZ() - SHELL_RANGE, eye.getX() + SHELL_RANGE, eye.getZ() + SHELL_RANGE, nearby);
+        	ArrayList<Bucket> damageable = objects.query(Archetype.DAMAGEABLE);
+        	for (int i = 0; i < damageable.size(); i++) {
+        		Bucket bucket = damageable.get(i);
+        		Archetype archetype = archetypes.get(bucket.getType());
+        		checkDamage(select(nearby, bucket.getType()), archetype.getSound(), archetype.getTimes());
+        	}
         }
 
         player.input();
@@ -347,71 +426,96 @@ public class Level extends GameComponent {
      */
     public void update(double delta) {
         
-    	objects.update(delta);
-
-        objects.killList(deadNazi, delta);
-        
-        objects.removeComponents(removeMedkitList);
-        objects.removeComponents(removeFoodList);
-        objects.removeComponents(removeBulletList);
-        objects.removeComponents(removeShellList);
-        objects.removeComponents(removeBagList);
-        objects.removeComponents(removeShotgunList);
-        objects.removeComponents(removeMachineGunList);
-        objects.removeComponents(removeGhostList);
-        objects.removeComponents(removeArmorList);
-        objects.removeComponents(removeHelmets);
-        objects.removeComponents(removeSuperShotgunList);
-        objects.removeComponents(removeBarrels);
-        objects.removeComponents(removeChaingunList);
-        objects.removeComponents(removeKeys);
-        objects.removeComponents(removeExplosions);
-        objects.removeComponents(removeRockets);
-        objects.removeComponents(removeRocketLauncherList);
-        objects.removeComponents(removeBleedingList);
-        objects.removeComponents(removeFireList);
-        
-        objects.sortNumberComponents(secretWalls);
-   		objects.sortNumberComponents(naziSoldiers);
-   		objects.sortNumberComponents(dogs);
-   		objects.sortNumberComponents(ssSoldiers);
-   		objects.sortNumberComponents(naziSeargeants);
-   		objects.sortNumberComponents(zombies);
-   		objects.sortNumberComponents(captains);
-   		objects.sortNumberComponents(commanders);
-        
-        if(dayTransition) {
-        	float oscillate = (float) Math.sin(Time.getTime() * 0.0035f * (2 * Math.PI));
-        	dayLightValue += oscillate/500;
-        	renderingEngine.setFogDensity(0.0035f);
-            renderingEngine.setFogGradient(5.0f);
-            if(dayLightValue >= 1.25f)
-            	dayLightValue = 1.25f;
-            else if(dayLightValue <= 0.1f)
-            	dayLightValue = 0.1f;
-        	renderingEngine.setAmbientLight(new Vector3f(dayLightValue, dayLightValue, dayLightValue));
-        	renderingEngine.setFogColor(new Vector3f(dayLightValue/20, dayLightValue/2, dayLightValue));
+    	Profiler.begin("Level.update");
+    	Vector3f eye = player.getCamera().getPos();
+    	flowX = eye.getX();
+    	flowZ = eye.getZ();
+    	updateDelta = delta;
+
+        if(updateJobs == null)
+        	createUpdateJobs();
+        updateJobs.run();
+
+        //The way worked out during this tick is followed from the next one
+        if(flowChanged) {
+        	FlowField swap = flowField;
+        	flowField = nextFlowField;
+        	nextFlowField = swap;
         }
-        
-        removeMedkitList.clear();
-        removeFoodList.clear();
-        removeBulletList.clear();
-        removeShellList.clear();
-        removeBagList.clear();
-        removeShotgunList.clear();
-        removeMachineGunList.clear();
-        removeGhostList.clear();
-        removeArmorList.clear();
-        removeSuperShotgunList.clear();
-        removeHelmets.clear();
-        removeBarrels.clear();
-        removeChaingunList.clear();
-        removeKeys.clear();
-        removeExplosions.clear();
-        removeRockets.clear();
-        removeRocketLauncherList.clear();
-        removeBleedingList.clear();
-        removeFireList.clear();
+        Profiler.end();
+    }
+
+    /**
+     * Builds the jobs of a tick. The objects are updated on this thread,
+     * while a worker works the way to the player out again on the other
+     * field, that's followed from the next tick. After the update, the
+     * spatial hash and the distances of the lights are refreshed on the
+     * workers, and removing from the pipeline and changing the lights
+     * stay on this thread.
+     */
+    private void createUpdateJobs() {
+    	updateJobs = new JobGraph();
+
+    	updateJobs.add("FlowField", new Runnable() {
+    		public void run() {
+    			//The other field is only worked out again if it doesn't still hold this cell from before
+    			flowChanged = !flowField.isTarget(flowX, flowZ);
+    			if(flowChanged)
+    				nextFlowField.setTarget(flowX, flowZ);
+    		}
+    	});
+
+    	JobGraph.Job perception = updateJobs.addMain("Perception", new Runnable() {
+    		public void run() {
+    			updateVisibility(player.getCamera().getPos());
+    		}
+    	});
+
+    	JobGraph.Job update = updateJobs.addMain("Objects", new Runnable() {
+    		public void run() {
+    			objects.getScheduler().begin(player.getCamera().getPos());
+    			objects.update(updateDelta);
+    			Profiler.sample("AI", objects.getScheduler().getSpent());
+    			sortEye = player.getCamera().getPos();
+    		}
+    	}, perception);
+
+    	JobGraph.Job hash = updateJobs.add("Spatial hash", new Runnable() {
+    		public void run() {
+    			updateSpatialHash();
+    		}
+    	}, update);
+
+    	updateJobs.addMain("Removals", new Runnable() {
+    		public void run() {
+    			objects.compact();
+    		}
+    	}, hash);
+
+    	updateJobs.add("Light distances", new Runnable() {
+    		public void run() {
+    			for(BaseLight light : renderingEngine.getLights())
+    				if(light instanceof PointLight)
+    					((PointLight) light).updateDistance(sortEye);
+    		}
+    	}, update);
+
+    	updateJobs.addMain("Day transition", new Runnable() {
+    		public void run() {
+    			if(!dayTransition)
+    				return;
+    			float oscillate = (float) Math.sin(Time.getTime() * 0.0035f * (2 * Math.PI));
+    			dayLightValue += oscillate/500;
+    			renderingEngine.setFogDensity(0.0035f);
+    			renderingEngine.setFogGradient(5.0f);
+    			if(dayLightValue >= 1.25f)
+    				dayLightValue = 1.25f;
+    			else if(dayLightValue <= 0.1f)
+    				dayLightValue = 0.1f;
+    			renderingEngine.setAmbientLight(new Vector3f(dayLightValue, dayLightValue, dayLightValue));
+    			renderingEngine.setFogColor(new Vector3f(dayLightValue/20, dayLightValue/2, dayLightValue));
+    		}
+    	});
     }
 
     /**
@@ -428,17 +532,20 @@ public class Level extends GameComponent {
      */
     public void openDoors(Vector3f position, boolean playSound) {
         boolean worked = false;
+        spatialHash.query(position.getX() - 1f, position.getZ() - 1f, position.getX() + 1f, position.getZ() + 1f, nearby);
 
-        for (Door door : doors) {
-            if (Math.abs(door.getTransform().getPosition().sub(position).length()) < 1f) {
+        for (GameComponent component : select(nearby, Door.class)) {
+        	Door door = (Door) component;
+            if (Math.abs(door.getTransform().getPosition().distance(position)) < 1f) {
                 worked = true;
                 door.open(0.5f, 3f);
             }
         }
         
-        for (LockedDoor lockedDoor : lockedDoors) {
+        for (GameComponent component : select(nearby, LockedDoor.class)) {
+        	LockedDoor lockedDoor = (LockedDoor) component;
         	if(lockedDoor.isGoldKey) {
-	            if (Math.abs(lockedDoor.getTransform().getPosition().sub(position).length()) < 1f) {
+	            if (Math.abs(lockedDoor.getTransform().getPosition().distance(position)) < 1f) {
 	            	if(player.isGoldkey()) {
 	            		worked = true;
 	                	lockedDoor.open(0.5f, 3f);
@@ -448,7 +555,7 @@ public class Level extends GameComponent {
 	            	}
 	            }
         	} else {
-        		if (Math.abs(lockedDoor.getTransform().getPosition().sub(position).length()) < 1f) {
+        		if (Math.abs(lockedDoor.getTransform().getPosition().distance(position)) < 1f) {
 	                if(player.isBronzekey()) {
 	                	worked = true;
 	                	lockedDoor.open(0.5f, 3f);
@@ -460,8 +567,9 @@ public class Level extends GameComponent {
         	}
         }
         
-        for (SecretWall secretWall : secretWalls) {
-        		if (Math.abs(secretWall.getTransform().getPosition().sub(position).length()) < 1f) {
+        for (GameComponent component : select(nearby, SecretWall.class)) {
+        	SecretWall secretWall = (SecretWall) component;
+        		if (Math.abs(secretWall.getTransform().getPosition().distance(position)) < 1f) {
                 worked = true;
                 secretWall.open(1.0f, 3f);
                 player.playerText.get("Notification").setText("You've found a secret!");
@@ -471,9 +579,9 @@ public class Level extends GameComponent {
 
         if (playSound) {
             for (int i = 0; i < exitPoints.size(); i++) {
-                if (Math.abs(exitPoints.get(i).sub(position).length()) < 1f) {
+                if (Math.abs(exitPoints.get(i).distance(position)) < 1f) {
                 	Auschwitz.loadLevel(exitOffsets.get(i), true);
-                } else if (Math.abs(exitPoints.get(i).sub(position).length()) < 1.25f) {
+                } else if (Math.abs(exitPoints.get(i).distance(position)) < 1.25f) {
                 	player.playerText.get("Notification").setText("Press e to scape to other floor");
                     player.notificationTime = Time.getTime();
                 }
@@ -496,466 +604,412 @@ public class Level extends GameComponent {
      * @return Collision's vector.
      */
     public Vector3f checkCollisions(Vector3f oldPos, Vector3f newPos, float objectWidth, float objectLength) {
-        Vector2f collisionVector = new Vector2f(1, 1);
-        Vector3f movementVector = newPos.sub(oldPos);
-
-        if (movementVector.length() > 0) {
-            Vector2f blockSize = new Vector2f(SPOT_WIDTH, SPOT_LENGTH);
-            Vector2f objectSize = new Vector2f(objectWidth, objectLength);
+    	return checkCollisionsInto(oldPos, newPos, objectWidth, objectLength, new Vector3f(0, 0, 0));
+    }
 
-            Vector2f oldPos2 = new Vector2f(oldPos.getX(), oldPos.getZ());
-            Vector2f newPos2 = new Vector2f(newPos.getX(), newPos.getZ());
+    /**
+     * Checks the collisions like {@link #checkCollisions}, writing the
+     * collision's vector into other vector.
+     * @param oldPos Objects' old position.
+     * @param newPos Objects' new position.
+     * @param objectWidth Objects' width.
+     * @param objectLength Objects' length.
+     * @param result Vector to write, it can be one of the positions.
+     * @return The written vector.
+     */
+    public Vector3f checkCollisionsInto(Vector3f oldPos, Vector3f newPos, float objectWidth, float objectLength, Vector3f result) {
+    	Profiler.begin("Level.checkCollisions");
+    	Scratch.begin();
+        Vector2f collisionVector = Scratch.vector2(1, 1);
+        Vector3f movementVector = newPos.subInto(oldPos, Scratch.vector3(0, 0, 0));
 
-            for (int i = 0; i < bitmap.getWidth(); i++) {
-                for (int j = 0; j < bitmap.getHeight(); j++) {
-                    if ((bitmap.getPixel(i, j) & 0xFFFFFF) == 0) // If it's a black (wall) pixel
-                    {
-                        collisionVector = collisionVector.mul(PhysicsUtil.rectCollide(oldPos2, newPos2, objectSize, blockSize.mul(new Vector2f(i, j)), blockSize));
-                    }
-                }
+        if (movementVector.length() > 0) {
+            Vector2f blockSize = Scratch.vector2(SPOT_WIDTH, SPOT_LENGTH);
+            Vector2f blockPos = Scratch.vector2(0, 0);
+            Vector2f objectSize = Scratch.vector2(objectWidth, objectLength);
+            Vector2f objectPos = Scratch.vector2(0, 0);
+
+            Vector2f oldPos2 = Scratch.vector2(oldPos.getX(), oldPos.getZ());
+            Vector2f newPos2 = Scratch.vector2(newPos.getX(), newPos.getZ());
+
+            occupancy.collide(oldPos2, newPos2, objectSize, blockPos, blockSize, collisionVector);
+
+            spatialHash.query(Math.min(oldPos2.getX(), newPos2.getX()) - objectWidth, Math.min(oldPos2.getY(), newPos2.getY()) - objectLength,
+            		Math.max(oldPos2.getX(), newPos2.getX()) + objectWidth, Math.max(oldPos2.getY(), newPos2.getY()) + objectLength, nearby);
+            for (int i = 0; i < nearby.size(); i++) {
+            	GameComponent component = nearby.get(i);
+            	Bucket bucket = objects.getBucket(component.getClass());
+            	if ((bucket.getTags() & Archetype.SOLID) != 0 && (!bucket.hasAgents() || ((Agent) component).isQuiet()))
+            		PhysicsUtil.rectCollideInto(oldPos2, newPos2, objectSize, component.getTransform().getPosition().getXZInto(objectPos), component.getSize(), collisionVector);
             }
-
-            for (Door door : doors)
-                collisionVector = collisionVector.mul(PhysicsUtil.rectCollide(oldPos2, newPos2, objectSize, door.getTransform().getPosition().getXZ(), door.getSize()));
-            
-            for (SecretWall secretWall : secretWalls)
-                collisionVector = collisionVector.mul(PhysicsUtil.rectCollide(oldPos2, newPos2, objectSize, secretWall.getTransform().getPosition().getXZ(), secretWall.getSize()));
-            
-            for (NaziSoldier monster : naziSoldiers)
-            	if(monster.isQuiet)
-            		collisionVector = collisionVector.mul(PhysicsUtil.rectCollide(oldPos2, newPos2, objectSize, monster.getTransform().getPosition().getXZ(), monster.getSize()));
-            
-            for (SsSoldier ssSoldier : ssSoldiers)
-            	if(ssSoldier.isQuiet)
-            		collisionVector = collisionVector.mul(PhysicsUtil.rectCollide(oldPos2, newPos2, objectSize, ssSoldier.getTransform().getPosition().getXZ(), ssSoldier.getSize()));
-            
-            for (Dog dog : dogs)
-            	if(dog.isQuiet)
-            		collisionVector = collisionVector.mul(PhysicsUtil.rectCollide(oldPos2, newPos2, objectSize, dog.getTransform().getPosition().getXZ(), dog.getSize()));
-            
-            for (NaziSergeant naziSergeants : naziSeargeants)
-            	if(naziSergeants.isQuiet)
-            		collisionVector = collisionVector.mul(PhysicsUtil.rectCollide(oldPos2, newPos2, objectSize, naziSergeants.getTransform().getPosition().getXZ(), naziSergeants.getSize()));
-           
-            for (Bones bone : bones)
-                collisionVector = collisionVector.mul(PhysicsUtil.rectCollide(oldPos2, newPos2, objectSize, bone.getTransform().getPosition().getXZ(), bone.getSize()));
-            
-            for (DeadJew deadJew : deadJews)
-                collisionVector = collisionVector.mul(PhysicsUtil.rectCollide(oldPos2, newPos2, objectSize, deadJew.getTransform().getPosition().getXZ(), deadJew.getSize()));
-            
-            for (Tree tree : trees)
-                collisionVector = collisionVector.mul(PhysicsUtil.rectCollide(oldPos2, newPos2, objectSize, tree.getTransform().getPosition().getXZ(), tree.getSize()));
-            
-            for (Table table : tables)
-                collisionVector = collisionVector.mul(PhysicsUtil.rectCollide(oldPos2, newPos2, objectSize, table.getTransform().getPosition().getXZ(), table.getSize()));
-            
-            for (Pipe pipe : pipes)
-                collisionVector = collisionVector.mul(PhysicsUtil.rectCollide(oldPos2, newPos2, objectSize, pipe.getTransform().getPosition().getXZ(), pipe.getSize()));
-            
-            for (Pendule pendule : pendules)
-                collisionVector = collisionVector.mul(PhysicsUtil.rectCollide(oldPos2, newPos2, objectSize, pendule.getTransform().getPosition().getXZ(), pendule.getSize()));
-            
-            //for (Lantern flare : flares)
-                //collisionVector = collisionVector.mul(PhysicsUtil.rectCollide(oldPos2, newPos2, objectSize, flare.getTransform().getPosition().getXZ(), flare.getSize()));
-            
-            for (Lamp lamp : lamps)
-                collisionVector = collisionVector.mul(PhysicsUtil.rectCollide(oldPos2, newPos2, objectSize, lamp.getTransform().getPosition().getXZ(), lamp.getSize()));
-            
-            for (Hanged jew : hangeds)
-                collisionVector = collisionVector.mul(PhysicsUtil.rectCollide(oldPos2, newPos2, objectSize, jew.getTransform().getPosition().getXZ(), jew.getSize()));
-            
-            for (Pillar pillar : pillars)
-                collisionVector = collisionVector.mul(PhysicsUtil.rectCollide(oldPos2, newPos2, objectSize, pillar.getTransform().getPosition().getXZ(), pillar.getSize()));
-            
-            for (Clock clock : clocks)
-                collisionVector = collisionVector.mul(PhysicsUtil.rectCollide(oldPos2, newPos2, objectSize, clock.getTransform().getPosition().getXZ(), clock.getSize()));
-            
-            for (Oven furnace : furnaces)
-                collisionVector = collisionVector.mul(PhysicsUtil.rectCollide(oldPos2, newPos2, objectSize, furnace.getTransform().getPosition().getXZ(), furnace.getSize()));
-            
-            for (Barrel barrel : barrels)
-                collisionVector = collisionVector.mul(PhysicsUtil.rectCollide(oldPos2, newPos2, objectSize, barrel.getTransform().getPosition().getXZ(), barrel.getSize()));
-            
-            for (LockedDoor lockedDoor : lockedDoors)
-                collisionVector = collisionVector.mul(PhysicsUtil.rectCollide(oldPos2, newPos2, objectSize, lockedDoor.getTransform().getPosition().getXZ(), lockedDoor.getSize()));
-            
-            for (BarsWall barsWall : barsWalls)
-                collisionVector = collisionVector.mul(PhysicsUtil.rectCollide(oldPos2, newPos2, objectSize, barsWall.getTransform().getPosition().getXZ(), barsWall.getSize()));
-            
-            for (LightPost lightPost : lightPosts)
-                collisionVector = collisionVector.mul(PhysicsUtil.rectCollide(oldPos2, newPos2, objectSize, lightPost.getTransform().getPosition().getXZ(), lightPost.getSize()));
-            
-            for (Sign sign : signs)
-                collisionVector = collisionVector.mul(PhysicsUtil.rectCollide(oldPos2, newPos2, objectSize, sign.getTransform().getPosition().getXZ(), sign.getSize()));
-            
-            for (Zombie zombie : zombies)
-            	if(zombie.isQuiet)
-            		collisionVector = collisionVector.mul(PhysicsUtil.rectCollide(oldPos2, newPos2, objectSize, zombie.getTransform().getPosition().getXZ(), zombie.getSize()));
-            
-            for (Captain captain : captains)
-            	if(captain.isQuiet)
-            		collisionVector = collisionVector.mul(PhysicsUtil.rectCollide(oldPos2, newPos2, objectSize, captain.getTransform().getPosition().getXZ(), captain.getSize()));
-            
-            for (Commander commander : commanders)
-            	if(commander.isQuiet)
-            		collisionVector = collisionVector.mul(PhysicsUtil.rectCollide(oldPos2, newPos2, objectSize, commander.getTransform().getPosition().getXZ(), commander.getSize()));
-            
         }
 
-        return new Vector3f(collisionVector.getX(), 0, collisionVector.getY());
+        result.set(collisionVector.getX(), 0, collisionVector.getY());
+        Scratch.end();
+        Profiler.end();
+        return result;
     }
 
     /**
-     * Checks if there's any intersections between the objects.
+     * Moves a box, like a projectile, and finds when it first touches
+     * what {@link #checkCollisions} stops: the solid cells and the solid
+     * objects near its way.
+     * @param x box's position along x.
+     * @param z box's position along z.
+     * @param moveX how much the box moves along x.
+     * @param moveZ how much the box moves along z.
+     * @param size half of the box's width and length.
+     * @return Part of the move done when it touches something, from 0
+     * to 1, or 1 if it doesn't.
+     */
+    public float sweep(float x, float z, float moveX, float moveZ, float size) {
+    	float part = occupancy.sweep(x, z, moveX, moveZ, size, size);
+
+    	spatialHash.query(Math.min(x, x + moveX) - size, Math.min(z, z + moveZ) - size,
+    			Math.max(x, x + moveX) + size, Math.max(z, z + moveZ) + size, nearby);
+    	for (int i = 0; i < nearby.size(); i++) {
+    		GameComponent component = nearby.get(i);
+    		Bucket bucket = objects.getBucket(component.getClass());
+    		if ((bucket.getTags() & Archetype.SOLID) == 0 || (bucket.hasAgents() && !((Agent) component).isQuiet()))
+    			continue;
+    		//As far as the test of PhysicsUtil takes it, its size squared
+    		Vector3f position = component.getTransform().getPosition();
+    		Vector2f componentSize = component.getSize();
+    		part = Math.min(part, PhysicsUtil.sweepRect(x, z, moveX, moveZ, size, size, position.getX(), position.getZ(),
+    				position.getX() + componentSize.getX() * componentSize.getX(), position.getZ() + componentSize.getY() * componentSize.getY()));
+    	}
+    	return part;
+    }
+
+    /**
+     * Checks if there's any intersections between the objects. The walls
+     * are the ones of the cells the line goes through until it hits one,
+     * and the other things the ones near the line until there.
      * @param lineStart The start position of the line-checker.
      * @param lineEnd The end position of the line-checker.
      * @param hurtMonsters If which intersection could hurt something.
      * @return Nearest Intersection.
      */
     public Vector2f checkIntersections(Vector2f lineStart, Vector2f lineEnd, boolean hurtMonsters) {
-        Vector2f nearestIntersect = null;
-
-        for (int i = 0; i < collisionPosStart.size(); i++) {
-            Vector2f collision = PhysicsUtil.lineIntersect(lineStart, lineEnd, collisionPosStart.get(i), collisionPosEnd.get(i));
-
-            if (collision != null && (nearestIntersect == null
-                    || nearestIntersect.sub(lineStart).length() > collision.sub(lineStart).length())) {
-                nearestIntersect = collision;
-            }
-        }
-
-        for (Door door : doors) {
-            Vector2f collision = PhysicsUtil.lineIntersectRect(lineStart, lineEnd, door.getTransform().getPosition().getXZ(), door.getSize());
-
-            if (collision != null && (nearestIntersect == null
-                    || nearestIntersect.sub(lineStart).length() > collision.sub(lineStart).length())) {
-                nearestIntersect = collision;
-            }
-        }
-        
-        for (SecretWall secretWall : secretWalls) {
-            Vector2f collision = PhysicsUtil.lineIntersectRect(lineStart, lineEnd, secretWall.getTransform().getPosition().getXZ(), secretWall.getSize());
-
-            if (collision != null && (nearestIntersect == null
-                    || nearestIntersect.sub(lineStart).length() > collision.sub(lineStart).length())) {
-                nearestIntersect = collision;
-            }
-        }
-        
-        for (LockedDoor lockedDoor : lockedDoors) {
-            Vector2f collision = PhysicsUtil.lineIntersectRect(lineStart, lineEnd, lockedDoor.getTransform().getPosition().getXZ(), lockedDoor.getSize());
-
-            if (collision != null && (nearestIntersect == null
-                    || nearestIntersect.sub(lineStart).length() > collision.sub(lineStart).length())) {
-                nearestIntersect = collision;
-            }
-        }
-        
-        for (BarsWall barsWall : barsWalls) {
-            Vector2f collision = PhysicsUtil.lineIntersectRect(lineStart, lineEnd, barsWall.getTransform().getPosition().getXZ(), barsWall.getSize());
+    	Vector2f result = new Vector2f(0, 0);
+    	return checkIntersections(lineStart, lineEnd, hurtMonsters, result) ? result : null;
+    }
 
-            if (collision != null && (nearestIntersect == null
-                    || nearestIntersect.sub(lineStart).length() > collision.sub(lineStart).length())) {
-                nearestIntersect = collision;
-            }
+    /**
+     * Checks the intersections like {@link #checkIntersections(Vector2f, Vector2f, boolean)},
+     * writing the nearest one into a vector.
+     * @param lineStart The start position of the line-checker.
+     * @param lineEnd The end position of the line-checker.
+     * @param hurtMonsters If which intersection could hurt something.
+     * @param result Vector to write the nearest intersection.
+     * @return If there's any intersection.
+     */
+    public boolean checkIntersections(Vector2f lineStart, Vector2f lineEnd, boolean hurtMonsters, Vector2f result) {
+    	Profiler.begin("Level.checkIntersections");
+    	Scratch.begin();
+        Vector2f nearestIntersect = Scratch.vector2(0, 0);
+        Vector2f collision = Scratch.vector2(0, 0);
+        Vector2f position = Scratch.vector2(0, 0);
+        Vector2f lineStop = Scratch.vector2(0, 0);
+        float lineLength = lineEnd.subInto(lineStart, position).length();
+        float nearestLength = castWalls(lineStart, lineEnd, lineLength, nearestIntersect);
+        boolean found = nearestLength != Float.MAX_VALUE;
+
+        stopLine(lineStart, lineEnd, lineLength, nearestLength, lineStop);
+        spatialHash.queryLine(lineStart.getX(), lineStart.getY(), lineStop.getX(), lineStop.getY(), nearby);
+        ArrayList<Bucket> occluders = objects.query(Archetype.OCCLUDER);
+        for (int i = 0; i < occluders.size(); i++) {
+        	ArrayList<GameComponent> components = select(nearby, occluders.get(i).getType());
+        	for (int j = 0; j < components.size(); j++) {
+        		GameComponent component = components.get(j);
+	            if (PhysicsUtil.lineIntersectRect(lineStart, lineEnd, component.getTransform().getPosition().getXZInto(position), component.getSize(), collision)) {
+	            	float length = collision.subInto(lineStart, position).length();
+	            	if (!found || nearestLength > length) {
+	            		nearestIntersect.set(collision);
+	            		nearestLength = length;
+	            		found = true;
+	            	}
+	            }
+        	}
         }
 
         if (hurtMonsters) {
-            Vector2f naziIntersect = null;
-            NaziSoldier nearestNazi = null;
-            
-            Vector2f dogIntersect = null;
-            Dog nearestDog = null;
-            
-            Vector2f ssSoldierIntersect = null;
-            SsSoldier nearestSsSoldier = null;
-            
-            Vector2f naziSergeantsIntersect = null;
-            NaziSergeant nearestNaziSargent = null;
-            
-            Vector2f ghostIntersect = null;
-            Ghost nearestGhost = null;
-            
-            Vector2f zombieIntersect = null;
-            Zombie nearestZombie = null;
-            
-            Vector2f captainIntersect = null;
-            Captain nearestCaptain = null;
-            
-            Vector2f commanderIntersect = null;
-            Commander nearestCommander = null;
-
-            for (NaziSoldier naziSoldier : naziSoldiers) {
-                Vector2f collision = PhysicsUtil.lineIntersectRect(lineStart, lineEnd, naziSoldier.getTransform().getPosition().getXZ(), naziSoldier.getSize());
-
-                if (collision != null && (naziIntersect == null
-                        || naziIntersect.sub(lineStart).length() > collision.sub(lineStart).length())) {
-                    naziIntersect = collision;
-                    nearestNazi = naziSoldier;
-                }
-                
-            }
-            
-            for (Dog dog : dogs) {
-                Vector2f collision = PhysicsUtil.lineIntersectRect(lineStart, lineEnd, dog.getTransform().getPosition().getXZ(), dog.getSize());
-
-                if (collision != null && (dogIntersect == null
-                        || dogIntersect.sub(lineStart).length() > collision.sub(lineStart).length())) {
-                	dogIntersect = collision;
-                    nearestDog = dog;
-                }
-            }
-            
-            for (SsSoldier ssSoldier : ssSoldiers) {
-                Vector2f collision = PhysicsUtil.lineIntersectRect(lineStart, lineEnd, ssSoldier.getTransform().getPosition().getXZ(), ssSoldier.getSize());
-
-                if (collision != null && (ssSoldierIntersect == null
-                        || ssSoldierIntersect.sub(lineStart).length() > collision.sub(lineStart).length())) {
-                	ssSoldierIntersect = collision;
-                	nearestSsSoldier = ssSoldier;
-                }
-            }
-            
-            for (NaziSergeant naziSargent : naziSeargeants) {
-                Vector2f collision = PhysicsUtil.lineIntersectRect(lineStart, lineEnd, naziSargent.getTransform().getPosition().getXZ(), naziSargent.getSize());
-
-                if (collision != null && (naziSergeantsIntersect == null
-                        || naziSergeantsIntersect.sub(lineStart).length() > collision.sub(lineStart).length())) {
-                	naziSergeantsIntersect = collision;
-                	nearestNaziSargent = naziSargent;
-                }
-            }
-            
-            for (Ghost ghost : ghosts) {
-                Vector2f collision = PhysicsUtil.lineIntersectRect(lineStart, lineEnd, ghost.getTransform().getPosition().getXZ(), ghost.getSize());
-
-                if (collision != null && (ghostIntersect == null
-                        || ghostIntersect.sub(lineStart).length() > collision.sub(lineStart).length())) {
-                	ghostIntersect = collision;
-                	nearestGhost = ghost;
-                }
-            }
-            
-            for (Zombie zombie : zombies) {
-                Vector2f collision = PhysicsUtil.lineIntersectRect(lineStart, lineEnd, zombie.getTransform().getPosition().getXZ(), zombie.getSize());
-
-                if (collision != null && (zombieIntersect == null
-                        || zombieIntersect.sub(lineStart).length() > collision.sub(lineStart).length())) {
-                	zombieIntersect = collision;
-                	nearestZombie= zombie;
-                }
-            }
-            
-            for (Captain captain : captains) {
-                Vector2f collision = PhysicsUtil.lineIntersectRect(lineStart, lineEnd, captain.getTransform().getPosition().getXZ(), captain.getSize());
-
-                if (collision != null && (captainIntersect == null
-                        || captainIntersect.sub(lineStart).length() > collision.sub(lineStart).length())) {
-                	captainIntersect = collision;
-                	nearestCaptain= captain;
-                }
-            }
-            
-            for (Commander commander : commanders) {
-                Vector2f collision = PhysicsUtil.lineIntersectRect(lineStart, lineEnd, commander.getTransform().getPosition().getXZ(), commander.getSize());
-
-                if (collision != null && (commanderIntersect == null
-                        || commanderIntersect.sub(lineStart).length() > collision.sub(lineStart).length())) {
-                	commanderIntersect = collision;
-                	nearestCommander= commander;
-                }
-            }
+        	//Past the walls only the punches reach something
+        	shots.clear();
+        	int ray = shots.addRay(lineStart, lineEnd);
+        	shots.setLimit(ray, found ? Math.max(nearestLength, MELEE_RANGE) : Float.MAX_VALUE);
+        	shots.run(spatialHash, hitscanFilter);
+        	shoot(shots, ray, nearestLength);
+        }
 
-            if((player.weaponType == player.BULLET && player.getWeaponState() != "chaingun" && player.getBullets() > 0) || player.weaponType == player.SHELL && player.getShells() > 0 || (player.weaponType == player.BULLET && player.chaingunCanFire && player.getWeaponState() == "chaingun" && player.getBullets() > 0)) {
-	            if (naziIntersect != null && (nearestIntersect == null
-	                    || nearestIntersect.sub(lineStart).length() > naziIntersect.sub(lineStart).length())) {
-	                nearestNazi.damage(player.getDamage());
-	                addBleeding(nearestNazi);
-	            }
-	            
-	            if (dogIntersect != null && (nearestIntersect == null
-	                    || nearestIntersect.sub(lineStart).length() > dogIntersect.sub(lineStart).length())) {
-	            	nearestDog.damage(player.getDamage());
-	            	addBleeding(nearestDog);
-	            }
-	            
-	            if (ssSoldierIntersect != null && (nearestIntersect == null
-	                    || nearestIntersect.sub(lineStart).length() > ssSoldierIntersect.sub(lineStart).length())) {
-	            	nearestSsSoldier.damage(player.getDamage());
-	            	addBleeding(nearestSsSoldier);
-	            }
-	            if (naziSergeantsIntersect != null && (nearestIntersect == null
-	                    || nearestIntersect.sub(lineStart).length() > naziSergeantsIntersect.sub(lineStart).length())) {
-	            	nearestNaziSargent.damage(player.getDamage());
-	            	addBleeding(nearestNaziSargent);
-	            }
-	            
-	            if (ghostIntersect != null && (nearestIntersect == null
-	                    || nearestIntersect.sub(lineStart).length() > ghostIntersect.sub(lineStart).length())) {
-	            	nearestGhost.damage(player.getDamage());
-	            }
-	            if (zombieIntersect != null && (nearestIntersect == null
-	                    || nearestIntersect.sub(lineStart).length() > zombieIntersect.sub(lineStart).length())) {
-	            	nearestZombie.damage(player.getDamage());
-	            }
-	            if (captainIntersect != null && (nearestIntersect == null
-	                    || nearestIntersect.sub(lineStart).length() > captainIntersect.sub(lineStart).length())) {
-	            	nearestCaptain.damage(player.getDamage());
-	            	addBleeding(nearestCaptain);
-	            }
-	            if (commanderIntersect != null && (nearestIntersect == null
-	                    || nearestIntersect.sub(lineStart).length() > commanderIntersect.sub(lineStart).length())) {
-	            	nearestCommander.damage(player.getDamage());
-	            	addBleeding(nearestCommander);
-	            }
-        	}
-            if(player.weaponType == player.ROCKET || player.weaponType == player.GAS) {
-	            if (naziIntersect != null && (nearestIntersect == null
-	                    || nearestIntersect.sub(lineStart).length() > naziIntersect.sub(lineStart).length())) {
-	            	setShootingObjective(nearestNazi);
-	            	if(player.weaponType == player.GAS && player.getGas() > 0 && nearestNazi.getDistance() < FLAME_RANGE)
-	            		addFire(nearestNazi, false);
-	            }
-	            
-	            if (dogIntersect != null && (nearestIntersect == null
-	                    || nearestIntersect.sub(lineStart).length() > dogIntersect.sub(lineStart).length())) {
-	            	setShootingObjective(nearestDog);
-	            	if(player.weaponType == player.GAS && player.getGas() > 0 && nearestDog.getDistance() < FLAME_RANGE)
-	            		addFire(nearestDog, false);
-	            }
-	            
-	            if (ssSoldierIntersect != null && (nearestIntersect == null
-	                    || nearestIntersect.sub(lineStart).length() > ssSoldierIntersect.sub(lineStart).length())) {
-	            	setShootingObjective(nearestSsSoldier);
-	            	if(player.weaponType == player.GAS && player.getGas() > 0 && nearestSsSoldier.getDistance() < FLAME_RANGE)
-	            		addFire(nearestSsSoldier, false);
-	            }
-	            if (naziSergeantsIntersect != null && (nearestIntersect == null
-	                    || nearestIntersect.sub(lineStart).length() > naziSergeantsIntersect.sub(lineStart).length())) {
-	            	setShootingObjective(nearestNaziSargent);
-	            	if(player.weaponType == player.GAS && player.getGas() > 0 && nearestNaziSargent.getDistance() < FLAME_RANGE)
-	            		addFire(nearestNaziSargent, false);
-	            }
-	            
-	            if (ghostIntersect != null && (nearestIntersect == null
-	                    || nearestIntersect.sub(lineStart).length() > ghostIntersect.sub(lineStart).length())) {
-	            	setShootingObjective(nearestGhost);
-	            }
-	            if (zombieIntersect != null && (nearestIntersect == null
-	                    || nearestIntersect.sub(lineStart).length() > zombieIntersect.sub(lineStart).length())) {
-	            	setShootingObjective(nearestZombie);
-	            	if(player.weaponType == player.GAS && player.getGas() > 0 && nearestZombie.getDistance() < FLAME_RANGE)
-	            		addFire(nearestZombie, false);
-	            }
-	            if (captainIntersect != null && (nearestIntersect == null
-	                    || nearestIntersect.sub(lineStart).length() > captainIntersect.sub(lineStart).length())) {
-	            	setShootingObjective(nearestCaptain);
-	            	if(player.weaponType == player.GAS && player.getGas() > 0 && nearestCaptain.getDistance() < FLAME_RANGE)
-	            		addFire(nearestCaptain, false);
-	            }         
-	            if (commanderIntersect != null && (nearestIntersect == null
-	                    || nearestIntersect.sub(lineStart).length() > commanderIntersect.sub(lineStart).length())) {
-	            	setShootingObjective(nearestCommander);
-	            	if(player.weaponType == player.GAS && player.getGas() > 0 && nearestCommander.getDistance() < FLAME_RANGE)
-	            		addFire(nearestCommander, false);
-	            }
-        	}
-            if(player.weaponType == player.MELEE) {
-        		if (naziIntersect != null && (nearestIntersect == null
-	                    || /*nearestIntersect.sub(lineStart).length() >*/ naziIntersect.sub(lineStart).length() < MELEE_RANGE)) {
-	                nearestNazi.damage(player.getMeleeDamage());
-	            }
-	            
-	            if (dogIntersect != null && (nearestIntersect == null
-	                    || /*nearestIntersect.sub(lineStart).length() >*/ dogIntersect.sub(lineStart).length() < MELEE_RANGE)) {
-	            	nearestDog.damage(player.getMeleeDamage());
-	            }
-	            
-	            if (ssSoldierIntersect != null && (nearestIntersect == null
-	                    || /*nearestIntersect.sub(lineStart).length() >*/ ssSoldierIntersect.sub(lineStart).length() < MELEE_RANGE)) {
-	            	nearestSsSoldier.damage(player.getMeleeDamage());
-	            }
-	            
-	            if (naziSergeantsIntersect != null && (nearestIntersect == null
-	                    || /*nearestIntersect.sub(lineStart).length() >*/ naziSergeantsIntersect.sub(lineStart).length() < MELEE_RANGE)) {
-	            	nearestNaziSargent.damage(player.getMeleeDamage());
-	            }
-	            
-	            if (ghostIntersect != null && (nearestIntersect == null
-	                    || /*nearestIntersect.sub(lineStart).length() >*/ ghostIntersect.sub(lineStart).length() < MELEE_RANGE)) {
-	            	nearestGhost.damage(player.getMeleeDamage());
-	            }
-	            
-	            if (zombieIntersect != null && (nearestIntersect == null
-	                    || /*nearestIntersect.sub(lineStart).length() >*/ zombieIntersect.sub(lineStart).length() < MELEE_RANGE)) {
-	            	nearestZombie.damage(player.getMeleeDamage());
-	            }
-	            
-	            if (captainIntersect != null && (nearestIntersect == null
-	                    || /*nearestIntersect.sub(lineStart).length() >*/ captainIntersect.sub(lineStart).length() < MELEE_RANGE)) {
-	            	nearestCaptain.damage(player.getMeleeDamage());
-	            }
-	            
-	            if (commanderIntersect != null && (nearestIntersect == null
-	                    || /*nearestIntersect.sub(lineStart).length() >*/ commanderIntersect.sub(lineStart).length() < MELEE_RANGE)) {
-	            	nearestCommander.damage(player.getMeleeDamage());
+        if (found)
+        	result.set(nearestIntersect);
+        Scratch.end();
+        Profiler.end();
+        return found;
+    }
+    
+    /**
+     * Checks if a shot along a line reaches the player before the walls
+     * and the things that stop it.
+     * @param lineStart The start position of the shot.
+     * @param lineEnd The end position of the shot.
+     * @return If it reaches the player.
+     */
+    public boolean reachesPlayer(Vector2f lineStart, Vector2f lineEnd) {
+    	Scratch.begin();
+    	Vector2f nearestIntersect = Scratch.vector2(0, 0);
+    	Vector2f playerIntersect = Scratch.vector2(0, 0);
+    	Vector2f eye = player.getCamera().getPos().getXZInto(Scratch.vector2(0, 0));
+    	Vector2f distance = Scratch.vector2(0, 0);
+    	boolean found = checkIntersections(lineStart, lineEnd, false, nearestIntersect);
+    	boolean reached = PhysicsUtil.lineIntersectRect(lineStart, lineEnd, eye, player.getSize(), playerIntersect)
+    			&& (!found || nearestIntersect.subInto(lineStart, distance).length() > playerIntersect.subInto(lineStart, distance).length());
+    	Scratch.end();
+    	return reached;
+    }
+    
+    /**
+     * Fires a batch of shots of the player, like the pellets of a shotgun,
+     * hurting what each one reaches like
+     * {@link #checkIntersections(Vector2f, Vector2f, boolean)} would. The
+     * walls are walked shot by shot, but the things are found for the whole
+     * batch with one query of the spatial hash.
+     * @param query with the shots to fire, it's run and keeps what they hit.
+     */
+    public void fire(RaycastQuery query) {
+    	Profiler.begin("Level.fire");
+    	Scratch.begin();
+    	Vector2f lineStart = Scratch.vector2(0, 0);
+    	Vector2f lineEnd = Scratch.vector2(0, 0);
+    	Vector2f nearestIntersect = Scratch.vector2(0, 0);
+    	if (wallLengths.length < query.getRayCount())
+    		wallLengths = new float[query.getRayCount()];
+    	for (int ray = 0; ray < query.getRayCount(); ray++) {
+    		query.getStart(ray, lineStart);
+    		query.getEnd(ray, lineEnd);
+    		float lineLength = lineEnd.subInto(lineStart, nearestIntersect).length();
+    		wallLengths[ray] = castWalls(lineStart, lineEnd, lineLength, nearestIntersect);
+    		query.setLimit(ray, Math.max(wallLengths[ray], MELEE_RANGE));
+    	}
+    	query.run(spatialHash, shotFilter);
+
+    	for (int ray = 0; ray < query.getRayCount(); ray++) {
+    		//The doors and the secret walls stop the shots like the walls
+    		float wallLength = wallLengths[ray];
+    		for (int i = 0; i < query.getHitCount(ray) && query.getHitLength(ray, i) < wallLength; i++) {
+    			if ((archetypes.get(query.getHit(ray, i).getClass()).getTags() & Archetype.OCCLUDER) != 0) {
+    				wallLength = query.getHitLength(ray, i);
+    				break;
+    			}
+    		}
+    		shoot(query, ray, wallLength);
+    	}
+    	Scratch.end();
+    	Profiler.end();
+    }
+    
+    /**
+     * Shoots the nearest thing of every class a shot hits, from the
+     * hits of a query.
+     * @param query that was run.
+     * @param ray index of the shot.
+     * @param wallLength from the start of the shot to the nearest wall,
+     * or the biggest float if there's none.
+     */
+    private void shoot(RaycastQuery query, int ray, float wallLength) {
+    	ArrayList<Bucket> targets = objects.query(Archetype.HITSCAN);
+    	for (int i = 0; i < targets.size(); i++) {
+    		Bucket bucket = targets.get(i);
+    		for (int j = 0; j < query.getHitCount(ray); j++) {
+    			GameComponent hit = query.getHit(ray, j);
+    			if (hit.getClass() == bucket.getType()) {
+    				shoot(hit, archetypes.get(bucket.getType()), query.getHitLength(ray, j), wallLength);
+    				break;
+    			}
+    		}
+    	}
+    }
+    
+    /**
+     * Finds the nearest wall a line hits, walking the cells it goes
+     * through until it hits one.
+     * @param lineStart The start position of the line-checker.
+     * @param lineEnd The end position of the line-checker.
+     * @param lineLength length of the line.
+     * @param nearestIntersect vector to write the hit into.
+     * @return Length from the start to the hit, or the biggest float if
+     * there's none.
+     */
+    private float castWalls(Vector2f lineStart, Vector2f lineEnd, float lineLength, Vector2f nearestIntersect) {
+    	Scratch.begin();
+        Vector2f collision = Scratch.vector2(0, 0);
+        Vector2f position = Scratch.vector2(0, 0);
+        float nearestLength = Float.MAX_VALUE;
+        int nearestWall = -1;
+        boolean found = false;
+
+        traversal.start(lineStart.getX(), lineStart.getY(), lineEnd.getX(), lineEnd.getY());
+        while (traversal.next()) {
+        	//A cell past the nearest hit can't have a nearer one, but a hit on a corner can be in the next
+        	if (found && traversal.getEntry() * lineLength > nearestLength + SPOT_WIDTH)
+        		break;
+        	int cell = traversal.getRow() * bitmap.getWidth() + traversal.getColumn();
+        	for (int i = wallOffsets[cell]; i < wallOffsets[cell + 1]; i++) {
+        		int wall = wallSegments[i];
+	            if (PhysicsUtil.lineIntersect(lineStart, lineEnd, collisionPosStart.get(wall), collisionPosEnd.get(wall), collision)) {
+	            	float length = collision.subInto(lineStart, position).length();
+	            	if (!found || nearestLength > length || (nearestLength == length && wall < nearestWall)) {
+	            		nearestIntersect.set(collision);
+	            		nearestLength = length;
+	            		nearestWall = wall;
+	            		found = true;
+	            	}
 	            }
         	}
-            
-            for (Barrel barrel : barrels) {
-                if(barrel.kBooms) {
-                    if (naziIntersect != null && (nearestIntersect == null
-                                                     || nearestIntersect.sub(lineStart).length() > naziIntersect.sub(lineStart).length())) {
-                        nearestNazi.damage(barrel.damage);
-                        addBleeding(nearestNazi);
-    	            	addFire(nearestNazi, false);
-                    }
-                    
-                    if (dogIntersect != null && (nearestIntersect == null
-                                                 || nearestIntersect.sub(lineStart).length() > dogIntersect.sub(lineStart).length())) {
-                        nearestDog.damage(barrel.damage);
-                        addBleeding(nearestDog);
-                        addFire(nearestDog, false);
-                    }
-                    
-                    if (ssSoldierIntersect != null && (nearestIntersect == null
-                                                       || nearestIntersect.sub(lineStart).length() > ssSoldierIntersect.sub(lineStart).length())) {
-                        nearestSsSoldier.damage(barrel.damage);
-                        addBleeding(nearestSsSoldier);
-                        addFire(nearestSsSoldier, false);
-                    }
-                    
-                    if (naziSergeantsIntersect != null && (nearestIntersect == null
-                                                           || nearestIntersect.sub(lineStart).length() > naziSergeantsIntersect.sub(lineStart).length())) {
-                        nearestNaziSargent.damage(barrel.damage);
-                        addBleeding(nearestNaziSargent);
-                        addFire(nearestNaziSargent, false);
-                    }
-                    
-                    if (zombieIntersect != null && (nearestIntersect == null
-    	                    || nearestIntersect.sub(lineStart).length() > zombieIntersect.sub(lineStart).length())) {
-    	            	nearestZombie.damage(barrel.damage);
-    	            	addFire(nearestZombie, false);
-    	            }
-                    
-                    if (captainIntersect != null && (nearestIntersect == null
-    	                    || nearestIntersect.sub(lineStart).length() > captainIntersect.sub(lineStart).length())) {
-    	            	nearestCaptain.damage(barrel.damage);
-    	            	addBleeding(nearestCaptain);
-    	            	addFire(nearestCaptain, false);
-    	            }
-                    
-                    if (commanderIntersect != null && (nearestIntersect == null
-    	                    || nearestIntersect.sub(lineStart).length() > commanderIntersect.sub(lineStart).length())) {
-    	            	nearestCommander.damage(barrel.damage);
-    	            	addBleeding(nearestCommander);
-    	            	addFire(nearestCommander, false);
-    	            }
-                }
-            }
         }
 
-        return nearestIntersect;
+        Scratch.end();
+        return nearestLength;
+    }
+    
+    /**
+     * Turns a chasing enemy to follow the flow field to the player, round
+     * the walls and through the doors. The orientation goes from the
+     * player to the enemy like the one the enemies work out, so they move
+     * against it. Near the player, or with no way to it, it isn't changed.
+     * @param position of the enemy.
+     * @param orientation of the enemy.
+     * @return The orientation.
+     */
+    public Vector3f chase(Vector3f position, Vector3f orientation) {
+    	if (flowField.getDirection(position.getX(), position.getZ(), flowDirection))
+    		orientation.set(-flowDirection.getX(), 0, -flowDirection.getY());
+    	return orientation;
+    }
+    
+    /**
+     * Checks if an enemy can see the player from where it stands, like
+     * the line it used to cast itself but from the middle of its cell,
+     * so every enemy in the cell shares one line until the player changes
+     * cell or something that blocks the sight moves.
+     * @param position of the enemy.
+     * @return If it can see the player.
+     */
+    public boolean canSeePlayer(Vector3f position) {
+    	int cell = visibility.getCell(position.getX(), position.getZ());
+    	if (cell < 0)
+    		return false;
+    	if (!visibility.isKnown(cell)) {
+    		Scratch.begin();
+    		Vector3f eye = player.getCamera().getPos();
+    		Vector2f lineStart = Scratch.vector2(visibility.getCenterX(cell), visibility.getCenterZ(cell));
+    		Vector2f direction = Scratch.vector2(eye.getX() + player.getSize().getX() * 0.5f - lineStart.getX(),
+    				eye.getZ() + player.getSize().getY() * 0.5f - lineStart.getY());
+    		direction.normalizedInto(direction);
+    		Vector2f lineEnd = lineStart.addInto(direction.mulInto(1000.0f, direction), Scratch.vector2(0, 0));
+
+    		visibility.set(cell, reachesPlayer(lineStart, lineEnd));
+    		Scratch.end();
+    	}
+    	return visibility.isVisible(cell);
+    }
+    
+    /**
+     * Forgets what the enemies could see if the player changed cell or a
+     * door or a secret wall moved since the last tick.
+     * @param eye position of the player.
+     */
+    private void updateVisibility(Vector3f eye) {
+    	int cell = visibility.getCell(eye.getX(), eye.getZ());
+    	boolean moved = cell != sightCell;
+    	sightCell = cell;
+
+    	ArrayList<Bucket> occluders = objects.query(Archetype.OCCLUDER);
+    	int count = 0;
+    	for (int i = 0; i < occluders.size(); i++)
+    		count += occluders.get(i).getComponents().size();
+    	if (occluderPositions.length != count * 2) {
+    		occluderPositions = new float[count * 2];
+    		moved = true;
+    	}
+    	int k = 0;
+    	for (int i = 0; i < occluders.size(); i++) {
+    		ArrayList<GameComponent> components = occluders.get(i).getComponents();
+    		for (int j = 0; j < components.size(); j++, k += 2) {
+    			Vector3f position = components.get(j).getTransform().getPosition();
+    			if (occluderPositions[k] != position.getX() || occluderPositions[k + 1] != position.getZ()) {
+    				occluderPositions[k] = position.getX();
+    				occluderPositions[k + 1] = position.getZ();
+    				moved = true;
+    			}
+    		}
+    	}
+
+    	if (moved)
+    		visibility.invalidate();
+    }
+    
+    /**
+     * Finds where a line stops at a length from its start, or its end if
+     * it's shorter.
+     * @param lineStart start of the line.
+     * @param lineEnd end of the line.
+     * @param lineLength length of the line.
+     * @param length where it stops.
+     * @param result vector to write.
+     * @return The result.
+     */
+    private Vector2f stopLine(Vector2f lineStart, Vector2f lineEnd, float lineLength, float length, Vector2f result) {
+    	if (length >= lineLength)
+    		return result.set(lineEnd);
+    	return lineEnd.subInto(lineStart, result).mulInto(length / lineLength, result).addInto(lineStart, result);
+    }
+    
+    /**
+     * Hurts the nearest thing of a kind that a shot of the player goes
+     * through, with the weapon and with every barrel going off.
+     * @param target nearest thing of its kind on the line.
+     * @param archetype of the target.
+     * @param length from the start of the line to the target.
+     * @param wallLength from the start of the line to the nearest wall,
+     * or the biggest float if there's none.
+     */
+    private void shoot(GameComponent target, Archetype archetype, float length, float wallLength) {
+    	boolean reached = length < wallLength;
+    	
+    	if((player.weaponType == player.BULLET && player.getWeaponState() != "chaingun" && player.getBullets() > 0) || player.weaponType == player.SHELL && player.getShells() > 0 || (player.weaponType == player.BULLET && player.chaingunCanFire && player.getWeaponState() == "chaingun" && player.getBullets() > 0)) {
+    		if (reached) {
+    			target.damage(player.getDamage());
+    			if(archetype.bleeds())
+    				addBleeding(target);
+    		}
+    	}
+    	if(player.weaponType == player.ROCKET || player.weaponType == player.GAS) {
+    		if (reached) {
+    			setShootingObjective(target);
+    			if(archetype.burns() && player.weaponType == player.GAS && player.getGas() > 0 && target.getDistance() < FLAME_RANGE)
+    				addFire(target, false);
+    		}
+    	}
+    	if(player.weaponType == player.MELEE) {
+    		if (wallLength == Float.MAX_VALUE || length < MELEE_RANGE)
+    			target.damage(player.getMeleeDamage());
+    	}
+    	
+    	Bucket barrels = objects.getBucket(Barrel.class);
+    	if (!reached || !archetype.burns() || barrels == null)
+    		return;
+    	ArrayList<GameComponent> components = barrels.getComponents();
+    	for (int i = 0; i < components.size(); i++) {
+    		Barrel barrel = (Barrel) components.get(i);
+    		if(barrel.kBooms) {
+    			target.damage(barrel.damage);
+    			if(archetype.bleeds())
+    				addBleeding(target);
+    			addFire(target, false);
+    		}
+    	}
     }
     
     /**
@@ -1042,86 +1096,97 @@ public class Level extends GameComponent {
 		}
 	}
 
+    /**
+     * Makes a field of the way to the player through the walls, that goes
+     * round the doors when it can and never through the locked doors or
+     * the secret walls.
+     * @return Field with no target yet.
+     */
+    private FlowField createFlowField() {
+        FlowField field = new FlowField(occupancy);
+        field.setAim(0.55f, 0.55f); // The open doors leave their gap on the far side of their cell
+        for (int i = 0; i < bitmap.getWidth(); i++) {
+            for (int j = 0; j < bitmap.getHeight(); j++) {
+                switch (bitmap.getPixel(i, j) & 0x0000FF) {
+                    case 16: // Door
+                        field.setCost(i, j, DOOR_COST);
+                        break;
+                    case 20: // Secret wall
+                    case 24: // Gold locked door
+                    case 28: // Bronze locked door
+                        field.setCost(i, j, FlowField.BLOCKED);
+                        break;
+                }
+            }
+        }
+        return field;
+    }
+
+    /**
+     * Compiles the black pixels of the bitmap into the grid of walls the
+     * collisions are tested against, and every wall segment into the cell
+     * of the floor it faces, so a line only tests the segments of the
+     * cells it goes through. The enemies find their way round the same
+     * walls, opening the doors but not the locked doors or the secret
+     * walls, and share what they see from each cell. It's done once when
+     * the level loads.
+     */
+    private void generateWalls() {
+        int width = bitmap.getWidth();
+        occupancy = new OccupancyGrid(width, bitmap.getHeight(), SPOT_WIDTH, SPOT_LENGTH);
+        for (int i = 0; i < width; i++)
+            for (int j = 0; j < bitmap.getHeight(); j++)
+                if ((bitmap.getPixel(i, j) & 0xFFFFFF) == 0) // If it's a black (wall) pixel
+                    occupancy.set(i, j, true);
+
+        flowField = createFlowField();
+        nextFlowField = createFlowField();
+        flowDirection = new Vector2f(0, 0);
+        visibility = new VisibilityCache(width, bitmap.getHeight(), SPOT_WIDTH, SPOT_LENGTH);
+        occluderPositions = new float[0];
+
+        int[] cells = new int[collisionPosStart.size()];
+        wallOffsets = new int[width * bitmap.getHeight() + 1];
+        for (int i = 0; i < cells.length; i++) {
+            Vector2f start = collisionPosStart.get(i);
+            int x = Math.round(start.getX() / SPOT_WIDTH);
+            int y = Math.round(start.getY() / SPOT_LENGTH);
+            if (start.getX() == collisionPosEnd.get(i).getX()) // Between the columns x - 1 and x
+                cells[i] = occupancy.isSolid(x, y) ? y * width + x - 1 : y * width + x;
+            else // Between the rows y - 1 and y
+                cells[i] = occupancy.isSolid(x, y) ? (y - 1) * width + x : y * width + x;
+            wallOffsets[cells[i] + 1]++;
+        }
+        for (int i = 1; i < wallOffsets.length; i++)
+            wallOffsets[i] += wallOffsets[i - 1];
+        int[] next = Arrays.copyOf(wallOffsets, wallOffsets.length);
+        wallSegments = new int[cells.length];
+        for (int i = 0; i < cells.length; i++)
+            wallSegments[next[cells[i]]++] = i;
+        traversal = new GridTraversal(width, bitmap.getHeight(), SPOT_WIDTH, SPOT_LENGTH);
+    }
+
+    /**
+     * Returns the solid cells of the map, the black pixels of its bitmap.
+     * @return Walls of the level.
+     */
+    public OccupancyGrid getOccupancy() {return occupancy;}
+
     /**
      * Method that generates the level for the game.
      * @param engine of the level.
      */
     private void generateLevel() {
         
-        //Remove list
-    	Level.removeMedkitList = new ArrayList<Medkit>();
-    	Level.removeFoodList = new ArrayList<Food>();
-    	Level.removeBulletList = new ArrayList<Bullet>();
-    	Level.removeShellList = new ArrayList<Shell>();
-    	Level.removeBagList = new ArrayList<Bag>();
-    	Level.removeShotgunList = new ArrayList<Shotgun>();
-    	Level.removeMachineGunList = new ArrayList<Machinegun>();
-    	Level.removeGhostList = new ArrayList<Ghost>();
-    	Level.removeArmorList = new ArrayList<Armor>();
-    	Level.removeSuperShotgunList = new ArrayList<SuperShotgun>();
-    	Level.removeHelmets = new ArrayList<Helmet>();
-    	Level.removeBarrels = new ArrayList<Barrel>();
-    	Level.removeKeys = new ArrayList<Key>();
-    	Level.removeChaingunList = new ArrayList<Chaingun>();
-    	Level.removeExplosions = new ArrayList<Explosion>();
-    	Level.removeRockets = new ArrayList<Rocket>();
-    	Level.removeRocketLauncherList = new ArrayList<RocketLauncher>();
-    	Level.removeBleedingList = new ArrayList<Bleed>();
-    	Level.removeFireList = new ArrayList<Fire>();
-        //Doors and stuff
-        this.doors = new ArrayList<Door>();
-        this.lockedDoors = new ArrayList<LockedDoor>();
-        this.secretWalls = new ArrayList<SecretWall>();
+        //Exits
         this.exitOffsets = new ArrayList<Integer>();
         this.exitPoints = new ArrayList<Vector3f>();
-        //Enemies
-        this.naziSoldiers = new ArrayList<NaziSoldier>();
-        this.dogs = new ArrayList<Dog>();
-        this.ssSoldiers = new ArrayList<SsSoldier>();
-        this.naziSeargeants = new ArrayList<NaziSergeant>();
-        this.ghosts = new ArrayList<Ghost>();
-        this.zombies = new ArrayList<Zombie>();
-        this.captains = new ArrayList<Captain>();
-        this.commanders = new ArrayList<Commander>();
-        //Power-ups
-        this.medkits = new ArrayList<Medkit>();
-        this.foods = new ArrayList<Food>();
-        this.bullets = new ArrayList<Bullet>();
-        this.shells = new ArrayList<Shell>();
-        this.shotguns = new ArrayList<Shotgun>();
-        this.bags = new ArrayList<Bag>();
-        this.machineguns = new ArrayList<Machinegun>();
-        this.armors = new ArrayList<Armor>();
-        this.superShotguns = new ArrayList<SuperShotgun>();
-        this.helmets = new ArrayList<Helmet>();
-        this.chainguns = new ArrayList<Chaingun>();
-        this.keys = new ArrayList<Key>();
-        this.rocketLaunchers = new ArrayList<RocketLauncher>();
-        //Objects
-        this.trees = new ArrayList<Tree>();
-        this.flares = new ArrayList<Lantern>();
-        this.bones = new ArrayList<Bones>();
-        this.deadNazi = new ArrayList<NaziSoldier>();
-        this.pipes = new ArrayList<Pipe>();
-        this.pendules = new ArrayList<Pendule>();
-        this.lamps = new ArrayList<Lamp>();
-        this.hangeds = new ArrayList<Hanged>();
-        this.deadJews = new ArrayList<DeadJew>();
-        this.tables = new ArrayList<Table>();
-        this.pillars = new ArrayList<Pillar>();
-        this.clocks = new ArrayList<Clock>();
-        this.furnaces = new ArrayList<Oven>();
-        this.kitchens = new ArrayList<Kitchen>();
-        this.barrels = new ArrayList<Barrel>();
-        this.explosions = new ArrayList<Explosion>();
-        this.rockets = new ArrayList<Rocket>();
-        this.bleeding = new ArrayList<Bleed>();
-        this.fire = new ArrayList<Fire>();
-        this.walls = new ArrayList<Wall>();
-        this.barsWalls = new ArrayList<BarsWall>();
-        this.grass = new ArrayList<Grass>();
-        this.lightPosts = new ArrayList<LightPost>();
-        this.signs = new ArrayList<Sign>();
+        //Active objects
+        this.explosions = new ParticleSystem(new Explosion());
+        this.bleeding = new ParticleSystem(new Bleed(Bleed.LEVEL_LIMITS));
+        this.fire = new ParticleSystem(new Fire());
+        this.missiles = new ParticleSystem(new pRocket(false));
+        this.gibs = new ParticleSystem(new ZombieMeat());
 
         ArrayList<Vertex> vertices = new ArrayList<Vertex>();
     	ArrayList<Integer> indices = new ArrayList<Integer>();
@@ -1147,11 +1212,11 @@ public class Level extends GameComponent {
 
                             if (yDoor) {
                                 doorTransform.setPosition(i, 0,j + SPOT_LENGTH / 2);
-                                doors.add(new Door(doorTransform, material, doorTransform.getPosition().add(new Vector3f(-0.9f, 0, 0))));
+                                objects.add(new Door(doorTransform, material, doorTransform.getPosition().add(new Vector3f(-0.9f, 0, 0))));
                             } else if (xDoor) {
                                 doorTransform.setPosition(i + SPOT_LENGTH / 2, 0, j);
                                 doorTransform.setRotation(0, 90, 0);
-                                doors.add(new Door(doorTransform, material, doorTransform.getPosition().add(new Vector3f(0, 0, -0.9f))));
+                                objects.add(new Door(doorTransform, material, doorTransform.getPosition().add(new Vector3f(0, 0, -0.9f))));
                             }
                 			break;
                 		case 20:
@@ -1166,11 +1231,11 @@ public class Level extends GameComponent {
 
                             if (ySecretWall) {
                                 wallTransform.setPosition(i, 0, j + SPOT_LENGTH);
-                                secretWalls.add(new SecretWall(wallTransform, material, wallTransform.getPosition().add(new Vector3f(-1.0f, 0, -0.01f))));
+                                objects.add(new SecretWall(wallTransform, material, wallTransform.getPosition().add(new Vector3f(-1.0f, 0, -0.01f))));
                             } else if (xSecretWall) {
                                 wallTransform.setPosition(i + SPOT_LENGTH, 0, j);
                                 wallTransform.setRotation(0, 90, 0);
-                                secretWalls.add(new SecretWall(wallTransform, material, wallTransform.getPosition().add(new Vector3f(-0.01f, 0, -1.0f))));
+                                objects.add(new SecretWall(wallTransform, material, wallTransform.getPosition().add(new Vector3f(-0.01f, 0, -1.0f))));
                             }
                 			break;
                 		case 24:
@@ -1186,11 +1251,11 @@ public class Level extends GameComponent {
 
                             if (yLockedDoor) {
                             	lockedTransform.setPosition(i, 0,j + SPOT_LENGTH / 2);
-                                lockedDoors.add(new LockedDoor(lockedTransform, lockedTransform.getPosition().add(new Vector3f(-0.9f, 0, 0)), true));
+                                objects.add(new LockedDoor(lockedTransform, lockedTransform.getPosition().add(new Vector3f(-0.9f, 0, 0)), true));
                             } else if (xLockedDoor) {
                             	lockedTransform.setPosition(i + SPOT_LENGTH / 2, 0, j);
                             	lockedTransform.setRotation(0, 90, 0);
-                                lockedDoors.add(new LockedDoor(lockedTransform, lockedTransform.getPosition().add(new Vector3f(0, 0, -0.9f)), true));
+                                objects.add(new LockedDoor(lockedTransform, lockedTransform.getPosition().add(new Vector3f(0, 0, -0.9f)), true));
                             }
                 			break;
                 		case 28:
@@ -1206,11 +1271,11 @@ public class Level extends GameComponent {
 
                             if (yLockedDoor) {
                             	lockedTransform.setPosition(i, 0,j + SPOT_LENGTH / 2);
-                                lockedDoors.add(new LockedDoor(lockedTransform, lockedTransform.getPosition().add(new Vector3f(-0.9f, 0, 0)), false));
+                                objects.add(new LockedDoor(lockedTransform, lockedTransform.getPosition().add(new Vector3f(-0.9f, 0, 0)), false));
                             } else if (xLockedDoor) {
                             	lockedTransform.setPosition(i + SPOT_LENGTH / 2, 0, j);
                             	lockedTransform.setRotation(0, 90, 0);
-                                lockedDoors.add(new LockedDoor(lockedTransform, lockedTransform.getPosition().add(new Vector3f(0, 0, -0.9f)), false));
+                                objects.add(new LockedDoor(lockedTransform, lockedTransform.getPosition().add(new Vector3f(0, 0, -0.9f)), false));
                             }
                 			break;
                 		case 30:
@@ -1218,166 +1283,167 @@ public class Level extends GameComponent {
 
                             if ((bitmap.getPixel(i, j - 1) & 0xFFFFFF) == 0) {
                             	barTransform.setPosition(i, 0,j + SPOT_LENGTH / 2);
-                                barsWalls.add(new BarsWall(barTransform));
+                                objects.add(new BarsWall(barTransform));
                             }
                             if ((bitmap.getPixel(i, j + 1) & 0xFFFFFF) == 0) {
                             	barTransform.setPosition(i + SPOT_LENGTH / 2, 0, j);
                             	barTransform.setRotation(0, 90, 0);
-                            	barsWalls.add(new BarsWall(barTransform));
+                            	objects.add(new BarsWall(barTransform));
                             }
                             if ((bitmap.getPixel(i - 1, j) & 0xFFFFFF) == 0) {
                             	barTransform.setPosition(i, 0,j + SPOT_LENGTH / 2);
-                                barsWalls.add(new BarsWall(barTransform));
+                                objects.add(new BarsWall(barTransform));
                             }
                             if ((bitmap.getPixel(i + 1, j) & 0xFFFFFF) == 0) {
                             	barTransform.setPosition(i + SPOT_LENGTH / 2, 0, j);
                             	barTransform.setRotation(0, 90, 0);
-                            	barsWalls.add(new BarsWall(barTransform));
+                            	objects.add(new BarsWall(barTransform));
                             }
                 			break;
                 		case 128:
-                        	naziSoldiers.add(new NaziSoldier(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
+                        	objects.add(new NaziSoldier(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
                 			break;
                 		case 1:
                             player = new Player(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0.5f, (j + 0.5f) * SPOT_LENGTH));
+                            objects.add(player);
                 			break;
                 		case 192:
-                            medkits.add(new Medkit(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
+                            objects.add(new Medkit(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
                 			break;
                 		case 100:
-                            trees.add(new Tree(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH)), "tree/MEDIA", 0.8f));
+                            objects.add(new Tree(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH)), "tree/MEDIA", 0.8f));
                 			break;
                 		case 101:
-                            trees.add(new Tree(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH)), "tree/SPDCQ0", Util.randomInRange(1, 3)));
+                            objects.add(new Tree(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH)), "tree/SPDCQ0", Util.randomInRange(1, 3)));
                 			break;
                 		case 102:
-                            grass.add(new Grass(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
+                            objects.add(new Grass(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
                 			break;
                 		case 50:
-                        	flares.add(new Lantern(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, LEVEL_HEIGHT * 0.75f, (j + 0.5f) * SPOT_LENGTH))));
+                        	objects.add(new Lantern(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, LEVEL_HEIGHT * 0.75f, (j + 0.5f) * SPOT_LENGTH))));
                 			break;
                 		case 51:
-                        	lamps.add(new Lamp(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
+                        	objects.add(new Lamp(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
                 			break;
                 		case 52:
                 			//left
-                        	lightPosts.add(new LightPost(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH)), false));
+                        	objects.add(new LightPost(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH)), false));
                 			break;
                 		case 53:
                 			//Right
-                        	lightPosts.add(new LightPost(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH)), true));
+                        	objects.add(new LightPost(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH)), true));
                 			break;
                 		case 55:
-                            bones.add(new Bones(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
+                            objects.add(new Bones(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
                 			break;
                 		case 60:
-                            deadNazi.add(new NaziSoldier(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
+                            objects.add(new DeadNazi(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
                 			break;
                 		case 65:
-                            chainguns.add(new Chaingun(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH)), true));
+                            objects.add(new Chaingun(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH)), true));
                 			break;
                 		case 67:
-                        	rocketLaunchers.add(new RocketLauncher(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH)), true));
+                        	objects.add(new RocketLauncher(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH)), true));
                 			break;
                 		case 70:
-                            deadJews.add(new DeadJew(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, -0.05f, (j + 0.5f) * SPOT_LENGTH))));
+                            objects.add(new DeadJew(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, -0.05f, (j + 0.5f) * SPOT_LENGTH))));
                 			break;
                 		case 73:
-                            rockets.add(new Rocket(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, -0.05f, (j + 0.5f) * SPOT_LENGTH)), true, 1));
+                            objects.add(new Rocket(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, -0.05f, (j + 0.5f) * SPOT_LENGTH)), true, 1));
                 			break;
                 		case 75:
-                            rockets.add(new Rocket(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, -0.05f, (j + 0.5f) * SPOT_LENGTH)), true, 10));
+                            objects.add(new Rocket(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, -0.05f, (j + 0.5f) * SPOT_LENGTH)), true, 10));
                 			break;
                 		case 80:
-                            foods.add(new Food(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
+                            objects.add(new Food(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
                 			break;
                 		case 90:
-                            dogs.add(new Dog(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
+                            objects.add(new Dog(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
                 			break;
                 		case 91:
-                            captains.add(new Captain(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH)), true));
+                            objects.add(new Captain(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH)), true));
                 			break;
                 		case 92:
-                            captains.add(new Captain(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH)), false));
+                            objects.add(new Captain(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH)), false));
                 			break;
                 		case 93:
-                            commanders.add(new Commander(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
+                            objects.add(new Commander(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
                             break;
                 		case 110:
-                            ssSoldiers.add(new SsSoldier(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
+                            objects.add(new SsSoldier(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
                             break;
                 		case 120:
-                        	tables.add(new Table(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
+                        	objects.add(new Table(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
                 			break;
                 		case 121:
-                        	furnaces.add(new Oven(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
+                        	objects.add(new Oven(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
                         	break;
                 		case 122:
-                			kitchens.add(new Kitchen(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
-                            foods.add(new Food(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
+                			objects.add(new Kitchen(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
+                            objects.add(new Food(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
                         break;
                 		case 123:
-                        	clocks.add(new Clock(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
+                        	objects.add(new Clock(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
                         	break;
                 		case 130:
-                        	superShotguns.add(new SuperShotgun(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH)), true));
+                        	objects.add(new SuperShotgun(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH)), true));
                 			break;
                 		case 140:
-                        	naziSeargeants.add(new NaziSergeant(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
+                        	objects.add(new NaziSergeant(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
                 			break;
                 		case 150:
-                        	pipes.add(new Pipe(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0.00000000001f * LEVEL_HEIGHT, (j + 0.5f) * SPOT_LENGTH))));
+                        	objects.add(new Pipe(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0.00000000001f * LEVEL_HEIGHT, (j + 0.5f) * SPOT_LENGTH))));
                 			break;
                 		case 151:
-                            pendules.add(new Pendule(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
+                            objects.add(new Pendule(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
                             break;
                 		case 152:
-                            hangeds.add(new Hanged(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
+                            objects.add(new Hanged(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
                             break;
                 		case 153:
-                            pillars.add(new Pillar(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0.0000000001f * LEVEL_HEIGHT, (j + 0.5f) * SPOT_LENGTH))));
+                            objects.add(new Pillar(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0.0000000001f * LEVEL_HEIGHT, (j + 0.5f) * SPOT_LENGTH))));
                 			break;
                 		case 154:
-                            armors.add(new Armor(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
+                            objects.add(new Armor(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
                             break;
                 		case 155:
-                		    helmets.add(new Helmet(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
+                		    objects.add(new Helmet(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
                             //barrels.add(new Barrel(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
                 		    break;
                 		case 156:
-                            shells.add(new Shell(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH)), true));
+                            objects.add(new Shell(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH)), true));
                             break;
                 		case 157:
-                            bags.add(new Bag(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
+                            objects.add(new Bag(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
                             break;
                 		case 158:
-                            bullets.add(new Bullet(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH)), true));
+                            objects.add(new Bullet(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH)), true));
                             break;
                 		case 169:
                 			//GoldKey
-                        	keys.add(new Key(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH)), true, true));
+                        	objects.add(new Key(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH)), true, true));
                 			break;
                 		case 170:
                 			//BronzeKey
-                        	keys.add(new Key(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH)), false, true));
+                        	objects.add(new Key(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH)), false, true));
                         	break;
                 		case 175:
-                            signs.add(new Sign(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
+                            objects.add(new Sign(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
                 			break;
                 		case 160:
-                            barrels.add(new Barrel(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
+                            objects.add(new Barrel(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
                 			break;
                 		case 166:
                 			//whom don't drop a key
-                        	zombies.add(new Zombie(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH)), false));
+                        	objects.add(new Zombie(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH)), false));
                 			break;
                 		case 167:
                 			//whom do drop a key
-                        	zombies.add(new Zombie(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH)), true));
+                        	objects.add(new Zombie(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH)), true));
                 			break;
                 		case 180:
                 			//whom do drop a key
-                        	ghosts.add(new Ghost(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
+                        	objects.add(new Ghost(new Transform(new Vector3f((i + 0.5f) * SPOT_WIDTH, 0, (j + 0.5f) * SPOT_LENGTH))));
                 			break;
                 	}
 
@@ -1439,7 +1505,7 @@ public class Level extends GameComponent {
         Integer[] intaArray = new Integer[indices.size()];
         vertices.toArray(vertaArray);
         indices.toArray(intaArray);
-        walls.add(new Wall(new Transform(), material, new Mesh(vertaArray, Util.toIntArray(intaArray), true, true)));
+        objects.add(new Wall(new Transform(), material, new Mesh(vertaArray, Util.toIntArray(intaArray), true, true)));
         
         if(directionalLight == null)
         	directionalLight = new DirectionalLight(new Vector3f(0.75f,0.75f,0.75f), 
@@ -1478,7 +1544,7 @@ public class Level extends GameComponent {
         indices.toArray(intArray);
         
         Mesh geometry = new Mesh(vertArray, Util.toIntArray(intArray), true, true);
-        walls.add(new Wall(new Transform(new Vector3f(i, 0, j)), material, geometry));
+        objects.add(new Wall(new Transform(new Vector3f(i, 0, j)), material, geometry));
     }
     
     /**
@@ -1487,55 +1553,55 @@ public class Level extends GameComponent {
      * @param sound to play
      * @param times to check patron
      */
-    private <E> void checkDamage(ArrayList<E> array, Clip sound, int times) {
-		for (E component : array) {
+    private void checkDamage(ArrayList<GameComponent> array, Clip sound, int times) {
+		for (GameComponent component : array) {
 			if(player.weaponType == player.BULLET && player.getWeaponState() != "chaingun") {
-				if (Math.abs(((GameComponent) component).getTransform().getPosition().sub(player.getCamera().getPos()).length()) < BULLET_RANGE && player.getBullets()!=0) {
+				if (Math.abs(component.getTransform().getPosition().distance(player.getCamera().getPos())) < BULLET_RANGE && player.getBullets()!=0) {
 					if(times == 3)
 						if(sound != null)
 							AudioUtil.playAudio(sound, 0);
-					((GameComponent) component).damage(player.getDamage());
+					component.damage(player.getDamage());
 				}
 			}else if(player.weaponType == player.BULLET && player.getWeaponState() == "chaingun" && player.chaingunCanFire) {
-				if (Math.abs(((GameComponent) component).getTransform().getPosition().sub(player.getCamera().getPos()).length()) < SHELL_RANGE && player.getShells()!=0) {
+				if (Math.abs(component.getTransform().getPosition().distance(player.getCamera().getPos())) < SHELL_RANGE && player.getShells()!=0) {
 					if(times == 3)
 						if(sound != null)
 							AudioUtil.playAudio(sound, 0);
-					((GameComponent) component).damage(player.getDamage());
+					component.damage(player.getDamage());
 				}
 			}else if(player.weaponType == player.SHELL) {
-				if (Math.abs(((GameComponent) component).getTransform().getPosition().sub(player.getCamera().getPos()).length()) < SHELL_RANGE && player.getShells()!=0) {
+				if (Math.abs(component.getTransform().getPosition().distance(player.getCamera().getPos())) < SHELL_RANGE && player.getShells()!=0) {
 					if(times == 2 || times == 3)
 						if(sound != null)
 							AudioUtil.playAudio(sound, 0);
-					((GameComponent) component).damage(player.getDamage());
+					component.damage(player.getDamage());
 				}
 			}else if(player.weaponType == player.MELEE) {
-				if (Math.abs(((GameComponent) component).getTransform().getPosition().sub(player.getCamera().getPos()).length()) < MELEE_RANGE && player.isAlive) {
+				if (Math.abs(component.getTransform().getPosition().distance(player.getCamera().getPos())) < MELEE_RANGE && player.isAlive) {
 					if(times == 1 || times == 3)
 						if(sound != null)
 							AudioUtil.playAudio(sound, 0);
-					((GameComponent) component).damage(player.getMeleeDamage());
+					component.damage(player.getMeleeDamage());
             	}
 			}else if(player.weaponType == player.ROCKET || player.weaponType == player.GAS && times == 69) {
-				if (Math.abs(((GameComponent) component).getTransform().getPosition().sub(player.getCamera().getPos()).length()) < 1.5f) {
-					setShootingObjective((GameComponent) component);
+				if (Math.abs(component.getTransform().getPosition().distance(player.getCamera().getPos())) < 1.5f) {
+					setShootingObjective(component);
 					if(player.weaponType == player.GAS)
-	            		addFire((GameComponent) component, true);
+	            		addFire(component, true);
 				}
 				
 			}		
 			if(player.kickCanHurt) {
-				if (Math.abs(((GameComponent) component).getTransform().getPosition().sub(player.getCamera().getPos()).length()) < MELEE_RANGE + 0.05f && player.isAlive) {
+				if (Math.abs(component.getTransform().getPosition().distance(player.getCamera().getPos())) < MELEE_RANGE + 0.05f && player.isAlive) {
 					if(times == 1 || times == 3)
 						if(sound != null)
 							AudioUtil.playAudio(sound, 0);
-					((GameComponent) component).damage(player.getMeleeDamage());
+					component.damage(player.getMeleeDamage());
             	}
 			}
 			
 			if((player.weaponType == player.MELEE == true || player.kickCanHurt) && times == 69) {
-				if (Math.abs(((GameComponent) component).getTransform().getPosition().sub(player.getCamera().getPos()).length()) < 1.25f && player.isAlive) {
+				if (Math.abs(component.getTransform().getPosition().distance(player.getCamera().getPos())) < 1.25f && player.isAlive) {
 					AudioUtil.playAudio(sound, 0);
 				}
 			}
@@ -1543,30 +1609,55 @@ public class Level extends GameComponent {
     }
     
     /**
-     * Adds a bleeding to the objects list.
+     * Makes a component bleed, if the particles level has blood.
      * @param component to bleed.
      */
     public <E> void addBleeding(E component) {
-    	if(PARTICLES_LEVEL >= 2) {
-	    	bleeding.add(new Bleed(new Transform(((GameComponent) component).getTransform().getPosition())));
-	    	objects.add(bleeding);
-    	}
+    	Vector3f position = ((GameComponent) component).getTransform().getPosition();
+    	bleeding.spawn(position.getX(), position.getY(), position.getZ());
     }
     
     /**
-     * Adds a fire to the objects list.
+     * Sets a component on fire, if the particles level has fire.
      * @param component to fire.
+     * @param isStatic if the fire stays where it started instead of
+     * following the component.
      */
     public <E> void addFire(E component, boolean isStatic) {
-    	if(PARTICLES_LEVEL >= 2) {
-	    	if(isStatic)
-	    		fire.add(new Fire(new Transform(((GameComponent) component).getTransform().getPosition().add(0.01f))));
-	    	else
-	    		fire.add(new Fire(((GameComponent) component).getTransform()));
-	    	objects.add(fire);
+    	Transform transform = ((GameComponent) component).getTransform();
+    	if(isStatic) {
+    		Vector3f position = transform.getPosition();
+    		fire.spawn(position.getX() + 0.01f, position.getY() + 0.01f, position.getZ() + 0.01f);
+    	} else {
+    		fire.spawn(transform);
     	}
     }
     
+    /**
+     * Makes an explosion go off.
+     * @param position of the explosion.
+     * @return Handle of the explosion, to check if it's still going.
+     */
+    public long addExplosion(Vector3f position) {return explosions.spawn(position.getX(), position.getY(), position.getZ());}
+    
+    /**
+     * Shoots a commander's rocket at the player.
+     * @param position to shoot from.
+     */
+    public void addMissile(Vector3f position) {missiles.spawn(position.getX(), position.getY(), position.getZ());}
+    
+    /**
+     * Throws a zombie's gib at the player.
+     * @param position to throw from.
+     */
+    public void addGib(Vector3f position) {gibs.spawn(position.getX(), position.getY(), position.getZ());}
+    
+    /**
+     * Returns the explosions of the level.
+     * @return Explosions.
+     */
+    public ParticleSystem getExplosions() {return explosions;}
+    
     /**
      * Returns the material of the level
      * @return material
@@ -1574,46 +1665,44 @@ public class Level extends GameComponent {
     public Material getMaterial() { return material; } 
 	
 	/**
-	 * Returns all the secret walls in the array-list.
-	 * @return Secret walls.
-	 */
-	public ArrayList<SecretWall> getSecretWalls() {return secretWalls;}
-	
-	/**
-	 * Returns all the Nazi soldiers in the array-list.
-	 * @return Nazi Soldiers.
-	 */
-	public ArrayList<NaziSoldier> getNaziSoldiers() {return naziSoldiers;}
-
-	/**
-	 * Returns all the Dogs in the array-list.
-	 * @return Dogs.
-	 */
-	public ArrayList<Dog> getDogs() {return dogs;}
-	
-	/**
-	 * Returns all the SS soldiers in the array-list.
-	 * @return SS soldiers.
-	 */
-	public ArrayList<SsSoldier> getSsSoldiers() {return ssSoldiers;}
-	
-	/**
-	 * Returns all the Nazi sergeants in the array-list.
-	 * @return Nazi sergeants.
-	 */
-	public ArrayList<NaziSergeant> getNaziSergeants() {return naziSeargeants;}
-	
-	/**
-	 * Returns all the zombies in the array-list.
-	 * @return zombies.
+	 * Counts the secrets of the level.
+	 * @param found if only the ones the player opened are counted.
+	 * @return Secrets.
 	 */
-	public ArrayList<Zombie> getZombies() {return zombies;}
+	public int countSecrets(boolean found) {
+		int count = 0;
+		ArrayList<Bucket> secrets = objects.query(Archetype.SECRET);
+		for (int i = 0; i < secrets.size(); i++) {
+			ArrayList<GameComponent> components = secrets.get(i).getComponents();
+			if (!found)
+				count += components.size();
+			else
+				for (int j = 0; j < components.size(); j++)
+					if (((SecretWall) components.get(j)).opens())
+						count++;
+		}
+		return count;
+	}
 	
 	/**
-	 * Returns all the captains in the array-list.
-	 * @return captains.
+	 * Counts the monsters of the level, the ones the stats count.
+	 * @param dead if only the dead ones are counted.
+	 * @return Monsters.
 	 */
-	public ArrayList<Captain> getCaptains() {return captains;}
+	public int countMonsters(boolean dead) {
+		int count = 0;
+		ArrayList<Bucket> monsters = objects.query(Archetype.MONSTER);
+		for (int i = 0; i < monsters.size(); i++) {
+			ArrayList<GameComponent> components = monsters.get(i).getComponents();
+			if (!dead)
+				count += components.size();
+			else
+				for (int j = 0; j < components.size(); j++)
+					if (!((Agent) components.get(j)).isAlive())
+						count++;
+		}
+		return count;
+	}
 	
 	/**
 	 * Get access to the main player object in game.
@@ -1640,117 +1729,10 @@ public class Level extends GameComponent {
 	public void setShootingObjective(GameComponent shootingObjective) { this.shootingObjective = shootingObjective; }
 	
 	/**
-	  * Removes the medical kits when the player grabs it.
-	  * @param medkit Medical kit.
-	  */
-	public static void removeMedkit(Medkit medkit) {removeMedkitList.add(medkit);}
-	    
-	/**
-	 * Removes the food when the player grabs it.
-	 * @param food Food.
-	 */
-	public static void removeFood(Food food) {removeFoodList.add(food);}
-	    
-	/**
-	 * Removes the bullet packs when the player grabs it.
-	 * @param bullet Bullet pack.
-	 */
-	public static void removeBullets(Bullet bullet) {removeBulletList.add(bullet);}
-	
-	/**
-	 * Removes the shell packs when the player grabs it.
-	 * @param shell Shell pack.
-	 */
-	public static void removeShells(Shell shell) {removeShellList.add(shell);}
-	    
-	/**
-	 * Removes the bags when the player grabs it.
-	 * @param bag Bag.
-	 */
-	public static void removeBags(Bag bag) {removeBagList.add(bag);}
-	    
-	/**
-	 * Removes the shotguns when the player grabs it.
-	 * @param shotgun Shotgun.
-	 */
-	public static void removeShotgun(Shotgun shotgun) {removeShotgunList.add(shotgun);}
-	    
-	/**
-	 * Removes the machine-guns when the player grabs it.
-	 * @param machineGun Machine-Gun.
-	 */
-	public static void removeMachineGun(Machinegun machineGun) {removeMachineGunList.add(machineGun);}
-	
-	/**
-	 * Removes the ghost when disappears.
-	 * @param ghost Ghost.
-	 */
-	public static void removeGhost(Ghost ghost) {removeGhostList.add(ghost);}
-	
-	/**
-	 * Removes the armor when disappears.
-	 * @param armor Armor.
-	 */
-	public static void removeArmor(Armor armor) {removeArmorList.add(armor);}
-	
-	/**
-	 * Removes the super shotguns when the player grabs it.
-	 * @param sShotgun Super shotgun.
-	 */
-	public static void removeSuperShotgun(SuperShotgun sShotgun) {removeSuperShotgunList.add(sShotgun);}
-	
-	/**
-	 * Removes the helmet when disappears.
-	 * @param helmet Helmet.
-	 */
-	public static void removeHelmet(Helmet helmet) {removeHelmets.add(helmet);}
-	
-	/**
-	 * Removes the barrel when disappears.
-	 * @param barrel Barrels.
-	 */
-	public static void removeBarrel(Barrel barrel) {removeBarrels.add(barrel);}
-
-	/**
-	 * Removes the key when disappears.
-	 * @param key keys.
-	 */
-	public static void removeArmor(Key key) { removeKeys.add(key); }
-	
-	/**
-	 * Removes the explosion when disappears.
-	 * @param explosion explosions.
-	 */
-	public static void removeExplosion(Explosion explosion) { removeExplosions.add(explosion); }
-	
-	/**
-	 * Removes the chain-gun when the player grabs it.
-	 * @param chaingun chain-gun.
-	 */
-	public static void removeChainGun(Chaingun chaingun) {removeChaingunList.add(chaingun);}
-	
-	/**
-	 * Removes the rocket when disappears.
-	 * @param rocket rocket.
-	 */
-	public static void removeRockets(Rocket rocket) { removeRockets.add(rocket); }
-	
-	/**
-	 * Removes the bleeding when disappears.
-	 * @param bleed bleed.
-	 */
-	public static void removeBleeding(Bleed bleed) { removeBleedingList.add(bleed); }
-	
-	/**
-	 * Removes the rocket launcher when the player grabs it.
-	 * @param rocketLauncher rocket launcher.
-	 */
-	public static void removeRocketLauncher(RocketLauncher rocketLauncher) {removeRocketLauncherList.add(rocketLauncher);}
-	
-	/**
-	 * Removes the fire when disappears.
-	 * @param fire fire.
+	 * Takes a component out of the level at the end of the tick,
+	 * like a pick-up the player grabbed or a particle that's over.
+	 * @param component to destroy.
 	 */
-	public static void removeFire(Fire fire) { removeFireList.add(fire); }
+	public void destroy(GameComponent component) {objects.destroy(component);}
 
 }
\ No newline at end of file
@@ -23,7 +23,6 @@ import java.util.Random;
 
 import javax.sound.sampled.Clip;
 
-import org.lwjgl.opengl.Display;
 
 import engine.audio.AudioUtil;
 import engine.components.Attenuation;
@@ -31,12 +30,16 @@ import engine.components.Camera;
 import engine.components.GameComponent;
 import engine.components.MeshRenderer;
 import engine.components.SpotLight;
+import engine.core.CoreEngine;
 import engine.core.Debug;
 import engine.core.Input;
 import engine.core.Time;
 import engine.core.Transform;
 import engine.core.Vector2f;
 import engine.core.Vector3f;
+import engine.core.utils.RandomUtil;
+import engine.particles.ParticleSystem;
+import engine.physics.RaycastQuery;
 import engine.rendering.Material;
 import engine.rendering.Mesh;
 import engine.rendering.RenderingEngine;
@@ -145,14 +148,11 @@ public class Player extends GameComponent {
     private static ArrayList<Clip> playerJumpNoises;
     private static ArrayList<Clip> flashLightNoises;
     
-    private static ArrayList<pRocket> rocketsArray;
-    private static ArrayList<pRocket> removeRockets;
-    private static ArrayList<Flame> flamesArray;
-    private static ArrayList<Flame> removeFlames;
-    private static ArrayList<Bleed> bleedingArray;
-    private static ArrayList<Bleed> removeBleedingList;
+    private static ParticleSystem missiles;
+    private static ParticleSystem flames;
+    private static ParticleSystem bleeding;
 
-    private static final Vector2f centerPosition = new Vector2f(Display.getWidth()/2, Display.getHeight()/2);
+    private static final Vector2f centerPosition = new Vector2f(Window.getWidth()/2, Window.getHeight()/2);
     private static final Vector3f zeroVector = new Vector3f(0, 0, 0);
     
     private static float toTerrain = 0;
@@ -184,6 +184,10 @@ public class Player extends GameComponent {
     private Camera camera;
     private Random rand;
     private Vector3f movementVector;
+    private Vector3f forwardVector;
+    private Vector3f moveVector;
+    private Vector3f gunVector;
+    private String ammoTexture;
     private Vector3f gunLightColor;
     
     private SpotLight fireLight;
@@ -218,6 +222,7 @@ public class Player extends GameComponent {
     private boolean rocketLauncher;
     private boolean flameThrower;
     private boolean isInAir = false;
+    private RaycastQuery shots = new RaycastQuery();
     
     public boolean mouseLocked;
     public boolean isFlashLightOn;
@@ -467,14 +472,11 @@ public class Player extends GameComponent {
     	flashLight = new SpotLight(new Vector3f(0.5f,0.5f,0.275f), 0.8f, 
     	    	new Attenuation(0.1f,0.1f,0.1f), new Vector3f(-2,0,5f), new Vector3f(1,1,1), 0.7f);
 		fireLight = new SpotLight(gunLightColor, 1.6f, 
-        		new Attenuation(attenuation,0,attenuation), getCamera().getPos(), new Vector3f(1,1,1), 0.7f);
+        		new Attenuation(attenuation,0,attenuation), new Vector3f(getCamera().getPos()), new Vector3f(1,1,1), 0.7f);
         
-        rocketsArray = new ArrayList<pRocket>();
-        removeRockets = new ArrayList<pRocket>();
-        flamesArray = new ArrayList<Flame>();
-        removeFlames = new ArrayList<Flame>();
-        bleedingArray = new ArrayList<Bleed>();
-        removeBleedingList = new ArrayList<Bleed>();
+        missiles = new ParticleSystem(new pRocket(true));
+        flames = new ParticleSystem(new Flame());
+        bleeding = new ParticleSystem(new Bleed(Bleed.PLAYER_LIMITS));
 
         toGround = gunTransform.getPosition().getY();
         kickingTime = 0;
@@ -485,9 +487,15 @@ public class Player extends GameComponent {
         isAlive = true;
         Input.setMousePosition(centerPosition);
         Input.setCursor(false);
-        movementVector = zeroVector;
+        movementVector = new Vector3f(0, 0, 0);
+        forwardVector = new Vector3f(0, 0, 0);
+        moveVector = new Vector3f(0, 0, 0);
+        gunVector = new Vector3f(0, 0, 0);
+        ammoTexture = "EMPTY";
         width = PLAYER_WIDTH;
-        rand = new Random();
+        rand = RandomUtil.getRandom();
+        //Without a display the player is never rendered, so it can't wait for render to hand it over
+        renderingEngine = CoreEngine.getRenderingEngine();
         goldkey = false;
         bronzekey = false;
         Debug.init(this);
@@ -840,7 +848,9 @@ public class Player extends GameComponent {
 		            Vector2f lineStart = camera.getPos().getXZ();
 		            Vector2f lineEnd = lineStart.add(shootDirection.mul(1000.0f));
 		
-		            Auschwitz.getLevel().checkIntersections(lineStart, lineEnd, true);
+		            shots.clear();
+		            shots.addRay(lineStart, lineEnd);
+		            Auschwitz.getLevel().fire(shots);
 	            	
 		            if(weaponType == MELEE) {
 		            	AudioUtil.playAudio(gunNoise, 0);
@@ -866,12 +876,12 @@ public class Player extends GameComponent {
 		            } else if(rockets != 0 && weaponType == ROCKET) {
 		            	AudioUtil.playAudio(gunNoise, 0);
 		            	addRockets(-1);
-		            	rocketsArray.add(new pRocket(new Transform(gunTransform.getPosition()), true));
+		            	missiles.spawn(gunTransform.getPosition().getX(), gunTransform.getPosition().getY(), gunTransform.getPosition().getZ());
 		            	gunFireTime = Time.getTime();
 		            } else if(gas != 0 && weaponType == GAS) {
 		            	AudioUtil.playAudio(gunNoise, 0);
 		            	addGas(-1);
-		            	flamesArray.add(new Flame(new Transform(new Vector3f(gunTransform.getPosition().getX(), 0, gunTransform.getPosition().getZ()))));
+		            	flames.spawn(gunTransform.getPosition().getX(), 0, gunTransform.getPosition().getZ());
 		            	gunFireTime = Time.getTime();
 		            }
 	            }
@@ -891,26 +901,26 @@ public class Player extends GameComponent {
             	}
             }
 	
-	        movementVector = zeroVector;
+	        movementVector.set(0, 0, 0);
 	        if(!isInAir) {
 		        if(Input.getKeyDown(Input.KEY_W) || Input.getKeyDown(Input.KEY_UP) ||
 		        		Input.getKeyDown(Input.KEY_S) || Input.getKeyDown(Input.KEY_DOWN)
 		        		|| Input.getKeyDown(Input.KEY_A) || Input.getKeyDown(Input.KEY_D)) {
-		        	AudioUtil.playAudio(playerMovementNoises.get(new Random().nextInt(playerMovementNoises.size())), 0);
+		        	AudioUtil.playAudio(playerMovementNoises.get(RandomUtil.nextInt(playerMovementNoises.size())), 0);
 		        }
 	        }
 	        		
 	        if (Input.getKey(Input.KEY_W)) {
-	            movementVector = movementVector.add(camera.getForward());
+	            movementVector.addInto(camera.getForwardInto(forwardVector), movementVector);
 	        }
 	        if (Input.getKey(Input.KEY_S)) {
-	            movementVector = movementVector.sub(camera.getForward());
+	            movementVector.subInto(camera.getForwardInto(forwardVector), movementVector);
 	        }
 	        if (Input.getKey(Input.KEY_A)) {
-	            movementVector = movementVector.add(camera.getLeft());
+	            movementVector.addInto(camera.getLeft(), movementVector);
 	        }
 	        if (Input.getKey(Input.KEY_D)) {
-	            movementVector = movementVector.add(camera.getRight());
+	            movementVector.addInto(camera.getRight(), movementVector);
 	        }
 	        /**
 	        if(Input.getKey(Input.KEY_LEFT)) {
@@ -921,9 +931,9 @@ public class Player extends GameComponent {
             }*/
             if (Input.getKey(Input.KEY_SPACE)) {
             	if(!isInAir) {
-            		AudioUtil.playAudio(playerJumpNoises.get(new Random().nextInt(playerJumpNoises.size())), 0);
+            		AudioUtil.playAudio(playerJumpNoises.get(RandomUtil.nextInt(playerJumpNoises.size())), 0);
             		upAmt = JUMP_POWER;
-            		movementVector = movementVector.add(camera.getForward());
+            		movementVector.addInto(camera.getForwardInto(forwardVector), movementVector);
             		isInAir = true;
             	}
 	        }
@@ -943,7 +953,7 @@ public class Player extends GameComponent {
 	             amt; } }
 	            
 	            if (rotY || rotX) {
-	                Input.setMousePosition(new Vector2f(Display.getWidth() / 2, Display.getHeight() / 2));
+	                Input.setMousePosition(centerPosition);
 	            }
 	        }
     	}
@@ -966,7 +976,7 @@ public class Player extends GameComponent {
     		toTerrain = 0.15f;
     	}
     	
-    	camera.setPos(camera.getPos().add(new Vector3f(0, (float) (upAmt * delta), 0)));
+    	camera.getPos().setY(camera.getPos().getY() + (float) (upAmt * delta));
         if(camera.getPos().getY() < toTerrain) {
         	upAmt = 0;
         	camera.getPos().setY(toTerrain);
@@ -978,11 +988,11 @@ public class Player extends GameComponent {
         movementVector.setY(0);
 
         Vector3f oldPos = camera.getPos();
-        Vector3f newPos = oldPos.add(movementVector.normalized().mul(movAmt));
+        Vector3f newPos = oldPos.addInto(movementVector.normalizedInto(moveVector).mulInto(movAmt, moveVector), moveVector);
 
-        Vector3f collisionVector = Auschwitz.getLevel().checkCollisions(oldPos, newPos, width, width);
+        Vector3f collisionVector = Auschwitz.getLevel().checkCollisionsInto(oldPos, newPos, width, width, moveVector);
 
-        movementVector = movementVector.normalized().mul(collisionVector);
+        movementVector.normalizedInto(movementVector).mulInto(collisionVector, movementVector);
 
         if (movementVector.length() > 0 && isAlive) {
         	float bobOscillate = (float) Math.sin(time * moveSpeed * (2 * Math.PI));
@@ -993,13 +1003,14 @@ public class Player extends GameComponent {
 
         //Gun movement
         gunTransform.setScale(1,1,1);
-		gunTransform.setPosition(camera.getPos().add(camera.getForward().normalized().mul(gunTransformMultiplicator)));
+		Vector3f gunOffset = camera.getForwardInto(forwardVector).normalizedInto(gunVector).mulInto(gunTransformMultiplicator, gunVector);
+		gunTransform.setPosition(camera.getPos().getX() + gunOffset.getX(), camera.getPos().getY() + gunOffset.getY(), camera.getPos().getZ() + gunOffset.getZ());
 		gunTransform.getPosition().setX(gunTransform.getPosition().getX() + dx);
 		gunTransform.getPosition().setY(gunTransform.getPosition().getY() + dy);
 
-        Vector3f playerDistance = gunTransform.getPosition().sub(camera.getPos());
+        Vector3f playerDistance = gunTransform.getPosition().subInto(camera.getPos(), gunVector);
 
-        Vector3f orientation = playerDistance.normalized();
+        Vector3f orientation = playerDistance.normalizedInto(forwardVector);
         
         setDistance(playerDistance.length());
 
@@ -1012,15 +1023,15 @@ public class Player extends GameComponent {
         
         if(isFlashLightOn) {
 	        flashLight.setPosition(getCamera().getPos());
-	        flashLight.setDirection(getCamera().getForward());
+	        flashLight.setDirection(getCamera().getForwardInto(forwardVector));
         }
         if(!isShooting && (weaponType != MELEE || weaponType != GAS) && renderingEngine != null)
         	renderingEngine.removeLight(fireLight);
         if(fires) {
         	fireLight.setColor(gunLightColor);
-	        fireLight.setAtten(new Attenuation(attenuation,0, attenuation));
-	        fireLight.setPosition(new Vector3f(getCamera().getPos().getX(), 0, getCamera().getPos().getZ()));
-	        fireLight.setDirection(getCamera().getForward());
+	        fireLight.getAtten().set(attenuation,0, attenuation);
+	        fireLight.getPosition().set(getCamera().getPos().getX(), 0, getCamera().getPos().getZ());
+	        fireLight.setDirection(getCamera().getForwardInto(forwardVector));
         }
         
         double gunTime = gunFireTime + gunFireAnimationTime;
@@ -1028,38 +1039,28 @@ public class Player extends GameComponent {
     	double gunTime3 = gunTime2 + gunFireAnimationTime;
     	double gunTime4 = gunTime3 + gunFireAnimationTime;
     	
-    	if(!rocketsArray.isEmpty())
-    		for(pRocket rocket : rocketsArray)
-    			rocket.update(delta);
-    	if(!flamesArray.isEmpty())
-    		for(Flame flame : flamesArray)
-    			flame.update(delta);
-    	if(!bleedingArray.isEmpty() && PARTICLES_LEVEL >= 1) {
-    		for(Bleed bleed : bleedingArray) {
-    			bleed.update(delta);
-    			if(bleed.getState() == 2)
-    				removeBleedingList.add(bleed);
-    		}
-    	}
+    	missiles.update(delta);
+    	flames.update(delta);
+    	bleeding.update(delta);
     	
     	switch(weaponType) {
     		case MELEE:
     			currentAmmo = 0;
     		break;
     		case BULLET:
-    			playerText.get("AmmoHUD").setMaterial(new Material(new Texture("bullet/MEDIA")));
+    			setAmmoTexture("bullet/MEDIA");
     			currentAmmo = getBullets();
     		break;
     		case SHELL:
-    			playerText.get("AmmoHUD").setMaterial(new Material(new Texture("shell/MEDIA")));
+    			setAmmoTexture("shell/MEDIA");
     			currentAmmo = getShells();
     		break;
     		case ROCKET:
-    			playerText.get("AmmoHUD").setMaterial(new Material(new Texture("rocket/MEDIA1")));
+    			setAmmoTexture("rocket/MEDIA1");
     			currentAmmo = getRockets();
     		break;
     		case GAS:
-    			playerText.get("AmmoHUD").setMaterial(new Material(new Texture(FLAME_THROWER_RES_LOC+"FLMTF0")));
+    			setAmmoTexture(FLAME_THROWER_RES_LOC+"FLMTF0");
     			currentAmmo = getGas();
     		break;
     	}
@@ -1212,20 +1213,6 @@ public class Player extends GameComponent {
     	        }
         		break;
         }
-		
-		if(!removeRockets.isEmpty())
-			for (pRocket rocketToDelete : removeRockets) 
-				rocketsArray.remove(rocketToDelete);
-		if(!removeFlames.isEmpty())
-			for (Flame flameToDelete : removeFlames) 
-				flamesArray.remove(flameToDelete);
-		if(!removeBleedingList.isEmpty())
-			for (Bleed bleedToDelete : removeBleedingList) 
-				bleedingArray.remove(bleedToDelete); 
-		
-		removeRockets.clear();
-		removeFlames.clear();
-		removeBleedingList.clear();
     }
 
     /**
@@ -1253,15 +1240,9 @@ public class Player extends GameComponent {
 	        if(time < notificationTime + 2.5f) playerText.get("Notification").render(renderingEngine);
     	}
 
-    	if(!rocketsArray.isEmpty())
-    		for(pRocket rocket : rocketsArray)
-    			rocket.render(shader, renderingEngine);
-    	if(!flamesArray.isEmpty())
-    		for(Flame flame : flamesArray)
-    			flame.render(shader, renderingEngine);
-    	if(!bleedingArray.isEmpty() && PARTICLES_LEVEL >= 1)
-    		for(Bleed bleed : bleedingArray)
-    			bleed.render(shader, renderingEngine);
+    	missiles.render(shader, renderingEngine);
+    	flames.render(shader, renderingEngine);
+    	bleeding.render(shader, renderingEngine);
         
         if(gunRenderer != null)gunRenderer.render(shader, renderingEngine);
         if (trowsKick) legRenderer.render(shader, renderingEngine);
@@ -1314,7 +1295,7 @@ public class Player extends GameComponent {
         } else {
             if (amt < 0) {
             	if(provider != "FIRE")
-            		bleedingArray.add(new Bleed(new Transform(getTransform().getPosition().add(0.01f))));
+            		bleeding.spawn(getTransform().getPosition().getX() + 0.01f, getTransform().getPosition().getY() + 0.01f, getTransform().getPosition().getZ() + 0.01f);
                 AudioUtil.playAudio(playerNoises.get(2), 0);
             }
         }
@@ -1622,7 +1603,7 @@ public class Player extends GameComponent {
      * all of this in a Vector2f.
      * @return vector with the size.
      */
-    public Vector2f getSize() {return new Vector2f(PLAYER_WIDTH, PLAYER_WIDTH);}
+    public Vector2f getSize() {return getSize(PLAYER_WIDTH, PLAYER_WIDTH);}
 
     /**
      * Returns all the damage that the player could do, depending of the
@@ -1833,6 +1814,18 @@ public class Player extends GameComponent {
 	 */
 	public float getSpeed() { return moveSpeed; }
 	
+	/**
+	 * Shows the ammo of the weapon on the HUD, the material is only
+	 * made again when the weapon changes.
+	 * @param texture of the ammo.
+	 */
+	private void setAmmoTexture(String texture) {
+		if(texture.equals(ammoTexture))
+			return;
+		ammoTexture = texture;
+		playerText.get("AmmoHUD").setMaterial(new Material(new Texture(texture)));
+	}
+
 	/**
 	 * Returns the player's movement vector.
 	 * @return movement vector
@@ -1844,17 +1837,5 @@ public class Player extends GameComponent {
 	 * @return player's transform
 	 */
 	public Transform getTransform() { return gunTransform; }
-	
-	/**
-	 * Removes the rocket when disappears.
-	 * @param rocket rocket.
-	 */
-	public void removeRocket(pRocket rocket) { removeRockets.add(rocket); }
-	
-	/**
-	 * Removes the flame when disappears.
-	 * @param flame flame.
-	 */
-	public void removeFlame(Flame flame) { removeFlames.add(flame); }
 
 }
\ No newline at end of file
@@ -22,14 +22,16 @@ import javax.sound.sampled.Clip;
 
 import engine.audio.AudioUtil;
 import engine.components.Attenuation;
+import engine.components.Agent;
 import engine.components.GameComponent;
 import engine.components.MeshRenderer;
 import engine.components.SpotLight;
+import engine.core.Scratch;
 import engine.core.Time;
 import engine.core.Transform;
 import engine.core.Vector2f;
 import engine.core.Vector3f;
-import engine.physics.PhysicsUtil;
+import engine.core.utils.RandomUtil;
 import engine.rendering.Material;
 import engine.rendering.Mesh;
 import engine.rendering.RenderingEngine;
@@ -43,7 +45,6 @@ import game.pickUps.Bullet;
 import game.pickUps.Chaingun;
 import game.pickUps.Key;
 import game.pickUps.RocketLauncher;
-import game.projectiles.pRocket;
 
 /**
  *
@@ -51,7 +52,7 @@ import game.projectiles.pRocket;
  * @version 1.3
  * @since 2019
  */
-public class Commander extends GameComponent {
+public class Commander extends GameComponent implements Agent {
 
     private static final float MAX_HEALTH = 10000f;
     private static final float SHOT_ANGLE = 30.0f;
@@ -80,13 +81,17 @@ public class Commander extends GameComponent {
     private static final Clip deathNoise = AudioUtil.loadAudio(AUDIO_RES_LOC + "dying");
 
     private static ArrayList<Texture> animation;
-    private static ArrayList<pRocket> rockets;
-    private static ArrayList<pRocket> removeRockets;
     private static Mesh mesh;
     private static Random rand;
     private float sizeX;
 
     private Transform transform;
+    private final Vector3f distanceVector = new Vector3f(0, 0, 0);
+    private final Vector3f orientationVector = new Vector3f(0, 0, 0);
+    private final Vector3f targetVector = new Vector3f(0, 0, 0);
+    private final Vector2f directionVector = new Vector2f(0, 0);
+    private final Vector3f headingVector = new Vector3f(0, 0, 0);
+    private final Vector3f moveVector = new Vector3f(0, 0, 0);
     private Material material;
     private MeshRenderer meshRenderer;
     private Chaingun chaingun;
@@ -108,10 +113,7 @@ public class Commander extends GameComponent {
      * @param transform the transform of the data.
      */
     public Commander(Transform transform) {
-        rand = new Random();
-    
-    	rockets = new ArrayList<pRocket>();
-    	removeRockets = new ArrayList<pRocket>();
+        rand = RandomUtil.getRandom();
 
         animation = new ArrayList<Texture>();
 
@@ -159,6 +161,7 @@ public class Commander extends GameComponent {
         }
         
         this.transform = transform;
+        this.transform.setBillboard(true);
         this.material = new Material(animation.get(0));
         this.meshRenderer = new MeshRenderer(mesh, getTransform(), material);
         this.light = new SpotLight(new Vector3f(0.5f,0.3f,0.1f), 0.8f, 
@@ -183,30 +186,20 @@ public class Commander extends GameComponent {
         //Set Height
         transform.setPosition(transform.getPosition().getX(), 0, transform.getPosition().getZ());
         
-        Vector3f playerDistance = transform.getPosition().sub(Level.getPlayer().getCamera().getPos());
+        Vector3f playerDistance = transform.getPosition().subInto(Level.getPlayer().getCamera().getPos(), distanceVector);
 
-        Vector3f orientation = playerDistance.normalized();
+        Vector3f orientation = playerDistance.normalizedInto(orientationVector);
         float distance = playerDistance.length();
         setDistance(distance);
 
-        float angle = (float) Math.toDegrees(Math.atan(orientation.getZ() / orientation.getX()));
-
-        if (orientation.getX() > 0)
-            angle = 180 + angle;
-
-        transform.setRotation(0, angle + 90, 0);
-        
-    	for(pRocket rocket : rockets)
-    		rocket.update(delta);
-
         //Action/Animation
         double time = Time.getTime();
 
         if (!dead && health <= 0) {
-        	rocketLauncher = new RocketLauncher(new Transform(transform.getPosition()), false);
-        	chaingun = new Chaingun(new Transform(transform.getPosition()), false);
-            bullet = new Bullet(new Transform(transform.getPosition()), false);
-        	key = new Key(new Transform(transform.getPosition()), false, false);
+        	rocketLauncher = new RocketLauncher(new Transform(new Vector3f(transform.getPosition())), false);
+        	chaingun = new Chaingun(new Transform(new Vector3f(transform.getPosition())), false);
+            bullet = new Bullet(new Transform(new Vector3f(transform.getPosition())), false);
+        	key = new Key(new Transform(new Vector3f(transform.getPosition())), false, false);
             dead = true;
             deathTime = time;
             state = STATE_DYING;
@@ -220,9 +213,9 @@ public class Commander extends GameComponent {
         if (!dead) {
             Player player = Level.getPlayer();
 
-            Vector2f playerDirection = transform.getPosition().sub(
-                    player.getCamera().getPos().add(
-                            new Vector3f(player.getSize().getX(), 0, player.getSize().getY()).mul(0.5f))).getXZ().normalized();
+            Vector2f playerDirection = transform.getPosition().subInto(
+                    player.getCamera().getPos().addInto(
+                            targetVector.set(player.getSize().getX() * 0.5f, 0, player.getSize().getY() * 0.5f), targetVector), targetVector).getXZInto(directionVector).normalizedInto(directionVector);
 
             switch(state) {
             	case STATE_IDLE:
@@ -235,14 +228,7 @@ public class Commander extends GameComponent {
                     } else {
                         material.setDiffuse(animation.get(0));
                         if (canLook) {
-                            Vector2f lineStart = transform.getPosition().getXZ();
-                            Vector2f lineEnd = lineStart.sub(playerDirection.mul(1000.0f));
-
-                            Vector2f nearestIntersect = Auschwitz.getLevel().checkIntersections(lineStart, lineEnd, false);
-                            Vector2f playerIntersect = PhysicsUtil.lineIntersectRect(lineStart, lineEnd, player.getCamera().getPos().getXZ(), player.getSize());
-
-                            if (playerIntersect != null && (nearestIntersect == null
-                                    || nearestIntersect.sub(lineStart).length() > playerIntersect.sub(lineStart).length())) {
+                            if (Auschwitz.getLevel().canSeePlayer(transform.getPosition())) {
                                 AudioUtil.playAudio(seeNoise, distance);
                                 state = STATE_CHASE;
                             }
@@ -259,21 +245,24 @@ public class Commander extends GameComponent {
 
                     if (distance > 3.0f) {
                         orientation.setY(0);
+                        Auschwitz.getLevel().chase(transform.getPosition(), orientation);
                         float moveSpeed = 1.75f;
 
                         Vector3f oldPos = transform.getPosition();
-                        Vector3f newPos = transform.getPosition().add(orientation.mul((float) (-moveSpeed * delta)));
+                        Vector3f newPos = oldPos.addInto(orientation.mulInto((float) (-moveSpeed * delta), targetVector), targetVector);
 
-                        Vector3f collisionVector = Auschwitz.getLevel().checkCollisions(oldPos, newPos, NAZI_WIDTH, NAZI_WIDTH);
+                        Vector3f collisionVector = Auschwitz.getLevel().checkCollisionsInto(oldPos, newPos, NAZI_WIDTH, NAZI_WIDTH, moveVector);
 
-                        Vector3f movementVector = collisionVector.mul(orientation.normalized());
+                        Vector3f heading = orientation.normalizedInto(headingVector);
+                        Vector3f movementVector = collisionVector.mulInto(heading, collisionVector);
 
-                        if (!movementVector.equals(orientation.normalized())) {
+                        if (!movementVector.equals(heading)) {
                             Auschwitz.getLevel().openDoors(transform.getPosition(), false);
                         }
 
                         if (movementVector.length() > 0) {
-                            transform.setPosition(transform.getPosition().add(movementVector.mul((float) (-moveSpeed * delta))));
+                            float step = (float) (-moveSpeed * delta);
+                            transform.setPosition(oldPos.getX() + movementVector.getX() * step, oldPos.getY() + movementVector.getY() * step, oldPos.getZ() + movementVector.getZ() * step);
                         }
                     } else {
                         state = STATE_ATTACK;
@@ -307,21 +296,20 @@ public class Commander extends GameComponent {
                         AudioUtil.playAudio(shootNoise, distance);
                     } else if (timeDecimals <= 0.7f) {
                         if (canAttack) {
-                        	light.setPosition(transform.getPosition());
-                            light.setDirection(orientation.mul(-1));
+                        	light.getPosition().set(transform.getPosition());
+                            light.setDirection(orientation.mulInto(-1, targetVector));
                             light.addToEngine();
-                            Vector2f shootDirection = playerDirection.rotate((rand.nextFloat() - 0.5f) * SHOT_ANGLE);
+                            Scratch.begin();
+                            Vector2f shootDirection = playerDirection.rotateInto((rand.nextFloat() - 0.5f) * SHOT_ANGLE, Scratch.vector2(0, 0));
 
-                            Vector2f lineStart = transform.getPosition().getXZ();
-                            Vector2f lineEnd = lineStart.sub(shootDirection.mul(1000.0f));
+                            Vector2f lineStart = transform.getPosition().getXZInto(Scratch.vector2(0, 0));
+                            Vector2f lineEnd = lineStart.subInto(shootDirection.mulInto(1000.0f, shootDirection), Scratch.vector2(0, 0));
 
-                            Vector2f nearestIntersect = Auschwitz.getLevel().checkIntersections(lineStart, lineEnd, false);
+                            boolean hit = Auschwitz.getLevel().reachesPlayer(lineStart, lineEnd);
+                            Scratch.end();
                             canAttack = false;
 
-                            Vector2f playerIntersect = PhysicsUtil.lineIntersectRect(lineStart, lineEnd, player.getCamera().getPos().getXZ(), player.getSize());
-
-                            if (playerIntersect != null && (nearestIntersect == null
-                                    || nearestIntersect.sub(lineStart).length() > playerIntersect.sub(lineStart).length())) {
+                            if (hit) {
 
                             	float damage;
                                 if(player.getHealth() <= 0) {
@@ -347,10 +335,10 @@ public class Commander extends GameComponent {
                         AudioUtil.playAudio(loadNoise, distance);
                         state = STATE_ROCKET;
                         if (canAttack) {
-                        	light.setPosition(transform.getPosition());
-                            light.setDirection(orientation.mul(-1));
+                        	light.getPosition().set(transform.getPosition());
+                            light.setDirection(orientation.mulInto(-1, targetVector));
                             light.addToEngine();
-                            rockets.add(new pRocket(new Transform(new Vector3f(getTransform().getPosition().getX(), 0.5f, getTransform().getPosition().getZ())), false));
+                            Auschwitz.getLevel().addMissile(new Vector3f(getTransform().getPosition().getX(), 0.5f, getTransform().getPosition().getZ()));
                             AudioUtil.playAudio(rocketNoise, distance);
                             canAttack = false;
                         }
@@ -432,11 +420,6 @@ public class Commander extends GameComponent {
             	material.setDiffuse(animation.get(15)); 
         		break;
         }
-        
-		for (pRocket rocketToDelete : removeRockets) 
-			rockets.remove(rocketToDelete);   
-		
-		removeRockets.clear();
     }
 
     /**
@@ -452,7 +435,7 @@ public class Commander extends GameComponent {
 
         if (health > 0 && amt > 0) {
         	state = STATE_HIT;
-        	AudioUtil.playAudio(hitNoise, transform.getPosition().sub(Level.getPlayer().getCamera().getPos()).length());     	
+        	AudioUtil.playAudio(hitNoise, transform.getPosition().distance(Level.getPlayer().getCamera().getPos()));     	
         }
     }
 
@@ -462,11 +445,10 @@ public class Commander extends GameComponent {
      * @param renderingEngine to use
      */
     public void render(Shader shader, RenderingEngine renderingEngine) {
-        Vector3f prevPosition = transform.getPosition();
-        transform.setPosition(new Vector3f(transform.getPosition().getX() + offsetX, transform.getPosition().getY() + offsetY, transform.getPosition().getZ()));
-        
-    	for(pRocket rocket : rockets)
-    		rocket.render(shader, renderingEngine);
+        Vector3f position = transform.getPosition();
+        float x = position.getX();
+        float y = position.getY();
+        transform.setPosition(x + offsetX, y + offsetY, position.getZ());
         
         if (state == STATE_DEAD) {
         	rocketLauncher.render(shader, renderingEngine);
@@ -477,7 +459,7 @@ public class Commander extends GameComponent {
         
         meshRenderer.render(shader, renderingEngine);
 
-        transform.setPosition(prevPosition);
+        transform.setPosition(x, y, transform.getPosition().getZ());
     }
     
     /**
@@ -497,24 +479,30 @@ public class Commander extends GameComponent {
 	 * @return the enemy's life state.
 	 */
     public boolean isAlive() {return !dead;}
+    
+    /**
+	 * Gets if the enemy is fighting the player.
+	 * @return If it's awake.
+	 */
+    public boolean isAwake() {return state == STATE_CHASE || state == STATE_ATTACK || state == STATE_HIT || state == STATE_ROCKET;}
+    
+    /**
+	 * Gets if the enemy stands still, so the others bump into it.
+	 * @return If it's quiet.
+	 */
+    public boolean isQuiet() {return isQuiet;}
 
     /**
      * Returns the enemy's size depending on the enemy's own width,
      * all of this in a Vector2f.
      * @return vector with the size.
      */
-    public Vector2f getSize() {return new Vector2f(NAZI_WIDTH, NAZI_WIDTH);}
+    public Vector2f getSize() {return getSize(NAZI_WIDTH, NAZI_WIDTH);}
 
     /**
      * Gets the enemy's actual health.
      * @return enemy's health.
      */
 	public double getHealth() {return health;}
-	
-	/**
-	 * Removes the rocket when disappears.
-	 * @param rocket rocket.
-	 */
-	public static void removeRocket(pRocket rocket) { removeRockets.add(rocket); }
     
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2018 Carlos Rodriguez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package game.enemies;
+
+import engine.core.Transform;
+
+/**
+ * Nazi soldier that is already lying dead when the level starts. It's
+ * its own class so it gets its own bucket, out of the ones of the
+ * living enemies: it isn't shot, hurt, bumped into or counted.
+ *
+ * @author Carlos Rodriguez
+ * @version 1.0
+ * @since 2018
+ */
+public class DeadNazi extends NaziSoldier {
+
+	private static final int 	STATE_POST_DEATH = 4;
+
+	/**
+	 * Constructor of the dead soldier.
+	 * @param transform of the soldier.
+	 */
+	public DeadNazi(Transform transform) {
+		super(transform);
+	}
+
+	/**
+	 * Keeps the soldier dead every frame.
+	 * @param delta of time
+	 */
+	@Override
+	public void update(double delta) {
+		setState(STATE_POST_DEATH);
+		super.update(delta);
+	}
+
+}
@@ -21,13 +21,15 @@ import java.util.Random;
 import javax.sound.sampled.Clip;
 
 import engine.audio.AudioUtil;
+import engine.components.Agent;
 import engine.components.GameComponent;
 import engine.components.MeshRenderer;
+import engine.core.Scratch;
 import engine.core.Time;
 import engine.core.Transform;
 import engine.core.Vector2f;
 import engine.core.Vector3f;
-import engine.physics.PhysicsUtil;
+import engine.core.utils.RandomUtil;
 import engine.rendering.Material;
 import engine.rendering.Mesh;
 import engine.rendering.RenderingEngine;
@@ -44,7 +46,7 @@ import game.Player;
  * @version 1.2
  * @since 2018
  */
-public class Ghost extends GameComponent {
+public class Ghost extends GameComponent implements Agent {
 
 	private static final float MAX_HEALTH = 10f;
     private static final float SHOT_ANGLE = 10.0f;
@@ -71,6 +73,12 @@ public class Ghost extends GameComponent {
     private static Random rand;
 
     private Transform transform;
+    private final Vector3f distanceVector = new Vector3f(0, 0, 0);
+    private final Vector3f orientationVector = new Vector3f(0, 0, 0);
+    private final Vector3f targetVector = new Vector3f(0, 0, 0);
+    private final Vector2f directionVector = new Vector2f(0, 0);
+    private final Vector3f headingVector = new Vector3f(0, 0, 0);
+    private final Vector3f moveVector = new Vector3f(0, 0, 0);
     private Material material;
     private MeshRenderer meshRenderer;
 
@@ -86,7 +94,7 @@ public class Ghost extends GameComponent {
      * @param transform the transform of the data.
      */
     public Ghost(Transform transform) {
-        rand = new Random();
+        rand = RandomUtil.getRandom();
 
         animation = new ArrayList<Texture>();
 
@@ -124,6 +132,7 @@ public class Ghost extends GameComponent {
         }
 
         this.transform = transform;
+        this.transform.setBillboard(true);
         this.material = new Material(animation.get(0));
         this.meshRenderer = new MeshRenderer(mesh, getTransform(), material);
         this.state = 0;
@@ -145,20 +154,12 @@ public class Ghost extends GameComponent {
         //Set Height
         transform.setPosition(transform.getPosition().getX(), 0f, transform.getPosition().getZ());
         
-        Vector3f playerDistance = transform.getPosition().sub(Level.getPlayer().getCamera().getPos());
+        Vector3f playerDistance = transform.getPosition().subInto(Level.getPlayer().getCamera().getPos(), distanceVector);
 
-        Vector3f orientation = playerDistance.normalized();
+        Vector3f orientation = playerDistance.normalizedInto(orientationVector);
         float distance = playerDistance.length();
         setDistance(distance);
 
-        float angle = (float) Math.toDegrees(Math.atan(orientation.getZ() / orientation.getX()));
-
-        if (orientation.getX() > 0) {
-            angle = 180 + angle;
-        }
-
-        transform.setRotation(0, angle + 90, 0);
-
         //Action/Animation
         double time = Time.getTime();
 
@@ -175,9 +176,9 @@ public class Ghost extends GameComponent {
         if (!dead) {
             Player player = Level.getPlayer();
 
-            Vector2f playerDirection = transform.getPosition().sub(
-                    player.getCamera().getPos().add(
-                            new Vector3f(player.getSize().getX(), 0, player.getSize().getY()).mul(0.5f))).getXZ().normalized();
+            Vector2f playerDirection = transform.getPosition().subInto(
+                    player.getCamera().getPos().addInto(
+                            targetVector.set(player.getSize().getX() * 0.5f, 0, player.getSize().getY() * 0.5f), targetVector), targetVector).getXZInto(directionVector).normalizedInto(directionVector);
 
             switch(state) {
             	case STATE_IDLE:
@@ -189,14 +190,7 @@ public class Ghost extends GameComponent {
                     } else {
                         material.setDiffuse(animation.get(0));
                         if (canLook) {
-                            Vector2f lineStart = transform.getPosition().getXZ();
-                            Vector2f lineEnd = lineStart.sub(playerDirection.mul(1000.0f));
-
-                            Vector2f nearestIntersect = Auschwitz.getLevel().checkIntersections(lineStart, lineEnd, false);
-                            Vector2f playerIntersect = PhysicsUtil.lineIntersectRect(lineStart, lineEnd, player.getCamera().getPos().getXZ(), player.getSize());
-
-                            if (playerIntersect != null && (nearestIntersect == null
-                                    || nearestIntersect.sub(lineStart).length() > playerIntersect.sub(lineStart).length())) {
+                            if (Auschwitz.getLevel().canSeePlayer(transform.getPosition())) {
                                 AudioUtil.playAudio(seeNoise, distance);
                                 state = STATE_CHASE;
                             }
@@ -211,23 +205,26 @@ public class Ghost extends GameComponent {
 
                     if (distance > 0.225f) {
                         orientation.setY(0);
+                        Auschwitz.getLevel().chase(transform.getPosition(), orientation);
                         float moveSpeed = 5f;
 
                         Vector3f oldPos = transform.getPosition();
-                        Vector3f newPos = transform.getPosition().add(orientation.mul((float) (-moveSpeed * delta)));
+                        Vector3f newPos = oldPos.addInto(orientation.mulInto((float) (-moveSpeed * delta), targetVector), targetVector);
 
-                        Vector3f collisionVector = Auschwitz.getLevel().checkCollisions(oldPos, newPos, GHOST_WIDTH, GHOST_WIDTH);
+                        Vector3f collisionVector = Auschwitz.getLevel().checkCollisionsInto(oldPos, newPos, GHOST_WIDTH, GHOST_WIDTH, moveVector);
 
-                        Vector3f movementVector = collisionVector.mul(orientation.normalized());
+                        Vector3f heading = orientation.normalizedInto(headingVector);
+                        Vector3f movementVector = collisionVector.mulInto(heading, collisionVector);
 
                         /**
                          * Just in case you want opening door ghosts.
-                        if (!movementVector.equals(orientation.normalized())) {
+                        if (!movementVector.equals(heading)) {
                             Auschwitz.getLevel().openDoors(transform.getPosition(), false);
                         }*/
 
                         if (movementVector.length() > 0) {
-                            transform.setPosition(transform.getPosition().add(movementVector.mul((float) (-moveSpeed * delta))));
+                            float step = (float) (-moveSpeed * delta);
+                            transform.setPosition(oldPos.getX() + movementVector.getX() * step, oldPos.getY() + movementVector.getY() * step, oldPos.getZ() + movementVector.getZ() * step);
                         }
                     } else {
                         state = STATE_ATTACK;
@@ -260,18 +257,17 @@ public class Ghost extends GameComponent {
                         material.setDiffuse(animation.get(1));
                     } else if (timeDecimals <= 0.7f) {
                         if (canAttack) {
-                            Vector2f shootDirection = playerDirection.rotate((rand.nextFloat() - 0.5f) * SHOT_ANGLE);
+                            Scratch.begin();
+                            Vector2f shootDirection = playerDirection.rotateInto((rand.nextFloat() - 0.5f) * SHOT_ANGLE, Scratch.vector2(0, 0));
 
-                            Vector2f lineStart = transform.getPosition().getXZ();
-                            Vector2f lineEnd = lineStart.sub(shootDirection.mul(1000.0f));
+                            Vector2f lineStart = transform.getPosition().getXZInto(Scratch.vector2(0, 0));
+                            Vector2f lineEnd = lineStart.subInto(shootDirection.mulInto(1000.0f, shootDirection), Scratch.vector2(0, 0));
 
-                            Vector2f nearestIntersect = Auschwitz.getLevel().checkIntersections(lineStart, lineEnd, false);
+                            boolean hit = Auschwitz.getLevel().reachesPlayer(lineStart, lineEnd);
+                            Scratch.end();
                             canAttack = false;
 
-                            Vector2f playerIntersect = PhysicsUtil.lineIntersectRect(lineStart, lineEnd, player.getCamera().getPos().getXZ(), player.getSize());
-
-                            if (playerIntersect != null && (nearestIntersect == null
-                                    || nearestIntersect.sub(lineStart).length() > playerIntersect.sub(lineStart).length())) {
+                            if (hit) {
 
                             	float damage;
                                 if(player.getHealth() <= 0) {
@@ -323,7 +319,7 @@ public class Ghost extends GameComponent {
                 state = STATE_DONE;
         		break;
         	case STATE_DONE:
-        		Level.removeGhost(this);
+        		Auschwitz.getLevel().destroy(this);
         		break;
         }
     }
@@ -340,7 +336,7 @@ public class Ghost extends GameComponent {
         health -= amt;
 
         if (health > 0 && amt > 0) {
-            AudioUtil.playAudio(hitNoise, transform.getPosition().sub(Level.getPlayer().getCamera().getPos()).length());
+            AudioUtil.playAudio(hitNoise, transform.getPosition().distance(Level.getPlayer().getCamera().getPos()));
         }
     }
 
@@ -350,12 +346,14 @@ public class Ghost extends GameComponent {
      * @param renderingEngine to use
      */
     public void render(Shader shader, RenderingEngine renderingEngine) {
-        Vector3f prevPosition = transform.getPosition();
-        transform.setPosition(new Vector3f(transform.getPosition().getX() + offsetX, transform.getPosition().getY() + offsetY, transform.getPosition().getZ()));
+        Vector3f position = transform.getPosition();
+        float x = position.getX();
+        float y = position.getY();
+        transform.setPosition(x + offsetX, y + offsetY, position.getZ());
 
         meshRenderer.render(shader, renderingEngine);
 
-        transform.setPosition(prevPosition);
+        transform.setPosition(x, y, transform.getPosition().getZ());
     }
 
     /**
@@ -369,12 +367,24 @@ public class Ghost extends GameComponent {
 	 * @return the enemy's life state.
 	 */
     public boolean isAlive() {return !dead;}
+    
+    /**
+	 * Gets if the enemy is fighting the player.
+	 * @return If it's awake.
+	 */
+    public boolean isAwake() {return state == STATE_CHASE || state == STATE_ATTACK;}
+    
+    /**
+	 * Gets if the others bump into the enemy, never for a ghost.
+	 * @return If it's quiet.
+	 */
+    public boolean isQuiet() {return false;}
 
     /**
      * Returns the enemy's size depending on the enemy's own width,
      * all of this in a Vector2f.
      * @return vector with the size.
      */
-    public Vector2f getSize() {return new Vector2f(GHOST_WIDTH, GHOST_WIDTH);}
+    public Vector2f getSize() {return getSize(GHOST_WIDTH, GHOST_WIDTH);}
 
 }
\ No newline at end of file
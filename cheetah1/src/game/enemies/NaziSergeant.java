@@ -22,14 +22,16 @@ import javax.sound.sampled.Clip;
 
 import engine.audio.AudioUtil;
 import engine.components.Attenuation;
+import engine.components.Agent;
 import engine.components.GameComponent;
 import engine.components.MeshRenderer;
 import engine.components.SpotLight;
+import engine.core.Scratch;
 import engine.core.Time;
 import engine.core.Transform;
 import engine.core.Vector2f;
 import engine.core.Vector3f;
-import engine.physics.PhysicsUtil;
+import engine.core.utils.RandomUtil;
 import engine.rendering.Material;
 import engine.rendering.Mesh;
 import engine.rendering.RenderingEngine;
@@ -48,7 +50,7 @@ import game.pickUps.Shotgun;
  * @version 1.2
  * @since 2017
  */
-public class NaziSergeant extends GameComponent {
+public class NaziSergeant extends GameComponent implements Agent {
 
     private static final float MAX_HEALTH = 175f;
     private static final float SHOT_ANGLE = 10.0f;
@@ -77,6 +79,12 @@ public class NaziSergeant extends GameComponent {
     private static Random rand;
 
     private Transform transform;
+    private final Vector3f distanceVector = new Vector3f(0, 0, 0);
+    private final Vector3f orientationVector = new Vector3f(0, 0, 0);
+    private final Vector3f targetVector = new Vector3f(0, 0, 0);
+    private final Vector2f directionVector = new Vector2f(0, 0);
+    private final Vector3f headingVector = new Vector3f(0, 0, 0);
+    private final Vector3f moveVector = new Vector3f(0, 0, 0);
     private Material material;
     private MeshRenderer meshRenderer;
     private Shotgun shotgun;
@@ -96,7 +104,7 @@ public class NaziSergeant extends GameComponent {
      * @param transform the transform of the data.
      */
     public NaziSergeant(Transform transform) {
-        rand = new Random();
+        rand = RandomUtil.getRandom();
 
         animation = new ArrayList<Texture>();
 
@@ -140,6 +148,7 @@ public class NaziSergeant extends GameComponent {
         }   
         
         this.transform = transform;
+        this.transform.setBillboard(true);
         this.material = new Material(animation.get(0));
         this.meshRenderer = new MeshRenderer(mesh, getTransform(), material);
     	this.light = new SpotLight(new Vector3f(0.45f,0.35f,0.1f), 1.6f, 
@@ -163,26 +172,18 @@ public class NaziSergeant extends GameComponent {
         //Set Height
         transform.setPosition(transform.getPosition().getX(), 0, transform.getPosition().getZ());
         
-        Vector3f playerDistance = transform.getPosition().sub(Level.getPlayer().getCamera().getPos());
+        Vector3f playerDistance = transform.getPosition().subInto(Level.getPlayer().getCamera().getPos(), distanceVector);
 
-        Vector3f orientation = playerDistance.normalized();
+        Vector3f orientation = playerDistance.normalizedInto(orientationVector);
         float distance = playerDistance.length();
         setDistance(distance);
 
-        float angle = (float) Math.toDegrees(Math.atan(orientation.getZ() / orientation.getX()));
-
-        if (orientation.getX() > 0) {
-            angle = 180 + angle;
-        }
-
-        transform.setRotation(0, angle + 90, 0);
-
         //Action/Animation
         double time = Time.getTime();
 
         if (!dead && health <= 0) {
-        	shotgun = new Shotgun(new Transform(transform.getPosition()), false);
-        	shell = new Shell(new Transform(transform.getPosition()), false);
+        	shotgun = new Shotgun(new Transform(new Vector3f(transform.getPosition())), false);
+        	shell = new Shell(new Transform(new Vector3f(transform.getPosition())), false);
             dead = true;
             deathTime = time;
             state = STATE_DYING;
@@ -196,9 +197,9 @@ public class NaziSergeant extends GameComponent {
         if (!dead) {
             Player player = Level.getPlayer();
 
-            Vector2f playerDirection = transform.getPosition().sub(
-                    player.getCamera().getPos().add(
-                            new Vector3f(player.getSize().getX(), 0, player.getSize().getY()).mul(0.5f))).getXZ().normalized();
+            Vector2f playerDirection = transform.getPosition().subInto(
+                    player.getCamera().getPos().addInto(
+                            targetVector.set(player.getSize().getX() * 0.5f, 0, player.getSize().getY() * 0.5f), targetVector), targetVector).getXZInto(directionVector).normalizedInto(directionVector);
             
             switch(state) {
             	case STATE_IDLE:
@@ -211,14 +212,7 @@ public class NaziSergeant extends GameComponent {
                     } else {
                         material.setDiffuse(animation.get(0));
                         if (canLook) {
-                            Vector2f lineStart = transform.getPosition().getXZ();
-                            Vector2f lineEnd = lineStart.sub(playerDirection.mul(1000.0f));
-
-                            Vector2f nearestIntersect = Auschwitz.getLevel().checkIntersections(lineStart, lineEnd, false);
-                            Vector2f playerIntersect = PhysicsUtil.lineIntersectRect(lineStart, lineEnd, player.getCamera().getPos().getXZ(), player.getSize());
-
-                            if (playerIntersect != null && (nearestIntersect == null
-                                    || nearestIntersect.sub(lineStart).length() > playerIntersect.sub(lineStart).length())) {
+                            if (Auschwitz.getLevel().canSeePlayer(transform.getPosition())) {
                                 AudioUtil.playAudio(seeNoise, distance);
                                 state = STATE_CHASE;
                             }
@@ -235,21 +229,24 @@ public class NaziSergeant extends GameComponent {
 
                     if (distance > 1.20f) {
                         orientation.setY(0);
+                        Auschwitz.getLevel().chase(transform.getPosition(), orientation);
                         float moveSpeed = 2f;
 
                         Vector3f oldPos = transform.getPosition();
-                        Vector3f newPos = transform.getPosition().add(orientation.mul((float) (-moveSpeed * delta)));
+                        Vector3f newPos = oldPos.addInto(orientation.mulInto((float) (-moveSpeed * delta), targetVector), targetVector);
 
-                        Vector3f collisionVector = Auschwitz.getLevel().checkCollisions(oldPos, newPos, NAZI_WIDTH, NAZI_WIDTH);
+                        Vector3f collisionVector = Auschwitz.getLevel().checkCollisionsInto(oldPos, newPos, NAZI_WIDTH, NAZI_WIDTH, moveVector);
 
-                        Vector3f movementVector = collisionVector.mul(orientation.normalized());
+                        Vector3f heading = orientation.normalizedInto(headingVector);
+                        Vector3f movementVector = collisionVector.mulInto(heading, collisionVector);
 
-                        if (!movementVector.equals(orientation.normalized())) {
+                        if (!movementVector.equals(heading)) {
                             Auschwitz.getLevel().openDoors(transform.getPosition(), false);
                         }
 
                         if (movementVector.length() > 0) {
-                            transform.setPosition(transform.getPosition().add(movementVector.mul((float) (-moveSpeed * delta))));
+                            float step = (float) (-moveSpeed * delta);
+                            transform.setPosition(oldPos.getX() + movementVector.getX() * step, oldPos.getY() + movementVector.getY() * step, oldPos.getZ() + movementVector.getZ() * step);
                         }
                     } else {
                         state = STATE_ATTACK;
@@ -282,21 +279,20 @@ public class NaziSergeant extends GameComponent {
                         material.setDiffuse(animation.get(5));
                     } else if (timeDecimals <= 0.7f) {
                         if (canAttack) {
-                        	light.setPosition(transform.getPosition());
-                            light.setDirection(orientation.mul(-1));
+                        	light.getPosition().set(transform.getPosition());
+                            light.setDirection(orientation.mulInto(-1, targetVector));
                             light.addToEngine();
-                            Vector2f shootDirection = playerDirection.rotate((rand.nextFloat() - 0.5f) * SHOT_ANGLE);
+                            Scratch.begin();
+                            Vector2f shootDirection = playerDirection.rotateInto((rand.nextFloat() - 0.5f) * SHOT_ANGLE, Scratch.vector2(0, 0));
 
-                            Vector2f lineStart = transform.getPosition().getXZ();
-                            Vector2f lineEnd = lineStart.sub(shootDirection.mul(1000.0f));
+                            Vector2f lineStart = transform.getPosition().getXZInto(Scratch.vector2(0, 0));
+                            Vector2f lineEnd = lineStart.subInto(shootDirection.mulInto(1000.0f, shootDirection), Scratch.vector2(0, 0));
 
-                            Vector2f nearestIntersect = Auschwitz.getLevel().checkIntersections(lineStart, lineEnd, false);
+                            boolean hit = Auschwitz.getLevel().reachesPlayer(lineStart, lineEnd);
+                            Scratch.end();
                             canAttack = false;
 
-                            Vector2f playerIntersect = PhysicsUtil.lineIntersectRect(lineStart, lineEnd, player.getCamera().getPos().getXZ(), player.getSize());
-
-                            if (playerIntersect != null && (nearestIntersect == null
-                                    || nearestIntersect.sub(lineStart).length() > playerIntersect.sub(lineStart).length())) {
+                            if (hit) {
 
                             	float damage;
                                 if(player.getHealth() <= 0) {
@@ -398,7 +394,7 @@ public class NaziSergeant extends GameComponent {
 
         if (health > 0 && amt > 0) {
         	state = STATE_HIT;
-            AudioUtil.playAudio(hitNoise, transform.getPosition().sub(Level.getPlayer().getCamera().getPos()).length());
+            AudioUtil.playAudio(hitNoise, transform.getPosition().distance(Level.getPlayer().getCamera().getPos()));
         }
     }
 
@@ -408,8 +404,10 @@ public class NaziSergeant extends GameComponent {
      * @param renderingEngine to use
      */
     public void render(Shader shader, RenderingEngine renderingEngine) {
-        Vector3f prevPosition = transform.getPosition();
-        transform.setPosition(new Vector3f(transform.getPosition().getX() + offsetX, transform.getPosition().getY() + offsetY, transform.getPosition().getZ()));
+        Vector3f position = transform.getPosition();
+        float x = position.getX();
+        float y = position.getY();
+        transform.setPosition(x + offsetX, y + offsetY, position.getZ());
 
         meshRenderer.render(shader, renderingEngine);
         
@@ -418,7 +416,7 @@ public class NaziSergeant extends GameComponent {
         	shell.render(shader, renderingEngine);
         }
 
-        transform.setPosition(prevPosition);
+        transform.setPosition(x, y, transform.getPosition().getZ());
     }
 
     /**
@@ -432,13 +430,25 @@ public class NaziSergeant extends GameComponent {
 	 * @return the enemy's life state.
 	 */
     public boolean isAlive() {return !dead;}
+    
+    /**
+	 * Gets if the enemy is fighting the player.
+	 * @return If it's awake.
+	 */
+    public boolean isAwake() {return state == STATE_CHASE || state == STATE_ATTACK || state == STATE_HIT;}
+    
+    /**
+	 * Gets if the enemy stands still, so the others bump into it.
+	 * @return If it's quiet.
+	 */
+    public boolean isQuiet() {return isQuiet;}
 
     /**
      * Returns the enemy's size depending on the enemy's own width,
      * all of this in a Vector2f.
      * @return vector with the size.
      */
-    public Vector2f getSize() {return new Vector2f(NAZI_WIDTH, NAZI_WIDTH);}
+    public Vector2f getSize() {return getSize(NAZI_WIDTH, NAZI_WIDTH);}
 
     /**
      * Gets the enemy's actual health.
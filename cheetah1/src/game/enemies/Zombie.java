@@ -21,14 +21,16 @@ import java.util.Random;
 import javax.sound.sampled.Clip;
 
 import engine.audio.AudioUtil;
+import engine.components.Agent;
 import engine.components.GameComponent;
 import engine.components.MeshRenderer;
+import engine.core.Scratch;
 import engine.core.Time;
 import engine.core.Transform;
 import engine.core.Vector2f;
 import engine.core.Vector3f;
 import engine.core.utils.Util;
-import engine.physics.PhysicsUtil;
+import engine.core.utils.RandomUtil;
 import engine.rendering.Material;
 import engine.rendering.Mesh;
 import engine.rendering.RenderingEngine;
@@ -39,7 +41,6 @@ import game.Auschwitz;
 import game.Level;
 import game.Player;
 import game.pickUps.Key;
-import game.projectiles.ZombieMeat;
 
 /**
  *
@@ -47,7 +48,7 @@ import game.projectiles.ZombieMeat;
  * @version 1.1
  * @since 2018
  */
-public class Zombie extends GameComponent {
+public class Zombie extends GameComponent implements Agent {
 
     private static final float MAX_HEALTH = 300f;
     private static final float SHOT_ANGLE = 10.0f;
@@ -65,9 +66,6 @@ public class Zombie extends GameComponent {
     private static final int STATE_POST_DEATH = 7;
     
     private static final String RES_LOC = "zombie/";
-    
-    private static ArrayList<ZombieMeat> gibs;
-    private static ArrayList<ZombieMeat> removeGibs;
 
     private static Clip seeNoise;
     private static Clip attackNoise;
@@ -85,6 +83,12 @@ public class Zombie extends GameComponent {
     private static Random rand;
 
     private Transform transform;
+    private final Vector3f distanceVector = new Vector3f(0, 0, 0);
+    private final Vector3f orientationVector = new Vector3f(0, 0, 0);
+    private final Vector3f targetVector = new Vector3f(0, 0, 0);
+    private final Vector2f directionVector = new Vector2f(0, 0);
+    private final Vector3f headingVector = new Vector3f(0, 0, 0);
+    private final Vector3f moveVector = new Vector3f(0, 0, 0);
     private Material material;
     private MeshRenderer meshRenderer;
     private Key key;
@@ -105,7 +109,7 @@ public class Zombie extends GameComponent {
      * @param drops if it does
      */
     public Zombie(Transform transform, boolean drops) {
-        rand = new Random();
+        rand = RandomUtil.getRandom();
 
         this.zombieSeed = Util.randomInRange(1, 2);
         
@@ -188,10 +192,6 @@ public class Zombie extends GameComponent {
         	
         	for(int i = 0; i < 3; i++)
         		deathNoises.add(AudioUtil.loadAudio(RES_LOC + "death" + i));
-        
-        gibs = new ArrayList<ZombieMeat>();
-        
-        removeGibs = new ArrayList<ZombieMeat>();
 
         if (mesh == null) {
             final float sizeY = 0.9f;
@@ -217,6 +217,7 @@ public class Zombie extends GameComponent {
         } 
         
         this.transform = transform;
+        this.transform.setBillboard(true);
         this.material = new Material(animation.get(0));
         this.meshRenderer = new MeshRenderer(mesh, getTransform(), material);
         this.state = 0;
@@ -240,33 +241,25 @@ public class Zombie extends GameComponent {
     	//Set Height
         transform.setPosition(transform.getPosition().getX(), 0, transform.getPosition().getZ());
         
-        Vector3f playerDistance = transform.getPosition().sub(Level.getPlayer().getCamera().getPos());
+        Vector3f playerDistance = transform.getPosition().subInto(Level.getPlayer().getCamera().getPos(), distanceVector);
 
-        Vector3f orientation = playerDistance.normalized();
+        Vector3f orientation = playerDistance.normalizedInto(orientationVector);
         float distance = playerDistance.length();
         setDistance(distance);
 
-        float angle = (float) Math.toDegrees(Math.atan(orientation.getZ() / orientation.getX()));
-
-        if (orientation.getX() > 0) {
-            angle = 180 + angle;
-        }
-
-        transform.setRotation(0, angle + 90, 0);
-
         //Action/Animation
         double time = Time.getTime();
 
         if (!dead && health <= 0) {
         	if(drops)
-	            key = new Key(new Transform(transform.getPosition()), true, false);
+	            key = new Key(new Transform(new Vector3f(transform.getPosition())), true, false);
             dead = true;
             deathTime = time;
             state = STATE_DYING;
             if(seeNoise != null) seeNoise.stop();
             if(attackNoise != null) attackNoise.stop();
             if(hitNoise != null) hitNoise.stop();
-            deathNoise = deathNoises.get(new Random().nextInt(deathNoises.size()));
+            deathNoise = deathNoises.get(RandomUtil.nextInt(deathNoises.size()));
             AudioUtil.playAudio(deathNoise, distance);
         }
     	
@@ -275,9 +268,9 @@ public class Zombie extends GameComponent {
     	        if (!dead) {
     	            Player player = Level.getPlayer();
 
-    	            Vector2f playerDirection = transform.getPosition().sub(
-    	                    player.getCamera().getPos().add(
-    	                            new Vector3f(player.getSize().getX(), 0, player.getSize().getY()).mul(0.5f))).getXZ().normalized();
+    	            Vector2f playerDirection = transform.getPosition().subInto(
+    	                    player.getCamera().getPos().addInto(
+    	                            targetVector.set(player.getSize().getX() * 0.5f, 0, player.getSize().getY() * 0.5f), targetVector), targetVector).getXZInto(directionVector).normalizedInto(directionVector);
     	            switch(state) {
     	            	case STATE_IDLE:
     	            		isQuiet = true;
@@ -291,15 +284,8 @@ public class Zombie extends GameComponent {
         	                	transform.setScale(1.558139534883721f,0.641791044776119f,1);
         	                    material.setDiffuse(animation.get(0));
         	                    if (canLook) {
-        	                        Vector2f lineStart = transform.getPosition().getXZ();
-        	                        Vector2f lineEnd = lineStart.sub(playerDirection.mul(1000.0f));
-
-        	                        Vector2f nearestIntersect = Auschwitz.getLevel().checkIntersections(lineStart, lineEnd, false);
-        	                        Vector2f playerIntersect = PhysicsUtil.lineIntersectRect(lineStart, lineEnd, player.getCamera().getPos().getXZ(), player.getSize());
-
-        	                        if (playerIntersect != null && (nearestIntersect == null
-        	                                || nearestIntersect.sub(lineStart).length() > playerIntersect.sub(lineStart).length())) {
-        	                        	seeNoise = seeNoises.get(new Random().nextInt(seeNoises.size()));
+        	                        if (Auschwitz.getLevel().canSeePlayer(transform.getPosition())) {
+        	                        	seeNoise = seeNoises.get(RandomUtil.nextInt(seeNoises.size()));
         	                        	AudioUtil.playAudio(seeNoise, distance);
         	                            state = STATE_CHASE;
         	                        }
@@ -315,21 +301,24 @@ public class Zombie extends GameComponent {
         	                	if (rand.nextDouble() < 0.5f * delta)
             	                    state = STATE_ATTACK;
         	                    orientation.setY(0);
+        	                    Auschwitz.getLevel().chase(transform.getPosition(), orientation);
         	                    float moveSpeed = 1.5f;
 
         	                    Vector3f oldPos = transform.getPosition();
-        	                    Vector3f newPos = transform.getPosition().add(orientation.mul((float) (-moveSpeed * delta)));
+        	                    Vector3f newPos = oldPos.addInto(orientation.mulInto((float) (-moveSpeed * delta), targetVector), targetVector);
 
-        	                    Vector3f collisionVector = Auschwitz.getLevel().checkCollisions(oldPos, newPos, ZOMBIE_WIDTH, ZOMBIE_WIDTH);
+        	                    Vector3f collisionVector = Auschwitz.getLevel().checkCollisionsInto(oldPos, newPos, ZOMBIE_WIDTH, ZOMBIE_WIDTH, moveVector);
 
-        	                    Vector3f movementVector = collisionVector.mul(orientation.normalized());
+        	                    Vector3f heading = orientation.normalizedInto(headingVector);
+        	                    Vector3f movementVector = collisionVector.mulInto(heading, collisionVector);
 
-        	                    if (!movementVector.equals(orientation.normalized())) {
+        	                    if (!movementVector.equals(heading)) {
         	                        Auschwitz.getLevel().openDoors(transform.getPosition(), false);
         	                    }
 
         	                    if (movementVector.length() > 0) {
-        	                        transform.setPosition(transform.getPosition().add(movementVector.mul((float) (-moveSpeed * delta))));
+        	                        float step = (float) (-moveSpeed * delta);
+        	                        transform.setPosition(oldPos.getX() + movementVector.getX() * step, oldPos.getY() + movementVector.getY() * step, oldPos.getZ() + movementVector.getZ() * step);
         	                    }
         	                } else {
         	                    state = STATE_ATTACK;
@@ -376,18 +365,17 @@ public class Zombie extends GameComponent {
         	                    material.setDiffuse(animation.get(7));
         	                } else if (timeDecimals <= 0.7f) {
         	                    if (canAttack) {
-        	                        Vector2f shootDirection = playerDirection.rotate((rand.nextFloat() - 0.5f) * SHOT_ANGLE);
+        	                        Scratch.begin();
+        	                        Vector2f shootDirection = playerDirection.rotateInto((rand.nextFloat() - 0.5f) * SHOT_ANGLE, Scratch.vector2(0, 0));
 
-        	                        Vector2f lineStart = transform.getPosition().getXZ();
-        	                        Vector2f lineEnd = lineStart.sub(shootDirection.mul(1000.0f));
+        	                        Vector2f lineStart = transform.getPosition().getXZInto(Scratch.vector2(0, 0));
+        	                        Vector2f lineEnd = lineStart.subInto(shootDirection.mulInto(1000.0f, shootDirection), Scratch.vector2(0, 0));
 
-        	                        Vector2f nearestIntersect = Auschwitz.getLevel().checkIntersections(lineStart, lineEnd, false);
+        	                        boolean hit = Auschwitz.getLevel().reachesPlayer(lineStart, lineEnd);
+        	                        Scratch.end();
         	                        canAttack = false;
 
-        	                        Vector2f playerIntersect = PhysicsUtil.lineIntersectRect(lineStart, lineEnd, player.getCamera().getPos().getXZ(), player.getSize());
-
-        	                        if (playerIntersect != null && (nearestIntersect == null
-        	                                || nearestIntersect.sub(lineStart).length() > playerIntersect.sub(lineStart).length())) {
+        	                        if (hit) {
 
         	                        	float damage;
         	                            if(player.getHealth() <= 0) {
@@ -402,7 +390,7 @@ public class Zombie extends GameComponent {
         	                            }
         	                            
         	                        }
-        	                        attackNoise = attackNoises.get(new Random().nextInt(attackNoises.size()));
+        	                        attackNoise = attackNoises.get(RandomUtil.nextInt(attackNoises.size()));
         	                        AudioUtil.playAudio(attackNoise, distance);
         	                    }
         	                    transform.setScale(1.580645161290323f,0.75f,1);
@@ -498,16 +486,11 @@ public class Zombie extends GameComponent {
     	        }
     			break;
     		case 2:
-    	        
-    	        if(!gibs.isEmpty())
-    	        	for(ZombieMeat giblets : gibs)
-    	        		giblets.update(delta);
-
     	        if (!dead) {
     	        	Player player = Level.getPlayer();
-    	        	Vector2f playerDirection = transform.getPosition().sub(
-    	                    player.getCamera().getPos().add(
-    	                            new Vector3f(player.getSize().getX(), 0, player.getSize().getY()).mul(0.5f))).getXZ().normalized();
+    	        	Vector2f playerDirection = transform.getPosition().subInto(
+    	                    player.getCamera().getPos().addInto(
+    	                            targetVector.set(player.getSize().getX() * 0.5f, 0, player.getSize().getY() * 0.5f), targetVector), targetVector).getXZInto(directionVector).normalizedInto(directionVector);
     	           switch(state) {
     	           		case STATE_IDLE:
     	           			isQuiet = true;
@@ -521,15 +504,8 @@ public class Zombie extends GameComponent {
         	                	transform.setScale(1.374193548387097f,0.763636363636364f,1);
         	                    material.setDiffuse(animation.get(0));
         	                    if (canLook) {
-        	                        Vector2f lineStart = transform.getPosition().getXZ();
-        	                        Vector2f lineEnd = lineStart.sub(playerDirection.mul(1000.0f));
-
-        	                        Vector2f nearestIntersect = Auschwitz.getLevel().checkIntersections(lineStart, lineEnd, false);
-        	                        Vector2f playerIntersect = PhysicsUtil.lineIntersectRect(lineStart, lineEnd, player.getCamera().getPos().getXZ(), player.getSize());
-
-        	                        if (playerIntersect != null && (nearestIntersect == null
-        	                                || nearestIntersect.sub(lineStart).length() > playerIntersect.sub(lineStart).length())) {
-        	                        	seeNoise = seeNoises.get(new Random().nextInt(seeNoises.size()));
+        	                        if (Auschwitz.getLevel().canSeePlayer(transform.getPosition())) {
+        	                        	seeNoise = seeNoises.get(RandomUtil.nextInt(seeNoises.size()));
         	                        	AudioUtil.playAudio(seeNoise, distance);
         	                            state = STATE_CHASE;
         	                        }
@@ -545,21 +521,24 @@ public class Zombie extends GameComponent {
 
         	                if (distance > 2.0f) {
         	                    orientation.setY(0);
+        	                    Auschwitz.getLevel().chase(transform.getPosition(), orientation);
         	                    float moveSpeed = 1.0f;
 
         	                    Vector3f oldPos = transform.getPosition();
-        	                    Vector3f newPos = transform.getPosition().add(orientation.mul((float) (-moveSpeed * delta)));
+        	                    Vector3f newPos = oldPos.addInto(orientation.mulInto((float) (-moveSpeed * delta), targetVector), targetVector);
 
-        	                    Vector3f collisionVector = Auschwitz.getLevel().checkCollisions(oldPos, newPos, ZOMBIE_WIDTH, ZOMBIE_WIDTH);
+        	                    Vector3f collisionVector = Auschwitz.getLevel().checkCollisionsInto(oldPos, newPos, ZOMBIE_WIDTH, ZOMBIE_WIDTH, moveVector);
 
-        	                    Vector3f movementVector = collisionVector.mul(orientation.normalized());
+        	                    Vector3f heading = orientation.normalizedInto(headingVector);
+        	                    Vector3f movementVector = collisionVector.mulInto(heading, collisionVector);
 
-        	                    if (!movementVector.equals(orientation.normalized())) {
+        	                    if (!movementVector.equals(heading)) {
         	                        Auschwitz.getLevel().openDoors(transform.getPosition(), false);
         	                    }
 
         	                    if (movementVector.length() > 0) {
-        	                        transform.setPosition(transform.getPosition().add(movementVector.mul((float) (-moveSpeed * delta))));
+        	                        float step = (float) (-moveSpeed * delta);
+        	                        transform.setPosition(oldPos.getX() + movementVector.getX() * step, oldPos.getY() + movementVector.getY() * step, oldPos.getZ() + movementVector.getZ() * step);
         	                    }
         	                } else {
         	                    state = STATE_ATTACK;
@@ -601,9 +580,9 @@ public class Zombie extends GameComponent {
         	                    material.setDiffuse(animation.get(6));
         	                } else if (timeDecimals <= 0.9f) {
         	                    if (canAttack) {
-        	                    	gibs.add(new ZombieMeat(new Transform(getTransform().getPosition())));
+        	                    	Auschwitz.getLevel().addGib(getTransform().getPosition());
         	                        canAttack = false;
-        	                        attackNoise = attackNoises.get(new Random().nextInt(attackNoises.size()));
+        	                        attackNoise = attackNoises.get(RandomUtil.nextInt(attackNoises.size()));
         	                        AudioUtil.playAudio(attackNoise, distance);
         	                        if(player.getHealth() <= 0)
     	                            	state = STATE_DONE;
@@ -735,13 +714,7 @@ public class Zombie extends GameComponent {
     	        			break;
     	        }
     	        
-    	    }	        
-	        
-    	        if(!removeGibs.isEmpty())
-			       	for (ZombieMeat gibToRemove : removeGibs) 
-			       		gibs.remove(gibToRemove);   
-					      
-    	        removeGibs.clear();
+    	    }
     			break;
     	}     	
     }
@@ -759,8 +732,8 @@ public class Zombie extends GameComponent {
 
         if (health > 0 && amt > 0) {
         	state = STATE_HIT;
-        	hitNoise = hitNoises.get(new Random().nextInt(hitNoises.size()));
-            AudioUtil.playAudio(hitNoise, transform.getPosition().sub(Level.getPlayer().getCamera().getPos()).length());
+        	hitNoise = hitNoises.get(RandomUtil.nextInt(hitNoises.size()));
+            AudioUtil.playAudio(hitNoise, transform.getPosition().distance(Level.getPlayer().getCamera().getPos()));
         }
     }
 
@@ -770,20 +743,17 @@ public class Zombie extends GameComponent {
      * @param renderingEngine to use
      */
     public void render(Shader shader, RenderingEngine renderingEngine) {
-        Vector3f prevPosition = transform.getPosition();
-        transform.setPosition(new Vector3f(transform.getPosition().getX() + offsetX, transform.getPosition().getY() + offsetY, transform.getPosition().getZ()));
+        Vector3f position = transform.getPosition();
+        float x = position.getX();
+        float y = position.getY();
+        transform.setPosition(x + offsetX, y + offsetY, position.getZ());
 
         meshRenderer.render(shader, renderingEngine);
         
         if (state == STATE_DEAD && drops)
         	key.render(shader, renderingEngine);
-        
-        if(zombieSeed == 2)
-        	if(!gibs.isEmpty())
-        		for(ZombieMeat giblets : gibs)
-        			giblets.render(shader, renderingEngine);
 
-        transform.setPosition(prevPosition);
+        transform.setPosition(x, y, transform.getPosition().getZ());
     }
 
     /**
@@ -797,24 +767,30 @@ public class Zombie extends GameComponent {
 	 * @return the enemy's life state.
 	 */
     public boolean isAlive() {return !dead;}
+    
+    /**
+	 * Gets if the enemy is fighting the player.
+	 * @return If it's awake.
+	 */
+    public boolean isAwake() {return state == STATE_CHASE || state == STATE_ATTACK || state == STATE_HIT;}
+    
+    /**
+	 * Gets if the enemy stands still, so the others bump into it.
+	 * @return If it's quiet.
+	 */
+    public boolean isQuiet() {return isQuiet;}
 
     /**
      * Returns the enemy's size depending on the enemy's own width,
      * all of this in a Vector2f.
      * @return vector with the size.
      */
-    public Vector2f getSize() {return new Vector2f(ZOMBIE_WIDTH, ZOMBIE_WIDTH);}
+    public Vector2f getSize() {return getSize(ZOMBIE_WIDTH, ZOMBIE_WIDTH);}
 
     /**
      * Gets the enemy's actual health.
      * @return enemy's health.
      */
 	public double getHealth() {return health;}
-	
-	/**
-	 * Removes the GIBS when disappears.
-	 * @param zombieMeat GIBS.
-	 */
-	public static void removeGibs(ZombieMeat zombieMeat) { removeGibs.add(zombieMeat); }
     
 }
\ No newline at end of file
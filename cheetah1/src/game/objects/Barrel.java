@@ -29,6 +29,7 @@ import engine.rendering.RenderingEngine;
 import engine.rendering.Shader;
 import engine.rendering.Texture;
 import engine.rendering.Vertex;
+import game.Auschwitz;
 import game.Level;
 
 /**
@@ -51,7 +52,7 @@ public class Barrel extends GameComponent {
     private static Mesh mesh;
     private Material material;
     private MeshRenderer meshRenderer;
-    private Explosion explosion;
+    private long explosion = -1;
     
     private float sizeX;
     private double health;
@@ -97,6 +98,7 @@ public class Barrel extends GameComponent {
         this.material = new Material(animation.get(0));
         this.state = STATE_IDLE;
         this.transform = transform;
+        this.transform.setBillboard(true);
         this.meshRenderer = new MeshRenderer(mesh, getTransform(), material);
         this.dead = false;
         this.health = 200;
@@ -109,18 +111,9 @@ public class Barrel extends GameComponent {
      * @param delta of time
      */
     public void update(double delta) {
-    	Vector3f playerDistance = transform.getPosition().sub(Level.getPlayer().getCamera().getPos());
-        Vector3f orientation = playerDistance.normalized();
-		float distance = playerDistance.length();
+    	float distance = transform.getPosition().distance(Level.getPlayer().getCamera().getPos());
 		setDistance(distance);
 
-        float angle = (float) Math.toDegrees(Math.atan(orientation.getZ() / orientation.getX()));
-
-        if (orientation.getX() > 0)
-            angle = 180 + angle;
-
-        transform.setRotation(0, angle + 90, 0);
-        
         double time = Time.getTime();
         
         if(!dead) {
@@ -148,16 +141,13 @@ public class Barrel extends GameComponent {
         
         if (state == STATE_DEAD) {
         	kBooms = true;
-        	if(explosion == null)
-            	explosion = new Explosion(new Transform(getTransform().getPosition()));
-            explosion.update(delta);
-            if(explosion.getState() == 3)
-            	state = STATE_DONE;
+        	if(explosion < 0)
+            	explosion = Auschwitz.getLevel().addExplosion(getTransform().getPosition());
         }
         
         if(state == STATE_DONE) {
         	kBooms = false;
-        	Level.removeBarrel(this);
+        	Auschwitz.getLevel().destroy(this);
         }
 
     }
@@ -170,8 +160,6 @@ public class Barrel extends GameComponent {
     public void render(Shader shader, RenderingEngine renderingEngine) {
     	if(state != STATE_DEAD)
     		meshRenderer.render(shader, renderingEngine);
-    	if(explosion != null)
-    		explosion.render(shader, renderingEngine);
     }
     
     /**
@@ -184,7 +172,7 @@ public class Barrel extends GameComponent {
 	 * Gets the size of the object in the 3D space and saves it on a vector.
 	 * @return the vector size.
 	 */
-    public Vector2f getSize() {return new Vector2f(sizeX, sizeX);}
+    public Vector2f getSize() {return getSize(sizeX, sizeX);}
     
     /**
      * Method that calculates the damage.
@@ -16,13 +16,13 @@
 package game.objects;
 
 import java.util.ArrayList;
-import java.util.Random;
 
 import engine.components.GameComponent;
 import engine.components.MeshRenderer;
 import engine.core.Transform;
 import engine.core.Vector2f;
 import engine.core.Vector3f;
+import engine.core.utils.RandomUtil;
 import engine.rendering.Material;
 import engine.rendering.Mesh;
 import engine.rendering.RenderingEngine;
@@ -82,9 +82,10 @@ public class Bones extends GameComponent {
         	for (int i = 0; i < 2; i++)
         		materialArray.add(new Texture(RES_LOC+"MEDIA"+i));
 
-		material = new Material(materialArray.get(new Random().nextInt(materialArray.size())));
+		material = new Material(materialArray.get(RandomUtil.nextInt(materialArray.size())));
 
         this.transform = transform;
+        this.transform.setBillboard(true);
         this.meshRenderer = new MeshRenderer(mesh, getTransform(), material);
     }
 
@@ -93,17 +94,9 @@ public class Bones extends GameComponent {
      * @param delta of time
      */
     public void update(double delta) {
-    	Vector3f playerDistance = transform.getPosition().sub(Level.getPlayer().getCamera().getPos());
-        Vector3f orientation = playerDistance.normalized();
-		float distance = playerDistance.length();
+    	float distance = transform.getPosition().distance(Level.getPlayer().getCamera().getPos());
         setDistance(distance);
 
-        float angle = (float) Math.toDegrees(Math.atan(orientation.getZ() / orientation.getX()));
-
-        if (orientation.getX() > 0)
-            angle = 180 + angle;
-
-        transform.setRotation(0, angle + 90, 0);
         transform.setScale(1.7f, 0.5f, 1);
     }
 
@@ -124,6 +117,6 @@ public class Bones extends GameComponent {
 	 * Gets the size of the object in the 3D space and saves it on a vector.
 	 * @return the vector size.
 	 */
-    public Vector2f getSize() {return new Vector2f(sizeX, sizeX);}
+    public Vector2f getSize() {return getSize(sizeX, sizeX);}
     
 }
\ No newline at end of file
@@ -18,351 +18,116 @@ package game.objects;
 import static engine.components.Constants.*;
 
 import java.util.ArrayList;
-import java.util.Random;
 
 import javax.sound.sampled.Clip;
 
 import engine.audio.AudioUtil;
-import engine.components.Attenuation;
 import engine.components.GameComponent;
-import engine.components.MeshRenderer;
-import engine.components.PointLight;
-import engine.core.Time;
-import engine.core.Transform;
-import engine.core.Vector2f;
 import engine.core.Vector3f;
-import engine.rendering.Material;
-import engine.rendering.Mesh;
-import engine.rendering.RenderingEngine;
-import engine.rendering.Shader;
-import engine.rendering.Texture;
-import engine.rendering.Vertex;
+import engine.core.utils.RandomUtil;
+import engine.particles.ParticleEmitter;
+import engine.particles.ParticleSystem;
 import game.Auschwitz;
 import game.Level;
 
 /**
+ * Fire that burns for a while and hurts whatever is too close.
  *
  * @author Carlos Rodriguez.
  * @version 1.0
  * @since 2019
  */
-public class Fire extends GameComponent {
+public class Fire extends ParticleEmitter {
+	
+	/** Most fire for every particles level. */
+	public static final int[] 			LIMITS = {0, 0, 32, 64};
 	
 	private static final String 		RES_LOC = "fire/";
-	private static final int 			STATE_FIRE = 1;
-	private static final int 			STATE_DONE = 2;
+	private static final String[] 		VARIANTS = {"F1RE", "F2RE", "FLME"};
+	private static final float 			SIZE_Y = 0.75f;
+	private static final double 		RATE = 12.1;
 	private static final int			DAMAGE = 15;
-	private int 						state;
-	private int 						fireSeed;
-    
-	private PointLight 					light;
-    private static Mesh 				mesh;
-    private Clip						fireSound;
-    
-    private Material 					material;
-    private MeshRenderer 				meshRenderer;
-    private Transform 					transform;
+	/** The flames go back and forth, burning every time they start over. */
+	private static final int[] 			FRAMES = {0, 1, 2, 3, 4, 5, 6, 7, 6, 5, 4, 3, 2, 1, 0, 1,
+												  2, 3, 4, 5, 6, 7, 0, 1, 2, 3, 4, 5, 6, 7, 6, 5,
+												  4, 3, 2, 1, 0, 1, 2, 3, 4, 5, 6, 7, 0, 1, 2, 3};
+	private static final int 			BURN_EVERY = 8;
     
-    private float 						sizeX;
-    private double 						temp;
-    
-    private static ArrayList<Texture> 	animation;
     private static ArrayList<Clip> 		sounds;
 
     /**
-     * Constructor of the actual object.
-     * @param transform the transform of the object in a 3D space.
+     * Constructor of the definition.
      */
-	public Fire(Transform transform) {
+	public Fire() {
+		super(loadAnimations(RES_LOC, VARIANTS, 'A', 8), new float[] {SIZE_Y / 2.0f, SIZE_Y / 2.0f, SIZE_Y / 4.0f}, SIZE_Y, RATE, LIMITS,
+				new Vector3f(0.75f, 0.5f, 0.1f));
 		
-		this.fireSeed = new Random().nextInt(3) + 1;
-		animation = new ArrayList<Texture>();
-    	
-		if(fireSeed == 1) {
-    
-            animation.add(new Texture(RES_LOC + "F1REA0"));
-            animation.add(new Texture(RES_LOC + "F1REB0"));
-            animation.add(new Texture(RES_LOC + "F1REC0"));
-            animation.add(new Texture(RES_LOC + "F1RED0"));
-            animation.add(new Texture(RES_LOC + "F1REE0"));
-            animation.add(new Texture(RES_LOC + "F1REF0"));
-            animation.add(new Texture(RES_LOC + "F1REG0"));
-            animation.add(new Texture(RES_LOC + "F1REH0"));
-		} else if(fireSeed == 2) {
-
-            animation.add(new Texture(RES_LOC + "F2REA0"));
-            animation.add(new Texture(RES_LOC + "F2REB0"));
-            animation.add(new Texture(RES_LOC + "F2REC0"));
-            animation.add(new Texture(RES_LOC + "F2RED0"));
-            animation.add(new Texture(RES_LOC + "F2REE0"));
-            animation.add(new Texture(RES_LOC + "F2REF0"));
-            animation.add(new Texture(RES_LOC + "F2REG0"));
-            animation.add(new Texture(RES_LOC + "F2REH0"));
-		} else if(fireSeed == 3) {
-
-            animation.add(new Texture(RES_LOC + "FLMEA0"));
-            animation.add(new Texture(RES_LOC + "FLMEB0"));
-            animation.add(new Texture(RES_LOC + "FLMEC0"));
-            animation.add(new Texture(RES_LOC + "FLMED0"));
-            animation.add(new Texture(RES_LOC + "FLMEE0"));
-            animation.add(new Texture(RES_LOC + "FLMEF0"));
-            animation.add(new Texture(RES_LOC + "FLMEG0"));
-            animation.add(new Texture(RES_LOC + "FLMEH0"));
+		if(sounds == null) {
+			sounds = new ArrayList<Clip>();
+			for (int i = 1; i < 3; i++)
+				sounds.add(AudioUtil.loadAudio(RES_LOC + "FIRE" + i));
 		}
-		
-		sounds = new ArrayList<Clip>();
-		
-		for (int i = 1; i < 3; i++)
-			sounds.add(AudioUtil.loadAudio(RES_LOC + "FIRE" + i));
-    	
-        if (mesh == null) {
-            float sizeY = 0.75f;
-            if(fireSeed == 3)
-            	sizeX = (float) ((double) sizeY / (1.0f * 4.0));
-            else
-            	sizeX = (float) ((double) sizeY / (1.0f * 2.0));
-
-            float offsetX = 0.0f;
-            float offsetY = 0.0f;
-
-            float texMinX = -offsetX;
-            float texMaxX = -1 - offsetX;
-            float texMinY = -offsetY;
-            float texMaxY = 1 - offsetY;
-
-            Vertex[] verts = new Vertex[]{new Vertex(new Vector3f(-sizeX, 0, 0), new Vector2f(texMaxX, texMaxY)),
-                new Vertex(new Vector3f(-sizeX, sizeY, 0), new Vector2f(texMaxX, texMinY)),
-                new Vertex(new Vector3f(sizeX, sizeY, 0), new Vector2f(texMinX, texMinY)),
-                new Vertex(new Vector3f(sizeX, 0, 0), new Vector2f(texMinX, texMaxY))};
-
-            int[] indices = new int[]{0, 1, 2,
-                                    0, 2, 3};
-
-            mesh = new Mesh(verts, indices, true);
-        }
-        this.componentType = "particle";
-        this.material = new Material(animation.get(0));
-        this.state = STATE_FIRE;
-        this.transform = transform;
-        this.meshRenderer = new MeshRenderer(mesh, getTransform(), material);
-	    this.light = new PointLight(new Vector3f(0.75f,0.5f,0.1f), 0.8f, 
-				   new Attenuation(0,0,1), getTransform().getPosition());
-	    this.light.addToEngine();
-        this.fireSound = sounds.get(new Random().nextInt(sounds.size()));
-    	AudioUtil.playAudio(fireSound, transform.getPosition().sub(Level.getPlayer().getCamera().getPos()).length());
     }
+	
+	/**
+	 * Returns the frame of the flames at a point of the animation.
+	 * @param phase of the animation, the second fraction times the rate.
+	 * @return Frame or -1 when the fire is over.
+	 */
+	protected int getFrame(double phase) {
+		int step = getStep(phase);
+		return step < FRAMES.length ? FRAMES[step] : -1;
+	}
+	
+	/**
+	 * Picks one of the three kinds of fire.
+	 * @return Variant.
+	 */
+	protected int spawnVariant() {return RandomUtil.nextInt(VARIANTS.length);}
+	
+	/**
+	 * Plays the sound of the fire, kept on the particle to stop it.
+	 * @param system of the particle.
+	 * @param i index of the particle.
+	 */
+	protected void spawned(ParticleSystem system, int i) {
+		system.setData(i, RandomUtil.nextInt(sounds.size()));
+		AudioUtil.playAudio(sounds.get(system.getData(i)), getDistance(system, i, Level.getPlayer().getCamera().getPos()));
+	}
 
     /**
-     * Method that updates the object's data.
+     * Burns the player and the shooting objective when they are too close.
+     * @param system of the particle.
+     * @param i index of the particle.
      * @param delta of time
      */
-    public void update(double delta) {
-    	Vector3f playerDistance = transform.getPosition().sub(Level.getPlayer().getCamera().getPos());
-        Vector3f orientation = playerDistance.normalized();
-		float distance = playerDistance.length();
-		setDistance(distance + (int) (POP_IN/PARTICLES_POP_IN));
-		
-        if (state == STATE_FIRE) {
-            float angle = (float) Math.toDegrees(Math.atan(orientation.getZ() / orientation.getX()));
-
-            if (orientation.getX() > 0)
-                angle = 180 + angle;
-
-            transform.setRotation(0, angle + 90, 0);
-            temp = delta;
-            light.setPosition(transform.getPosition());
-            light.setPosition(new Vector3f(light.getPosition().getX(), 0.05f * (float)(Math.sin(temp*2.5)+1.0/2.0) + 0.45f, light.getPosition().getZ()));
-            
-            double time = Time.getTime();
-            double timeDecimals = (time - (double) ((int) time));
-            timeDecimals *= 12.1f;
-            
-            if (timeDecimals <= 0.25f) {
-                material.setDiffuse(animation.get(0));
-                if(transform.getPosition().sub(Level.getPlayer().getCamera().getPos()).length() < 1.0f && !Level.getPlayer().isShooting) {
-        			if(Level.getPlayer().isArmor() == false)
-        				Level.getPlayer().addHealth((int) -DAMAGE/2, "FIRE");
-                	else
-                		Level.getPlayer().addArmor((int) -DAMAGE/2);
-        		}
-                if(Auschwitz.getLevel().getShootingObjective() != null)
-        	        if(getTransform().getPosition().sub(Auschwitz.getLevel().getShootingObjective().getTransform().getPosition()).length() < 1.0f)
-        	        	Auschwitz.getLevel().getShootingObjective().damage(DAMAGE);
-            } else if (timeDecimals <= 0.5f) {
-                material.setDiffuse(animation.get(1));
-            } else if (timeDecimals <= 0.75f) {
-                material.setDiffuse(animation.get(2));
-            } else if (timeDecimals <= 1f) {
-                material.setDiffuse(animation.get(3));
-            } else if (timeDecimals <= 1.25f) {
-                material.setDiffuse(animation.get(4));
-            } else if (timeDecimals <= 1.5f) {
-                material.setDiffuse(animation.get(5));
-            } else if (timeDecimals <= 1.75f) {
-                material.setDiffuse(animation.get(6));
-            } else if (timeDecimals <= 2f) {
-                material.setDiffuse(animation.get(7));
-            } else if (timeDecimals <= 2.25f) {
-                material.setDiffuse(animation.get(6));
-                if(transform.getPosition().sub(Level.getPlayer().getCamera().getPos()).length() < 1.0f && !Level.getPlayer().isShooting) {
-        			if(Level.getPlayer().isArmor() == false)
-        				Level.getPlayer().addHealth((int) -DAMAGE/2, "FIRE");
-                	else
-                		Level.getPlayer().addArmor((int) -DAMAGE/2);
-        		}
-                if(Auschwitz.getLevel().getShootingObjective() != null)
-        	        if(getTransform().getPosition().sub(Auschwitz.getLevel().getShootingObjective().getTransform().getPosition()).length() < 1.0f)
-        	        	Auschwitz.getLevel().getShootingObjective().damage(DAMAGE);
-            } else if (timeDecimals <= 2.5f) {
-                material.setDiffuse(animation.get(5));
-            } else if (timeDecimals <= 2.75f) {
-                material.setDiffuse(animation.get(4));
-            } else if (timeDecimals <= 3f) {
-                material.setDiffuse(animation.get(3));
-            } else if (timeDecimals <= 3.25f) {
-                material.setDiffuse(animation.get(2));
-            } else if (timeDecimals <= 3.5f) {
-                material.setDiffuse(animation.get(1));
-            } else if (timeDecimals <= 3.75f) {
-                material.setDiffuse(animation.get(0));
-            } else if (timeDecimals <= 4f) {
-                material.setDiffuse(animation.get(1));
-            } else if (timeDecimals <= 4.25f) {
-                material.setDiffuse(animation.get(2));
-                if(transform.getPosition().sub(Level.getPlayer().getCamera().getPos()).length() < 1.0f && !Level.getPlayer().isShooting) {
-        			if(Level.getPlayer().isArmor() == false)
-        				Level.getPlayer().addHealth((int) -DAMAGE/2, "FIRE");
-                	else
-                		Level.getPlayer().addArmor((int) -DAMAGE/2);
-        		}
-                if(Auschwitz.getLevel().getShootingObjective() != null)
-        	        if(getTransform().getPosition().sub(Auschwitz.getLevel().getShootingObjective().getTransform().getPosition()).length() < 1.0f)
-        	        	Auschwitz.getLevel().getShootingObjective().damage(DAMAGE);
-            } else if (timeDecimals <= 4.5f) {
-                material.setDiffuse(animation.get(3));
-            } else if (timeDecimals <= 4.75f) {
-                material.setDiffuse(animation.get(4));
-            } else if (timeDecimals <= 5f) {
-                material.setDiffuse(animation.get(5));
-            } else if (timeDecimals <= 5.25f) {
-                material.setDiffuse(animation.get(6));
-            } else if (timeDecimals <= 5.5f) {
-                material.setDiffuse(animation.get(7));
-            } else if (timeDecimals <= 5.75f) {
-                material.setDiffuse(animation.get(0));
-            } else if (timeDecimals <= 6f) {
-                material.setDiffuse(animation.get(1));
-            } else if (timeDecimals <= 6.25f) {
-                material.setDiffuse(animation.get(2));
-                if(transform.getPosition().sub(Level.getPlayer().getCamera().getPos()).length() < 1.0f && !Level.getPlayer().isShooting) {
-        			if(Level.getPlayer().isArmor() == false)
-        				Level.getPlayer().addHealth((int) -DAMAGE/2, "FIRE");
-                	else
-                		Level.getPlayer().addArmor((int) -DAMAGE/2);
-        		}
-                if(Auschwitz.getLevel().getShootingObjective() != null)
-        	        if(getTransform().getPosition().sub(Auschwitz.getLevel().getShootingObjective().getTransform().getPosition()).length() < 1.0f)
-        	        	Auschwitz.getLevel().getShootingObjective().damage(DAMAGE);
-            } else if (timeDecimals <= 6.5f) {
-                material.setDiffuse(animation.get(3));
-            } else if (timeDecimals <= 6.75f) {
-                material.setDiffuse(animation.get(4));
-            } else if (timeDecimals <= 7f) {
-                material.setDiffuse(animation.get(5));
-            } else if (timeDecimals <= 7.25f) {
-                material.setDiffuse(animation.get(6));
-            } else if (timeDecimals <= 7.5f) {
-                material.setDiffuse(animation.get(7));
-            } else if (timeDecimals <= 7.75f) {
-                material.setDiffuse(animation.get(6));
-            } else if (timeDecimals <= 8f) {
-                material.setDiffuse(animation.get(5));
-            } else if (timeDecimals <= 8.25f) {
-                material.setDiffuse(animation.get(4));
-                if(transform.getPosition().sub(Level.getPlayer().getCamera().getPos()).length() < 1.0f && !Level.getPlayer().isShooting) {
-        			if(Level.getPlayer().isArmor() == false)
-        				Level.getPlayer().addHealth((int) -DAMAGE/2, "FIRE");
-                	else
-                		Level.getPlayer().addArmor((int) -DAMAGE/2);
-        		}
-                if(Auschwitz.getLevel().getShootingObjective() != null)
-        	        if(getTransform().getPosition().sub(Auschwitz.getLevel().getShootingObjective().getTransform().getPosition()).length() < 1.0f)
-        	        	Auschwitz.getLevel().getShootingObjective().damage(DAMAGE);
-            } else if (timeDecimals <= 8.5f) {
-                material.setDiffuse(animation.get(3));
-            } else if (timeDecimals <= 8.75f) {
-                material.setDiffuse(animation.get(2));
-            } else if (timeDecimals <= 9f) {
-                material.setDiffuse(animation.get(1));
-            } else if (timeDecimals <= 9.25f) {
-                material.setDiffuse(animation.get(0));
-            } else if (timeDecimals <= 9.5f) {
-                material.setDiffuse(animation.get(1));
-            } else if (timeDecimals <= 9.75f) {
-                material.setDiffuse(animation.get(2));
-            } else if (timeDecimals <= 10f) {
-                material.setDiffuse(animation.get(3));
-            } else if (timeDecimals <= 10.25f) {
-                material.setDiffuse(animation.get(4));
-                if(transform.getPosition().sub(Level.getPlayer().getCamera().getPos()).length() < 1.0f && !Level.getPlayer().isShooting) {
-        			if(Level.getPlayer().isArmor() == false)
-        				Level.getPlayer().addHealth((int) -DAMAGE/2, "FIRE");
-                	else
-                		Level.getPlayer().addArmor((int) -DAMAGE/2);
-        		}
-                if(Auschwitz.getLevel().getShootingObjective() != null)
-        	        if(getTransform().getPosition().sub(Auschwitz.getLevel().getShootingObjective().getTransform().getPosition()).length() < 1.0f)
-        	        	Auschwitz.getLevel().getShootingObjective().damage(DAMAGE);
-            } else if (timeDecimals <= 10.5f) {
-                material.setDiffuse(animation.get(5));
-            } else if (timeDecimals <= 10.75f) {
-                material.setDiffuse(animation.get(6));
-            } else if (timeDecimals <= 11f) {
-                material.setDiffuse(animation.get(7));
-            } else if (timeDecimals <= 11.25f) {
-                material.setDiffuse(animation.get(0));
-            } else if (timeDecimals <= 11.5f) {
-                material.setDiffuse(animation.get(1));
-            } else if (timeDecimals <= 11.75f) {
-                material.setDiffuse(animation.get(2));
-            } else if (timeDecimals <= 12f) {
-                material.setDiffuse(animation.get(3));
-            } else {
-                state = STATE_DONE;
-            }
-        }
-        
-        if(state == STATE_DONE) {
-        	light.removeToEngine();
-        	fireSound.stop();
-        	Level.removeFire(this);
-        }
-
+    protected void update(ParticleSystem system, int i, double delta) {
+    	if(getStep(system.getPhase()) % BURN_EVERY != 0)
+    		return;
+    	
+        if(getDistance(system, i, Level.getPlayer().getCamera().getPos()) < 1.0f && !Level.getPlayer().isShooting) {
+			if(Level.getPlayer().isArmor() == false)
+				Level.getPlayer().addHealth((int) -DAMAGE/2, "FIRE");
+        	else
+        		Level.getPlayer().addArmor((int) -DAMAGE/2);
+		}
+        GameComponent objective = Auschwitz.getLevel().getShootingObjective();
+        if(objective != null)
+	        if(getDistance(system, i, objective.getTransform().getPosition()) < 1.0f)
+	        	objective.damage(DAMAGE);
     }
-
-    /**
-     * Method that renders the object's mesh to screen.
-     * @param shader to render
-     * @param renderingEngine to use
-     */
-    public void render(Shader shader, RenderingEngine renderingEngine) { meshRenderer.render(shader, renderingEngine); }
     
     /**
-     * Returns the explosion state.
-     * @return state
+     * Stops the sound of the fire.
+     * @param system of the particle.
+     * @param i index of the particle.
      */
-    public int getState() {return state;}
+    protected void died(ParticleSystem system, int i) {sounds.get(system.getData(i)).stop();}
     
     /**
-     * Gets the transform of the object in projection.
-     * @return transform.
+     * Returns the distance from the camera the fire is drawn from.
+     * @return Pop-in distance.
      */
-	public Transform getTransform() {return transform;}
-	
-	/**
-	 * Gets the size of the object in the 3D space and saves it on a vector.
-	 * @return the vector size.
-	 */
-    public Vector2f getSize() {return new Vector2f(sizeX, sizeX);}
+    public float getPopIn() {return PARTICLES_POP_IN - (int) (POP_IN/PARTICLES_POP_IN);}
     
-}
\ No newline at end of file
+}
@@ -82,6 +82,7 @@ public class Grass extends GameComponent {
 				break;
 		}
 		this.transform = transform;
+		this.transform.setBillboard(true);
         this.meshRenderer = new MeshRenderer(mesh, getTransform(), material);
     }
 
@@ -90,19 +91,9 @@ public class Grass extends GameComponent {
      * @param delta of time
      */
     public void update(double delta) {
-    	Vector3f playerDistance = transform.getPosition().sub(Level.getPlayer().getCamera().getPos());
-        Vector3f orientation = playerDistance.normalized();
-		float distance = playerDistance.length();
+    	float distance = transform.getPosition().distance(Level.getPlayer().getCamera().getPos());
         setDistance(distance);
 
-        float angle = (float) Math.toDegrees(Math.atan(orientation.getZ() / orientation.getX()));
-
-        if (orientation.getX() > 0) {
-            angle = 180 + angle;
-        }
-
-        transform.setRotation(0, angle + 90, 0);
-
     }
 
     /**
@@ -122,6 +113,6 @@ public class Grass extends GameComponent {
 	 * Gets the size of the object in the 3D space and saves it on a vector.
 	 * @return the vector size.
 	 */
-    public Vector2f getSize() {return new Vector2f(sizeX, sizeX);}
+    public Vector2f getSize() {return getSize(sizeX, sizeX);}
     
 }
\ No newline at end of file
@@ -79,6 +79,7 @@ public class Lantern extends GameComponent {
 
         this.material = new Material(new Texture(RES_LOC));     
         this.transform = transform;
+        this.transform.setBillboard(true);
         this.meshRenderer = new MeshRenderer(mesh, getTransform(), material);
 
     	light = new PointLight(new Vector3f(0.5f,0.5f,0.6f), 0.8f, 
@@ -92,17 +93,9 @@ public class Lantern extends GameComponent {
      * @param delta of time
      */
     public void update(double delta) {
-    	Vector3f playerDistance = transform.getPosition().sub(Level.getPlayer().getCamera().getPos());
-        Vector3f orientation = playerDistance.normalized();
-		float distance = playerDistance.length();
+    	float distance = transform.getPosition().distance(Level.getPlayer().getCamera().getPos());
 		setDistance(distance);
 
-        float angle = (float) Math.toDegrees(Math.atan(orientation.getZ() / orientation.getX()));
-
-        if (orientation.getX() > 0) {
-            angle = 180 + angle;
-        }
-        transform.setRotation(0, angle + 90, 0);
        }
 
     /**
@@ -122,6 +115,6 @@ public class Lantern extends GameComponent {
 	 * Gets the size of the object in the 3D space and saves it on a vector.
 	 * @return the vector size.
 	 */
-    public Vector2f getSize() {return new Vector2f(sizeX, sizeX);}
+    public Vector2f getSize() {return getSize(sizeX, sizeX);}
     
 }
\ No newline at end of file
@@ -31,6 +31,7 @@ import engine.rendering.RenderingEngine;
 import engine.rendering.Shader;
 import engine.rendering.Texture;
 import engine.rendering.Vertex;
+import game.Auschwitz;
 import game.Level;
 
 /**
@@ -53,7 +54,7 @@ public class Oven extends GameComponent {
     private Material 					material;
     private MeshRenderer				meshRenderer;
     private PointLight 					light;
-    private Explosion					explosion;
+    private long						explosion = -1;
     
     private float 						sizeX;
     private double 						health;
@@ -104,6 +105,7 @@ public class Oven extends GameComponent {
         this.material = new Material(animation.get(0));
         this.state = STATE_IDLE;
         this.transform = transform;
+        this.transform.setBillboard(true);
         this.meshRenderer = new MeshRenderer(mesh, getTransform(), material);
         this.light = new PointLight(new Vector3f(1.0f,0.5f,0.2f), 0.8f, 
         		new Attenuation(0,0,1), new Vector3f(getTransform().getPosition().getX(), 0.25f, 
@@ -118,20 +120,10 @@ public class Oven extends GameComponent {
      * @param delta of time
      */
     public void update(double delta) {
-    	Vector3f playerDistance = transform.getPosition().sub(Level.getPlayer().getCamera().getPos());
-    	Vector3f orientation = playerDistance.normalized();
-		float distance = playerDistance.length();
+    	float distance = transform.getPosition().distance(Level.getPlayer().getCamera().getPos());
 		setDistance(distance);
 
-        float angle = (float) Math.toDegrees(Math.atan(orientation.getZ() / orientation.getX()));
-
-        if (orientation.getX() > 0) {
-            angle = 180 + angle;
-        }
-        
         temp += delta;
-
-        transform.setRotation(0, angle + 90, 0);
         
         double time = Time.getTime();
         
@@ -161,13 +153,10 @@ public class Oven extends GameComponent {
         
         if (state == STATE_DYING) {
             dead = true;
-            if(explosion == null)
-            	explosion = new Explosion(new Transform(getTransform().getPosition()));
-            explosion.update(delta);
+            if(explosion < 0)
+            	explosion = Auschwitz.getLevel().addExplosion(getTransform().getPosition());
             transform.setScale(1,0.28571428571428571428571428571429f,1);
             material.setDiffuse(animation.get(5));
-            if(explosion.getState() == 3)
-            	state = STATE_DEAD;          	
         }
         
         if (state == STATE_DEAD) {
@@ -185,8 +174,6 @@ public class Oven extends GameComponent {
      */
     public void render(Shader shader, RenderingEngine renderingEngine) {
     	meshRenderer.render(shader, renderingEngine);
-    	if(explosion != null)
-    		explosion.render(shader, renderingEngine);
     }
     
     /**
@@ -199,7 +186,7 @@ public class Oven extends GameComponent {
 	 * Gets the size of the object in the 3D space and saves it on a vector.
 	 * @return the vector size.
 	 */
-    public Vector2f getSize() {return new Vector2f(sizeX, sizeX);}
+    public Vector2f getSize() {return getSize(sizeX, sizeX);}
     
     /**
      * Method that calculates the damage.
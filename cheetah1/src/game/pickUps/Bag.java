@@ -29,6 +29,7 @@ import engine.rendering.RenderingEngine;
 import engine.rendering.Shader;
 import engine.rendering.Texture;
 import engine.rendering.Vertex;
+import game.Auschwitz;
 import game.Level;
 
 /**
@@ -80,6 +81,7 @@ public class Bag extends GameComponent {
 
         material = new Material(new Texture(RES_LOC));
         this.transform = transform;
+        this.transform.setBillboard(true);
         this.meshRenderer = new MeshRenderer(mesh, this.transform, material);
     }
 
@@ -88,17 +90,9 @@ public class Bag extends GameComponent {
      * @param delta of time
      */
     public void update(double delta) {
-    	Vector3f playerDistance = transform.getPosition().sub(Level.getPlayer().getCamera().getPos());
-        Vector3f orientation = playerDistance.normalized();
-        float distance = playerDistance.length();
+    	float distance = transform.getPosition().distance(Level.getPlayer().getCamera().getPos());
         setDistance(distance);
 
-        float angle = (float) Math.toDegrees(Math.atan(orientation.getZ() / orientation.getX()));
-
-        if (orientation.getX() > 0)
-            angle = 180 + angle;
-
-        transform.setRotation(0, angle + 90, 0);
         if (!(distance < PICKUP_THRESHHOLD)) {
 	        temp += (float) delta; 
 	        transform.getPosition().setY(0.05f * (float)(Math.sin(temp)+1.0/2.0) + 0.025f);
@@ -112,7 +106,7 @@ public class Bag extends GameComponent {
             Level.getPlayer().setMaxRockets(Level.getPlayer().getMaxRockets()*2);
             Level.getPlayer().setMaxGas(Level.getPlayer().getMaxGas()*2);
             Level.getPlayer().setMaxArmor(Level.getPlayer().getMaxArmor()*2);
-            Level.removeBags(this);
+            Auschwitz.getLevel().destroy(this);
         }
     }
 
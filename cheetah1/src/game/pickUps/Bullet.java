@@ -29,6 +29,7 @@ import engine.rendering.RenderingEngine;
 import engine.rendering.Shader;
 import engine.rendering.Texture;
 import engine.rendering.Vertex;
+import game.Auschwitz;
 import game.Level;
 
 /**
@@ -84,6 +85,7 @@ public class Bullet extends GameComponent {
         material = new Material(new Texture(RES_LOC));
         this.shouldFloat = shouldFloat;
         this.transform = transform;
+        this.transform.setBillboard(true);
         this.meshRenderer = new MeshRenderer(mesh, this.transform, material);
     }
 
@@ -92,19 +94,9 @@ public class Bullet extends GameComponent {
      * @param delta of time
      */
     public void update(double delta) {
-    	Vector3f playerDistance = transform.getPosition().sub(Level.getPlayer().getCamera().getPos());
-        Vector3f orientation = playerDistance.normalized();
-        float distance = playerDistance.length();
+    	float distance = transform.getPosition().distance(Level.getPlayer().getCamera().getPos());
         setDistance(distance);
 
-        float angle = (float) Math.toDegrees(Math.atan(orientation.getZ() / orientation.getX()));
-
-        if (orientation.getX() > 0) {
-            angle = 180 + angle;
-        }
-
-        transform.setRotation(0, angle + 90, 0);
-        
         if (shouldFloat) {
 	        temp += (float) delta; 
 	        transform.getPosition().setY(0.05f * (float)(Math.sin(temp)+1.0/2.0) + 0.025f);
@@ -113,7 +105,7 @@ public class Bullet extends GameComponent {
         if (distance < PICKUP_THRESHHOLD && Level.getPlayer().getBullets() < Level.getPlayer().getMaxBullets()) {
         	AudioUtil.playAudio(PICKUP_NOISE, 0);
             Level.getPlayer().addBullets(AMOUNT);
-            Level.removeBullets(this);
+            Auschwitz.getLevel().destroy(this);
         }
     }
 
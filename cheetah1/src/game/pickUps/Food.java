@@ -29,6 +29,7 @@ import engine.rendering.RenderingEngine;
 import engine.rendering.Shader;
 import engine.rendering.Texture;
 import engine.rendering.Vertex;
+import game.Auschwitz;
 import game.Level;
 
 /**
@@ -81,6 +82,7 @@ public class Food extends GameComponent {
         
         material = new Material(new Texture(RES_LOC));
         this.transform = transform;
+        this.transform.setBillboard(true);
         this.meshRenderer = new MeshRenderer(mesh, this.transform, material);
     }
 
@@ -89,18 +91,9 @@ public class Food extends GameComponent {
      * @param delta of time
      */
     public void update(double delta) {
-    	Vector3f playerDistance = transform.getPosition().sub(Level.getPlayer().getCamera().getPos());
-        Vector3f orientation = playerDistance.normalized();
-        float distance = playerDistance.length();
+    	float distance = transform.getPosition().distance(Level.getPlayer().getCamera().getPos());
         setDistance(distance);
 
-        float angle = (float) Math.toDegrees(Math.atan(orientation.getZ() / orientation.getX()));
-
-        if (orientation.getX() > 0) {
-            angle = 180 + angle;
-        }
-
-        transform.setRotation(0, angle + 90, 0);
         if (!(distance < PICKUP_THRESHHOLD)) {
 	        temp += (float) delta; 
 	        transform.getPosition().setY(0.05f * (float)(Math.sin(temp)+1.0/2.0) + 0.025f);
@@ -109,7 +102,7 @@ public class Food extends GameComponent {
 
         if (distance < PICKUP_THRESHHOLD && Level.getPlayer().getHealth() < Level.getPlayer().getMaxHealth()) {
             Level.getPlayer().addHealth(HEAL_AMOUNT, "Food");
-            Level.removeFood(this);
+            Auschwitz.getLevel().destroy(this);
             AudioUtil.playAudio(PICKUP_NOISE, 0);
         }
     }
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2019 Carlos Rodriguez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package game.projectiles;
+
+import engine.core.Vector3f;
+import engine.particles.ParticleEmitter;
+import engine.particles.ParticleSystem;
+import engine.rendering.Texture;
+import game.Auschwitz;
+
+/**
+ * Something thrown or shot across the level, kept as a particle so all
+ * of a kind move in one loop and are drawn in one batch. Every tick it
+ * sweeps its box along its way against the level, so it can't go through
+ * a wall between two ticks however fast it is, and stops right where it
+ * touches. Hitting the level or reaching its target is reported as an
+ * impact, and what it hit is kept in the data of the particle. One that
+ * has to make room for a new one hits the level where it is, and stays
+ * if it outlives its hit.
+ * <p>
+ * The velocity of the particle is how much it moves every second.
+ *
+ * @author Carlos Rodriguez.
+ * @version 1.0
+ * @since 2019
+ */
+public abstract class Projectile extends ParticleEmitter {
+	
+	/** The projectile hit a wall, a solid object or the floor. */
+	public static final int 		HIT_LEVEL = 0;
+	/** The projectile reached its target. */
+	public static final int 		HIT_TARGET = 1;
+	
+	private final float 			size;
+	private final float 			lift;
+
+    /**
+     * Constructor of the definition.
+     * @param animations frames of the sprite.
+     * @param size half of the width of the sprite and of the box.
+     * @param height of the sprite.
+     * @param rate how far the animation goes every second, a frame is a quarter.
+     * @param limits most projectiles alive for every particles level.
+     * @param lightColor of the light of every projectile, or null.
+     * @param lift how much it goes up faster every second, or down if it's negative.
+     */
+	protected Projectile(Texture[][] animations, float size, float height, double rate, int[] limits, Vector3f lightColor, float lift) {
+		super(animations, new float[] {size}, height, rate, limits, lightColor);
+		this.size = size;
+		this.lift = lift;
+    }
+
+    /**
+     * Moves the projectile until it hits something.
+     * @param system of the particle.
+     * @param i index of the particle.
+     * @param delta of time
+     */
+    protected void update(ParticleSystem system, int i, double delta) {
+    	float velocityX = system.getVelocityX(i);
+    	float velocityZ = system.getVelocityZ(i);
+    	float upAmt = system.getVelocityY(i) + (float) (lift * delta);
+    	system.setVelocity(i, velocityX, upAmt, velocityZ);
+
+    	float x = system.getX(i);
+    	float y = system.getY(i) + (float) (upAmt * delta);
+    	float z = system.getZ(i);
+    	float moveX = (float) (velocityX * delta);
+    	float moveZ = (float) (velocityZ * delta);
+    	float part = 1;
+    	if(moveX != 0 || moveZ != 0)
+    		part = Auschwitz.getLevel().sweep(x, z, moveX, moveZ, size);
+    	system.setPosition(i, x + moveX * part, Math.max(0, y), z + moveZ * part);
+
+    	if(reached(system, i)) {
+    		system.setData(i, HIT_TARGET);
+    		system.impact(i);
+    	} else if(part < 1 || y < 0) {
+    		system.setData(i, HIT_LEVEL);
+    		system.impact(i);
+    	}
+    }
+    
+    /**
+     * Checks if the projectile got to its target, after it moved.
+     * @param system of the particle.
+     * @param i index of the particle.
+     * @return If it reached it.
+     */
+    protected boolean reached(ParticleSystem system, int i) {return false;}
+    
+    /**
+     * Ends the flight of the projectile where it is, as if it hit the
+     * level, so it never goes away without its impact.
+     * @param system of the particle.
+     * @param i index of the particle.
+     * @return If it dies of the hit.
+     */
+    protected boolean makeRoom(ParticleSystem system, int i) {
+    	system.setData(i, HIT_LEVEL);
+    	return hit(system, i);
+    }
+    
+}
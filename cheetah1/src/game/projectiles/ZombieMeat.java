@@ -15,143 +15,82 @@
  */
 package game.projectiles;
 
-import engine.components.GameComponent;
-import engine.components.MeshRenderer;
-import engine.core.Transform;
-import engine.core.Vector2f;
 import engine.core.Vector3f;
-import engine.rendering.Material;
-import engine.rendering.Mesh;
-import engine.rendering.RenderingEngine;
-import engine.rendering.Shader;
+import engine.particles.ParticleSystem;
 import engine.rendering.Texture;
-import engine.rendering.Vertex;
-import game.Auschwitz;
 import game.Level;
-import game.enemies.Zombie;
 
 /**
+ * Gibs the zombies throw at the player, that hurt whoever they reach.
  *
  * @author Carlos Rodriguez.
  * @version 1.0
  * @since 2018
  */
-public class ZombieMeat extends GameComponent {
-    
-    private static Mesh 		mesh;
-    private static Material 	material;
-    private MeshRenderer 		meshRenderer;
-    private float 				sizeX;
-    private int 				state;
+public class ZombieMeat extends Projectile {
+	
+	/** Most gibs for every particles level. */
+	public static final int[] 			LIMITS = {16, 16, 32, 32};
     
-    private static final String RES_LOC = "zombie/";
-
-    private Transform 			transform;
-    private Vector3f 			objetiveOrientation;
+	private static final String 		RES_LOC = "zombie/";
+	private static final float 			SIZE = 0.25f;
+	private static final float			SPEED = 2.5f;
+	private static final float			REACH = 0.525f;
+	private static final int 			DAMAGE = 35;
 
     /**
-     * Constructor of the actual object.
-     * @param transform the transform of the data.
+     * Constructor of the definition.
      */
-    public ZombieMeat(Transform transform) {
-        if (mesh == null) {
-            float sizeY = 0.25f;
-            sizeX = sizeY;
-
-            float offsetX = 0.0f;
-            float offsetY = 0.0f;
-
-            float texMinX = -offsetX;
-            float texMaxX = -1 - offsetX;
-            float texMinY = -offsetY;
-            float texMaxY = 1 - offsetY;
-
-            Vertex[] verts = new Vertex[]{new Vertex(new Vector3f(-sizeX, 0, 0), new Vector2f(texMaxX, texMaxY)),
-                new Vertex(new Vector3f(-sizeX, sizeY, 0), new Vector2f(texMaxX, texMinY)),
-                new Vertex(new Vector3f(sizeX, sizeY, 0), new Vector2f(texMinX, texMinY)),
-                new Vertex(new Vector3f(sizeX, 0, 0), new Vector2f(texMinX, texMaxY))};
-
-            int[] indices = new int[]{0, 1, 2,
-                                    0, 2, 3};
-
-            mesh = new Mesh(verts, indices, true);
-        }
-        
-        material = new Material(new Texture(RES_LOC+"ZOMBMEAT"));
-        this.transform = transform;
-        this.meshRenderer = new MeshRenderer(mesh, getTransform(), material);
-        this.objetiveOrientation = this.transform.getPosition().sub(Level.getPlayer().getCamera().getPos()).normalized();
-        this.state = 0;
+    public ZombieMeat() {
+    	super(new Texture[][] {{new Texture(RES_LOC + "ZOMBMEAT")}}, SIZE, SIZE, 1, LIMITS, null, 0);
     }
-
+    
     /**
-     * Updates the object every single frame.
-     * @param delta of time
+     * Aims the gib at the player's eye.
+     * @param system of the particle.
+     * @param i index of the particle.
      */
-    public void update(double delta) {
-    	if(state == 0) {
-	    	Vector3f playerDistance = transform.getPosition().sub(Level.getPlayer().getCamera().getPos());
-	        Vector3f orientation = playerDistance.normalized();
-			float distance = playerDistance.length();
-	        setDistance(distance);
-	
-	        float angle = (float) Math.toDegrees(Math.atan(orientation.getZ() / orientation.getX()));
-	
-	        if (orientation.getX() > 0) {
-	            angle = 180 + angle;
-	        }
-	        transform.setRotation(0, angle + 90, 0);
-	        
-	        objetiveOrientation.setY(0);
-	        float moveSpeed = 2.5f;
-	
-	        Vector3f oldPos = transform.getPosition();
-	        Vector3f newPos = transform.getPosition().add(objetiveOrientation.mul((float) (-moveSpeed * delta)));
-	
-	        Vector3f collisionVector = Auschwitz.getLevel().checkCollisions(oldPos, newPos, sizeX, sizeX);
-	
-	        Vector3f movementVector = collisionVector.mul(objetiveOrientation.normalized());
-	        
-	        if(distance < 0.525f) {
-				if(Level.getPlayer().isArmor() == false) {
-					Level.getPlayer().addHealth((int) -35, "Zombie's gib");
-					state = 1;
-	        	} else {
-	        		Level.getPlayer().addArmor((int) -35);
-	        		state = 1;
-	        	}
-			}
-	        
-	        if (movementVector.length() > 0.33f) {
-	            transform.setPosition(transform.getPosition().add(movementVector.mul((float) (-moveSpeed * delta))));
-	        } else {
-	        	state = 1;
-	        }
-    	} 
-    	if(state == 1) { Zombie.removeGibs(this); }
-    	
+    protected void spawned(ParticleSystem system, int i) {
+    	Vector3f eye = Level.getPlayer().getCamera().getPos();
+        float x = eye.getX() - system.getX(i);
+        float z = eye.getZ() - system.getZ(i);
+        float length = (float) Math.sqrt(x * x + z * z);
+        if(length > 0)
+        	system.setVelocity(i, x / length * SPEED, 0, z / length * SPEED);
     }
-
+    
     /**
-     * Method that renders the object's mesh.
-     * @param shader to render
-     * @param renderingEngine to use
+     * Checks if the gib got to the player.
+     * @param system of the particle.
+     * @param i index of the particle.
+     * @return If it reached it.
      */
-    public void render(Shader shader, RenderingEngine renderingEngine) {
-    	if(state == 0)
-    		meshRenderer.render(shader, renderingEngine);
+    protected boolean reached(ParticleSystem system, int i) {
+    	return getDistance(system, i, Level.getPlayer().getCamera().getPos()) < REACH;
     }
     
     /**
-     * Gets the transform of the object in projection.
-     * @return transform.
+     * Hurts the player if that's what the gib hit.
+     * @param system of the particle.
+     * @param i index of the particle.
+     * @return If it dies, always.
      */
-	public Transform getTransform() {return transform;}
-	
-	/**
-	 * Gets the size of the object in the 3D space and saves it on a vector.
-	 * @return the vector size.
-	 */
-    public Vector2f getSize() {return new Vector2f(sizeX, sizeX);}
+    protected boolean hit(ParticleSystem system, int i) {
+    	if(system.getData(i) == HIT_TARGET) {
+    		if(!Level.getPlayer().isArmor())
+    			Level.getPlayer().addHealth(-DAMAGE, "Zombie's gib");
+    		else
+    			Level.getPlayer().addArmor(-DAMAGE);
+    	}
+    	return true;
+    }
+    
+    /**
+     * Shows the only frame for as long as the gib flies, until it
+     * hits something.
+     * @param phase of the animation.
+     * @return Frame.
+     */
+    protected int getFrame(double phase) {return 0;}
     
-}
\ No newline at end of file
+}
@@ -17,181 +17,98 @@ package game.projectiles;
 
 import static engine.components.Constants.GRAVITY;
 
-import engine.components.Attenuation;
 import engine.components.GameComponent;
-import engine.components.MeshRenderer;
-import engine.components.PointLight;
-import engine.core.Transform;
-import engine.core.Vector2f;
 import engine.core.Vector3f;
-import engine.rendering.Material;
-import engine.rendering.Mesh;
-import engine.rendering.RenderingEngine;
-import engine.rendering.Shader;
+import engine.particles.ParticleSystem;
 import engine.rendering.Texture;
-import engine.rendering.Vertex;
 import game.Auschwitz;
 import game.Level;
-import game.enemies.Commander;
-import game.objects.Explosion;
 
 /**
+ * Rockets of the player's rocket launcher and of the commanders, that
+ * fly straight and very slowly drop until they blow up on what they hit.
  *
  * @author Carlos Rodriguez.
  * @version 1.0
  * @since 2018
  */
-public class pRocket extends GameComponent {
+public class pRocket extends Projectile {
+	
+	/** Most rockets for every particles level. */
+	public static final int[] 			LIMITS = {16, 16, 32, 32};
     
-	private static final String RES_LOC = "Rocket/";
-	private static final float	SPEED = 7.5f;
+	private static final String 		RES_LOC = "Rocket/";
+	private static final float 			SIZE = 0.25f;
+	private static final float			SPEED = 7.5f;
+	private static final float 			LIGHT_INTENSITY = 0.2f;
 	
-    private static Mesh 		mesh;
-    private static Material 	material;
-    private MeshRenderer 		meshRenderer;
-    private float 				sizeX;
-    private float 				upAmt = 0;
-    private int 				state;
-    private boolean 			playerShoots;
-
-    private PointLight 			light;
-    private Transform 			transform;
-    private Vector3f 			objetiveOrientation;
-    private Explosion 			explosion;
+    private final boolean 				playerShoots;
+    private final Vector3f 				position = new Vector3f(0, 0, 0);
 
     /**
-     * Constructor of the actual object.
-     * @param transform the transform of the data.
+     * Constructor of the definition.
+     * @param playerShoots if they are the player's rockets, that fly away
+     * from the player, or the commanders', that fly to the player.
      */
-    public pRocket(Transform transform, boolean playerShoots) {
-        if (mesh == null) {
-            float sizeY = 0.25f;
-            sizeX = sizeY;
-
-            float offsetX = 0.0f;
-            float offsetY = 0.0f;
-
-            float texMinX = -offsetX;
-            float texMaxX = -1 - offsetX;
-            float texMinY = -offsetY;
-            float texMaxY = 1 - offsetY;
-
-            Vertex[] verts = new Vertex[]{new Vertex(new Vector3f(-sizeX, 0, 0), new Vector2f(texMaxX, texMaxY)),
-                new Vertex(new Vector3f(-sizeX, sizeY, 0), new Vector2f(texMaxX, texMinY)),
-                new Vertex(new Vector3f(sizeX, sizeY, 0), new Vector2f(texMinX, texMinY)),
-                new Vertex(new Vector3f(sizeX, 0, 0), new Vector2f(texMinX, texMaxY))};
-
-            int[] indices = new int[]{0, 1, 2,
-                                    0, 2, 3};
-
-            mesh = new Mesh(verts, indices, true);
-        }
-
-    	if(playerShoots)
-    		material = new Material(new Texture(RES_LOC+"MISLA5"));
-    	else
-    		material = new Material(new Texture(RES_LOC+"MISLA1"));
-        this.transform = transform;
-        this.meshRenderer = new MeshRenderer(mesh, getTransform(), material);
-        if(playerShoots)
-        	objetiveOrientation = this.transform.getPosition().sub(Level.getPlayer().getCamera().getPos()).mul(-1);
-    	else
-        	objetiveOrientation = this.transform.getPosition().sub(Level.getPlayer().getCamera().getPos());
-        this.state = 0;
-        this.playerShoots = playerShoots;
-        this.light = new PointLight(new Vector3f(0.5f,0.5f,0.1f), 0.2f, 
- 			   new Attenuation(0,0,1), getTransform().getPosition());
-        this.light.addToEngine();
+    public pRocket(boolean playerShoots) {
+    	super(new Texture[][] {{new Texture(RES_LOC + (playerShoots ? "MISLA5" : "MISLA1"))}}, SIZE, SIZE, 1, LIMITS,
+    			new Vector3f(0.5f, 0.5f, 0.1f), -GRAVITY/(SPEED * 100));
+    	this.playerShoots = playerShoots;
     }
-
+    
     /**
-     * Updates the object every single frame.
-     * @param delta of time
+     * Aims the rocket along the line from the player's eye.
+     * @param system of the particle.
+     * @param i index of the particle.
      */
-    public void update(double delta) {
-    	if(state == 0) {
-	    	Vector3f playerDistance = transform.getPosition().sub(Level.getPlayer().getCamera().getPos());
-	        Vector3f orientation = playerDistance.normalized();
-			float distance = playerDistance.length();
-	        setDistance(distance);
-	
-	        float angle = (float) Math.toDegrees(Math.atan(orientation.getZ() / orientation.getX()));
-	
-	        if (orientation.getX() > 0)
-	            angle = 180 + angle;
-	        
-	        transform.setRotation(0, angle + 90, 0);
-	        light.setPosition(transform.getPosition());
-	        
-	        upAmt -= (GRAVITY/(SPEED * 100)) * delta;
-            transform.setPosition(transform.getPosition().add(new Vector3f(0, (float) (upAmt * delta), 0)));
-            if(transform.getPosition().getY() == 0) {
-            	upAmt = 0;
-            	transform.getPosition().setY(0);
-            	state = 1;
-            }
-	        
-	        objetiveOrientation.setY(0);
-	        float moveSpeed = SPEED;
-	
-	        Vector3f oldPos = transform.getPosition();
-	        Vector3f newPos = transform.getPosition().add(objetiveOrientation.mul((float) (-moveSpeed * delta)));
-	
-	        Vector3f collisionVector = Auschwitz.getLevel().checkCollisions(oldPos, newPos, sizeX, sizeX);
-	
-	        Vector3f movementVector = collisionVector.mul(objetiveOrientation.normalized());
-	        
-	        if (movementVector.length() > 0.33f)
-	            transform.setPosition(transform.getPosition().add(movementVector.mul((float) (-moveSpeed * delta))));
-	        else
-	        	state = 1; 
-
-	        if(playerShoots && Auschwitz.getLevel().getShootingObjective() != null) {
-		        if(getTransform().getPosition().sub(Auschwitz.getLevel().getShootingObjective().getTransform().getPosition()).length() < 1.0f)
-		        	state = 1;
-	        } else if(!playerShoots) {
-	        	if(getTransform().getPosition().sub(Level.getPlayer().getTransform().getPosition()).length() < 0.33f)
-		        	state = 1;
-	        }
-    	}
-    	if(state == 1){
-    		light.removeToEngine();
-    		if(explosion == null)
-    			explosion = new Explosion(new Transform(getTransform().getPosition()));
-    		explosion.update(delta);
-    		if (explosion.getState() == 2)
-    			state = 2;
-    	}
-    	if(state == 2) {
-    		if(playerShoots)
-				Level.getPlayer().removeRocket(this);
-    		else
-    			Commander.removeRocket(this);
+    protected void spawned(ParticleSystem system, int i) {
+    	Vector3f eye = Level.getPlayer().getCamera().getPos();
+        float x = system.getX(i) - eye.getX();
+        float z = system.getZ(i) - eye.getZ();
+        float length = (float) Math.sqrt(x * x + z * z);
+        float speed = playerShoots ? SPEED : -SPEED;
+        if(length > 0)
+        	system.setVelocity(i, x / length * speed, 0, z / length * speed);
+    }
+    
+    /**
+     * Checks if the rocket got to the shooting objective, or to the
+     * player if it's a commander's.
+     * @param system of the particle.
+     * @param i index of the particle.
+     * @return If it reached it.
+     */
+    protected boolean reached(ParticleSystem system, int i) {
+    	if(playerShoots) {
+    		GameComponent objective = Auschwitz.getLevel().getShootingObjective();
+    		return objective != null && getDistance(system, i, objective.getTransform().getPosition()) < 1.0f;
     	}
+    	return getDistance(system, i, Level.getPlayer().getTransform().getPosition()) < 0.33f;
     }
-
+    
     /**
-     * Method that renders the object's mesh.
-     * @param shader to render
-     * @param renderingEngine to use
+     * Blows the rocket up where it hit.
+     * @param system of the particle.
+     * @param i index of the particle.
+     * @return If it dies, always.
      */
-    public void render(Shader shader, RenderingEngine renderingEngine) {
-    	if(state == 0)
-    		meshRenderer.render(shader, renderingEngine);
-    	if(state == 1)
-    		explosion.render(shader, renderingEngine);
+    protected boolean hit(ParticleSystem system, int i) {
+    	Auschwitz.getLevel().addExplosion(position.set(system.getX(i), system.getY(i), system.getZ(i)));
+    	return true;
     }
     
     /**
-     * Gets the transform of the object in projection.
-     * @return transform.
+     * Shows the only frame for as long as the rocket flies, until it
+     * hits something.
+     * @param phase of the animation.
+     * @return Frame.
      */
-	public Transform getTransform() {return transform;}
-	
-	/**
-	 * Gets the size of the object in the 3D space and saves it on a vector.
-	 * @return the vector size.
-	 */
-    public Vector2f getSize() {return new Vector2f(sizeX, sizeX);}
+    protected int getFrame(double phase) {return 0;}
+    
+    /**
+     * Returns the intensity of the lights of the rockets.
+     * @return Intensity.
+     */
+    public float getLightIntensity() {return LIGHT_INTENSITY;}
     
-}
\ No newline at end of file
+}
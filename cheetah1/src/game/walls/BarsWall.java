@@ -111,8 +111,7 @@ public class BarsWall extends GameComponent {
      * Checks the distance from the point of view.
      */
     public void checkDistance() {
-    	Vector3f playerDistance = transform.getPosition().sub(Level.getPlayer().getCamera().getPos());
-        setDistance(playerDistance.length());
+    	setDistance(transform.getPosition().distance(Level.getPlayer().getCamera().getPos()));
     }
     
     /**
@@ -128,9 +127,9 @@ public class BarsWall extends GameComponent {
      */
 	public Vector2f getSize() {
 		if (transform.getRotation().getY() == 0) {
-            return new Vector2f(Level.LEVEL_HEIGHT, Level.SPOT_WIDTH);
+            return getSize(Level.LEVEL_HEIGHT, Level.SPOT_WIDTH);
         } else {
-            return new Vector2f(Level.SPOT_WIDTH, Level.LEVEL_HEIGHT);
+            return getSize(Level.SPOT_WIDTH, Level.LEVEL_HEIGHT);
         }
 	}
 
@@ -139,7 +139,7 @@ public class Door extends GameComponent {
 
         opening = true;
         closing = false;
-        AudioUtil.playAudio(openNoise, transform.getPosition().sub(Level.getPlayer().getCamera().getPos()).length());
+        AudioUtil.playAudio(openNoise, transform.getPosition().distance(Level.getPlayer().getCamera().getPos()));
     }
 
     /**
@@ -147,8 +147,7 @@ public class Door extends GameComponent {
      * @param delta of time
      */
     public void update(double delta) {
-    	Vector3f playerDistance = transform.getPosition().sub(Level.getPlayer().getCamera().getPos());
-        float distance = playerDistance.length();
+    	float distance = transform.getPosition().distance(Level.getPlayer().getCamera().getPos());
         setDistance(distance);
         if (opening) {
             double time = Time.getTime();
@@ -162,7 +161,7 @@ public class Door extends GameComponent {
                 open = true;
             } else if (time > startCloseTime && time < closeTime) {
                 if (!closing) {
-                    AudioUtil.playAudio(closeNoise, transform.getPosition().sub(Level.getPlayer().getCamera().getPos()).length());
+                    AudioUtil.playAudio(closeNoise, transform.getPosition().distance(Level.getPlayer().getCamera().getPos()));
                 }
 
                 closing = true;
@@ -205,9 +204,9 @@ public class Door extends GameComponent {
      */
     public Vector2f getSize() {
         if (transform.getRotation().getY() == 0) {
-            return new Vector2f(HEIGHT, WIDTH);
+            return getSize(HEIGHT, WIDTH);
         } else {
-            return new Vector2f(WIDTH, HEIGHT);
+            return getSize(WIDTH, HEIGHT);
         }
     }
     
@@ -153,7 +153,7 @@ public class LockedDoor extends GameComponent {
 
         opening = true;
         closing = false;
-        AudioUtil.playAudio(openNoise, transform.getPosition().sub(Level.getPlayer().getCamera().getPos()).length());
+        AudioUtil.playAudio(openNoise, transform.getPosition().distance(Level.getPlayer().getCamera().getPos()));
     }
 
     /**
@@ -161,8 +161,7 @@ public class LockedDoor extends GameComponent {
      * @param delta of time
      */
     public void update(double delta) {
-    	Vector3f playerDistance = transform.getPosition().sub(Level.getPlayer().getCamera().getPos());
-        float distance = playerDistance.length();
+    	float distance = transform.getPosition().distance(Level.getPlayer().getCamera().getPos());
         setDistance(distance);
         if (opening) {
             double time = Time.getTime();
@@ -176,7 +175,7 @@ public class LockedDoor extends GameComponent {
                 open = true;
             } else if (time > startCloseTime && time < closeTime) {
                 if (!closing) {
-                    AudioUtil.playAudio(closeNoise, transform.getPosition().sub(Level.getPlayer().getCamera().getPos()).length());
+                    AudioUtil.playAudio(closeNoise, transform.getPosition().distance(Level.getPlayer().getCamera().getPos()));
                 }
 
                 closing = true;
@@ -219,9 +218,9 @@ public class LockedDoor extends GameComponent {
      */
     public Vector2f getSize() {
         if (transform.getRotation().getY() == 0) {
-            return new Vector2f(HEIGHT, WIDTH);
+            return getSize(HEIGHT, WIDTH);
         } else {
-            return new Vector2f(WIDTH, HEIGHT);
+            return getSize(WIDTH, HEIGHT);
         }
     }
     
@@ -135,7 +135,7 @@ public class SecretWall extends GameComponent {
 
         opening = true;
         if(opening == true)
-        AudioUtil.playAudio(openNoise, transform.getPosition().sub(Level.getPlayer().getCamera().getPos()).length());
+        AudioUtil.playAudio(openNoise, transform.getPosition().distance(Level.getPlayer().getCamera().getPos()));
     }
 
     /**
@@ -143,8 +143,7 @@ public class SecretWall extends GameComponent {
      * @param delta of time
      */
     public void update(double delta) {
-    	Vector3f playerDistance = transform.getPosition().sub(Level.getPlayer().getCamera().getPos());
-        float distance = playerDistance.length();
+    	float distance = transform.getPosition().distance(Level.getPlayer().getCamera().getPos());
         setDistance(distance);
         if (opening) {
             double time = Time.getTime();
@@ -190,9 +189,9 @@ public class SecretWall extends GameComponent {
      */
     public Vector2f getSize() {
         if (transform.getRotation().getY() == 0) {
-            return new Vector2f(HEIGHT, WIDTH);
+            return getSize(HEIGHT, WIDTH);
         } else {
-            return new Vector2f(WIDTH, HEIGHT);
+            return getSize(WIDTH, HEIGHT);
         }
     }
     
@@ -19,7 +19,6 @@ import engine.components.GameComponent;
 import engine.components.MeshRenderer;
 import engine.core.Transform;
 import engine.core.Vector2f;
-import engine.core.Vector3f;
 import engine.rendering.Material;
 import engine.rendering.Mesh;
 import engine.rendering.RenderingEngine;
@@ -57,8 +56,7 @@ public class Wall extends GameComponent {
      * Checks the distance from the point of view.
      */
     public void checkDistance() {
-    	Vector3f playerDistance = transform.getPosition().sub(Level.getPlayer().getCamera().getPos());
-        setDistance(playerDistance.length());
+    	setDistance(transform.getPosition().distance(Level.getPlayer().getCamera().getPos()));
     }
     
     /**
@@ -74,9 +72,9 @@ public class Wall extends GameComponent {
      */
 	public Vector2f getSize() {
 		if (transform.getRotation().getY() == 0) {
-            return new Vector2f(Level.LEVEL_HEIGHT, Level.SPOT_WIDTH);
+            return getSize(Level.LEVEL_HEIGHT, Level.SPOT_WIDTH);
         } else {
-            return new Vector2f(Level.SPOT_WIDTH, Level.LEVEL_HEIGHT);
+            return getSize(Level.SPOT_WIDTH, Level.LEVEL_HEIGHT);
         }
 	}
 